@@ -45,6 +45,16 @@ public final class Events {
 	 */
 	public static final String EVENT_CLEAR_PERMISSION_STORE = "mesh.clear-permission-store";
 
+	/**
+	 * Event which is send to invalidate the cached permissions of a specific element, user or role.
+	 */
+	public static final String EVENT_INVALIDATE_PERMISSION_STORE = "mesh.invalidate-permission-store";
+
+	/**
+	 * Event which is send to update or invalidate the webroot path trie of a release.
+	 */
+	public static final String EVENT_INVALIDATE_WEBROOT_PATHS = "mesh.invalidate-webroot-paths";
+
 	/* User */
 
 	public static final String EVENT_USER_CREATED = "mesh.user.created";
@@ -145,6 +155,8 @@ public final class Events {
 
 		events.add(EVENT_CLUSTER_DATABASE_CHANGE_STATUS);
 		events.add(EVENT_CLEAR_PERMISSION_STORE);
+		events.add(EVENT_INVALIDATE_PERMISSION_STORE);
+		events.add(EVENT_INVALIDATE_WEBROOT_PATHS);
 
 		/* User */
 
@@ -0,0 +1,135 @@
+package com.gentics.mesh.etc.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.gentics.mesh.doc.GenerateDocumentation;
+
+/**
+ * Options for the internal caches of Gentics Mesh.
+ */
+@GenerateDocumentation
+public class CacheOptions {
+
+	public static final long DEFAULT_PERMISSION_CACHE_SIZE = 100_000;
+
+	public static final long DEFAULT_PERMISSION_INDEX_SIZE = 1_000;
+
+	public static final long DEFAULT_LINK_CACHE_SIZE = 10_000;
+
+	public static final long DEFAULT_GRAPHQL_QUERY_CACHE_SIZE = 1_000;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Maximum amount of elements for which permissions are cached. Default: " + DEFAULT_PERMISSION_CACHE_SIZE)
+	private long permissionCacheSize = DEFAULT_PERMISSION_CACHE_SIZE;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Maximum amount of roles for which the readable elements are kept in memory. The index is used to quickly filter paged lists. Setting the size to 0 will disable the index. Default: "
+			+ DEFAULT_PERMISSION_INDEX_SIZE)
+	private long permissionIndexSize = DEFAULT_PERMISSION_INDEX_SIZE;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Maximum amount of resolved links which are cached per release. Setting the size to 0 will disable the cache. Default: "
+			+ DEFAULT_LINK_CACHE_SIZE)
+	private long linkCacheSize = DEFAULT_LINK_CACHE_SIZE;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Maximum amount of parsed and validated GraphQL queries which are cached. The same amount of persisted queries is kept. Setting the size to 0 will disable the cache and persisted queries. Default: "
+			+ DEFAULT_GRAPHQL_QUERY_CACHE_SIZE)
+	private long graphQLQueryCacheSize = DEFAULT_GRAPHQL_QUERY_CACHE_SIZE;
+
+	/**
+	 * Return the maximum amount of elements for which permissions are cached.
+	 * 
+	 * @return
+	 */
+	public long getPermissionCacheSize() {
+		return permissionCacheSize;
+	}
+
+	/**
+	 * Set the maximum amount of elements for which permissions are cached.
+	 * 
+	 * @param permissionCacheSize
+	 * @return Fluent API
+	 */
+	public CacheOptions setPermissionCacheSize(long permissionCacheSize) {
+		this.permissionCacheSize = permissionCacheSize;
+		return this;
+	}
+
+	/**
+	 * Return the maximum amount of roles for which the readable elements are indexed.
+	 * 
+	 * @return
+	 */
+	public long getPermissionIndexSize() {
+		return permissionIndexSize;
+	}
+
+	/**
+	 * Set the maximum amount of roles for which the readable elements are indexed.
+	 * 
+	 * @param permissionIndexSize
+	 * @return Fluent API
+	 */
+	public CacheOptions setPermissionIndexSize(long permissionIndexSize) {
+		this.permissionIndexSize = permissionIndexSize;
+		return this;
+	}
+
+	/**
+	 * Return the maximum amount of resolved links which are cached per release.
+	 * 
+	 * @return
+	 */
+	public long getLinkCacheSize() {
+		return linkCacheSize;
+	}
+
+	/**
+	 * Set the maximum amount of resolved links which are cached per release.
+	 * 
+	 * @param linkCacheSize
+	 * @return Fluent API
+	 */
+	public CacheOptions setLinkCacheSize(long linkCacheSize) {
+		this.linkCacheSize = linkCacheSize;
+		return this;
+	}
+
+	/**
+	 * Return the maximum amount of parsed GraphQL queries which are cached.
+	 * 
+	 * @return
+	 */
+	public long getGraphQLQueryCacheSize() {
+		return graphQLQueryCacheSize;
+	}
+
+	/**
+	 * Set the maximum amount of parsed GraphQL queries which are cached.
+	 * 
+	 * @param graphQLQueryCacheSize
+	 * @return Fluent API
+	 */
+	public CacheOptions setGraphQLQueryCacheSize(long graphQLQueryCacheSize) {
+		this.graphQLQueryCacheSize = graphQLQueryCacheSize;
+		return this;
+	}
+
+	public void validate(MeshOptions meshOptions) {
+		if (permissionCacheSize < 0) {
+			throw new IllegalArgumentException("The permission cache size must not be negative.");
+		}
+		if (permissionIndexSize < 0) {
+			throw new IllegalArgumentException("The permission index size must not be negative.");
+		}
+		if (linkCacheSize < 0) {
+			throw new IllegalArgumentException("The link cache size must not be negative.");
+		}
+		if (graphQLQueryCacheSize < 0) {
+			throw new IllegalArgumentException("The GraphQL query cache size must not be negative.");
+		}
+	}
+
+}
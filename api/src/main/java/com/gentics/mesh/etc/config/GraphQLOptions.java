@@ -0,0 +1,102 @@
+package com.gentics.mesh.etc.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.gentics.mesh.doc.GenerateDocumentation;
+
+/**
+ * Options for the GraphQL endpoint.
+ */
+@GenerateDocumentation
+public class GraphQLOptions {
+
+	public static final int DEFAULT_MAX_QUERY_DEPTH = 15;
+
+	public static final long DEFAULT_MAX_QUERY_COST = 50_000;
+
+	public static final boolean DEFAULT_REJECT_EXPENSIVE_QUERIES = false;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Maximum nesting depth of the fields of a query. Setting the depth to 0 will disable the check. Default: " + DEFAULT_MAX_QUERY_DEPTH)
+	private int maxQueryDepth = DEFAULT_MAX_QUERY_DEPTH;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Maximum estimated cost of a query. The cost is estimated before the query is executed. Each field adds to the cost. The cost of the fields within paged or listed elements is multiplied by the requested page size. Resolving paths and links adds additional cost. Setting the cost to 0 will disable the check. Default: "
+			+ DEFAULT_MAX_QUERY_COST)
+	private long maxQueryCost = DEFAULT_MAX_QUERY_COST;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Flag which indicates whether queries which exceed the maximum depth or cost should be rejected. Otherwise these queries will only be logged and counted in the rejected queries metric. Default: "
+			+ DEFAULT_REJECT_EXPENSIVE_QUERIES)
+	private boolean rejectExpensiveQueries = DEFAULT_REJECT_EXPENSIVE_QUERIES;
+
+	/**
+	 * Return the maximum nesting depth of the fields of a query.
+	 *
+	 * @return
+	 */
+	public int getMaxQueryDepth() {
+		return maxQueryDepth;
+	}
+
+	/**
+	 * Set the maximum nesting depth of the fields of a query.
+	 *
+	 * @param maxQueryDepth
+	 * @return Fluent API
+	 */
+	public GraphQLOptions setMaxQueryDepth(int maxQueryDepth) {
+		this.maxQueryDepth = maxQueryDepth;
+		return this;
+	}
+
+	/**
+	 * Return the maximum estimated cost of a query.
+	 *
+	 * @return
+	 */
+	public long getMaxQueryCost() {
+		return maxQueryCost;
+	}
+
+	/**
+	 * Set the maximum estimated cost of a query.
+	 *
+	 * @param maxQueryCost
+	 * @return Fluent API
+	 */
+	public GraphQLOptions setMaxQueryCost(long maxQueryCost) {
+		this.maxQueryCost = maxQueryCost;
+		return this;
+	}
+
+	/**
+	 * Check whether queries which exceed the limits should be rejected.
+	 *
+	 * @return
+	 */
+	public boolean isRejectExpensiveQueries() {
+		return rejectExpensiveQueries;
+	}
+
+	/**
+	 * Set the flag which indicates whether queries which exceed the limits should be rejected.
+	 *
+	 * @param rejectExpensiveQueries
+	 * @return Fluent API
+	 */
+	public GraphQLOptions setRejectExpensiveQueries(boolean rejectExpensiveQueries) {
+		this.rejectExpensiveQueries = rejectExpensiveQueries;
+		return this;
+	}
+
+	public void validate(MeshOptions meshOptions) {
+		if (maxQueryDepth < 0) {
+			throw new IllegalArgumentException("The maximum GraphQL query depth must not be negative.");
+		}
+		if (maxQueryCost < 0) {
+			throw new IllegalArgumentException("The maximum GraphQL query cost must not be negative.");
+		}
+	}
+
+}
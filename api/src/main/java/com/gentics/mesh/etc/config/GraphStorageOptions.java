@@ -17,6 +17,11 @@ public class GraphStorageOptions {
 	public static final String DEFAULT_DIRECTORY = "data" + File.separator + "graphdb";
 	public static final String DEFAULT_BACKUP_DIRECTORY = "data" + File.separator + "backup";
 	public static final String DEFAULT_EXPORT_DIRECTORY = "data" + File.separator + "export";
+	public static final int DEFAULT_TX_POOL_SIZE = 20;
+	public static final int DEFAULT_TX_QUEUE_SIZE = 1000;
+	public static final double DEFAULT_TX_DIAGNOSTICS_SAMPLE_RATE = 0;
+	public static final long DEFAULT_TX_RETRY_DELAY = 10;
+	public static final long DEFAULT_TX_RETRY_MAX_DELAY = 1000;
 
 	@JsonProperty(required = true)
 	@JsonPropertyDescription("Path to the graph database data directory.")
@@ -34,6 +39,30 @@ public class GraphStorageOptions {
 	@JsonPropertyDescription("Flag which indicates whether the graph database admin web server should be started.")
 	private Boolean startServer = false;
 
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Amount of threads which are used to execute asynchronous transactions. Default: " + DEFAULT_TX_POOL_SIZE)
+	private int txPoolSize = DEFAULT_TX_POOL_SIZE;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Maximum amount of asynchronous transactions which may wait for a thread. Further transactions are rejected with a 503 error. Default: "
+			+ DEFAULT_TX_QUEUE_SIZE)
+	private int txQueueSize = DEFAULT_TX_QUEUE_SIZE;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Fraction of asynchronous transactions (0.0 - 1.0) for which the calling stacktrace is recorded. The stacktrace is logged when the transaction times out. Stacktraces are always recorded when debug logging is enabled for the transaction executor. Default: "
+			+ DEFAULT_TX_DIAGNOSTICS_SAMPLE_RATE)
+	private double txDiagnosticsSampleRate = DEFAULT_TX_DIAGNOSTICS_SAMPLE_RATE;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Base delay in milliseconds before a transaction which failed due to a concurrent modification is retried. The delay grows exponentially with each retry and is randomized. Default: "
+			+ DEFAULT_TX_RETRY_DELAY)
+	private long txRetryDelay = DEFAULT_TX_RETRY_DELAY;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Maximum delay in milliseconds before a transaction which failed due to a concurrent modification is retried. Default: "
+			+ DEFAULT_TX_RETRY_MAX_DELAY)
+	private long txRetryMaxDelay = DEFAULT_TX_RETRY_MAX_DELAY;
+
 	@JsonProperty(required = false)
 	@JsonPropertyDescription("Additional set of graph database parameters.")
 	private Map<String, String> parameters = new HashMap<>();
@@ -142,10 +171,122 @@ public class GraphStorageOptions {
 		return this;
 	}
 
+	/**
+	 * Return the amount of threads which are used to execute asynchronous transactions.
+	 * 
+	 * @return
+	 */
+	public int getTxPoolSize() {
+		return txPoolSize;
+	}
+
+	/**
+	 * Set the amount of threads which are used to execute asynchronous transactions.
+	 * 
+	 * @param txPoolSize
+	 * @return Fluent API
+	 */
+	public GraphStorageOptions setTxPoolSize(int txPoolSize) {
+		this.txPoolSize = txPoolSize;
+		return this;
+	}
+
+	/**
+	 * Return the maximum amount of asynchronous transactions which may wait for a thread.
+	 * 
+	 * @return
+	 */
+	public int getTxQueueSize() {
+		return txQueueSize;
+	}
+
+	/**
+	 * Set the maximum amount of asynchronous transactions which may wait for a thread.
+	 * 
+	 * @param txQueueSize
+	 * @return Fluent API
+	 */
+	public GraphStorageOptions setTxQueueSize(int txQueueSize) {
+		this.txQueueSize = txQueueSize;
+		return this;
+	}
+
+	/**
+	 * Return the fraction of asynchronous transactions for which the calling stacktrace is recorded.
+	 * 
+	 * @return
+	 */
+	public double getTxDiagnosticsSampleRate() {
+		return txDiagnosticsSampleRate;
+	}
+
+	/**
+	 * Set the fraction of asynchronous transactions for which the calling stacktrace is recorded.
+	 * 
+	 * @param txDiagnosticsSampleRate
+	 * @return Fluent API
+	 */
+	public GraphStorageOptions setTxDiagnosticsSampleRate(double txDiagnosticsSampleRate) {
+		this.txDiagnosticsSampleRate = txDiagnosticsSampleRate;
+		return this;
+	}
+
+	/**
+	 * Return the base delay in milliseconds for transaction retries.
+	 * 
+	 * @return
+	 */
+	public long getTxRetryDelay() {
+		return txRetryDelay;
+	}
+
+	/**
+	 * Set the base delay in milliseconds for transaction retries.
+	 * 
+	 * @param txRetryDelay
+	 * @return Fluent API
+	 */
+	public GraphStorageOptions setTxRetryDelay(long txRetryDelay) {
+		this.txRetryDelay = txRetryDelay;
+		return this;
+	}
+
+	/**
+	 * Return the maximum delay in milliseconds for transaction retries.
+	 * 
+	 * @return
+	 */
+	public long getTxRetryMaxDelay() {
+		return txRetryMaxDelay;
+	}
+
+	/**
+	 * Set the maximum delay in milliseconds for transaction retries.
+	 * 
+	 * @param txRetryMaxDelay
+	 * @return Fluent API
+	 */
+	public GraphStorageOptions setTxRetryMaxDelay(long txRetryMaxDelay) {
+		this.txRetryMaxDelay = txRetryMaxDelay;
+		return this;
+	}
+
 	public void validate(MeshOptions meshOptions) {
 		if (getStartServer() && getDirectory() == null) {
 			throw new NullPointerException(
 					"You have not specified a data directory and enabled the graph server. It is not possible to run Gentics Mesh in memory mode and start the graph server.");
 		}
+		if (getTxPoolSize() < 1) {
+			throw new IllegalArgumentException("The transaction pool size must be greater than zero.");
+		}
+		if (getTxQueueSize() < 1) {
+			throw new IllegalArgumentException("The transaction queue size must be greater than zero.");
+		}
+		if (getTxDiagnosticsSampleRate() < 0 || getTxDiagnosticsSampleRate() > 1) {
+			throw new IllegalArgumentException("The transaction diagnostics sample rate must be between 0 and 1.");
+		}
+		if (getTxRetryDelay() < 1 || getTxRetryMaxDelay() < getTxRetryDelay()) {
+			throw new IllegalArgumentException("The transaction retry delay must be greater than zero and must not exceed the maximum retry delay.");
+		}
 	}
 }
@@ -12,6 +12,14 @@ import com.gentics.mesh.doc.GenerateDocumentation;
 @GenerateDocumentation
 public class ImageManipulatorOptions {
 
+	public static final long DEFAULT_IMAGE_CACHE_MAX_SIZE = 1024L * 1024 * 1024;
+
+	public static final int DEFAULT_RESIZE_POOL_SIZE = 5;
+
+	public static final int DEFAULT_RESIZE_QUEUE_SIZE = 100;
+
+	public static final boolean DEFAULT_DECODE_SUBSAMPLING = true;
+
 	private String imageCacheDirectory = "data" + File.separator + "binaryImageCache";
 
 	@JsonProperty(required = false)
@@ -22,6 +30,25 @@ public class ImageManipulatorOptions {
 	@JsonPropertyDescription("Configure the maximum allowed image resize height. Resizing is a memory intensive operation and thus this limit can help avoid memory issues.")
 	private Integer maxHeight = 2048;
 
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Maximum size of the resized images in the image cache directory in bytes. The least recently used images will be removed once the size is exceeded. Setting the size to 0 will disable the limit. Default: "
+			+ DEFAULT_IMAGE_CACHE_MAX_SIZE)
+	private long imageCacheMaxSize = DEFAULT_IMAGE_CACHE_MAX_SIZE;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Amount of threads which are used to resize images. Default: " + DEFAULT_RESIZE_POOL_SIZE)
+	private int resizePoolSize = DEFAULT_RESIZE_POOL_SIZE;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Maximum amount of resize operations which wait for a free resize thread. Further requests will be rejected with 503 Service Unavailable. Setting the size to 0 will disable the limit. Default: "
+			+ DEFAULT_RESIZE_QUEUE_SIZE)
+	private int resizeQueueSize = DEFAULT_RESIZE_QUEUE_SIZE;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Flag which indicates whether large images should be subsampled while decoding when they are scaled down. This reduces the memory and CPU usage of resize operations at a small cost of quality. Default: "
+			+ DEFAULT_DECODE_SUBSAMPLING)
+	private boolean decodeSubsampling = DEFAULT_DECODE_SUBSAMPLING;
+
 	/**
 	 * Return the binary image cache directory.
 	 * 
@@ -82,8 +109,95 @@ public class ImageManipulatorOptions {
 		return this;
 	}
 
-	public void validate(MeshOptions meshOptions) {
-		// TODO Auto-generated method stub
+	/**
+	 * Return the maximum size of the image cache in bytes.
+	 * 
+	 * @return
+	 */
+	public long getImageCacheMaxSize() {
+		return imageCacheMaxSize;
+	}
+
+	/**
+	 * Set the maximum size of the image cache in bytes.
+	 * 
+	 * @param imageCacheMaxSize
+	 * @return Fluent API
+	 */
+	public ImageManipulatorOptions setImageCacheMaxSize(long imageCacheMaxSize) {
+		this.imageCacheMaxSize = imageCacheMaxSize;
+		return this;
+	}
 
+	/**
+	 * Return the amount of threads which are used to resize images.
+	 * 
+	 * @return
+	 */
+	public int getResizePoolSize() {
+		return resizePoolSize;
+	}
+
+	/**
+	 * Set the amount of threads which are used to resize images.
+	 * 
+	 * @param resizePoolSize
+	 * @return Fluent API
+	 */
+	public ImageManipulatorOptions setResizePoolSize(int resizePoolSize) {
+		this.resizePoolSize = resizePoolSize;
+		return this;
+	}
+
+	/**
+	 * Return the maximum amount of waiting resize operations.
+	 * 
+	 * @return
+	 */
+	public int getResizeQueueSize() {
+		return resizeQueueSize;
+	}
+
+	/**
+	 * Set the maximum amount of waiting resize operations.
+	 * 
+	 * @param resizeQueueSize
+	 * @return Fluent API
+	 */
+	public ImageManipulatorOptions setResizeQueueSize(int resizeQueueSize) {
+		this.resizeQueueSize = resizeQueueSize;
+		return this;
+	}
+
+	/**
+	 * Check whether images should be subsampled while decoding.
+	 * 
+	 * @return
+	 */
+	public boolean isDecodeSubsampling() {
+		return decodeSubsampling;
+	}
+
+	/**
+	 * Set the flag which indicates whether images should be subsampled while decoding.
+	 * 
+	 * @param decodeSubsampling
+	 * @return Fluent API
+	 */
+	public ImageManipulatorOptions setDecodeSubsampling(boolean decodeSubsampling) {
+		this.decodeSubsampling = decodeSubsampling;
+		return this;
+	}
+
+	public void validate(MeshOptions meshOptions) {
+		if (imageCacheMaxSize < 0) {
+			throw new IllegalArgumentException("The maximum image cache size must not be negative.");
+		}
+		if (resizePoolSize < 1) {
+			throw new IllegalArgumentException("The image resize pool size must be at least 1.");
+		}
+		if (resizeQueueSize < 0) {
+			throw new IllegalArgumentException("The image resize queue size must not be negative.");
+		}
 	}
 }
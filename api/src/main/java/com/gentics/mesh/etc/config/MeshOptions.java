@@ -60,6 +60,18 @@ public class MeshOptions {
 	@JsonPropertyDescription("Image handling options.")
 	private ImageManipulatorOptions imageOptions = new ImageManipulatorOptions();
 
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Cache options.")
+	private CacheOptions cacheOptions = new CacheOptions();
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Schema migration options.")
+	private MigrationOptions migrationOptions = new MigrationOptions();
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("GraphQL options.")
+	private GraphQLOptions graphQLOptions = new GraphQLOptions();
+
 	@JsonProperty(required = false)
 	@JsonPropertyDescription("Path to the central tmp directory.")
 	private String tempDirectory = "data" + File.separator + "tmp";
@@ -254,6 +266,69 @@ public class MeshOptions {
 		return this;
 	}
 
+	/**
+	 * Return the cache options.
+	 * 
+	 * @return
+	 */
+	@JsonProperty("cache")
+	public CacheOptions getCacheOptions() {
+		return cacheOptions;
+	}
+
+	/**
+	 * Set the cache options.
+	 * 
+	 * @param cacheOptions
+	 * @return Fluent API
+	 */
+	public MeshOptions setCacheOptions(CacheOptions cacheOptions) {
+		this.cacheOptions = cacheOptions;
+		return this;
+	}
+
+	/**
+	 * Return the GraphQL options.
+	 * 
+	 * @return
+	 */
+	@JsonProperty("graphQL")
+	public GraphQLOptions getGraphQLOptions() {
+		return graphQLOptions;
+	}
+
+	/**
+	 * Set the GraphQL options.
+	 * 
+	 * @param graphQLOptions
+	 * @return Fluent API
+	 */
+	public MeshOptions setGraphQLOptions(GraphQLOptions graphQLOptions) {
+		this.graphQLOptions = graphQLOptions;
+		return this;
+	}
+
+	/**
+	 * Return the migration options.
+	 * 
+	 * @return
+	 */
+	@JsonProperty("migration")
+	public MigrationOptions getMigrationOptions() {
+		return migrationOptions;
+	}
+
+	/**
+	 * Set the migration options.
+	 * 
+	 * @param migrationOptions
+	 * @return Fluent API
+	 */
+	public MeshOptions setMigrationOptions(MigrationOptions migrationOptions) {
+		this.migrationOptions = migrationOptions;
+		return this;
+	}
+
 	/**
 	 * Return update checker flag.
 	 * 
@@ -336,6 +411,15 @@ public class MeshOptions {
 		if (getImageOptions() != null) {
 			getImageOptions().validate(this);
 		}
+		if (getCacheOptions() != null) {
+			getCacheOptions().validate(this);
+		}
+		if (getMigrationOptions() != null) {
+			getMigrationOptions().validate(this);
+		}
+		if (getGraphQLOptions() != null) {
+			getGraphQLOptions().validate(this);
+		}
 
 		// TODO check for other invalid characters in node name
 	}
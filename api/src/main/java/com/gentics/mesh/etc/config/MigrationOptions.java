@@ -0,0 +1,75 @@
+package com.gentics.mesh.etc.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.gentics.mesh.doc.GenerateDocumentation;
+
+/**
+ * Options for schema migrations.
+ */
+@GenerateDocumentation
+public class MigrationOptions {
+
+	public static final int DEFAULT_POOL_SIZE = 4;
+
+	public static final int DEFAULT_CHUNK_SIZE = 50;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Amount of worker threads which migrate the containers of a node migration in parallel. Default: " + DEFAULT_POOL_SIZE)
+	private int poolSize = DEFAULT_POOL_SIZE;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Amount of containers which are migrated within a single transaction. Containers of the same node are always migrated within the same transaction. Default: "
+			+ DEFAULT_CHUNK_SIZE)
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	/**
+	 * Return the amount of migration worker threads.
+	 *
+	 * @return
+	 */
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	/**
+	 * Set the amount of migration worker threads.
+	 *
+	 * @param poolSize
+	 * @return Fluent API
+	 */
+	public MigrationOptions setPoolSize(int poolSize) {
+		this.poolSize = poolSize;
+		return this;
+	}
+
+	/**
+	 * Return the amount of containers which are migrated within a single transaction.
+	 *
+	 * @return
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Set the amount of containers which are migrated within a single transaction.
+	 *
+	 * @param chunkSize
+	 * @return Fluent API
+	 */
+	public MigrationOptions setChunkSize(int chunkSize) {
+		this.chunkSize = chunkSize;
+		return this;
+	}
+
+	public void validate(MeshOptions meshOptions) {
+		if (poolSize < 1) {
+			throw new IllegalArgumentException("The migration pool size must be at least 1.");
+		}
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("The migration chunk size must be at least 1.");
+		}
+	}
+
+}
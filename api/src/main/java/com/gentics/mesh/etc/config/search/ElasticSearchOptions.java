@@ -21,6 +21,24 @@ public class ElasticSearchOptions {
 
 	private static final long DEFAULT_TIMEOUT = 3000L;
 
+	public static final int DEFAULT_BULK_LIMIT = 1000;
+
+	public static final long DEFAULT_BULK_SIZE_LIMIT = 5 * 1024 * 1024;
+
+	public static final int DEFAULT_BULK_CONCURRENCY = 2;
+
+	public static final long DEFAULT_BULK_FLUSH_INTERVAL = 10L;
+
+	public static final int DEFAULT_BULK_RETRY_LIMIT = 3;
+
+	public static final int DEFAULT_BULK_QUEUE_LIMIT = 10_000;
+
+	public static final boolean DEFAULT_WRITE_BEHIND = false;
+
+	public static final long DEFAULT_WRITE_BEHIND_TIMEOUT = 60_000L;
+
+	public static final int DEFAULT_REINDEX_CHUNK_SIZE = 500;
+
 	@JsonProperty(required = true)
 	@JsonPropertyDescription("Elasticsearch hosts to be used. You can specify multiple hosts in order to loadbalance the requests. You can also specify no hosts in order to competely disable the Elasticsearch integration.")
 	private List<ElasticSearchHost> hosts = new ArrayList<>();
@@ -33,6 +51,48 @@ public class ElasticSearchOptions {
 	@JsonPropertyDescription("Flag which indicates whether to deploy and start the included Elasticsearch server.")
 	private boolean startEmbeddedES = true;
 
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Maximum amount of documents which are sent to Elasticsearch within a single bulk request. Default: " + DEFAULT_BULK_LIMIT)
+	private int bulkLimit = DEFAULT_BULK_LIMIT;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Maximum size of a single bulk request in bytes. Default: " + DEFAULT_BULK_SIZE_LIMIT)
+	private long bulkSizeLimit = DEFAULT_BULK_SIZE_LIMIT;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Maximum amount of bulk requests which are sent to Elasticsearch concurrently. Default: " + DEFAULT_BULK_CONCURRENCY)
+	private int bulkConcurrency = DEFAULT_BULK_CONCURRENCY;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Time in milliseconds which queued documents may wait for further documents before the bulk request is sent. Default: "
+			+ DEFAULT_BULK_FLUSH_INTERVAL + "ms")
+	private long bulkFlushInterval = DEFAULT_BULK_FLUSH_INTERVAL;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Amount of retries for documents which could not be stored or deleted within a bulk request. Default: "
+			+ DEFAULT_BULK_RETRY_LIMIT)
+	private int bulkRetryLimit = DEFAULT_BULK_RETRY_LIMIT;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Maximum amount of documents which are queued for bulk requests. Producers wait for free space once the limit has been reached. Default: "
+			+ DEFAULT_BULK_QUEUE_LIMIT)
+	private int bulkQueueLimit = DEFAULT_BULK_QUEUE_LIMIT;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Flag which enables the write-behind mode. Changes to the search index are stored in an outbox within the transaction of the write request and are applied by a background indexer. Requests can use the waitForIndex query parameter in order to wait for the index update. Default: "
+			+ DEFAULT_WRITE_BEHIND)
+	private boolean writeBehind = DEFAULT_WRITE_BEHIND;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Maximum time in milliseconds a request which uses the waitForIndex query parameter waits for the background indexer in write-behind mode. Default: "
+			+ DEFAULT_WRITE_BEHIND_TIMEOUT + "ms")
+	private long writeBehindTimeout = DEFAULT_WRITE_BEHIND_TIMEOUT;
+
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("Amount of elements which are loaded and transformed within a single transaction during a full reindex. Default: "
+			+ DEFAULT_REINDEX_CHUNK_SIZE)
+	private int reindexChunkSize = DEFAULT_REINDEX_CHUNK_SIZE;
+
 	public ElasticSearchOptions() {
 		hosts.add(DEFAULT_HOST);
 	}
@@ -81,10 +141,211 @@ public class ElasticSearchOptions {
 		return this;
 	}
 
+	/**
+	 * Return the maximum amount of documents per bulk request.
+	 * 
+	 * @return
+	 */
+	public int getBulkLimit() {
+		return bulkLimit;
+	}
+
+	/**
+	 * Set the maximum amount of documents per bulk request.
+	 * 
+	 * @param bulkLimit
+	 * @return Fluent API
+	 */
+	public ElasticSearchOptions setBulkLimit(int bulkLimit) {
+		this.bulkLimit = bulkLimit;
+		return this;
+	}
+
+	/**
+	 * Return the maximum size of a bulk request in bytes.
+	 * 
+	 * @return
+	 */
+	public long getBulkSizeLimit() {
+		return bulkSizeLimit;
+	}
+
+	/**
+	 * Set the maximum size of a bulk request in bytes.
+	 * 
+	 * @param bulkSizeLimit
+	 * @return Fluent API
+	 */
+	public ElasticSearchOptions setBulkSizeLimit(long bulkSizeLimit) {
+		this.bulkSizeLimit = bulkSizeLimit;
+		return this;
+	}
+
+	/**
+	 * Return the maximum amount of concurrent bulk requests.
+	 * 
+	 * @return
+	 */
+	public int getBulkConcurrency() {
+		return bulkConcurrency;
+	}
+
+	/**
+	 * Set the maximum amount of concurrent bulk requests.
+	 * 
+	 * @param bulkConcurrency
+	 * @return Fluent API
+	 */
+	public ElasticSearchOptions setBulkConcurrency(int bulkConcurrency) {
+		this.bulkConcurrency = bulkConcurrency;
+		return this;
+	}
+
+	/**
+	 * Return the time in milliseconds which queued documents wait before the bulk request is sent.
+	 * 
+	 * @return
+	 */
+	public long getBulkFlushInterval() {
+		return bulkFlushInterval;
+	}
+
+	/**
+	 * Set the time in milliseconds which queued documents wait before the bulk request is sent.
+	 * 
+	 * @param bulkFlushInterval
+	 * @return Fluent API
+	 */
+	public ElasticSearchOptions setBulkFlushInterval(long bulkFlushInterval) {
+		this.bulkFlushInterval = bulkFlushInterval;
+		return this;
+	}
+
+	/**
+	 * Return the amount of retries for documents which failed within a bulk request.
+	 * 
+	 * @return
+	 */
+	public int getBulkRetryLimit() {
+		return bulkRetryLimit;
+	}
+
+	/**
+	 * Set the amount of retries for documents which failed within a bulk request.
+	 * 
+	 * @param bulkRetryLimit
+	 * @return Fluent API
+	 */
+	public ElasticSearchOptions setBulkRetryLimit(int bulkRetryLimit) {
+		this.bulkRetryLimit = bulkRetryLimit;
+		return this;
+	}
+
+	/**
+	 * Return the maximum amount of documents which are queued for bulk requests.
+	 * 
+	 * @return
+	 */
+	public int getBulkQueueLimit() {
+		return bulkQueueLimit;
+	}
+
+	/**
+	 * Set the maximum amount of documents which are queued for bulk requests.
+	 * 
+	 * @param bulkQueueLimit
+	 * @return Fluent API
+	 */
+	public ElasticSearchOptions setBulkQueueLimit(int bulkQueueLimit) {
+		this.bulkQueueLimit = bulkQueueLimit;
+		return this;
+	}
+
+	/**
+	 * Check whether the search index is updated in the background using the outbox.
+	 * 
+	 * @return
+	 */
+	public boolean isWriteBehind() {
+		return writeBehind;
+	}
+
+	/**
+	 * Set the flag which enables the write-behind mode.
+	 * 
+	 * @param writeBehind
+	 * @return Fluent API
+	 */
+	public ElasticSearchOptions setWriteBehind(boolean writeBehind) {
+		this.writeBehind = writeBehind;
+		return this;
+	}
+
+	/**
+	 * Return the maximum time in milliseconds a request waits for the background indexer in write-behind mode.
+	 * 
+	 * @return
+	 */
+	public long getWriteBehindTimeout() {
+		return writeBehindTimeout;
+	}
+
+	/**
+	 * Set the maximum time in milliseconds a request waits for the background indexer in write-behind mode.
+	 * 
+	 * @param writeBehindTimeout
+	 * @return Fluent API
+	 */
+	public ElasticSearchOptions setWriteBehindTimeout(long writeBehindTimeout) {
+		this.writeBehindTimeout = writeBehindTimeout;
+		return this;
+	}
+
+	/**
+	 * Return the amount of elements which are reindexed within a single transaction.
+	 * 
+	 * @return
+	 */
+	public int getReindexChunkSize() {
+		return reindexChunkSize;
+	}
+
+	/**
+	 * Set the amount of elements which are reindexed within a single transaction.
+	 * 
+	 * @param reindexChunkSize
+	 * @return Fluent API
+	 */
+	public ElasticSearchOptions setReindexChunkSize(int reindexChunkSize) {
+		this.reindexChunkSize = reindexChunkSize;
+		return this;
+	}
+
 	public void validate(MeshOptions meshOptions) {
 		for (ElasticSearchHost host : hosts) {
 			host.validate(meshOptions);
 		}
+		if (bulkLimit < 1) {
+			throw new IllegalArgumentException("The bulk limit must be at least 1.");
+		}
+		if (bulkSizeLimit < 1) {
+			throw new IllegalArgumentException("The bulk size limit must be at least 1.");
+		}
+		if (bulkConcurrency < 1) {
+			throw new IllegalArgumentException("The bulk concurrency must be at least 1.");
+		}
+		if (bulkFlushInterval < 0) {
+			throw new IllegalArgumentException("The bulk flush interval must not be negative.");
+		}
+		if (bulkRetryLimit < 0) {
+			throw new IllegalArgumentException("The bulk retry limit must not be negative.");
+		}
+		if (writeBehindTimeout < 1) {
+			throw new IllegalArgumentException("The write-behind timeout must be at least 1.");
+		}
+		if (reindexChunkSize < 1) {
+			throw new IllegalArgumentException("The reindex chunk size must be at least 1.");
+		}
 	}
 
 }
@@ -2,6 +2,7 @@ package com.gentics.mesh.auth;
 
 import static com.gentics.mesh.core.rest.error.Errors.error;
 import static io.netty.handler.codec.http.HttpResponseStatus.INTERNAL_SERVER_ERROR;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 import static io.netty.handler.codec.http.HttpResponseStatus.UNAUTHORIZED;
 
 import javax.inject.Inject;
@@ -289,7 +290,7 @@ public class MeshAuthProvider implements AuthProvider, JWTAuth {
 			} else {
 				ac.addCookie(Cookie.cookie(MeshAuthProvider.TOKEN_COOKIE_KEY, rh.result())
 					.setMaxAge(Mesh.mesh().getOptions().getAuthenticationOptions().getTokenExpirationTime()).setPath("/"));
-				ac.send(JsonUtil.toJson(new TokenResponse(rh.result())));
+				ac.send(JsonUtil.toJsonBuffer(new TokenResponse(rh.result()), ac.isPrettyPrint()), OK);
 			}
 		});
 	}
@@ -24,7 +24,7 @@ public abstract class AbstractInternalActionContext extends AbstractActionContex
 
 	@Override
 	public void send(RestModel restModel, HttpResponseStatus status) {
-		send(JsonUtil.toJson(restModel), status);
+		send(JsonUtil.toJsonBuffer(restModel, isPrettyPrint()), status);
 	}
 
 	@Override
@@ -146,4 +146,13 @@ public interface InternalActionContext extends ActionContext, ParameterProviderC
 	 */
 	void setWebrootResponseType(String type);
 
+	/**
+	 * Return the name of the endpoint which is handled using the context. The name is used to group metrics.
+	 * 
+	 * @return
+	 */
+	default String getEndpointName() {
+		return isMigrationContext() ? "migration" : "internal";
+	}
+
 }
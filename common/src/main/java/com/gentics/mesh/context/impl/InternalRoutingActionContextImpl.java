@@ -19,11 +19,13 @@ import com.gentics.mesh.util.ETag;
 
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.ext.web.Cookie;
 import io.vertx.ext.web.FileUpload;
+import io.vertx.ext.web.Route;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.Session;
 
@@ -58,6 +60,14 @@ public class InternalRoutingActionContextImpl extends AbstractInternalActionCont
 		}
 	}
 
+	@Override
+	public String getEndpointName() {
+		// Use the path pattern of the route instead of the actual path to keep the amount of names small
+		Route route = rc.currentRoute();
+		String path = route == null ? null : route.getPath();
+		return rc.request().method() + " " + (path == null ? "unknown" : path);
+	}
+
 	@Override
 	public String getParameter(String parameterName) {
 		return rc.request().getParam(parameterName);
@@ -80,6 +90,13 @@ public class InternalRoutingActionContextImpl extends AbstractInternalActionCont
 		rc.response().setStatusCode(status.code()).end(body);
 	}
 
+	@Override
+	public void send(Buffer body, HttpResponseStatus status, String contentType) {
+		rc.response().putHeader(HttpHeaders.CONTENT_TYPE, contentType);
+		rc.response().putHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+		rc.response().setStatusCode(status.code()).end(body);
+	}
+
 	@Override
 	public void send(HttpResponseStatus status) {
 		rc.response().setStatusCode(status.code()).end();
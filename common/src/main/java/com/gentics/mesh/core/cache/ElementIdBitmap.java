@@ -0,0 +1,190 @@
+package com.gentics.mesh.core.cache;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.LongStream;
+
+/**
+ * Compressed bitmap for numeric element ids.
+ *
+ * The ids are split into chunks of {@value #CHUNK_SIZE} consecutive ids. Only chunks which contain at least one id are allocated and each chunk only
+ * allocates the words up to its highest id. This keeps the bitmap compact for ids which are dense within a chunk (e.g. the record positions of a cluster)
+ * while large gaps between the ids do not consume any memory.
+ *
+ * Lookups are lock free. Modifications are serialized and update the words of a chunk in place. The words of a chunk are only copied when the chunk has to
+ * grow, which happens at most a few times per chunk since the capacity is doubled.
+ */
+public class ElementIdBitmap {
+
+	private static final int CHUNK_BITS = 16;
+
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+	private static final long OFFSET_MASK = CHUNK_SIZE - 1;
+
+	private static final int WORDS_PER_CHUNK = CHUNK_SIZE / Long.SIZE;
+
+	private final Map<Long, Chunk> chunks = new ConcurrentHashMap<>();
+
+	/**
+	 * Create a new bitmap which contains the given ids.
+	 *
+	 * @param ids
+	 * @return
+	 */
+	public static ElementIdBitmap of(LongStream ids) {
+		// The bitmap is not yet published and can thus be built using plain arrays
+		Map<Long, long[]> words = new HashMap<>();
+		ids.forEach(id -> {
+			int index = offset(id) >>> 6;
+			long[] chunkWords = words.compute(id >>> CHUNK_BITS, (key, current) -> grow(current, index));
+			chunkWords[index] |= 1L << offset(id);
+		});
+		ElementIdBitmap bitmap = new ElementIdBitmap();
+		words.forEach((key, chunkWords) -> {
+			Chunk chunk = new Chunk(new AtomicLongArray(chunkWords));
+			for (long word : chunkWords) {
+				chunk.count += Long.bitCount(word);
+			}
+			bitmap.chunks.put(key, chunk);
+		});
+		return bitmap;
+	}
+
+	private static int offset(long id) {
+		return (int) (id & OFFSET_MASK);
+	}
+
+	/**
+	 * Return an array which is large enough to hold the word with the given index. The capacity is doubled to keep the amount of copies low.
+	 *
+	 * @param words
+	 *            Current words or null
+	 * @param index
+	 * @return
+	 */
+	private static long[] grow(long[] words, int index) {
+		if (words != null && index < words.length) {
+			return words;
+		}
+		int length = words == null ? 1 : words.length;
+		while (length <= index) {
+			length = Math.min(length * 2, WORDS_PER_CHUNK);
+		}
+		return words == null ? new long[length] : Arrays.copyOf(words, length);
+	}
+
+	/**
+	 * Check whether the bitmap contains the given id.
+	 *
+	 * @param id
+	 * @return
+	 */
+	public boolean contains(long id) {
+		Chunk chunk = chunks.get(id >>> CHUNK_BITS);
+		if (chunk == null) {
+			return false;
+		}
+		AtomicLongArray words = chunk.words;
+		int index = offset(id) >>> 6;
+		return index < words.length() && (words.get(index) & (1L << offset(id))) != 0;
+	}
+
+	/**
+	 * Add the id to the bitmap.
+	 *
+	 * @param id
+	 */
+	public synchronized void add(long id) {
+		int index = offset(id) >>> 6;
+		long mask = 1L << offset(id);
+		Chunk chunk = chunks.get(id >>> CHUNK_BITS);
+		if (chunk == null) {
+			chunk = new Chunk(new AtomicLongArray(grow(null, index)));
+			chunks.put(id >>> CHUNK_BITS, chunk);
+		}
+		AtomicLongArray words = chunk.words;
+		if (index >= words.length()) {
+			long[] copy = new long[words.length()];
+			for (int i = 0; i < copy.length; i++) {
+				copy[i] = words.get(i);
+			}
+			words = new AtomicLongArray(grow(copy, index));
+			chunk.words = words;
+		}
+		long word = words.get(index);
+		if ((word & mask) == 0) {
+			words.set(index, word | mask);
+			chunk.count++;
+		}
+	}
+
+	/**
+	 * Remove the id from the bitmap.
+	 *
+	 * @param id
+	 */
+	public synchronized void remove(long id) {
+		Long key = id >>> CHUNK_BITS;
+		Chunk chunk = chunks.get(key);
+		if (chunk == null) {
+			return;
+		}
+		AtomicLongArray words = chunk.words;
+		int index = offset(id) >>> 6;
+		long mask = 1L << offset(id);
+		if (index >= words.length() || (words.get(index) & mask) == 0) {
+			return;
+		}
+		words.set(index, words.get(index) & ~mask);
+		chunk.count--;
+		if (chunk.count == 0) {
+			chunks.remove(key);
+		}
+	}
+
+	/**
+	 * Return the amount of ids within the bitmap.
+	 *
+	 * @return
+	 */
+	public synchronized long cardinality() {
+		long cardinality = 0;
+		for (Chunk chunk : chunks.values()) {
+			cardinality += chunk.count;
+		}
+		return cardinality;
+	}
+
+	/**
+	 * Return the estimated memory consumption of the bitmap in bytes.
+	 *
+	 * @return
+	 */
+	public long estimatedSize() {
+		long bytes = 0;
+		for (Chunk chunk : chunks.values()) {
+			// Size of the words plus the overhead of the map entry and the key
+			bytes += chunk.words.length() * (long) Long.BYTES + 64;
+		}
+		return bytes;
+	}
+
+	/**
+	 * Words of a chunk and the amount of ids within the chunk. The count is guarded by the lock of the bitmap.
+	 */
+	private static class Chunk {
+
+		private volatile AtomicLongArray words;
+
+		private int count;
+
+		Chunk(AtomicLongArray words) {
+			this.words = words;
+		}
+	}
+
+}
@@ -1,28 +1,142 @@
 package com.gentics.mesh.core.cache;
 
 import static com.gentics.mesh.Events.EVENT_CLEAR_PERMISSION_STORE;
+import static com.gentics.mesh.Events.EVENT_INVALIDATE_PERMISSION_STORE;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import com.codahale.metrics.Counter;
 import com.gentics.mesh.Mesh;
 import com.gentics.mesh.core.data.relationship.GraphPermission;
+import com.gentics.mesh.etc.config.CacheOptions;
+import com.gentics.mesh.etc.config.MeshOptions;
+import com.gentics.mesh.graphdb.spi.CommitHooks;
+import com.gentics.mesh.metric.MeshMetrics;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 
 /**
  * Central LRU permission cache which is used to quickly lookup cached permissions.
+ * 
+ * The cache is keyed by the numeric vertex id of the element. Each entry holds a small bitmask per user which contains granting as well as denying
+ * permissions. The role ids of the users are cached as well so that a permission check does not need to traverse the role shortcut edges. Permission changes
+ * only invalidate the affected element, user or role.
+ * 
+ * The bitmask also contains the generation of the store at which the permissions were computed. Invalidating a user only records the current generation for
+ * the user. Permissions of the user which were computed before are ignored and will be replaced once they are checked again. This way neither user nor role
+ * invalidations need to scan the whole cache.
+ * 
+ * Numeric ids are used since the id objects of the graph database may change once new elements are committed.
  */
 public final class PermissionStore {
 
 	private static final Logger log = LoggerFactory.getLogger(PermissionStore.class);
 
-	public static final Cache<String, Boolean> PERM_CACHE = Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(30, TimeUnit.MINUTES).build();
+	/**
+	 * Offset of the granted flags within the permission bitmask. The lower bits indicate whether the permission is known.
+	 */
+	private static final int GRANTED_SHIFT = 8;
+
+	/**
+	 * Offset of the generation within the permission bitmask.
+	 */
+	private static final int GENERATION_SHIFT = 16;
+
+	private static final long PERMISSION_MASK = (1L << GENERATION_SHIFT) - 1;
+
+	private static final String TYPE_KEY = "type";
+
+	private static final String ID_KEY = "id";
+
+	private static final String ROLE_KEY = "role";
+
+	private static final String ORIGIN_KEY = "origin";
+
+	private static final String TYPE_ELEMENT = "element";
+
+	private static final String TYPE_USER = "user";
+
+	private static final String TYPE_ROLE = "role";
+
+	/**
+	 * Counter which is incremented on every invalidation. Permissions which were computed while an invalidation happened will not be stored.
+	 */
+	private static final AtomicLong GENERATION = new AtomicLong();
+
+	private static final Counter HITS = MeshMetrics.counter("permission", "cache", "hits");
+
+	private static final Counter MISSES = MeshMetrics.counter("permission", "cache", "misses");
+
+	private static final Counter INVALIDATIONS = MeshMetrics.counter("permission", "cache", "invalidations");
+
+	/**
+	 * Cache for element id to map of user id to permission bitmask.
+	 */
+	private static volatile Cache<Long, Map<Long, Long>> PERM_CACHE = createPermissionCache(CacheOptions.DEFAULT_PERMISSION_CACHE_SIZE);
+
+	/**
+	 * Map of user id to the generation at which the permissions of the user were invalidated the last time. Cached permissions of the user which were stored
+	 * with an older generation are no longer valid.
+	 */
+	private static final Map<Long, Long> USER_INVALIDATIONS = new ConcurrentHashMap<>();
+
+	/**
+	 * Secondary index of role id to the ids of the users for which the role was cached. The users stay in the index when their roles are evicted from the role
+	 * cache since their permissions may still be cached.
+	 */
+	private static final Map<Long, Set<Long>> ROLE_USERS = new ConcurrentHashMap<>();
+
+	/**
+	 * Cache for user id to role ids.
+	 */
+	private static volatile Cache<Long, long[]> ROLE_CACHE = createRoleCache(CacheOptions.DEFAULT_PERMISSION_CACHE_SIZE);
+
+	static {
+		MeshMetrics.gauge(() -> PERM_CACHE.estimatedSize(), "permission", "cache", "size");
+		MeshMetrics.gauge(() -> PERM_CACHE.stats().evictionCount(), "permission", "cache", "evictions");
+		MeshMetrics.gauge(() -> ROLE_CACHE.estimatedSize(), "permission", "roles", "size");
+		MeshMetrics.gauge(() -> ROLE_CACHE.stats().hitRate(), "permission", "roles", "hitRate");
+		MeshMetrics.gauge(() -> {
+			long hits = HITS.getCount();
+			long total = hits + MISSES.getCount();
+			return total == 0 ? 1.0 : (double) hits / total;
+		}, "permission", "cache", "hitRate");
+	}
+
+	private static Cache<Long, Map<Long, Long>> createPermissionCache(long maxSize) {
+		return Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(30, TimeUnit.MINUTES).recordStats().build();
+	}
+
+	private static Cache<Long, long[]> createRoleCache(long maxSize) {
+		return Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(30, TimeUnit.MINUTES).recordStats().build();
+	}
+
+	/**
+	 * Initialize the caches and the {@link RolePermissionIndex} using the given options. Previously cached permissions will be dropped.
+	 * 
+	 * @param options
+	 */
+	public static void init(CacheOptions options) {
+		PERM_CACHE = createPermissionCache(options.getPermissionCacheSize());
+		ROLE_CACHE = createRoleCache(options.getPermissionCacheSize());
+		USER_INVALIDATIONS.clear();
+		ROLE_USERS.clear();
+		RolePermissionIndex.init(options);
+		GENERATION.incrementAndGet();
+	}
 
 	/**
-	 * Check whether the granting user permission was stored in the cache.
+	 * Lookup the cached permission.
 	 * 
 	 * @param userId
 	 *            Vertex id of the user
@@ -30,36 +144,150 @@ public final class PermissionStore {
 	 *            Permission to check against
 	 * @param elementId
 	 *            Vertex id of the element to which permissions should be checked
-	 * @return true, if a granting permission was found or false if the permission could not be found in the cache
+	 * @return {@link Boolean#TRUE} if the permission is granted, {@link Boolean#FALSE} if the permission is denied or null if the permission could not be found in
+	 *         the cache
 	 */
-	public static boolean hasPermission(Object userId, GraphPermission permission, Object elementId) {
-		String key = createCacheKey(userId, permission, elementId);
-		Boolean cachedPerm = PERM_CACHE.getIfPresent(key);
-		return cachedPerm != null && cachedPerm;
+	public static Boolean getPermission(long userId, GraphPermission permission, long elementId) {
+		Map<Long, Long> entries = PERM_CACHE.getIfPresent(elementId);
+		Long bits = entries == null ? null : entries.get(userId);
+		int ordinal = permission.ordinal();
+		if (bits == null || (bits & (1 << ordinal)) == 0 || isOutdated(userId, bits)) {
+			MISSES.inc();
+			return null;
+		}
+		HITS.inc();
+		return (bits & (1 << (ordinal + GRANTED_SHIFT))) != 0;
 	}
 
 	/**
-	 * Register the event handler which can be used to invalidate the LRU cache.
+	 * Return the current generation of the store. The generation must be passed along when storing permissions in order to detect concurrent invalidations.
+	 * 
+	 * @return
 	 */
-	public static void registerEventHandler() {
-		Mesh.vertx().eventBus().consumer(EVENT_CLEAR_PERMISSION_STORE, e -> {
-			if (log.isDebugEnabled()) {
-				log.debug("Clearing permission store due to received event from {" + e.address() + "}");
-			}
-			PERM_CACHE.invalidateAll();
-		});
+	public static long generation() {
+		return GENERATION.get();
 	}
 
 	/**
-	 * Create the cache key.
+	 * Store the granting or denying permission in the cache.
 	 * 
 	 * @param userId
+	 *            User for which the permission was checked
 	 * @param permission
+	 *            Permission which was checked
 	 * @param elementId
+	 *            Id of the element for which the permission was checked
+	 * @param granted
+	 *            Whether the permission is granted
+	 * @param generation
+	 *            Generation of the store at the time the permission check was started
+	 */
+	public static void store(long userId, GraphPermission permission, long elementId, boolean granted, long generation) {
+		if (GENERATION.get() != generation) {
+			return;
+		}
+		int ordinal = permission.ordinal();
+		long mask = (1 << ordinal) | (1 << (ordinal + GRANTED_SHIFT));
+		long bits = (generation << GENERATION_SHIFT) | (granted ? mask : 1 << ordinal);
+		Map<Long, Long> entries = PERM_CACHE.get(elementId, key -> new ConcurrentHashMap<>(4));
+		entries.merge(userId, bits, (oldBits, newBits) -> {
+			// Permissions which were stored before the user was invalidated must not be kept
+			if (isOutdated(userId, oldBits)) {
+				return newBits;
+			}
+			return (oldBits & PERMISSION_MASK & ~mask) | newBits;
+		});
+		// Drop the entry again if an invalidation happened in between
+		if (GENERATION.get() != generation) {
+			entries.remove(userId);
+		}
+	}
+
+	/**
+	 * Check whether the permission bitmask was stored before the permissions of the user were invalidated.
+	 * 
+	 * @param userId
+	 * @param bits
 	 * @return
 	 */
-	private static String createCacheKey(Object userId, GraphPermission permission, Object elementId) {
-		return userId + "-" + permission.ordinal() + "-" + elementId;
+	private static boolean isOutdated(long userId, long bits) {
+		Long invalidated = USER_INVALIDATIONS.get(userId);
+		return invalidated != null && (bits >>> GENERATION_SHIFT) < invalidated;
+	}
+
+	/**
+	 * Return the cached role ids of the user.
+	 * 
+	 * @param userId
+	 * @return Role ids or null if the roles have not yet been cached
+	 */
+	public static long[] getRoleIds(long userId) {
+		return ROLE_CACHE.getIfPresent(userId);
+	}
+
+	/**
+	 * Store the role ids of the user.
+	 * 
+	 * @param userId
+	 * @param roleIds
+	 * @param generation
+	 *            Generation of the store at the time the roles were loaded
+	 */
+	public static void storeRoleIds(long userId, long[] roleIds, long generation) {
+		if (GENERATION.get() != generation) {
+			return;
+		}
+		// The user must be indexed before the roles are cached so that a concurrent role invalidation always finds the user
+		for (long roleId : roleIds) {
+			ROLE_USERS.computeIfAbsent(roleId, key -> ConcurrentHashMap.newKeySet()).add(userId);
+		}
+		ROLE_CACHE.put(userId, roleIds);
+		if (GENERATION.get() != generation) {
+			ROLE_CACHE.invalidate(userId);
+		}
+	}
+
+	/**
+	 * Register the event handlers which can be used to invalidate the LRU cache.
+	 */
+	public static void registerEventHandler() {
+		Mesh.vertx().eventBus().consumer(EVENT_CLEAR_PERMISSION_STORE, e -> {
+			if (log.isDebugEnabled()) {
+				log.debug("Clearing permission store due to received event from {" + e.address() + "}");
+			}
+			invalidateAll();
+		});
+		Mesh.vertx().eventBus().consumer(EVENT_INVALIDATE_PERMISSION_STORE, (Message<JsonObject> e) -> {
+			JsonObject info = e.body();
+			String origin = info.getString(ORIGIN_KEY);
+			// The invalidation was already applied by the sender
+			if (origin != null && origin.equals(Mesh.mesh().getOptions().getNodeName())) {
+				return;
+			}
+			long id = info.getLong(ID_KEY);
+			String type = info.getString(TYPE_KEY);
+			if (log.isDebugEnabled()) {
+				log.debug("Invalidating permissions for {" + type + "} {" + id + "} due to received event");
+			}
+			switch (type) {
+			case TYPE_ELEMENT:
+				invalidateElement(id, false);
+				// The index of the role needs to be reloaded since it is not known which permissions were changed
+				Long roleId = info.getLong(ROLE_KEY);
+				if (roleId != null) {
+					RolePermissionIndex.invalidateRole(roleId);
+				}
+				break;
+			case TYPE_USER:
+				invalidateUser(id, false);
+				break;
+			case TYPE_ROLE:
+				invalidateRole(id, false);
+				break;
+			default:
+				invalidateAll();
+			}
+		});
 	}
 
 	/**
@@ -69,7 +297,7 @@ public final class PermissionStore {
 	 */
 	public static void invalidate(boolean notify) {
 		// Invalidate locally
-		PERM_CACHE.invalidateAll();
+		invalidateAll();
 		if (notify) {
 			// Send the event to inform other to purge the stored permissions
 			Mesh.vertx().eventBus().publish(EVENT_CLEAR_PERMISSION_STORE, null);
@@ -84,16 +312,148 @@ public final class PermissionStore {
 	}
 
 	/**
-	 * Store a granting permission in the cache.
+	 * Invalidate the cached permissions of all users on the given element. The invalidation is repeated once the current transaction has been committed since
+	 * concurrent transactions could otherwise cache the previous permissions again. The other instances in the cluster are notified after the commit.
 	 * 
-	 * @param userId
-	 *            User which currently has roles which grant him the permission on the element
-	 * @param permission
-	 *            Permission which is granted
 	 * @param elementId
-	 *            Id of the element to which a permission is granted
 	 */
-	public static void store(Object userId, GraphPermission permission, Object elementId) {
-		PERM_CACHE.put(createCacheKey(userId, permission, elementId), true);
+	public static void invalidateElement(long elementId) {
+		invalidateElement(elementId, false);
+		CommitHooks.register(() -> invalidateElement(elementId, true));
 	}
+
+	/**
+	 * Invalidate the cached permissions of all users on the given element after the permissions of the given role have been changed. The other instances in
+	 * the cluster will be notified and also drop the {@link RolePermissionIndex} of the role. The local index must be updated by the caller.
+	 * 
+	 * @param roleId
+	 * @param elementId
+	 */
+	public static void invalidatePermissions(long roleId, long elementId) {
+		invalidateElement(elementId, false);
+		JsonObject info = new JsonObject();
+		info.put(ROLE_KEY, roleId);
+		notifyCluster(TYPE_ELEMENT, elementId, info);
+	}
+
+	/**
+	 * Invalidate the cached permissions of all users on the given element.
+	 * 
+	 * @param elementId
+	 * @param notify
+	 *            Whether to notify the other instances in the cluster
+	 */
+	public static void invalidateElement(long elementId, boolean notify) {
+		GENERATION.incrementAndGet();
+		INVALIDATIONS.inc();
+		PERM_CACHE.invalidate(elementId);
+		if (notify) {
+			notifyCluster(TYPE_ELEMENT, elementId, new JsonObject());
+		}
+	}
+
+	/**
+	 * Invalidate the cached roles and permissions of the user. This is needed whenever the roles of the user change. The invalidation is repeated and the other
+	 * instances in the cluster are notified once the current transaction has been committed.
+	 * 
+	 * @param userId
+	 */
+	public static void invalidateUser(long userId) {
+		invalidateUser(userId, false);
+		CommitHooks.register(() -> invalidateUser(userId, true));
+	}
+
+	/**
+	 * Invalidate the cached roles and permissions of the user.
+	 * 
+	 * @param userId
+	 * @param notify
+	 *            Whether to notify the other instances in the cluster
+	 */
+	public static void invalidateUser(long userId, boolean notify) {
+		INVALIDATIONS.inc();
+		markInvalidated(userId);
+		if (notify) {
+			notifyCluster(TYPE_USER, userId, new JsonObject());
+		}
+	}
+
+	/**
+	 * Invalidate the cached permissions of all users which are assigned to the role. The {@link RolePermissionIndex} of the role will be dropped as well. The
+	 * invalidation is repeated and the other instances in the cluster are notified once the current transaction has been committed.
+	 * 
+	 * @param roleId
+	 */
+	public static void invalidateRole(long roleId) {
+		invalidateRole(roleId, false);
+		CommitHooks.register(() -> invalidateRole(roleId, true));
+	}
+
+	/**
+	 * Invalidate the cached permissions of all users which are assigned to the role.
+	 * 
+	 * @param roleId
+	 * @param notify
+	 *            Whether to notify the other instances in the cluster
+	 */
+	public static void invalidateRole(long roleId, boolean notify) {
+		INVALIDATIONS.inc();
+		RolePermissionIndex.invalidateRole(roleId);
+		Set<Long> affectedUsers = ROLE_USERS.remove(roleId);
+		if (affectedUsers != null) {
+			for (Long userId : affectedUsers) {
+				markInvalidated(userId);
+			}
+		} else {
+			// Concurrent permission checks must still be prevented from storing their results
+			GENERATION.incrementAndGet();
+		}
+		if (notify) {
+			notifyCluster(TYPE_ROLE, roleId, new JsonObject());
+		}
+	}
+
+	/**
+	 * Drop the cached roles of the user and ignore the cached permissions of the user which were stored up to now.
+	 * 
+	 * @param userId
+	 */
+	private static void markInvalidated(long userId) {
+		long generation = GENERATION.incrementAndGet();
+		USER_INVALIDATIONS.merge(userId, generation, Math::max);
+		ROLE_CACHE.invalidate(userId);
+	}
+
+	private static void invalidateAll() {
+		GENERATION.incrementAndGet();
+		INVALIDATIONS.inc();
+		PERM_CACHE.invalidateAll();
+		ROLE_CACHE.invalidateAll();
+		// The invalidations are only needed for permissions which are still cached
+		USER_INVALIDATIONS.clear();
+		ROLE_USERS.clear();
+		RolePermissionIndex.invalidateAll();
+	}
+
+	/**
+	 * Inform the other instances in the cluster about the invalidation. Nothing needs to be send if clustering is not enabled.
+	 * 
+	 * @param type
+	 * @param id
+	 * @param info
+	 *            Additional information of the event
+	 */
+	private static void notifyCluster(String type, long id, JsonObject info) {
+		MeshOptions options = Mesh.mesh().getOptions();
+		Vertx vertx = Mesh.vertx();
+		// Vert.x may not yet be available while the initial data is being created
+		if (!options.getClusterOptions().isEnabled() || vertx == null) {
+			return;
+		}
+		info.put(TYPE_KEY, type);
+		info.put(ID_KEY, id);
+		info.put(ORIGIN_KEY, options.getNodeName());
+		vertx.eventBus().publish(EVENT_INVALIDATE_PERMISSION_STORE, info);
+	}
+
 }
@@ -0,0 +1,179 @@
+package com.gentics.mesh.core.cache;
+
+import static com.gentics.mesh.core.data.relationship.GraphPermission.READ_PERM;
+import static com.gentics.mesh.core.data.relationship.GraphPermission.READ_PUBLISHED_PERM;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+import com.codahale.metrics.Timer;
+import com.gentics.mesh.core.data.relationship.GraphPermission;
+import com.gentics.mesh.etc.config.CacheOptions;
+import com.gentics.mesh.metric.MeshMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Materialized index which holds a bitmap of the elements per role and permission. The index is used to filter large lists of elements without checking the
+ * permission edges of every single element.
+ *
+ * The bitmaps of a role are loaded on demand and are updated whenever permissions are granted or revoked. Only the read permissions are indexed since these are
+ * the permissions which are used to filter lists.
+ */
+public final class RolePermissionIndex {
+
+	private static final Set<GraphPermission> INDEXED_PERMISSIONS = EnumSet.of(READ_PERM, READ_PUBLISHED_PERM);
+
+	/**
+	 * Counter which is incremented on every modification. Loaded bitmaps will not be stored if the index was modified during the load.
+	 */
+	private static final AtomicLong GENERATION = new AtomicLong();
+
+	private static final Timer LOADS = MeshMetrics.timer("permission", "index", "load");
+
+	/**
+	 * Cache for role id to the bitmaps of the indexed permissions.
+	 */
+	private static volatile Cache<Long, Map<GraphPermission, ElementIdBitmap>> INDEX = createIndex(CacheOptions.DEFAULT_PERMISSION_INDEX_SIZE);
+
+	private static volatile boolean enabled = true;
+
+	static {
+		MeshMetrics.gauge(() -> INDEX.estimatedSize(), "permission", "index", "roles");
+		MeshMetrics.gauge(() -> {
+			long bytes = 0;
+			for (Map<GraphPermission, ElementIdBitmap> bitmaps : INDEX.asMap().values()) {
+				for (ElementIdBitmap bitmap : bitmaps.values()) {
+					bytes += bitmap.estimatedSize();
+				}
+			}
+			return bytes;
+		}, "permission", "index", "bytes");
+	}
+
+	private RolePermissionIndex() {
+	}
+
+	private static Cache<Long, Map<GraphPermission, ElementIdBitmap>> createIndex(long maxSize) {
+		return Caffeine.newBuilder().maximumSize(maxSize).expireAfterAccess(30, TimeUnit.MINUTES).recordStats().build();
+	}
+
+	/**
+	 * Initialize the index using the given options. Previously loaded bitmaps will be dropped.
+	 *
+	 * @param options
+	 */
+	public static void init(CacheOptions options) {
+		enabled = options.getPermissionIndexSize() > 0;
+		INDEX = createIndex(options.getPermissionIndexSize());
+		GENERATION.incrementAndGet();
+	}
+
+	/**
+	 * Check whether the given permission can be checked using the index.
+	 *
+	 * @param permission
+	 * @return
+	 */
+	public static boolean isIndexed(GraphPermission permission) {
+		return enabled && INDEXED_PERMISSIONS.contains(permission);
+	}
+
+	/**
+	 * Return the bitmaps of the indexed permissions for the given role. The bitmaps will be loaded if they are not yet part of the index.
+	 *
+	 * @param roleId
+	 *            Numeric id of the role
+	 * @param loader
+	 *            Loader which creates the bitmaps for the role using the permission edges of the role
+	 * @return Bitmaps per indexed permission
+	 */
+	public static Map<GraphPermission, ElementIdBitmap> get(long roleId, LongFunction<Map<GraphPermission, ElementIdBitmap>> loader) {
+		Map<GraphPermission, ElementIdBitmap> bitmaps = INDEX.getIfPresent(roleId);
+		if (bitmaps != null) {
+			return bitmaps;
+		}
+		long generation = GENERATION.get();
+		Timer.Context context = LOADS.time();
+		try {
+			bitmaps = loader.apply(roleId);
+		} finally {
+			context.stop();
+		}
+		// Permissions may have been changed while the bitmaps were loaded
+		if (GENERATION.get() == generation) {
+			INDEX.put(roleId, bitmaps);
+			if (GENERATION.get() != generation) {
+				INDEX.invalidate(roleId);
+			}
+		}
+		return bitmaps;
+	}
+
+	/**
+	 * Add the element to the bitmaps of the role. This must only be invoked once the granted permissions have been committed.
+	 *
+	 * @param roleId
+	 * @param elementId
+	 * @param permissions
+	 *            Granted permissions
+	 */
+	public static void grant(long roleId, long elementId, GraphPermission... permissions) {
+		GENERATION.incrementAndGet();
+		Map<GraphPermission, ElementIdBitmap> bitmaps = INDEX.getIfPresent(roleId);
+		if (bitmaps == null) {
+			return;
+		}
+		for (GraphPermission permission : permissions) {
+			ElementIdBitmap bitmap = bitmaps.get(permission);
+			if (bitmap != null) {
+				bitmap.add(elementId);
+			}
+		}
+	}
+
+	/**
+	 * Remove the element from the bitmaps of the role.
+	 *
+	 * @param roleId
+	 * @param elementId
+	 * @param permissions
+	 *            Revoked permissions
+	 */
+	public static void revoke(long roleId, long elementId, GraphPermission... permissions) {
+		GENERATION.incrementAndGet();
+		Map<GraphPermission, ElementIdBitmap> bitmaps = INDEX.getIfPresent(roleId);
+		if (bitmaps == null) {
+			return;
+		}
+		for (GraphPermission permission : permissions) {
+			ElementIdBitmap bitmap = bitmaps.get(permission);
+			if (bitmap != null) {
+				bitmap.remove(elementId);
+			}
+		}
+	}
+
+	/**
+	 * Drop the bitmaps of the role. The bitmaps will be reloaded on demand.
+	 *
+	 * @param roleId
+	 */
+	public static void invalidateRole(long roleId) {
+		GENERATION.incrementAndGet();
+		INDEX.invalidate(roleId);
+	}
+
+	/**
+	 * Drop all bitmaps.
+	 */
+	public static void invalidateAll() {
+		GENERATION.incrementAndGet();
+		INDEX.invalidateAll();
+	}
+
+}
@@ -0,0 +1,186 @@
+package com.gentics.mesh.core.cache;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.codahale.metrics.Counter;
+import com.gentics.mesh.core.data.ContainerType;
+import com.gentics.mesh.etc.config.CacheOptions;
+import com.gentics.mesh.metric.MeshMetrics;
+import com.gentics.mesh.parameter.LinkType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Cache for rendered mesh links. The links are cached per release and keyed by the uuid of the target node, the container type, the link type and the
+ * requested languages.
+ *
+ * A rendered link depends on the webroot path info of the target node and all of its parents. The links of a node and its descendants are thus dropped
+ * whenever the path of the node changes in the {@link WebRootPathTrie}, which happens when nodes are moved, segments are changed or nodes are published, taken
+ * offline or deleted. Updates which don't affect the path keep the cached links.
+ */
+public final class WebRootLinkCache {
+
+	/**
+	 * Counter which is incremented on every invalidation. Links which were rendered while an invalidation happened will not be stored.
+	 */
+	private static final AtomicLong GENERATION = new AtomicLong();
+
+	private static final Map<String, Cache<String, String>> CACHES = new ConcurrentHashMap<>();
+
+	private static final Counter HITS = MeshMetrics.counter("webroot", "links", "hits");
+
+	private static final Counter MISSES = MeshMetrics.counter("webroot", "links", "misses");
+
+	private static volatile long maxSize = CacheOptions.DEFAULT_LINK_CACHE_SIZE;
+
+	static {
+		MeshMetrics.gauge(() -> {
+			long size = 0;
+			for (Cache<String, String> cache : CACHES.values()) {
+				size += cache.estimatedSize();
+			}
+			return size;
+		}, "webroot", "links", "size");
+		MeshMetrics.gauge(() -> {
+			long hits = HITS.getCount();
+			long total = hits + MISSES.getCount();
+			return total == 0 ? 1.0 : (double) hits / total;
+		}, "webroot", "links", "hitRate");
+	}
+
+	private WebRootLinkCache() {
+	}
+
+	/**
+	 * Initialize the cache using the given options. Previously cached links will be dropped.
+	 *
+	 * @param options
+	 */
+	public static void init(CacheOptions options) {
+		maxSize = options.getLinkCacheSize();
+		invalidateAll();
+	}
+
+	/**
+	 * Create the key of a link.
+	 *
+	 * @param uuid
+	 *            Uuid of the target node
+	 * @param type
+	 *            Container type
+	 * @param linkType
+	 *            Link type
+	 * @param languageTags
+	 *            Requested languages
+	 * @return
+	 */
+	public static String key(String uuid, ContainerType type, LinkType linkType, String... languageTags) {
+		StringBuilder key = new StringBuilder(uuid.length() + 16);
+		key.append(uuid).append('-').append(type.getCode()).append('-').append(linkType.ordinal());
+		if (languageTags != null) {
+			for (String tag : languageTags) {
+				key.append('-').append(tag);
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Return the current generation of the cache. The generation must be passed along when storing links in order to detect concurrent invalidations.
+	 *
+	 * @return
+	 */
+	public static long generation() {
+		return GENERATION.get();
+	}
+
+	/**
+	 * Lookup the cached link.
+	 *
+	 * @param releaseUuid
+	 * @param key
+	 *            Key which was created via {@link #key(String, ContainerType, LinkType, String...)}
+	 * @return Rendered link or null if the link is not cached
+	 */
+	public static String get(String releaseUuid, String key) {
+		Cache<String, String> cache = CACHES.get(releaseUuid);
+		String link = cache == null ? null : cache.getIfPresent(key);
+		if (link == null) {
+			MISSES.inc();
+		} else {
+			HITS.inc();
+		}
+		return link;
+	}
+
+	/**
+	 * Store the rendered link.
+	 *
+	 * @param releaseUuid
+	 * @param key
+	 *            Key which was created via {@link #key(String, ContainerType, LinkType, String...)}
+	 * @param link
+	 *            Rendered link
+	 * @param generation
+	 *            Generation of the cache at the time the link was rendered
+	 */
+	public static void store(String releaseUuid, String key, String link, long generation) {
+		long size = maxSize;
+		if (size == 0 || GENERATION.get() != generation) {
+			return;
+		}
+		Cache<String, String> cache = CACHES.computeIfAbsent(releaseUuid, k -> Caffeine.newBuilder().maximumSize(size).expireAfterAccess(30,
+				TimeUnit.MINUTES).build());
+		cache.put(key, link);
+		// Drop the link again if an invalidation happened in between
+		if (GENERATION.get() != generation) {
+			cache.invalidate(key);
+		}
+	}
+
+	/**
+	 * Drop the cached links of the release.
+	 *
+	 * @param releaseUuid
+	 */
+	public static void invalidateRelease(String releaseUuid) {
+		GENERATION.incrementAndGet();
+		CACHES.remove(releaseUuid);
+	}
+
+	/**
+	 * Drop the cached links of the given nodes.
+	 *
+	 * @param releaseUuid
+	 * @param type
+	 *            Container type of the links
+	 * @param nodeUuids
+	 *            Uuids of the target nodes
+	 */
+	public static void invalidateNodes(String releaseUuid, ContainerType type, Set<String> nodeUuids) {
+		GENERATION.incrementAndGet();
+		Cache<String, String> cache = CACHES.get(releaseUuid);
+		if (cache == null) {
+			return;
+		}
+		String typeCode = type.getCode();
+		cache.asMap().keySet().removeIf(key -> {
+			// The key starts with the uuid and the type code. See #key
+			int end = key.indexOf('-');
+			return end > 0 && nodeUuids.contains(key.substring(0, end)) && key.startsWith(typeCode + "-", end + 1);
+		});
+	}
+
+	/**
+	 * Drop all cached links.
+	 */
+	public static void invalidateAll() {
+		GENERATION.incrementAndGet();
+		CACHES.clear();
+	}
+
+}
@@ -0,0 +1,635 @@
+package com.gentics.mesh.core.cache;
+
+import static com.gentics.mesh.Events.EVENT_INVALIDATE_WEBROOT_PATHS;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import com.gentics.mesh.Mesh;
+import com.gentics.mesh.core.data.ContainerType;
+import com.gentics.mesh.etc.config.MeshOptions;
+import com.gentics.mesh.metric.MeshMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * In-memory trie of the webroot path segments of a release and container type. The trie maps the segments of the children of a node to the containers which
+ * provide the segments. A webroot path can thus be resolved with one lookup per segment instead of checking the segment fields of all children.
+ *
+ * The tries are loaded on demand from the graph and are updated once the modifications of the webroot path info have been committed. The modifications are
+ * published to the other instances in the cluster which apply them to their loaded tries. The cached links of the {@link WebRootLinkCache} are dropped for
+ * the nodes whose path was changed and their descendants.
+ *
+ * Each trie also remembers the segments which could neither be found in the trie nor in the graph. Requests for paths which don't exist thus don't need to
+ * check the children in the graph again. A missing segment is forgotten once a child with the segment is added to the trie.
+ */
+public class WebRootPathTrie {
+
+	private static final Logger log = LoggerFactory.getLogger(WebRootPathTrie.class);
+
+	private static final String RELEASE_KEY = "release";
+
+	private static final String ORIGIN_KEY = "origin";
+
+	private static final String ACTION_KEY = "action";
+
+	private static final String TYPE_KEY = "type";
+
+	private static final String ENTRY_KEY = "entry";
+
+	private static final String UPDATE_ACTION = "update";
+
+	private static final String REMOVE_ACTION = "remove";
+
+	/**
+	 * Counter which is incremented on every modification. Loaded tries will not be stored if a modification happened during the load.
+	 */
+	private static final AtomicLong GENERATION = new AtomicLong();
+
+	private static final Map<String, WebRootPathTrie> TRIES = new ConcurrentHashMap<>();
+
+	/**
+	 * Locks which ensure that the trie of a release and type is only loaded by one thread at a time.
+	 */
+	private static final Map<String, Object> LOCKS = new ConcurrentHashMap<>();
+
+	private static final Timer LOADS = MeshMetrics.timer("webroot", "trie", "load");
+
+	private static final Counter HITS = MeshMetrics.counter("webroot", "trie", "hits");
+
+	private static final Counter MISSES = MeshMetrics.counter("webroot", "trie", "misses");
+
+	private static final Counter MISSING_HITS = MeshMetrics.counter("webroot", "trie", "missingHits");
+
+	/**
+	 * Maximum amount of missing segments which are remembered per trie.
+	 */
+	private static final int MAX_MISSING_SEGMENTS = 10_000;
+
+	static {
+		MeshMetrics.gauge(() -> TRIES.size(), "webroot", "trie", "count");
+		MeshMetrics.gauge(() -> {
+			long size = 0;
+			for (WebRootPathTrie trie : TRIES.values()) {
+				size += trie.containers.size();
+			}
+			return size;
+		}, "webroot", "trie", "entries");
+	}
+
+	private final String baseNodeUuid;
+
+	/**
+	 * Segments of the children per parent node uuid.
+	 */
+	private final Map<String, Map<String, Entry>> children = new ConcurrentHashMap<>();
+
+	/**
+	 * Entries per numeric container id.
+	 */
+	private final Map<Long, Entry> containers = new ConcurrentHashMap<>();
+
+	/**
+	 * Entries of the containers of a node per language tag.
+	 */
+	private final Map<String, Map<String, Entry>> nodes = new ConcurrentHashMap<>();
+
+	/**
+	 * Segments which don't exist per parent node uuid and segment.
+	 */
+	private final Cache<String, Boolean> missingSegments = Caffeine.newBuilder().maximumSize(MAX_MISSING_SEGMENTS).build();
+
+	/**
+	 * Create a new empty trie.
+	 *
+	 * @param baseNodeUuid
+	 *            Uuid of the base node of the project. The paths of all other nodes start at the base node.
+	 */
+	public WebRootPathTrie(String baseNodeUuid) {
+		this.baseNodeUuid = baseNodeUuid;
+	}
+
+	private static String key(String releaseUuid, ContainerType type) {
+		return releaseUuid + "-" + type.getCode();
+	}
+
+	/**
+	 * Return the trie for the given release and type. The trie will be loaded if it has not yet been loaded. Concurrent callers wait for the trie which is
+	 * loaded by the first caller.
+	 *
+	 * @param releaseUuid
+	 * @param type
+	 * @param loader
+	 *            Loader which creates the trie from the graph
+	 * @return
+	 */
+	public static WebRootPathTrie get(String releaseUuid, ContainerType type, Supplier<WebRootPathTrie> loader) {
+		String key = key(releaseUuid, type);
+		WebRootPathTrie trie = TRIES.get(key);
+		if (trie != null) {
+			return trie;
+		}
+		synchronized (LOCKS.computeIfAbsent(key, k -> new Object())) {
+			trie = TRIES.get(key);
+			if (trie != null) {
+				return trie;
+			}
+			long generation = GENERATION.get();
+			Timer.Context context = LOADS.time();
+			try {
+				trie = loader.get();
+			} finally {
+				context.stop();
+			}
+			// The webroot paths may have been changed while the trie was loaded
+			if (GENERATION.get() == generation) {
+				TRIES.put(key, trie);
+				if (GENERATION.get() != generation) {
+					TRIES.remove(key);
+				}
+			}
+			return trie;
+		}
+	}
+
+	/**
+	 * Return the trie for the given release and type if it has already been loaded.
+	 *
+	 * @param releaseUuid
+	 * @param type
+	 * @return Trie or null if the trie has not been loaded
+	 */
+	public static WebRootPathTrie getIfPresent(String releaseUuid, ContainerType type) {
+		return TRIES.get(key(releaseUuid, type));
+	}
+
+	/**
+	 * Return the current generation of the tries. The generation must be passed along when remembering missing segments in order to detect concurrent
+	 * modifications.
+	 *
+	 * @return
+	 */
+	public static long generation() {
+		return GENERATION.get();
+	}
+
+	/**
+	 * Store the entry in the loaded trie of the release. This must only be invoked once the webroot path info has been committed.
+	 *
+	 * @param releaseUuid
+	 * @param type
+	 * @param entry
+	 */
+	public static void update(String releaseUuid, ContainerType type, Entry entry) {
+		applyUpdate(releaseUuid, type, entry);
+		notifyCluster(releaseUuid, new JsonObject().put(ACTION_KEY, UPDATE_ACTION).put(TYPE_KEY, type.getCode()).put(ENTRY_KEY, entry.toJson()));
+	}
+
+	/**
+	 * Store the entry in the loaded trie of the release without notifying the other instances. This is used to repair the local trie using the webroot path
+	 * info which was read from the graph.
+	 *
+	 * @param releaseUuid
+	 * @param type
+	 * @param entry
+	 */
+	public static void updateLocally(String releaseUuid, ContainerType type, Entry entry) {
+		applyUpdate(releaseUuid, type, entry);
+	}
+
+	private static void applyUpdate(String releaseUuid, ContainerType type, Entry entry) {
+		GENERATION.incrementAndGet();
+		WebRootPathTrie trie = TRIES.get(key(releaseUuid, type));
+		if (trie == null) {
+			// Without the trie it is not possible to tell which paths were changed
+			WebRootLinkCache.invalidateRelease(releaseUuid);
+			return;
+		}
+		Entry previous = trie.add(entry);
+		if (previous == null || !Objects.equals(previous.getParentUuid(), entry.getParentUuid()) || !Objects.equals(previous.getSegment(), entry
+				.getSegment())) {
+			WebRootLinkCache.invalidateNodes(releaseUuid, type, trie.getSubtree(entry.getNodeUuid()));
+		}
+	}
+
+	/**
+	 * Remove the container from the loaded trie of the release. This must only be invoked once the removal has been committed.
+	 *
+	 * @param releaseUuid
+	 * @param type
+	 * @param containerId
+	 *            Numeric id of the container
+	 */
+	public static void remove(String releaseUuid, ContainerType type, long containerId) {
+		applyRemove(releaseUuid, type, containerId);
+		notifyCluster(releaseUuid, new JsonObject().put(ACTION_KEY, REMOVE_ACTION).put(TYPE_KEY, type.getCode()).put(ENTRY_KEY, new JsonObject().put(
+				Entry.CONTAINER_ID_KEY, containerId)));
+	}
+
+	/**
+	 * Remove the container from the loaded trie of the release without notifying the other instances. This is used to drop outdated entries of the local trie.
+	 *
+	 * @param releaseUuid
+	 * @param type
+	 * @param containerId
+	 */
+	public static void removeLocally(String releaseUuid, ContainerType type, long containerId) {
+		applyRemove(releaseUuid, type, containerId);
+	}
+
+	private static void applyRemove(String releaseUuid, ContainerType type, long containerId) {
+		GENERATION.incrementAndGet();
+		WebRootPathTrie trie = TRIES.get(key(releaseUuid, type));
+		if (trie == null) {
+			WebRootLinkCache.invalidateRelease(releaseUuid);
+			return;
+		}
+		Entry removed = trie.remove(containerId);
+		if (removed != null) {
+			WebRootLinkCache.invalidateNodes(releaseUuid, type, trie.getSubtree(removed.getNodeUuid()));
+		}
+	}
+
+	/**
+	 * Drop the tries and the cached links of the release. The tries will be reloaded on demand.
+	 *
+	 * @param releaseUuid
+	 * @param notify
+	 *            Whether other instances in the cluster should be notified
+	 */
+	public static void invalidateRelease(String releaseUuid, boolean notify) {
+		GENERATION.incrementAndGet();
+		for (ContainerType type : ContainerType.values()) {
+			TRIES.remove(key(releaseUuid, type));
+		}
+		WebRootLinkCache.invalidateRelease(releaseUuid);
+		if (notify) {
+			notifyCluster(releaseUuid, new JsonObject());
+		}
+	}
+
+	/**
+	 * Drop all tries.
+	 */
+	public static void invalidateAll() {
+		GENERATION.incrementAndGet();
+		TRIES.clear();
+		WebRootLinkCache.invalidateAll();
+	}
+
+	/**
+	 * Register the event handler which is used to apply the modifications of other instances to the loaded tries.
+	 */
+	public static void registerEventHandler() {
+		Mesh.vertx().eventBus().consumer(EVENT_INVALIDATE_WEBROOT_PATHS, (Message<JsonObject> e) -> {
+			JsonObject info = e.body();
+			String origin = info.getString(ORIGIN_KEY);
+			// The trie of the sender is already up to date
+			if (origin != null && origin.equals(Mesh.mesh().getOptions().getNodeName())) {
+				return;
+			}
+			String releaseUuid = info.getString(RELEASE_KEY);
+			String action = info.getString(ACTION_KEY);
+			ContainerType type = info.containsKey(TYPE_KEY) ? ContainerType.get(info.getString(TYPE_KEY)) : null;
+			JsonObject entry = info.getJsonObject(ENTRY_KEY);
+			if (UPDATE_ACTION.equals(action) && type != null && entry != null) {
+				applyUpdate(releaseUuid, type, Entry.fromJson(entry));
+			} else if (REMOVE_ACTION.equals(action) && type != null && entry != null) {
+				applyRemove(releaseUuid, type, entry.getLong(Entry.CONTAINER_ID_KEY));
+			} else {
+				if (log.isDebugEnabled()) {
+					log.debug("Invalidating webroot paths of release {" + releaseUuid + "} due to received event");
+				}
+				invalidateRelease(releaseUuid, false);
+			}
+		});
+	}
+
+	/**
+	 * Publish the modification of the webroot paths of the release to the other instances.
+	 *
+	 * @param releaseUuid
+	 * @param info
+	 *            Modification which should be applied by the other instances. The whole release will be invalidated if no action has been specified.
+	 */
+	private static void notifyCluster(String releaseUuid, JsonObject info) {
+		MeshOptions options = Mesh.mesh().getOptions();
+		Vertx vertx = Mesh.vertx();
+		// Vert.x may not yet be available while the initial data is being created
+		if (!options.getClusterOptions().isEnabled() || vertx == null) {
+			return;
+		}
+		info.put(RELEASE_KEY, releaseUuid);
+		info.put(ORIGIN_KEY, options.getNodeName());
+		vertx.eventBus().publish(EVENT_INVALIDATE_WEBROOT_PATHS, info);
+	}
+
+	/**
+	 * Return the uuid of the base node of the project.
+	 *
+	 * @return
+	 */
+	public String getBaseNodeUuid() {
+		return baseNodeUuid;
+	}
+
+	/**
+	 * Add the entry to the trie. A previous entry of the same container or of the same node and language will be replaced.
+	 *
+	 * @param entry
+	 * @return Previous entry of the node and language or null if the node had no entry for the language
+	 */
+	public synchronized Entry add(Entry entry) {
+		Map<String, Entry> currentLanguages = nodes.get(entry.getNodeUuid());
+		Entry previous = currentLanguages == null ? null : currentLanguages.get(entry.getLanguageTag());
+		remove(entry.getContainerId());
+		containers.put(entry.getContainerId(), entry);
+		nodes.computeIfAbsent(entry.getNodeUuid(), k -> new ConcurrentHashMap<>()).put(entry.getLanguageTag(), entry);
+		if (entry.getParentUuid() != null && entry.getSegment() != null) {
+			children.computeIfAbsent(entry.getParentUuid(), k -> new ConcurrentHashMap<>()).put(entry.getSegment(), entry);
+			missingSegments.invalidate(segmentKey(entry.getParentUuid(), entry.getSegment()));
+		}
+		return previous;
+	}
+
+	private static String segmentKey(String parentUuid, String segment) {
+		return parentUuid + "/" + segment;
+	}
+
+	/**
+	 * Remember that the node has no child with the given segment. The segment is not remembered if the tries were modified since the given generation.
+	 *
+	 * @param parentUuid
+	 * @param segment
+	 * @param generation
+	 *            Generation of the tries at the time the graph was checked for the segment
+	 */
+	public void addMissing(String parentUuid, String segment, long generation) {
+		if (GENERATION.get() != generation) {
+			return;
+		}
+		String key = segmentKey(parentUuid, segment);
+		missingSegments.put(key, Boolean.TRUE);
+		// The segment may have been added in between
+		if (GENERATION.get() != generation) {
+			missingSegments.invalidate(key);
+		}
+	}
+
+	/**
+	 * Check whether the segment is known to be missing.
+	 *
+	 * @param parentUuid
+	 * @param segment
+	 * @return
+	 */
+	public boolean isMissing(String parentUuid, String segment) {
+		boolean missing = missingSegments.getIfPresent(segmentKey(parentUuid, segment)) != null;
+		if (missing) {
+			MISSING_HITS.inc();
+		}
+		return missing;
+	}
+
+	/**
+	 * Remove the entry of the container from the trie.
+	 *
+	 * @param containerId
+	 * @return Removed entry if it provided the path of its node and language or null if the container was unknown or has already been replaced by another
+	 *         container of the node and language
+	 */
+	public synchronized Entry remove(long containerId) {
+		Entry entry = containers.remove(containerId);
+		if (entry == null) {
+			return null;
+		}
+		boolean current = false;
+		Map<String, Entry> languages = nodes.get(entry.getNodeUuid());
+		if (languages != null) {
+			current = languages.remove(entry.getLanguageTag(), entry);
+			if (languages.isEmpty()) {
+				nodes.remove(entry.getNodeUuid());
+			}
+		}
+		if (entry.getParentUuid() != null && entry.getSegment() != null) {
+			Map<String, Entry> segments = children.get(entry.getParentUuid());
+			if (segments != null) {
+				segments.remove(entry.getSegment(), entry);
+				if (segments.isEmpty()) {
+					children.remove(entry.getParentUuid());
+				}
+			}
+		}
+		return current ? entry : null;
+	}
+
+	/**
+	 * Return the uuids of the node and all of its descendants which provide a segment.
+	 *
+	 * @param nodeUuid
+	 * @return
+	 */
+	public Set<String> getSubtree(String nodeUuid) {
+		Set<String> uuids = new HashSet<>();
+		Deque<String> parents = new ArrayDeque<>();
+		uuids.add(nodeUuid);
+		parents.add(nodeUuid);
+		while (!parents.isEmpty()) {
+			Map<String, Entry> segments = children.get(parents.poll());
+			if (segments == null) {
+				continue;
+			}
+			for (Entry child : segments.values()) {
+				if (uuids.add(child.getNodeUuid())) {
+					parents.add(child.getNodeUuid());
+				}
+			}
+		}
+		return uuids;
+	}
+
+	/**
+	 * Find the child of the node which provides the given segment.
+	 *
+	 * @param parentUuid
+	 *            Uuid of the parent node
+	 * @param segment
+	 * @return Found entry or null if no child provides the segment
+	 */
+	public Entry find(String parentUuid, String segment) {
+		Map<String, Entry> segments = children.get(parentUuid);
+		Entry entry = segments == null ? null : segments.get(segment);
+		if (entry == null) {
+			MISSES.inc();
+		} else {
+			HITS.inc();
+		}
+		return entry;
+	}
+
+	/**
+	 * Return the segments of the path to the given node. The first matching language is used for the segment of the node itself. The segments of the parent
+	 * nodes may also use any of the fallback languages.
+	 *
+	 * @param nodeUuid
+	 * @param languageTags
+	 *            Languages of the node segment
+	 * @param fallbackLanguageTags
+	 *            Additional languages for the segments of the parent nodes
+	 * @return Segments of the path starting with the first segment below the base node or null if the path can't be determined using the trie
+	 */
+	public List<String> getSegments(String nodeUuid, List<String> languageTags, Collection<? extends String> fallbackLanguageTags) {
+		if (baseNodeUuid.equals(nodeUuid)) {
+			return Collections.singletonList("");
+		}
+		List<String> segments = new ArrayList<>();
+		Entry entry = findByLanguage(nodeUuid, languageTags, Collections.emptyList());
+		while (entry != null) {
+			if (entry.getSegment() == null) {
+				return null;
+			}
+			segments.add(entry.getSegment());
+			if (baseNodeUuid.equals(entry.getParentUuid())) {
+				Collections.reverse(segments);
+				HITS.inc();
+				return segments;
+			}
+			entry = findByLanguage(entry.getParentUuid(), languageTags, fallbackLanguageTags);
+		}
+		MISSES.inc();
+		return null;
+	}
+
+	private Entry findByLanguage(String nodeUuid, List<String> languageTags, Collection<? extends String> fallbackLanguageTags) {
+		if (nodeUuid == null) {
+			return null;
+		}
+		Map<String, Entry> languages = nodes.get(nodeUuid);
+		if (languages == null) {
+			return null;
+		}
+		for (String tag : languageTags) {
+			Entry entry = languages.get(tag);
+			if (entry != null) {
+				return entry;
+			}
+		}
+		for (String tag : fallbackLanguageTags) {
+			Entry entry = languages.get(tag);
+			if (entry != null) {
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Webroot path info of a single container.
+	 */
+	public static class Entry {
+
+		private static final String CONTAINER_ID_KEY = "containerId";
+
+		private static final String NODE_UUID_KEY = "nodeUuid";
+
+		private static final String PARENT_UUID_KEY = "parentUuid";
+
+		private static final String LANGUAGE_TAG_KEY = "languageTag";
+
+		private static final String SEGMENT_KEY = "segment";
+
+		private final long containerId;
+
+		private final String nodeUuid;
+
+		private final String parentUuid;
+
+		private final String languageTag;
+
+		private final String segment;
+
+		/**
+		 * Create a new entry.
+		 *
+		 * @param containerId
+		 *            Numeric id of the container
+		 * @param nodeUuid
+		 *            Uuid of the node of the container
+		 * @param parentUuid
+		 *            Uuid of the parent node or null for the base node
+		 * @param languageTag
+		 *            Language of the container
+		 * @param segment
+		 *            Path segment of the container or null if the container does not provide a segment
+		 */
+		public Entry(long containerId, String nodeUuid, String parentUuid, String languageTag, String segment) {
+			this.containerId = containerId;
+			this.nodeUuid = nodeUuid;
+			this.parentUuid = parentUuid;
+			this.languageTag = languageTag;
+			this.segment = segment;
+		}
+
+		/**
+		 * Create the entry from the JSON which was created via {@link #toJson()}.
+		 *
+		 * @param json
+		 * @return
+		 */
+		public static Entry fromJson(JsonObject json) {
+			return new Entry(json.getLong(CONTAINER_ID_KEY), json.getString(NODE_UUID_KEY), json.getString(PARENT_UUID_KEY), json.getString(
+					LANGUAGE_TAG_KEY), json.getString(SEGMENT_KEY));
+		}
+
+		/**
+		 * Return the JSON representation which is used to publish the entry to the other instances.
+		 *
+		 * @return
+		 */
+		public JsonObject toJson() {
+			return new JsonObject().put(CONTAINER_ID_KEY, containerId).put(NODE_UUID_KEY, nodeUuid).put(PARENT_UUID_KEY, parentUuid).put(LANGUAGE_TAG_KEY,
+					languageTag).put(SEGMENT_KEY, segment);
+		}
+
+		public long getContainerId() {
+			return containerId;
+		}
+
+		public String getNodeUuid() {
+			return nodeUuid;
+		}
+
+		public String getParentUuid() {
+			return parentUuid;
+		}
+
+		public String getLanguageTag() {
+			return languageTag;
+		}
+
+		public String getSegment() {
+			return segment;
+		}
+
+	}
+
+}
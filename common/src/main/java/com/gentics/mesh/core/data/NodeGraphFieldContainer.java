@@ -182,6 +182,17 @@ public interface NodeGraphFieldContainer extends GraphFieldContainer, EditorTrac
 	 */
 	void updateWebrootPathInfo(String releaseUuid, String conflictI18n);
 
+	/**
+	 * Reset the webroot path info and the webroot url field info of the given type. The container will also be removed from the webroot path trie of the
+	 * release.
+	 * 
+	 * @param releaseUuid
+	 *            release Uuid
+	 * @param type
+	 *            Draft or published type
+	 */
+	void clearWebrootPathInfo(String releaseUuid, ContainerType type);
+
 	/**
 	 * Get the Version Number or null if no version set.
 	 * 
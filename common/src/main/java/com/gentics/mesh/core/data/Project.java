@@ -158,4 +158,10 @@ public interface Project extends MeshCoreVertex<ProjectResponse, Project>, Refer
 	 */
 	ReleaseRoot getReleaseRoot();
 
+	/**
+	 * Drop the cached webroot paths and rendered links of all releases of the project once the current transaction has been committed. This is needed when
+	 * information which is part of the rendered links (e.g. the project name or the hostname of a release) is modified.
+	 */
+	void invalidateWebrootPaths();
+
 }
@@ -78,6 +78,12 @@ public interface Tag extends MeshCoreVertex<TagResponse, Tag>, ReferenceableElem
 	 */
 	List<? extends Node> getNodes(Release release);
 
+	/**
+	 * Update the etag stamps of all nodes which were tagged by this tag in any release. This is needed when information which is part of the tag references
+	 * of the nodes changes.
+	 */
+	void updateNodeETagStamps();
+
 	/**
 	 * Return a page of nodes that are visible to the user and which are tagged by this tag. Use the paging and language information provided.
 	 * 
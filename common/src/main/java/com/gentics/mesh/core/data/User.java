@@ -8,6 +8,7 @@ import static com.gentics.mesh.search.SearchProvider.INDEX_PREFIX;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import com.gentics.mesh.context.InternalActionContext;
 import com.gentics.mesh.core.TypeInfo;
@@ -182,6 +183,13 @@ public interface User extends MeshCoreVertex<UserResponse, User>, ReferenceableE
 	 */
 	User setReferencedNode(Node node);
 
+	/**
+	 * Return a hash of the roles which are assigned to the user. The hash changes whenever the user is assigned to other roles.
+	 * 
+	 * @return
+	 */
+	String getRolesHash();
+
 	/**
 	 * Return the permission info object for the given vertex.
 	 * 
@@ -327,6 +335,15 @@ public interface User extends MeshCoreVertex<UserResponse, User>, ReferenceableE
 	 */
 	boolean hasPermissionForId(Object elementId, GraphPermission permission);
 
+	/**
+	 * Create a filter which checks whether the user has the given permission on the element with the tested id. The filter should be used when checking the
+	 * permissions of many elements since read permissions will be checked using the materialized permission index of the roles of the user.
+	 * 
+	 * @param permission
+	 * @return Predicate which accepts the element id
+	 */
+	Predicate<Object> createPermissionFilter(GraphPermission permission);
+
 	/**
 	 * Check the read permission on the given container and fail if the needed permission to read the container is not set. This method will not fail if the
 	 * user has READ permission or READ_PUBLISH permission on a published node.
@@ -71,4 +71,17 @@ public interface BinaryRoot extends MeshVertex {
 	 */
 	Binary create(String hash, Long size);
 
+	/**
+	 * Create a new binary with the given uuid. This is used for binaries whose data was stored before the binary was created.
+	 * 
+	 * @param uuid
+	 *            Uuid of the binary
+	 * @param hash
+	 *            Hash sum of the binary
+	 * @param size
+	 *            Size in bytes
+	 * @return
+	 */
+	Binary create(String uuid, String hash, Long size);
+
 }
\ No newline at end of file
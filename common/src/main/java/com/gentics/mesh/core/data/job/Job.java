@@ -28,6 +28,8 @@ public interface Job extends MeshCoreVertex<JobResponse, Job>, CreatorTrackingVe
 
 	public static final String COMPLETION_COUNT_PROPERTY_KEY = "completionCount";
 
+	public static final String CHECKPOINT_PROPERTY_KEY = "checkpoint";
+
 	public static final String STATUS_PROPERTY_KEY = "status";
 
 	public static final String NODE_NAME_PROPERTY_KEY = "nodeName";
@@ -257,6 +259,21 @@ public interface Job extends MeshCoreVertex<JobResponse, Job>, CreatorTrackingVe
 	 */
 	void setCompletionCount(long count);
 
+	/**
+	 * Return the checkpoint of the job. The checkpoint is recorded by jobs which commit their work in chunks and allows a restarted job to resume where it
+	 * left off.
+	 * 
+	 * @return Checkpoint or null if no checkpoint has been recorded
+	 */
+	Long getCheckpoint();
+
+	/**
+	 * Set the checkpoint of the job.
+	 * 
+	 * @param checkpoint
+	 */
+	void setCheckpoint(Long checkpoint);
+
 	/**
 	 * Get migration status.
 	 * 
@@ -53,6 +53,14 @@ public interface JobRoot extends RootVertex<Job> {
 	 */
 	Job enqueueReleaseMigration(User creator, Release release);
 
+	/**
+	 * Enqueue a full reindex of the search indices.
+	 * 
+	 * @param creator
+	 * @return
+	 */
+	Job enqueueReindex(User creator);
+
 	/**
 	 * Process all remaining jobs.
 	 */
@@ -293,6 +293,33 @@ public interface Node extends MeshCoreVertex<NodeResponse, Node>, CreatorTrackin
 	 */
 	void setParentNode(String releaseUuid, Node parentNode);
 
+	/**
+	 * Return the stamp which is used to compute the etag of the node. The stamp covers information of the node response which is neither part of the field
+	 * containers nor of the paths of the node (e.g. tags and permissions). The etag of the parent nodes also contains the stamps of their children.
+	 * 
+	 * @return Stamp or null if the stamp was not yet updated
+	 */
+	String getETagStamp();
+
+	/**
+	 * Update the etag stamp of the node.
+	 */
+	void updateETagStamp();
+
+	/**
+	 * Return the stamp of the path information of the node. The etag of a node contains the path stamps of the node and all of its parents since the
+	 * breadcrumb and the paths of a node depend on the parents.
+	 * 
+	 * @return Stamp or null if the stamp was not yet updated
+	 */
+	String getPathStamp();
+
+	/**
+	 * Update the path stamp of the node. This is needed whenever containers of the node are created, updated, published, taken offline or deleted and whenever
+	 * the node is moved.
+	 */
+	void updatePathStamp();
+
 	/**
 	 * Create a child node in this node in the latest release of the project.
 	 * 
@@ -7,10 +7,12 @@ import com.gentics.mesh.context.InternalActionContext;
 import com.gentics.mesh.core.data.TransformableElement;
 import com.gentics.mesh.core.rest.common.ListResponse;
 import com.gentics.mesh.core.rest.common.RestModel;
+import com.gentics.mesh.json.JsonUtil;
 import com.gentics.mesh.util.ETag;
 
 import io.reactivex.Observable;
 import io.reactivex.Single;
+import io.vertx.core.buffer.Buffer;
 
 /**
  * A transformable page is a page which contains {@link TransformableElement}. Thus it is possible to compute the etag for the page and transform the page into
@@ -46,6 +48,30 @@ public interface TransformablePage<T extends TransformableElement<? extends Rest
 		});
 	}
 
+	/**
+	 * Transform the page into the JSON of a list response. The elements are transformed and serialized one after another which avoids holding the rest
+	 * models of the whole page in memory. This method must be invoked within a transaction.
+	 * 
+	 * @param ac
+	 * @param level
+	 *            Level of transformation
+	 * @return Buffer which contains the UTF-8 encoded JSON
+	 */
+	default Buffer transformToJson(InternalActionContext ac, int level) {
+		return JsonUtil.toJsonBuffer(ac.isPrettyPrint(), gen -> {
+			gen.writeStartObject();
+			gen.writeArrayFieldStart("data");
+			for (T element : getWrappedList()) {
+				gen.writeObject(element.transformToRest(ac, level).blockingGet());
+			}
+			gen.writeEndArray();
+			ListResponse<RestModel> listResponse = new ListResponse<>();
+			setPaging(listResponse);
+			gen.writeObjectField("_metainfo", listResponse.getMetainfo());
+			gen.writeEndObject();
+		});
+	}
+
 	/**
 	 * Return the eTag of the page. The etag is calculated using the following information:
 	 * <ul>
@@ -68,6 +94,5 @@ public interface TransformablePage<T extends TransformableElement<? extends Rest
 		}
 		return ETag.hash(builder.toString());
 	}
-	
 
 }
@@ -7,10 +7,14 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import com.gentics.mesh.core.data.page.Page;
 import com.gentics.mesh.core.rest.error.GenericRestException;
+import com.gentics.mesh.graphdb.model.MeshElement;
 import com.gentics.mesh.parameter.PagingParameters;
+import com.gentics.mesh.util.PagingCursor;
 
 public abstract class AbstractDynamicPage<T> implements Page<T> {
 
@@ -37,6 +41,26 @@ public abstract class AbstractDynamicPage<T> implements Page<T> {
 
 	protected Iterator<? extends T> visibleItems;
 
+	/**
+	 * Cursor which was specified by the client.
+	 */
+	protected String cursor;
+
+	/**
+	 * Uuid of the element after which the page starts.
+	 */
+	protected String after;
+
+	/**
+	 * Whether the element of the cursor has been found.
+	 */
+	protected AtomicBoolean cursorFound = new AtomicBoolean();
+
+	/**
+	 * Whether the total count should be determined.
+	 */
+	protected boolean countTotal;
+
 	public AbstractDynamicPage(PagingParameters pagingInfo) {
 		if (pagingInfo.getPage() < 1) {
 			throw new GenericRestException(BAD_REQUEST, "error_page_parameter_must_be_positive", String.valueOf(pagingInfo.getPage()));
@@ -48,13 +72,75 @@ public abstract class AbstractDynamicPage<T> implements Page<T> {
 		this.perPage = pagingInfo.getPerPage();
 
 		this.lowerBound = (pageNumber - 1) * perPage;
+		this.cursor = pagingInfo.getAfter();
+		if (cursor != null) {
+			this.after = PagingCursor.decode(cursor);
+		}
+		this.countTotal = pagingInfo.getTotalCount();
 
-		if (perPage == 0) {
+		// The page number is ignored when paging using a cursor
+		if (perPage == 0 || after != null) {
 			this.lowerBound = 0;
 		}
 
 	}
 
+	/**
+	 * Create a filter which rejects all elements up to and including the element that is identified by the cursor. Subsequent elements will be accepted.
+	 * 
+	 * @param uuidFunction
+	 *            Function which returns the uuid of the element
+	 * @param visibilityFilter
+	 *            Filter which checks whether the element of the cursor is part of the list or null if the filter is applied to the visible elements
+	 * @return Stateful filter which must only be used once
+	 */
+	protected <E> Predicate<E> createCursorFilter(Function<E, String> uuidFunction, Predicate<E> visibilityFilter) {
+		return item -> {
+			if (cursorFound.get()) {
+				return true;
+			}
+			if (after.equals(uuidFunction.apply(item))) {
+				// Continuing after an element which the user can't see would disclose its position within the list
+				if (visibilityFilter != null && !visibilityFilter.test(item)) {
+					throw new GenericRestException(BAD_REQUEST, "error_paging_cursor_not_found", cursor);
+				}
+				cursorFound.set(true);
+			}
+			return false;
+		};
+	}
+
+	/**
+	 * Wrap the iterator so that the cursor is rejected once all elements have been handled without finding the element of the cursor. This happens when the
+	 * element was deleted or is not visible to the user.
+	 * 
+	 * @param iterator
+	 * @return
+	 */
+	protected <E> Iterator<E> verifyCursor(Iterator<E> iterator) {
+		if (after == null) {
+			return iterator;
+		}
+		return new Iterator<E>() {
+
+			@Override
+			public boolean hasNext() {
+				if (iterator.hasNext()) {
+					return true;
+				}
+				if (!cursorFound.get()) {
+					throw new GenericRestException(BAD_REQUEST, "error_paging_cursor_not_found", cursor);
+				}
+				return false;
+			}
+
+			@Override
+			public E next() {
+				return iterator.next();
+			}
+		};
+	}
+
 	@Override
 	public int getPerPage() {
 		return perPage;
@@ -62,6 +148,9 @@ public abstract class AbstractDynamicPage<T> implements Page<T> {
 
 	@Override
 	public long getPageCount() {
+		if (!countTotal) {
+			return -1;
+		}
 		if (totalPages == null) {
 			// The totalPages of the list response must be zero if the perPage parameter is also zero.
 			totalPages = 0L;
@@ -79,6 +168,9 @@ public abstract class AbstractDynamicPage<T> implements Page<T> {
 
 	@Override
 	public long getTotalElements() {
+		if (!countTotal) {
+			return -1;
+		}
 		// Iterate over all elements to determine the total count
 		while (visibleItems.hasNext()) {
 			visibleItems.next();
@@ -104,4 +196,17 @@ public abstract class AbstractDynamicPage<T> implements Page<T> {
 		return hasNextPage.get();
 	}
 
+	@Override
+	public String getNextCursor() {
+		List<? extends T> elements = getWrappedList();
+		if (elements.isEmpty() || !hasNextPage()) {
+			return null;
+		}
+		T last = elements.get(elements.size() - 1);
+		if (last instanceof MeshElement) {
+			return PagingCursor.encode(((MeshElement) last).getUuid());
+		}
+		return null;
+	}
+
 }
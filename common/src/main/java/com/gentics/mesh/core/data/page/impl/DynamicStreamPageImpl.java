@@ -1,8 +1,10 @@
 package com.gentics.mesh.core.data.page.impl;
 
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import com.gentics.mesh.graphdb.model.MeshElement;
 import com.gentics.mesh.parameter.PagingParameters;
 
 public class DynamicStreamPageImpl<T> extends AbstractDynamicPage<T> {
@@ -15,12 +17,27 @@ public class DynamicStreamPageImpl<T> extends AbstractDynamicPage<T> {
 	private void init(Stream<? extends T> stream) {
 
 		AtomicLong pageCounter = new AtomicLong();
-		visibleItems = stream
+		Predicate<T> cursorFilter = null;
+		if (after != null) {
+			// The stream only contains visible elements. The cursor element thus doesn't need to be checked.
+			cursorFilter = createCursorFilter(item -> item instanceof MeshElement ? ((MeshElement) item).getUuid() : null, null);
+		}
 
-				.map(item -> {
-					totalCounter.incrementAndGet();
-					return item;
-				})
+		// Elements before the cursor don't need to be handled at all if the total count is not needed
+		if (cursorFilter != null && !countTotal) {
+			stream = stream.filter(cursorFilter);
+		}
+
+		stream = stream.map(item -> {
+			totalCounter.incrementAndGet();
+			return item;
+		});
+
+		if (cursorFilter != null && countTotal) {
+			stream = stream.filter(cursorFilter);
+		}
+
+		visibleItems = verifyCursor(stream
 
 				// Apply paging - skip to lower bounds
 				.skip(lowerBound)
@@ -38,7 +55,7 @@ public class DynamicStreamPageImpl<T> extends AbstractDynamicPage<T> {
 					return item;
 				})
 
-				.iterator();
+				.iterator());
 
 	}
 
@@ -1,19 +1,28 @@
 package com.gentics.mesh.core.data.page.impl;
 
 import static com.gentics.mesh.core.data.relationship.GraphPermission.READ_PERM;
+import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import com.gentics.mesh.core.data.MeshVertex;
 import com.gentics.mesh.core.data.TransformableElement;
 import com.gentics.mesh.core.data.User;
 import com.gentics.mesh.core.data.page.TransformablePage;
 import com.gentics.mesh.core.data.relationship.GraphPermission;
 import com.gentics.mesh.core.data.root.RootVertex;
 import com.gentics.mesh.core.rest.common.RestModel;
+import com.gentics.mesh.core.rest.error.GenericRestException;
+import com.gentics.mesh.graphdb.spi.Database;
 import com.gentics.mesh.parameter.PagingParameters;
 import com.syncleus.ferma.FramedGraph;
 import com.syncleus.ferma.traversals.VertexTraversal;
@@ -25,7 +34,11 @@ import com.tinkerpop.blueprints.Vertex;
 /**
  * This page implementation will handle paging internally and on-demand. The internal paging will only iterate over as many items as the needed operation
  * requires. Loading the first page will thus only iterate over the elements of the first page. Loading the total count on the other hand requires the
- * implementation to iterate over all edges.
+ * implementation to iterate over all edges. Clients which scroll through the elements should thus use a cursor and disable the total count. The permissions
+ * of the elements before the cursor will not be checked in that case.
+ * 
+ * The elements of root vertices are read from the sorted edge index of the root in the order of their ids. A cursor page of a root vertex thus seeks
+ * directly to the element of the cursor without iterating over the elements before.
  * 
  * @param <T>
  */
@@ -38,6 +51,11 @@ public class DynamicTransformablePageImpl<T extends TransformableElement<? exten
 
 	private boolean frameExplicitly;
 
+	/**
+	 * Amount of ids which are read from the sorted edge index at once.
+	 */
+	private static final int SEEK_CHUNK_SIZE = 100;
+
 	private DynamicTransformablePageImpl(User requestUser, PagingParameters pagingInfo, Predicate<Vertex> extraFilter, boolean frameExplicitly) {
 		super(pagingInfo);
 		this.extraFilter = extraFilter;
@@ -79,7 +97,87 @@ public class DynamicTransformablePageImpl<T extends TransformableElement<? exten
 	public DynamicTransformablePageImpl(User requestUser, RootVertex<? extends T> root, PagingParameters pagingInfo, GraphPermission perm,
 			Predicate<Vertex> extraFilter, boolean frameExplicitly) {
 		this(requestUser, pagingInfo, extraFilter, frameExplicitly);
-		init(root.getPersistanceClass(), "e." + root.getRootLabel().toLowerCase() + "_out", root.getId(), Direction.IN, root.getGraph(), perm);
+		Database db = root.database();
+		FramedGraph graph = root.getGraph();
+		String label = root.getRootLabel();
+		Object rootId = root.getId();
+		// Fall back to the unsorted edge index for roots which have no sorted edge index
+		if (db.edgeLookupAscending(label, rootId, null, 0) == null) {
+			init(root.getPersistanceClass(), "e." + label.toLowerCase() + "_out", rootId, Direction.IN, graph, perm);
+			return;
+		}
+		Object afterId = null;
+		// The total count needs all elements. The elements before the cursor can only be skipped otherwise.
+		if (after != null && !countTotal) {
+			afterId = seekCursor(root, perm);
+		}
+		Iterator<Vertex> vertices = sortedVertices(db, graph, label, rootId, afterId);
+		Stream<Vertex> stream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(vertices, Spliterator.ORDERED), false);
+		applyPagingAndPermChecks(stream, root.getPersistanceClass(), perm);
+	}
+
+	/**
+	 * Locate the element of the cursor within the root vertex and check whether it is visible to the user.
+	 * 
+	 * @param root
+	 * @param perm
+	 * @return Id of the element of the cursor
+	 */
+	private Object seekCursor(RootVertex<? extends T> root, GraphPermission perm) {
+		T element = root.findByUuid(after);
+		if (element == null) {
+			throw new GenericRestException(BAD_REQUEST, "error_paging_cursor_not_found", cursor);
+		}
+		Vertex vertex = (Vertex) element.getElement();
+		// Continuing after an element which the user can't see would disclose its position within the list
+		boolean visible = perm == null || requestUser.hasPermissionForId(vertex.getId(), perm);
+		if (!visible || (extraFilter != null && !extraFilter.test(vertex))) {
+			throw new GenericRestException(BAD_REQUEST, "error_paging_cursor_not_found", cursor);
+		}
+		cursorFound.set(true);
+		return vertex.getId();
+	}
+
+	/**
+	 * Return an iterator which reads the vertices of the root from the sorted edge index in chunks.
+	 * 
+	 * @param db
+	 * @param graph
+	 * @param label
+	 *            Label of the root edges
+	 * @param rootId
+	 * @param afterId
+	 *            Id of the vertex after which the iteration starts or null to start with the first vertex
+	 * @return
+	 */
+	private Iterator<Vertex> sortedVertices(Database db, FramedGraph graph, String label, Object rootId, Object afterId) {
+		return new Iterator<Vertex>() {
+
+			private Iterator<Object> chunk = Collections.emptyIterator();
+
+			private Object lastId = afterId;
+
+			private boolean exhausted;
+
+			@Override
+			public boolean hasNext() {
+				if (!chunk.hasNext() && !exhausted) {
+					List<Object> ids = db.edgeLookupAscending(label, rootId, lastId, SEEK_CHUNK_SIZE);
+					exhausted = ids.size() < SEEK_CHUNK_SIZE;
+					chunk = ids.iterator();
+				}
+				return chunk.hasNext();
+			}
+
+			@Override
+			public Vertex next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				lastId = chunk.next();
+				return graph.getVertex(lastId);
+			}
+		};
 	}
 
 	/**
@@ -141,21 +239,40 @@ public class DynamicTransformablePageImpl<T extends TransformableElement<? exten
 		AtomicLong pageCounter = new AtomicLong();
 		FramedGraph graph = Tx.getActive().getGraph();
 
-		// Only handle elements which are visible to the user
+		// Only handle elements which are visible to the user. The filter will use the permission index of the roles instead of checking every single element.
+		Predicate<Vertex> visibilityFilter = null;
 		if (perm != null) {
-			stream = stream.filter(item -> requestUser.hasPermissionForId(item.getId(), perm));
+			Predicate<Object> permissionFilter = requestUser.createPermissionFilter(perm);
+			visibilityFilter = item -> permissionFilter.test(item.getId());
 		}
-
 		if (extraFilter != null) {
-			stream = stream.filter(extraFilter);
+			visibilityFilter = visibilityFilter == null ? extraFilter : visibilityFilter.and(extraFilter);
+		}
+
+		// Elements before the cursor don't need to be checked at all if the total count is not needed. Only the element of the cursor itself is checked.
+		Predicate<Vertex> cursorFilter = null;
+		// The cursor has already been found if the iteration starts after it
+		if (after != null && !cursorFound.get()) {
+			cursorFilter = createCursorFilter(item -> item.getProperty(MeshVertex.UUID_KEY), countTotal ? null : visibilityFilter);
+		}
+		if (cursorFilter != null && !countTotal) {
+			stream = stream.filter(cursorFilter);
 		}
 
-		visibleItems = stream
+		if (visibilityFilter != null) {
+			stream = stream.filter(visibilityFilter);
+		}
 
-				.map(item -> {
-					totalCounter.incrementAndGet();
-					return item;
-				})
+		stream = stream.map(item -> {
+			totalCounter.incrementAndGet();
+			return item;
+		});
+
+		if (cursorFilter != null && countTotal) {
+			stream = stream.filter(cursorFilter);
+		}
+
+		visibleItems = verifyCursor(stream
 
 				// Apply paging - skip to lower bounds
 				.skip(lowerBound)
@@ -182,7 +299,7 @@ public class DynamicTransformablePageImpl<T extends TransformableElement<? exten
 					return null;
 				})
 
-				.iterator();
+				.iterator());
 
 	}
 
@@ -6,8 +6,13 @@ import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 import static io.netty.handler.codec.http.HttpResponseStatus.FORBIDDEN;
 import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 
 import com.gentics.mesh.context.InternalActionContext;
@@ -166,6 +171,46 @@ public interface RootVertex<T extends MeshCoreVertex<? extends RestModel, T>> ex
 		return null;
 	}
 
+	/**
+	 * Find the elements with the given uuids. The elements and their root edges are located using one multi-key index query each.
+	 * 
+	 * @param uuids
+	 *            Uuids of the elements to be located. Duplicate uuids are only looked up once.
+	 * @return Found elements per uuid. Uuids of elements which could not be located are omitted.
+	 */
+	default public Map<String, T> findByUuids(Collection<String> uuids) {
+		Map<String, T> elements = new HashMap<>(uuids.size());
+		if (uuids.isEmpty()) {
+			return elements;
+		}
+		FramedGraph graph = Tx.getActive().getGraph();
+		Database db = database();
+		Class<? extends T> clazz = getPersistanceClass();
+		Object rootId = getId();
+
+		// 1. Find the elements with the given uuids within the whole graph
+		Map<Object, Object> vertexIds = db.getVertexIds(clazz, MeshVertex.UUID_KEY, new HashSet<>(uuids));
+		if (vertexIds.isEmpty()) {
+			return elements;
+		}
+
+		// 2. Use the edge index to determine which of the elements are part of this root vertex
+		Map<Object, String> uuidsByKey = new HashMap<>(vertexIds.size());
+		for (Map.Entry<Object, Object> entry : vertexIds.entrySet()) {
+			uuidsByKey.put(db.createComposedIndexKey(entry.getValue(), rootId), (String) entry.getKey());
+		}
+		Set<Object> foundKeys = db.edgeLookupKeys(getRootLabel(), "inout", uuidsByKey.keySet());
+		for (Map.Entry<Object, String> entry : uuidsByKey.entrySet()) {
+			boolean found = foundKeys == null ? graph.getEdges("e." + getRootLabel().toLowerCase() + "_inout", entry.getKey()).iterator().hasNext()
+					: foundKeys.contains(entry.getKey());
+			if (found) {
+				String uuid = entry.getValue();
+				elements.put(uuid, graph.getFramedVertexExplicit(clazz, vertexIds.get(uuid)));
+			}
+		}
+		return elements;
+	}
+
 	/**
 	 * Load the object by uuid and check the given permission.
 	 * 
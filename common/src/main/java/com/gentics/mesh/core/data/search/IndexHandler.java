@@ -2,6 +2,8 @@ package com.gentics.mesh.core.data.search;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import com.gentics.mesh.context.InternalActionContext;
 import com.gentics.mesh.core.data.MeshCoreVertex;
@@ -65,6 +67,27 @@ public interface IndexHandler<T extends MeshCoreVertex<?, T>> {
 	 */
 	Completable reindexAll();
 
+	/**
+	 * Reindex all documents for the type which the handler is capable of. The elements are processed in chunks which are ordered by their id. Each chunk is
+	 * loaded and transformed within its own transaction and the resulting documents are stored using bulk requests.
+	 * 
+	 * @param indexMapper
+	 *            Function which maps the name of an index to the name of the index which should receive the documents
+	 * @param checkpoint
+	 *            Numeric id of the last element which has been reindexed by a previous run or null to reindex all elements
+	 * @param progress
+	 *            Consumer which will be invoked with the numeric id of the last element and the amount of elements of every stored chunk
+	 * @return
+	 */
+	Completable reindexAll(Function<String, String> indexMapper, Long checkpoint, BiConsumer<Long, Integer> progress);
+
+	/**
+	 * Count the documents which a full reindex would store. The documents are only counted and not transformed.
+	 * 
+	 * @return Amount of documents per index
+	 */
+	Map<String, Long> getDocumentCounts();
+
 	/**
 	 * Load a map which contains the applicable indices. The key of the map is the index name.
 	 * 
@@ -0,0 +1,56 @@
+package com.gentics.mesh.core.data.search;
+
+import com.gentics.mesh.core.data.MeshVertex;
+
+/**
+ * Search queue batch which was written to the search index outbox. The outbox batch is created within the transaction which also contains the changes which
+ * need to be applied to the search index. The background indexer processes the outbox batches and removes them once the search index has been updated.
+ */
+public interface SearchOutboxBatch extends MeshVertex {
+
+	static final String ENTRIES_PROPERTY_KEY = "entries";
+
+	static final String CREATED_PROPERTY_KEY = "created";
+
+	/**
+	 * Return the serialized entries of the batch.
+	 * 
+	 * @return JSON array of the entries
+	 */
+	default String getEntries() {
+		return getProperty(ENTRIES_PROPERTY_KEY);
+	}
+
+	/**
+	 * Set the serialized entries of the batch.
+	 * 
+	 * @param entries
+	 *            JSON array of the entries
+	 * @return Fluent API
+	 */
+	default SearchOutboxBatch setEntries(String entries) {
+		setProperty(ENTRIES_PROPERTY_KEY, entries);
+		return this;
+	}
+
+	/**
+	 * Return the creation timestamp of the batch. Batches are processed in the order of their creation.
+	 * 
+	 * @return
+	 */
+	default Long getCreated() {
+		return getProperty(CREATED_PROPERTY_KEY);
+	}
+
+	/**
+	 * Set the creation timestamp of the batch.
+	 * 
+	 * @param timestamp
+	 * @return Fluent API
+	 */
+	default SearchOutboxBatch setCreated(long timestamp) {
+		setProperty(CREATED_PROPERTY_KEY, timestamp);
+		return this;
+	}
+
+}
@@ -15,6 +15,8 @@ import com.gentics.mesh.core.data.schema.SchemaContainerVersion;
 import com.gentics.mesh.core.data.search.context.GenericEntryContext;
 import com.gentics.mesh.core.data.search.context.impl.GenericEntryContextImpl;
 import com.gentics.mesh.core.rest.schema.Schema;
+import com.gentics.mesh.parameter.ParameterProviderContext;
+import com.gentics.mesh.parameter.SearchParameters;
 
 import io.reactivex.Completable;
 
@@ -163,6 +165,26 @@ public interface SearchQueueBatch {
 	 */
 	Completable processAsync();
 
+	/**
+	 * Process this batch by invoking process on all batch entries.
+	 * 
+	 * @param refresh
+	 *            Whether to refresh the search indices once all entries have been processed. Callers which process many batches in a row can skip the
+	 *            refresh and refresh once at the end.
+	 * @return
+	 */
+	Completable processAsync(boolean refresh);
+
+	/**
+	 * Process this batch by invoking process on all batch entries. Entries which were written to the search index outbox are only awaited if the request
+	 * asked for it via {@link SearchParameters#isWaitForIndex()}.
+	 * 
+	 * @param ac
+	 *            Context of the request which caused the changes
+	 * @return
+	 */
+	Completable processAsync(ParameterProviderContext ac);
+
 	/**
 	 * Process this batch blocking and fail if the given timeout was exceeded.
 	 * 
@@ -176,6 +198,15 @@ public interface SearchQueueBatch {
 	 */
 	void processSync();
 
+	/**
+	 * Process this batch and block until it finishes. Entries which were written to the search index outbox are only awaited if the request asked for it via
+	 * {@link SearchParameters#isWaitForIndex()}.
+	 * 
+	 * @param ac
+	 *            Context of the request which caused the changes
+	 */
+	void processSync(ParameterProviderContext ac);
+
 	/**
 	 * Print debug output which contains information about all entries of the batch.
 	 */
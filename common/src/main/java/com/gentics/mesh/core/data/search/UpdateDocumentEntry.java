@@ -1,5 +1,8 @@
 package com.gentics.mesh.core.data.search;
 
+import java.util.Arrays;
+import java.util.List;
+
 import com.gentics.mesh.core.data.search.context.GenericEntryContext;
 
 /**
@@ -14,4 +17,19 @@ public interface UpdateDocumentEntry extends SearchQueueEntry<GenericEntryContex
 	 */
 	String getElementUuid();
 
+	/**
+	 * Return the key which identifies the document that is handled by the entry. Entries with the same key handle the same document and only need to be
+	 * processed once.
+	 * 
+	 * @return
+	 */
+	default List<Object> getDocumentKey() {
+		GenericEntryContext context = getContext();
+		if (context == null) {
+			return Arrays.asList(getElementUuid(), getElementAction());
+		}
+		return Arrays.asList(getElementUuid(), getElementAction(), context.getReleaseUuid(), context.getContainerType(), context.getLanguageTag(), context
+			.getProjectUuid(), context.getSchemaContainerVersionUuid());
+	}
+
 }
@@ -4,14 +4,27 @@ import static com.gentics.mesh.core.rest.error.Errors.error;
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import com.codahale.metrics.Timer;
 
 import com.gentics.mesh.etc.config.ImageManipulatorOptions;
+import com.gentics.mesh.metric.MeshMetrics;
 import com.gentics.mesh.parameter.ImageManipulationParameters;
+import com.gentics.mesh.parameter.image.ImageFormat;
 import com.gentics.mesh.util.RxUtil;
 
 import io.reactivex.Observable;
@@ -28,13 +41,27 @@ public abstract class AbstractImageManipulator implements ImageManipulator {
 
 	private static final Logger log = LoggerFactory.getLogger(AbstractImageManipulator.class);
 
+	/**
+	 * Approximate maximum length of the longest side of the decoded image which is used to calculate the dominant color. Larger images are subsampled while
+	 * decoding.
+	 */
+	private static final int DOMINANT_COLOR_SAMPLE_SIZE = 2048;
+
+	/**
+	 * Mime types of source images which may contain transparent pixels.
+	 */
+	private static final Set<String> TRANSPARENT_SOURCE_TYPES = new HashSet<>(Arrays.asList("image/png", "image/gif", "image/webp"));
+
 	protected ImageManipulatorOptions options;
 
 	protected Vertx vertx;
 
+	protected ImageCache cache;
+
 	public AbstractImageManipulator(Vertx vertx, ImageManipulatorOptions options) {
 		this.vertx = vertx;
 		this.options = options;
+		this.cache = new ImageCache(options.getImageCacheDirectory(), options.getImageCacheMaxSize());
 	}
 
 	@Override
@@ -51,26 +78,80 @@ public abstract class AbstractImageManipulator implements ImageManipulator {
 		if (!baseFolder.exists()) {
 			baseFolder.mkdirs();
 		}
-		File cacheFile = new File(baseFolder, "image-" + parameters.getCacheKey() + ".jpg");
+		ImageFormat format = parameters.getFormat() == null ? ImageFormat.JPG : parameters.getFormat();
+		File cacheFile = new File(baseFolder, ImageCache.FILE_PREFIX + parameters.getCacheKey() + "." + format.getKey());
 		if (log.isDebugEnabled()) {
 			log.debug("Using cache file {" + cacheFile + "}");
 		}
 		return cacheFile;
 	}
 
+	@Override
+	public ImageFormat negotiateFormat(ImageManipulationParameters parameters, String sourceMimeType, String accept) {
+		if (parameters.getFormat() != null) {
+			return parameters.getFormat();
+		}
+		Set<String> accepted = getAcceptedTypes(accept);
+		// Clients which accept anything (e.g. REST clients) keep getting JPEG unless the negotiation was explicitly requested
+		boolean auto = parameters.isAutoFormat();
+		boolean anyImage = accepted.contains("image/*") || (auto && (accepted.isEmpty() || accepted.contains("*/*")));
+
+		// WebP is only used if the client names it since older browsers which accept image/* can't display it
+		if (accepted.contains(ImageFormat.WEBP.getMimeType()) && isFormatSupported(ImageFormat.WEBP)) {
+			return ImageFormat.WEBP;
+		}
+		if (sourceMimeType != null && TRANSPARENT_SOURCE_TYPES.contains(sourceMimeType.toLowerCase())
+				&& (anyImage || accepted.contains(ImageFormat.PNG.getMimeType()))) {
+			return ImageFormat.PNG;
+		}
+		return ImageFormat.JPG;
+	}
+
+	@Override
+	public boolean isFormatSupported(ImageFormat format) {
+		return ImageIO.getImageWritersByMIMEType(format.getMimeType()).hasNext();
+	}
+
+	/**
+	 * Return the media ranges of the accept header. Media ranges with a quality of zero are omitted.
+	 * 
+	 * @param accept
+	 * @return
+	 */
+	private static Set<String> getAcceptedTypes(String accept) {
+		Set<String> types = new HashSet<>();
+		if (accept == null) {
+			return types;
+		}
+		for (String range : accept.split(",")) {
+			String[] parts = range.split(";");
+			String type = parts[0].trim().toLowerCase();
+			boolean excluded = false;
+			for (int i = 1; i < parts.length; i++) {
+				String param = parts[i].trim();
+				if (param.startsWith("q=")) {
+					try {
+						excluded = Float.parseFloat(param.substring(2)) <= 0;
+					} catch (NumberFormatException e) {
+						// Ignore the invalid quality value
+					}
+				}
+			}
+			if (!type.isEmpty() && !excluded) {
+				types.add(type);
+			}
+		}
+		return types;
+	}
+
 	@Override
 	public Single<ImageInfo> readImageInfo(Observable<Buffer> stream) {
-		Single<BufferedImage> obs = vertx.rxExecuteBlocking(bc -> {
+		return vertx.rxExecuteBlocking(bc -> {
 			InputStream pis = null;
 			try {
 				pis = RxUtil.toInputStream(stream, vertx);
-				BufferedImage image = ImageIO.read(pis);
-				if (image == null) {
-					bc.fail(error(BAD_REQUEST, "image_error_reading_failed"));
-				} else {
-					bc.complete(image);
-				}
-			} catch (IOException e) {
+				bc.complete(readImageInfo(pis));
+			} catch (Exception e) {
 				bc.fail(e);
 			} finally {
 				if (pis != null) {
@@ -81,28 +162,72 @@ public abstract class AbstractImageManipulator implements ImageManipulator {
 				}
 			}
 		}, false);
-		return obs.map(this::toImageInfo);
+	}
 
+	/**
+	 * Read the image information from the given stream. The dimensions are read from the image header. The dominant color is calculated from a subsampled
+	 * decode of the image, which avoids allocating the memory for the full image.
+	 * 
+	 * @param ins
+	 * @return
+	 * @throws IOException
+	 */
+	protected ImageInfo readImageInfo(InputStream ins) throws IOException {
+		try (ImageInputStream iis = ImageIO.createImageInputStream(ins)) {
+			Iterator<ImageReader> readers = iis == null ? Collections.emptyIterator() : ImageIO.getImageReaders(iis);
+			if (!readers.hasNext()) {
+				throw error(BAD_REQUEST, "image_error_reading_failed");
+			}
+			ImageReader reader = readers.next();
+			String format = reader.getFormatName().toLowerCase();
+			try (Timer.Context context = MeshMetrics.timer("image", "info", format, "duration").time()) {
+				reader.setInput(iis, true, true);
+				int width = reader.getWidth(0);
+				int height = reader.getHeight(0);
+
+				// Only decode every n-th pixel to calculate the dominant color
+				ImageReadParam param = reader.getDefaultReadParam();
+				int subsampling = Math.max(1, Math.max(width, height) / DOMINANT_COLOR_SAMPLE_SIZE);
+				param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+				BufferedImage sample = reader.read(0, param);
+				MeshMetrics.histogram("image", "info", format, "decodedBytes").update(getSize(sample));
+
+				ImageInfo info = new ImageInfo();
+				info.setWidth(width);
+				info.setHeight(height);
+				info.setDominantColor(toHex(calculateDominantColor(sample)));
+				info.setFormat(format);
+				return info;
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	/**
+	 * Return the amount of bytes which are used by the raster of the image.
+	 * 
+	 * @param image
+	 * @return
+	 */
+	private long getSize(BufferedImage image) {
+		DataBuffer buffer = image.getRaster().getDataBuffer();
+		return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
 	}
 
 	/**
-	 * Extract the image information from the given buffered image.
+	 * Convert the color to its hex representation.
 	 * 
-	 * @param bi
+	 * @param rgb
 	 * @return
 	 */
-	private ImageInfo toImageInfo(BufferedImage bi) {
-		ImageInfo info = new ImageInfo();
-		info.setWidth(bi.getWidth());
-		info.setHeight(bi.getHeight());
-		int[] rgb = calculateDominantColor(bi);
+	private String toHex(int[] rgb) {
 		// By default we assume white for the images
 		String colorHex = "#FFFFFF";
 		if (rgb.length >= 3) {
 			colorHex = "#" + Integer.toHexString(rgb[0]) + Integer.toHexString(rgb[1]) + Integer.toHexString(rgb[2]);
 		}
-		info.setDominantColor(colorHex);
-		return info;
+		return colorHex;
 	}
 
 }
@@ -0,0 +1,323 @@
+package com.gentics.mesh.core.image.spi;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.codahale.metrics.Counter;
+import com.gentics.mesh.metric.MeshMetrics;
+
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * Size limited cache for the resized images which are stored in the image cache directory.
+ *
+ * The cache keeps an index of all cached files in least recently used order. The index is rebuilt from the cache directory on startup using the last
+ * modified date of the files, which is updated when a cached file is used. The least recently used files are deleted once the size of the cached files
+ * exceeds the configured limit.
+ *
+ * Concurrent requests for the same image are coalesced so that the image is only resized once. Files are pinned while they are being used by a request and
+ * will not be evicted until they have been released.
+ */
+public class ImageCache {
+
+	private static final Logger log = LoggerFactory.getLogger(ImageCache.class);
+
+	private static final Counter HITS = MeshMetrics.counter("image", "cache", "hits");
+
+	private static final Counter MISSES = MeshMetrics.counter("image", "cache", "misses");
+
+	private static final Counter EVICTIONS = MeshMetrics.counter("image", "cache", "evictions");
+
+	/**
+	 * Prefix of the names of cached images. Other files within the directory are not managed by the cache.
+	 */
+	public static final String FILE_PREFIX = "image-";
+
+	/**
+	 * Suffix of the files which are currently being written.
+	 */
+	public static final String TEMP_SUFFIX = ".tmp";
+
+	/**
+	 * Minimum interval in which the last modified date of a cached file is updated when it is used.
+	 */
+	private static final long TOUCH_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+	private final long maxSize;
+
+	private final Map<String, Entry> index = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Pinned entries. The pins are looked up here since a lookup within the index would change the order of the index.
+	 */
+	private final Map<String, Entry> pinned = new HashMap<>();
+
+	private final Map<String, Single<File>> inflight = new ConcurrentHashMap<>();
+
+	private long size;
+
+	/**
+	 * Total size of the pinned files. Pinned files do not count towards the limit until they have been released.
+	 */
+	private long pinnedSize;
+
+	/**
+	 * Create a new cache for the given directory and rebuild the index from the files within the directory.
+	 *
+	 * @param directory
+	 *            Image cache directory
+	 * @param maxSize
+	 *            Maximum size of the cached files in bytes or 0 for no limit
+	 */
+	public ImageCache(String directory, long maxSize) {
+		this.maxSize = maxSize;
+		rebuildIndex(Paths.get(directory));
+		MeshMetrics.gauge(this::getSize, "image", "cache", "size");
+	}
+
+	/**
+	 * Open the cached file. The producer will be used to create the file if it does not exist. Concurrent requests for the same file share a single
+	 * invocation of the producer. The file is pinned until the opener has completed so that it can't be evicted before it has been opened.
+	 *
+	 * @param cacheFile
+	 *            Cache file
+	 * @param producer
+	 *            Producer which creates the cache file
+	 * @param opener
+	 *            Function which opens the cache file
+	 * @return Result of the opener
+	 */
+	public <T> Single<T> get(File cacheFile, Completable producer, Function<File, Single<T>> opener) {
+		return getPinned(cacheFile, producer, (file, release) -> Single.defer(() -> opener.apply(file)).doFinally(release::run));
+	}
+
+	/**
+	 * Open the cached file like {@link #get(File, Completable, Function)} but keep the file pinned until the release action which is passed to the opener
+	 * has been invoked. This is needed if the file is accessed by its path after it has been opened. The file is released automatically if the opener fails.
+	 *
+	 * @param cacheFile
+	 *            Cache file
+	 * @param producer
+	 *            Producer which creates the cache file
+	 * @param opener
+	 *            Function which opens the cache file. The release action may be invoked multiple times.
+	 * @return Result of the opener
+	 */
+	public <T> Single<T> getPinned(File cacheFile, Completable producer, BiFunction<File, Runnable, Single<T>> opener) {
+		return Single.defer(() -> {
+			String key = cacheFile.getAbsolutePath();
+			if (pin(key, cacheFile)) {
+				HITS.inc();
+				return open(key, cacheFile, opener);
+			}
+			Single<File> produced = inflight.computeIfAbsent(key, k -> {
+				MISSES.inc();
+				return producer.andThen(Single.fromCallable(() -> {
+					add(k, cacheFile);
+					return cacheFile;
+				})).doFinally(() -> inflight.remove(k)).cache();
+			});
+			return produced.flatMap(file -> {
+				// The file could have been evicted again before it was pinned. In this case it will be produced again.
+				if (pin(key, file)) {
+					return open(key, file, opener);
+				}
+				return getPinned(cacheFile, producer, opener);
+			});
+		});
+	}
+
+	private <T> Single<T> open(String key, File file, BiFunction<File, Runnable, Single<T>> opener) {
+		AtomicBoolean released = new AtomicBoolean();
+		Runnable release = () -> {
+			if (released.compareAndSet(false, true)) {
+				unpin(key);
+			}
+		};
+		return Single.defer(() -> opener.apply(file, release)).doOnError(error -> release.run()).doOnDispose(release::run);
+	}
+
+	/**
+	 * Return the total size of the cached files in bytes.
+	 *
+	 * @return
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * Return the amount of cached files.
+	 *
+	 * @return
+	 */
+	public synchronized int getCount() {
+		return index.size();
+	}
+
+	/**
+	 * Pin the file if it exists and mark it as used. Pinned files will not be evicted.
+	 *
+	 * @param key
+	 * @param file
+	 * @return true if the file exists and has been pinned
+	 */
+	private boolean pin(String key, File file) {
+		long now = System.currentTimeMillis();
+		synchronized (this) {
+			// Files are only deleted while holding the lock, thus the file can't be evicted once it has been pinned
+			if (!file.exists()) {
+				return false;
+			}
+			Entry entry = index.get(key);
+			if (entry == null) {
+				// The file was added by someone else
+				add(key, file);
+				entry = index.get(key);
+			}
+			if (entry.pins++ == 0) {
+				pinned.put(key, entry);
+				pinnedSize += entry.size;
+			}
+			if (now - entry.lastUsed < TOUCH_INTERVAL) {
+				return true;
+			}
+			entry.lastUsed = now;
+		}
+		// Persist the access time so that the order is retained across restarts
+		file.setLastModified(now);
+		return true;
+	}
+
+	/**
+	 * Release the pin of the file and evict the files which could not be evicted while they were pinned.
+	 *
+	 * @param key
+	 */
+	private synchronized void unpin(String key) {
+		Entry entry = pinned.get(key);
+		if (entry != null && --entry.pins == 0) {
+			pinned.remove(key);
+			pinnedSize -= entry.size;
+			evict(null);
+		}
+	}
+
+	/**
+	 * Add the written file to the index and evict the least recently used files if the cache exceeds its size.
+	 *
+	 * @param key
+	 * @param file
+	 */
+	private synchronized void add(String key, File file) {
+		Entry entry = new Entry(file.length(), System.currentTimeMillis());
+		Entry old = index.put(key, entry);
+		if (old != null) {
+			size -= old.size;
+			entry.pins = old.pins;
+			if (old.pins > 0) {
+				pinned.put(key, entry);
+				pinnedSize += entry.size - old.size;
+			}
+		}
+		size += entry.size;
+		evict(key);
+	}
+
+	/**
+	 * Delete the least recently used files until the size of the files which are not pinned is within the limit. Pinned files are skipped.
+	 *
+	 * @param keep
+	 *            Key of the file which must not be deleted or null
+	 */
+	private synchronized void evict(String keep) {
+		if (maxSize <= 0) {
+			return;
+		}
+		Iterator<Map.Entry<String, Entry>> it = index.entrySet().iterator();
+		while (size - pinnedSize > maxSize && it.hasNext()) {
+			Map.Entry<String, Entry> eldest = it.next();
+			if (eldest.getKey().equals(keep) || eldest.getValue().pins > 0) {
+				continue;
+			}
+			it.remove();
+			size -= eldest.getValue().size;
+			EVICTIONS.inc();
+			try {
+				Files.deleteIfExists(Paths.get(eldest.getKey()));
+			} catch (IOException e) {
+				log.warn("Could not delete cached image {" + eldest.getKey() + "}", e);
+			}
+		}
+	}
+
+	/**
+	 * Rebuild the index from the files within the cache directory. Files which were not completely written are removed.
+	 *
+	 * @param directory
+	 */
+	private synchronized void rebuildIndex(Path directory) {
+		if (!Files.isDirectory(directory)) {
+			return;
+		}
+		List<Path> files;
+		try (Stream<Path> stream = Files.walk(directory)) {
+			files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+		} catch (IOException e) {
+			log.error("Could not read the image cache directory {" + directory + "}", e);
+			return;
+		}
+		List<File> cached = files.stream().map(Path::toFile).filter(file -> {
+			String name = file.getName();
+			if (name.endsWith(TEMP_SUFFIX)) {
+				file.delete();
+				return false;
+			}
+			return name.startsWith(FILE_PREFIX);
+		}).sorted(Comparator.comparingLong(File::lastModified)).collect(Collectors.toList());
+		for (File file : cached) {
+			Entry entry = new Entry(file.length(), file.lastModified());
+			index.put(file.getAbsolutePath(), entry);
+			size += entry.size;
+		}
+		log.info("Found {" + index.size() + "} cached images with a total size of {" + size + "} bytes");
+		evict(null);
+	}
+
+	/**
+	 * Index entry of a cached file. The fields are guarded by the lock of the cache.
+	 */
+	private static class Entry {
+
+		private final long size;
+
+		private long lastUsed;
+
+		private int pins;
+
+		Entry(long size, long lastUsed) {
+			this.size = size;
+			this.lastUsed = lastUsed;
+		}
+	}
+
+}
@@ -11,6 +11,8 @@ public class ImageInfo {
 
 	private String dominantColor;
 
+	private String format;
+
 	public Integer getWidth() {
 		return width;
 	}
@@ -35,4 +37,17 @@ public class ImageInfo {
 		this.dominantColor = dominantColor;
 	}
 
+	/**
+	 * Return the lowercase name of the format which was detected by the image reader (e.g. jpeg or png).
+	 * 
+	 * @return
+	 */
+	public String getFormat() {
+		return format;
+	}
+
+	public void setFormat(String format) {
+		this.format = format;
+	}
+
 }
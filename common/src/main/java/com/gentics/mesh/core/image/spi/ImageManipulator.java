@@ -6,6 +6,7 @@ import java.io.InputStream;
 import java.util.Map;
 
 import com.gentics.mesh.parameter.ImageManipulationParameters;
+import com.gentics.mesh.parameter.image.ImageFormat;
 import com.gentics.mesh.util.PropReadFileStream;
 
 import io.reactivex.Observable;
@@ -18,7 +19,8 @@ import io.vertx.core.buffer.Buffer;
 public interface ImageManipulator {
 
 	/**
-	 * Resize the given binary data and return a buffer to the resized image data.
+	 * Resize the given binary data and return a buffer to the resized image data. The returned file must be released via
+	 * {@link PropReadFileStream#release()} once it is no longer needed.
 	 * 
 	 * @param stream
 	 *            Binary data stream to be used for resizing
@@ -38,6 +40,27 @@ public interface ImageManipulator {
 	 */
 	File getCacheFile(String sha512sum, ImageManipulationParameters parameters);
 
+	/**
+	 * Select the output format of a manipulated image. An explicitly requested format is returned as is. Otherwise the format is negotiated using the
+	 * accept header of the request and the format of the source image.
+	 * 
+	 * @param parameters
+	 * @param sourceMimeType
+	 *            Mime type of the source image
+	 * @param accept
+	 *            Value of the accept header of the request or null
+	 * @return
+	 */
+	ImageFormat negotiateFormat(ImageManipulationParameters parameters, String sourceMimeType, String accept);
+
+	/**
+	 * Check whether images can be written in the given format.
+	 * 
+	 * @param format
+	 * @return
+	 */
+	boolean isFormatSupported(ImageFormat format);
+
 	/**
 	 * Read the image information from the given image data stream.
 	 * 
@@ -6,7 +6,11 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -17,6 +21,7 @@ import org.apache.commons.lang3.StringUtils;
 import com.gentics.mesh.Mesh;
 import com.gentics.mesh.cli.BootstrapInitializer;
 import com.gentics.mesh.context.InternalActionContext;
+import com.gentics.mesh.core.cache.WebRootLinkCache;
 import com.gentics.mesh.core.data.ContainerType;
 import com.gentics.mesh.core.data.Project;
 import com.gentics.mesh.core.data.Release;
@@ -48,6 +53,8 @@ public class WebRootLinkReplacer {
 	/**
 	 * Replace the links in the content.
 	 * 
+	 * The content is tokenized in a single pass. The target nodes of all links which are not yet cached will be loaded at once before the links are rendered.
+	 * 
 	 * @param ac
 	 * @param releaseUuid
 	 *            release Uuid
@@ -69,60 +76,136 @@ public class WebRootLinkReplacer {
 			return content;
 		}
 
-		List<String> segments = new ArrayList<>();
-		int pos = 0;
+		// 1. Tokenize the content
+		List<Link> links = tokenize(content);
+		if (links.isEmpty()) {
+			return content;
+		}
+
+		// 2. Lookup the cached links and load the target nodes of the remaining links at once
+		String[] defaultTags = languageTags == null ? null : languageTags.toArray(new String[languageTags.size()]);
+		String cacheRelease = getCacheRelease(ac, releaseUuid);
+		ContainerType cacheType = edgeType == null ? ContainerType.DRAFT : edgeType;
+		long generation = WebRootLinkCache.generation();
+		Set<String> missingUuids = new HashSet<>();
+		for (Link link : links) {
+			if (link.languageTags == null) {
+				link.languageTags = defaultTags;
+			}
+			if (cacheRelease != null) {
+				link.key = WebRootLinkCache.key(link.uuid, cacheType, type, link.languageTags);
+				link.rendered = WebRootLinkCache.get(cacheRelease, link.key);
+			}
+			if (link.rendered == null) {
+				missingUuids.add(link.uuid);
+			}
+		}
+		Map<String, Node> nodes = missingUuids.isEmpty() ? Collections.emptyMap() : boot.meshRoot().getNodeRoot().findByUuids(missingUuids);
+
+		// 3. Buildup the new content
+		StringBuilder renderedContent = new StringBuilder(content.length());
 		int lastPos = 0;
-		int length = content.length();
+		for (Link link : links) {
+			renderedContent.append(content, lastPos, link.start);
+			if (link.rendered == null) {
+				Node node = nodes.get(link.uuid);
+				if (node == null) {
+					link.rendered = renderNotFound(link.uuid, type, projectName);
+				} else {
+					link.rendered = resolve(ac, releaseUuid, edgeType, node, type, link.languageTags);
+					cache(ac, cacheRelease, link.key, node, link.rendered, generation);
+				}
+			}
+			renderedContent.append(link.rendered);
+			lastPos = link.end;
+		}
+		renderedContent.append(content, lastPos, content.length());
+		return renderedContent.toString();
+	}
 
-		// 1. Tokenize the content
+	/**
+	 * Locate the link placeholders within the content.
+	 * 
+	 * The arguments are split at commas. Quotes (which may be escaped) are dropped since we only care about the argument values.
+	 * 
+	 * @param content
+	 * @return Found links in order of their appearance
+	 */
+	static List<Link> tokenize(String content) {
+		List<Link> links = new ArrayList<>();
+		int lastPos = 0;
+		int length = content.length();
+		StringBuilder argument = new StringBuilder();
+		List<String> arguments = new ArrayList<>(2);
 		while (lastPos < length) {
-			pos = content.indexOf(START_TAG, lastPos);
+			int pos = content.indexOf(START_TAG, lastPos);
 			if (pos == -1) {
-				// add last string segment
-				if (lastPos < length) {
-					segments.add(content.substring(lastPos));
-				}
 				break;
 			}
 			int endPos = content.indexOf(END_TAG, pos);
 			if (endPos == -1) {
-				// add last string segment
-				if (lastPos < length) {
-					segments.add(content.substring(lastPos));
-				}
 				break;
 			}
 
-			// add intermediate string segment
-			if (lastPos < pos) {
-				segments.add(content.substring(lastPos, pos));
+			// Parse the link arguments
+			arguments.clear();
+			argument.setLength(0);
+			for (int i = pos + START_TAG.length(); i < endPos; i++) {
+				char c = content.charAt(i);
+				if (c == '\\' && i + 1 < endPos && content.charAt(i + 1) == '"') {
+					i++;
+				} else if (c == ',') {
+					arguments.add(argument.toString());
+					argument.setLength(0);
+				} else if (c != '\'' && c != '"') {
+					argument.append(c);
+				}
 			}
-
-			// 2. Parse the link and invoke resolving
-			String link = content.substring(pos + START_TAG.length(), endPos);
-			// Strip away the quotes. We only care about the argument values
-			// double quotes may be escaped
-			link = link.replaceAll("\\\\\"", "");
-			link = link.replaceAll("'", "");
-			link = link.replaceAll("\"", "");
-			String[] linkArguments = link.split(",");
-			if (linkArguments.length == 2) {
-				segments.add(resolve(ac, releaseUuid, edgeType, linkArguments[0], type, projectName, linkArguments[1].trim()));
-			} else if (languageTags != null) {
-				segments.add(resolve(ac, releaseUuid, edgeType, linkArguments[0], type, projectName,
-						languageTags.toArray(new String[languageTags.size()])));
-			} else {
-				segments.add(resolve(ac, releaseUuid, edgeType, linkArguments[0], type, projectName));
+			arguments.add(argument.toString());
+			// Trailing empty arguments are ignored
+			while (arguments.size() > 1 && arguments.get(arguments.size() - 1).isEmpty()) {
+				arguments.remove(arguments.size() - 1);
 			}
 
-			lastPos = endPos + END_TAG.length();
+			Link link = new Link(pos, endPos + END_TAG.length(), arguments.get(0).trim());
+			if (arguments.size() == 2) {
+				link.languageTags = new String[] { arguments.get(1).trim() };
+			}
+			links.add(link);
+			lastPos = link.end;
 		}
+		return links;
+	}
 
-		// 3.: Buildup the new content
-		StringBuilder renderedContent = new StringBuilder(length);
-		segments.stream().forEachOrdered(obs -> renderedContent.append(obs));
+	/**
+	 * Return the release for which the links can be cached.
+	 * 
+	 * @param ac
+	 * @param releaseUuid
+	 * @return Release uuid or null if the links must not be cached
+	 */
+	private String getCacheRelease(InternalActionContext ac, String releaseUuid) {
+		// Links to nodes of foreign projects and links without a release would be rendered using the latest release of the target project
+		if (releaseUuid == null || ac.getProject() == null) {
+			return null;
+		}
+		return releaseUuid;
+	}
 
-		return renderedContent.toString();
+	/**
+	 * Cache the rendered link if the target node belongs to the current project.
+	 * 
+	 * @param ac
+	 * @param cacheRelease
+	 * @param key
+	 * @param node
+	 * @param rendered
+	 * @param generation
+	 */
+	private void cache(InternalActionContext ac, String cacheRelease, String key, Node node, String rendered, long generation) {
+		if (cacheRelease != null && ac.getProject().equals(node.getProject())) {
+			WebRootLinkCache.store(cacheRelease, key, rendered, generation);
+		}
 	}
 
 	/**
@@ -147,25 +230,49 @@ public class WebRootLinkReplacer {
 			String... languageTags) {
 		// Get rid of additional whitespaces
 		uuid = uuid.trim();
+		String cacheRelease = getCacheRelease(ac, releaseUuid);
+		String key = null;
+		long generation = WebRootLinkCache.generation();
+		if (cacheRelease != null) {
+			key = WebRootLinkCache.key(uuid, edgeType == null ? ContainerType.DRAFT : edgeType, type, languageTags);
+			String cached = WebRootLinkCache.get(cacheRelease, key);
+			if (cached != null) {
+				return cached;
+			}
+		}
 		Node node = boot.meshRoot().getNodeRoot().findByUuid(uuid);
 
 		// check for null
 		if (node == null) {
-			if (log.isDebugEnabled()) {
-				log.debug("Could not resolve link to '" + uuid + "', target node could not be found");
-			}
-			switch (type) {
-			case SHORT:
-				return "/error/404";
-			case MEDIUM:
-				return "/" + projectName + "/error/404";
-			case FULL:
-				return RouterStorage.DEFAULT_API_MOUNTPOINT + "/" + projectName + "/webroot/error/404";
-			default:
-				throw error(BAD_REQUEST, "Cannot render link with type " + type);
-			}
+			return renderNotFound(uuid, type, projectName);
+		}
+		String rendered = resolve(ac, releaseUuid, edgeType, node, type, languageTags);
+		cache(ac, cacheRelease, key, node, rendered, generation);
+		return rendered;
+	}
+
+	/**
+	 * Render the link for a node which could not be found.
+	 * 
+	 * @param uuid
+	 * @param type
+	 * @param projectName
+	 * @return
+	 */
+	private String renderNotFound(String uuid, LinkType type, String projectName) {
+		if (log.isDebugEnabled()) {
+			log.debug("Could not resolve link to '" + uuid + "', target node could not be found");
+		}
+		switch (type) {
+		case SHORT:
+			return "/error/404";
+		case MEDIUM:
+			return "/" + projectName + "/error/404";
+		case FULL:
+			return RouterStorage.DEFAULT_API_MOUNTPOINT + "/" + projectName + "/webroot/error/404";
+		default:
+			throw error(BAD_REQUEST, "Cannot render link with type " + type);
 		}
-		return resolve(ac, releaseUuid, edgeType, node, type, languageTags);
 	}
 
 	/**
@@ -260,4 +367,29 @@ public class WebRootLinkReplacer {
 		return buffer.toString();
 	}
 
+	/**
+	 * Link placeholder within the content.
+	 */
+	static class Link {
+
+		final int start;
+
+		final int end;
+
+		final String uuid;
+
+		String[] languageTags;
+
+		String key;
+
+		String rendered;
+
+		Link(int start, int end, String uuid) {
+			this.start = start;
+			this.end = end;
+			this.uuid = uuid;
+		}
+
+	}
+
 }
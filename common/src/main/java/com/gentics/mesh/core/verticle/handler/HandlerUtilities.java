@@ -15,7 +15,6 @@ import java.util.function.Consumer;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
-import com.gentics.mesh.Mesh;
 import com.gentics.mesh.context.InternalActionContext;
 import com.gentics.mesh.core.data.IndexableElement;
 import com.gentics.mesh.core.data.MeshCoreVertex;
@@ -27,6 +26,7 @@ import com.gentics.mesh.core.data.search.SearchQueueBatch;
 import com.gentics.mesh.core.rest.common.RestModel;
 import com.gentics.mesh.core.rest.error.NotModifiedException;
 import com.gentics.mesh.graphdb.spi.Database;
+import com.gentics.mesh.graphdb.spi.TxStats;
 import com.gentics.mesh.parameter.PagingParameters;
 import com.gentics.mesh.util.ResultInfo;
 import com.gentics.mesh.util.Tuple;
@@ -36,7 +36,9 @@ import com.syncleus.ferma.tx.TxAction0;
 import com.syncleus.ferma.tx.TxAction1;
 import com.syncleus.ferma.tx.TxAction2;
 
+import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 
@@ -91,7 +93,7 @@ public class HandlerUtilities {
 				} else {
 					throw error(INTERNAL_SERVER_ERROR, "Could not determine object name");
 				}
-			}).processSync();
+			}).processSync(ac);
 			log.info("Deleted element {" + elementUuid + "} for type {" + root.getClass().getSimpleName() + "}");
 			return (RM) null;
 		}, model -> ac.send(NO_CONTENT));
@@ -173,7 +175,7 @@ public class HandlerUtilities {
 			// 3. The updating transaction has succeeded. Now lets store it in the index
 			final ResultInfo info2 = info;
 			return database.tx(() -> {
-				info2.getBatch().processSync();
+				info2.getBatch().processSync(ac);
 				return info2.getModel();
 			});
 		}, model -> ac.send(model, created.get() ? CREATED : OK));
@@ -214,7 +216,7 @@ public class HandlerUtilities {
 	 *            Handler which provides the root vertex which should be used when loading the element
 	 */
 	public <T extends MeshCoreVertex<RM, T>, RM extends RestModel> void readElementList(InternalActionContext ac, TxAction1<RootVertex<T>> handler) {
-		asyncTx(ac, (tx) -> {
+		asyncTxJson(ac, (tx) -> {
 			RootVertex<T> root = handler.handle();
 
 			PagingParameters pagingInfo = ac.getPagingParameters();
@@ -226,9 +228,23 @@ public class HandlerUtilities {
 			if (ac.matches(etag, true)) {
 				throw new NotModifiedException();
 			} else {
-				return page.transformToRest(ac, 0).blockingGet();
+				return page.transformToJson(ac, 0);
 			}
-		}, (e) -> ac.send(e, OK));
+		}, OK);
+	}
+
+	/**
+	 * Asynchronously execute the handler within a transaction and respond with the JSON which was serialized by the handler. This allows handlers to
+	 * serialize large responses incrementally while the transaction is still open.
+	 * 
+	 * @param ac
+	 * @param handler
+	 *            Handler which will be executed within a worker thread and which returns the UTF-8 encoded JSON
+	 * @param status
+	 *            Status code of the response
+	 */
+	public void asyncTxJson(InternalActionContext ac, TxAction<Buffer> handler, HttpResponseStatus status) {
+		async(ac, handler, json -> ac.send(json, status), false);
 	}
 
 	/**
@@ -241,62 +257,54 @@ public class HandlerUtilities {
 	 *            Action which will be invoked once the handler has finished
 	 */
 	public <RM extends RestModel> void asyncTx(InternalActionContext ac, TxAction<RM> handler, Consumer<RM> action) {
-		async(ac, () -> {
-			return database.tx(handler);
-		}, action);
+		async(ac, handler, action, false);
 	}
 
 	public <RM extends RestModel> void asyncTx(InternalActionContext ac, TxAction<RM> handler, Consumer<RM> action, boolean order) {
-		async(ac, () -> {
-			return database.tx(handler);
-		}, action, order);
+		async(ac, handler, action, order);
 	}
 
 	public <RM extends RestModel> void asyncTx(InternalActionContext ac, TxAction0 handler, Consumer<RM> action) {
-		async(ac, () -> {
-			database.tx(handler);
+		async(ac, tx -> {
+			handler.handle();
 			return null;
-		}, action);
+		}, action, false);
 	}
 
 	public <RM extends RestModel> void asyncTx(InternalActionContext ac, TxAction1<RM> handler, Consumer<RM> action) {
-		async(ac, () -> {
-			return database.tx(handler);
-		}, action);
+		async(ac, tx -> {
+			return handler.handle();
+		}, action, false);
 	}
 
 	public <RM extends RestModel> void asyncTx(InternalActionContext ac, TxAction2 handler, Consumer<RM> action) {
-		async(ac, () -> {
-			database.tx(handler);
+		async(ac, tx -> {
+			handler.handle(tx);
 			return null;
-		}, action);
-	}
-
-	private <RM extends RestModel> void async(InternalActionContext ac, TxAction1<RM> handler, Consumer<RM> action) {
-		async(ac, handler, action, false);
+		}, action, false);
 	}
 
 	/**
-	 * Asynchronously execute the handler.
+	 * Asynchronously execute the handler within a transaction. Conflicting transactions are retried without blocking the worker thread. Retries and conflicts
+	 * are recorded for the endpoint of the action context.
 	 * 
 	 * @param ac
 	 * @param handler
 	 * @param action
 	 */
-	private <RM extends RestModel> void async(InternalActionContext ac, TxAction1<RM> handler, Consumer<RM> action, boolean order) {
-		Mesh.vertx().executeBlocking(bc -> {
-			try {
-				bc.complete(handler.handle());
-			} catch (Exception e) {
-				bc.fail(e);
-			}
-		}, order, (AsyncResult<RM> rh) -> {
-			if (rh.failed()) {
-				ac.fail(rh.cause());
-			} else {
-				action.accept(rh.result());
-			}
-		});
+	private <R> void async(InternalActionContext ac, TxAction<R> handler, Consumer<R> action, boolean order) {
+		TxStats.setEndpoint(ac.getEndpointName());
+		try {
+			database.asyncRetryTx(handler, order, (AsyncResult<R> rh) -> {
+				if (rh.failed()) {
+					ac.fail(rh.cause());
+				} else {
+					action.accept(rh.result());
+				}
+			});
+		} finally {
+			TxStats.setEndpoint(null);
+		}
 	}
 
 }
@@ -2,13 +2,20 @@ package com.gentics.mesh.graphdb.spi;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.commons.io.FileUtils;
 
 import com.gentics.mesh.etc.config.GraphStorageOptions;
 import com.gentics.mesh.etc.config.MeshOptions;
 import com.syncleus.ferma.tx.Tx;
+import com.syncleus.ferma.tx.TxAction;
+import com.syncleus.ferma.tx.TxAction0;
+import com.syncleus.ferma.tx.TxAction1;
 
+import io.reactivex.Completable;
+import io.reactivex.Single;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 
@@ -23,6 +30,13 @@ public abstract class AbstractDatabase implements Database {
 	protected String meshVersion;
 	protected String[] basePaths;
 
+	/**
+	 * Timeout in seconds for the singles which are returned by the asynchronous transaction handlers.
+	 */
+	private static final int ASYNC_RESULT_TIMEOUT = 40;
+
+	private volatile TxExecutor txExecutor;
+
 	@Override
 	public void clear() {
 		if (log.isDebugEnabled()) {
@@ -73,4 +87,114 @@ public abstract class AbstractDatabase implements Database {
 		setupConnectionPool();
 	}
 
+	/**
+	 * Return the executor for asynchronous transactions. The executor is created on first use since the pool size is configured via the storage options.
+	 * 
+	 * @return
+	 */
+	protected TxExecutor txExecutor() {
+		TxExecutor executor = txExecutor;
+		if (executor == null) {
+			synchronized (this) {
+				executor = txExecutor;
+				if (executor == null) {
+					int poolSize = GraphStorageOptions.DEFAULT_TX_POOL_SIZE;
+					int queueSize = GraphStorageOptions.DEFAULT_TX_QUEUE_SIZE;
+					double sampleRate = GraphStorageOptions.DEFAULT_TX_DIAGNOSTICS_SAMPLE_RATE;
+					if (options != null && options.getStorageOptions() != null) {
+						poolSize = options.getStorageOptions().getTxPoolSize();
+						queueSize = options.getStorageOptions().getTxQueueSize();
+						sampleRate = options.getStorageOptions().getTxDiagnosticsSampleRate();
+					}
+					executor = new TxExecutor("tx.pool", poolSize, queueSize, sampleRate);
+					txExecutor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * Shut down the executor for asynchronous transactions. A new executor will be created on the next use.
+	 */
+	protected synchronized void shutdownTxExecutor() {
+		if (txExecutor != null) {
+			txExecutor.shutdown();
+			txExecutor = null;
+		}
+	}
+
+	@Override
+	public Completable asyncTx(TxAction0 txHandler) {
+		return txExecutor().execute(() -> {
+			try (Tx tx = tx()) {
+				txHandler.handle();
+			} catch (Exception e) {
+				if (log.isTraceEnabled()) {
+					log.trace("Error while handling no-transaction.", e);
+				}
+				throw e;
+			}
+			return true;
+		}).toCompletable();
+	}
+
+	@Override
+	public <T> Single<T> asyncTx(TxAction1<Single<T>> trxHandler) {
+		// The calling stacktrace is only recorded for sampled executions
+		Exception origin = txExecutor().captureDiagnostics();
+		return txExecutor().<T>execute(() -> {
+			try (Tx tx = tx()) {
+				return awaitResult(trxHandler.handle(), origin);
+			} catch (Exception e) {
+				if (log.isTraceEnabled()) {
+					log.trace("Error while handling no-transaction.", e);
+				}
+				throw e;
+			}
+		});
+	}
+
+	@Override
+	public <T> Single<T> asyncTx(TxAction<Single<T>> trxHandler) {
+		// The calling stacktrace is only recorded for sampled executions
+		Exception origin = txExecutor().captureDiagnostics();
+		return txExecutor().<T>execute(() -> {
+			try (Tx tx = tx()) {
+				return awaitResult(trxHandler.handle(tx), origin);
+			} catch (Exception e) {
+				log.error("Error while handling no-transaction.", e);
+				throw e;
+			}
+		});
+	}
+
+	/**
+	 * Wait for the result of the transaction handler. The recorded calling stacktrace is logged if the result could not be retrieved in time.
+	 * 
+	 * @param result
+	 * @param origin
+	 *            Calling stacktrace or null if no stacktrace was recorded
+	 * @return
+	 * @throws Exception
+	 */
+	private <T> T awaitResult(Single<T> result, Exception origin) throws Exception {
+		if (result == null) {
+			return null;
+		}
+		try {
+			return result.timeout(ASYNC_RESULT_TIMEOUT, TimeUnit.SECONDS).blockingGet();
+		} catch (Exception e) {
+			if (e instanceof TimeoutException || e.getCause() instanceof TimeoutException) {
+				log.error("Timeout while processing result of transaction handler.", e);
+				txExecutor().countTimeout();
+				if (origin != null) {
+					log.error("Calling transaction stacktrace.", origin);
+					throw origin;
+				}
+			}
+			throw e;
+		}
+	}
+
 }
@@ -0,0 +1,159 @@
+package com.gentics.mesh.graphdb.spi;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * Thread bound registry for actions which must be executed once the current transaction has been committed. This is for example needed to update caches which
+ * could otherwise be populated with outdated data by concurrent transactions. The ids of new elements are also only final after the commit.
+ *
+ * The actions are collected per transaction which was started via {@link Database#tx(com.syncleus.ferma.tx.TxAction)}. Actions which are registered outside of
+ * such a transaction are executed immediately.
+ *
+ * Actions which must write to the graph as part of the transaction (e.g. the search index outbox) can be registered via {@link #registerBeforeCommit(Runnable)}.
+ * Those actions are executed within the transaction once the transaction handler has finished.
+ */
+public final class CommitHooks {
+
+	private static final Logger log = LoggerFactory.getLogger(CommitHooks.class);
+
+	private static final ThreadLocal<Deque<Scope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+	private CommitHooks() {
+	}
+
+	/**
+	 * Start a new scope for the transaction which is about to be started.
+	 */
+	public static void begin() {
+		SCOPES.get().push(new Scope());
+	}
+
+	/**
+	 * Check whether a scope for the current transaction has been started. Actions which are registered outside of a scope are executed immediately.
+	 *
+	 * @return
+	 */
+	public static boolean isActive() {
+		return !SCOPES.get().isEmpty();
+	}
+
+	/**
+	 * Return the scope of the current transaction. The returned object can be used to check whether two actions were registered within the same transaction.
+	 *
+	 * @return Scope of the current transaction or null if no scope has been started
+	 */
+	public static Object currentScope() {
+		return SCOPES.get().peek();
+	}
+
+	/**
+	 * Register the action which should be executed after the current transaction has been committed.
+	 *
+	 * @param action
+	 */
+	public static void register(Runnable action) {
+		Scope scope = SCOPES.get().peek();
+		if (scope == null) {
+			run(action);
+		} else {
+			scope.afterCommit.add(action);
+		}
+	}
+
+	/**
+	 * Register the action which should be executed after the current transaction has been committed. The action will be executed after all actions which were
+	 * registered via {@link #register(Runnable)}. This can be used to handle removals after the additions of the same transaction.
+	 *
+	 * @param action
+	 */
+	public static void registerLast(Runnable action) {
+		Scope scope = SCOPES.get().peek();
+		if (scope == null) {
+			run(action);
+		} else {
+			scope.afterCommitLast.add(action);
+		}
+	}
+
+	/**
+	 * Register the action which should be executed within the current transaction right before it is committed. Errors of the action will cause the
+	 * transaction to fail.
+	 *
+	 * @param action
+	 * @throws IllegalStateException
+	 *             If no scope has been started
+	 */
+	public static void registerBeforeCommit(Runnable action) {
+		Scope scope = SCOPES.get().peek();
+		if (scope == null) {
+			throw new IllegalStateException("No transaction scope has been started.");
+		}
+		scope.beforeCommit.add(action);
+	}
+
+	/**
+	 * Execute the actions which were registered via {@link #registerBeforeCommit(Runnable)} for the current scope. Actions which are registered while the
+	 * actions are executed will also be executed.
+	 */
+	public static void prepare() {
+		Scope scope = SCOPES.get().peek();
+		if (scope == null) {
+			return;
+		}
+		for (int i = 0; i < scope.beforeCommit.size(); i++) {
+			scope.beforeCommit.get(i).run();
+		}
+		scope.beforeCommit.clear();
+	}
+
+	/**
+	 * End the current scope and execute the registered actions if the transaction was committed. The actions of transactions which were rolled back are
+	 * discarded.
+	 *
+	 * @param committed
+	 *            Whether the transaction was committed
+	 */
+	public static void end(boolean committed) {
+		Deque<Scope> scopes = SCOPES.get();
+		Scope scope = scopes.poll();
+		if (scopes.isEmpty()) {
+			SCOPES.remove();
+		}
+		if (committed && scope != null) {
+			for (Runnable action : scope.afterCommit) {
+				run(action);
+			}
+			for (Runnable action : scope.afterCommitLast) {
+				run(action);
+			}
+		}
+	}
+
+	private static void run(Runnable action) {
+		try {
+			action.run();
+		} catch (Exception e) {
+			log.error("Error while executing commit hook", e);
+		}
+	}
+
+	/**
+	 * Actions of a single transaction.
+	 */
+	private static class Scope {
+
+		private final List<Runnable> beforeCommit = new ArrayList<>();
+
+		private final List<Runnable> afterCommit = new ArrayList<>();
+
+		private final List<Runnable> afterCommitLast = new ArrayList<>();
+
+	}
+
+}
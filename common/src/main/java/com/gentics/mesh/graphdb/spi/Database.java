@@ -1,18 +1,16 @@
 package com.gentics.mesh.graphdb.spi;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Map;
+import java.util.Set;
 
-import com.gentics.mesh.Mesh;
 import com.gentics.mesh.core.data.MeshVertex;
 import com.gentics.mesh.core.rest.admin.cluster.ClusterStatusResponse;
 import com.gentics.mesh.etc.config.MeshOptions;
 import com.gentics.mesh.graphdb.model.MeshElement;
-import com.syncleus.ferma.tx.Tx;
 import com.syncleus.ferma.tx.TxAction;
 import com.syncleus.ferma.tx.TxAction0;
 import com.syncleus.ferma.tx.TxAction1;
@@ -22,6 +20,7 @@ import com.tinkerpop.blueprints.TransactionalGraph;
 import com.tinkerpop.blueprints.Vertex;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.reactivex.Completable;
@@ -63,41 +62,26 @@ public interface Database extends TxFactory {
 	 */
 	void clear();
 
+	/**
+	 * Asynchronously execute the handler within a transaction in the transaction pool. Transactions which failed due to concurrent modifications are retried.
+	 * The retries are scheduled using a timer and thus do not block the pool thread while waiting for the next attempt. The handler fails with a 503 error if
+	 * the pool is exhausted.
+	 * 
+	 * @param txHandler
+	 * @param ordered
+	 *            Whether the handler should be executed in order with the other ordered transactions
+	 * @param resultHandler
+	 *            Handler which will be invoked with the result of the transaction handler
+	 */
+	<T> void asyncRetryTx(TxAction<T> txHandler, boolean ordered, Handler<AsyncResult<T>> resultHandler);
+
 	/**
 	 * Asynchronously execute the given handler within a transaction and return the completable.
 	 * 
 	 * @param txHandler
 	 * @return
 	 */
-	default Completable asyncTx(TxAction0 txHandler) {
-		// Create an exception which we can use to enhance error information in case of timeout or other transaction errors
-		final AtomicReference<Exception> reference = new AtomicReference<Exception>(null);
-		try {
-			throw new Exception("Transaction timeout exception");
-		} catch (Exception e1) {
-			reference.set(e1);
-		}
-
-		return Completable.create(sub -> {
-			Mesh.vertx().executeBlocking(bc -> {
-				try (Tx tx = tx()) {
-					txHandler.handle();
-					bc.complete();
-				} catch (Exception e) {
-					if (log.isTraceEnabled()) {
-						log.trace("Error while handling no-transaction.", e);
-					}
-					bc.fail(e);
-				}
-			}, false, done -> {
-				if (done.failed()) {
-					sub.onError(done.cause());
-				} else {
-					sub.onComplete();
-				}
-			});
-		});
-	}
+	Completable asyncTx(TxAction0 txHandler);
 
 	/**
 	 * Executes the given action in a worker pool thread and returns a single which can be subscribed to get the result.
@@ -105,50 +89,7 @@ public interface Database extends TxFactory {
 	 * @param trxHandler
 	 * @return
 	 */
-	default <T> Single<T> asyncTx(TxAction1<Single<T>> trxHandler) {
-		// Create an exception which we can use to enhance error information in case of timeout or other transaction errors
-		final AtomicReference<Exception> reference = new AtomicReference<Exception>(null);
-		try {
-			throw new Exception("Transaction timeout exception");
-		} catch (Exception e1) {
-			reference.set(e1);
-		}
-
-		return Single.create(sub -> {
-			Mesh.vertx().executeBlocking(bc -> {
-				try (Tx tx = tx()) {
-					Single<T> result = trxHandler.handle();
-					if (result == null) {
-						bc.complete();
-					} else {
-						try {
-							T ele = result.timeout(40, TimeUnit.SECONDS).blockingGet();
-							bc.complete(ele);
-						} catch (Exception e2) {
-							if (e2 instanceof TimeoutException) {
-								log.error("Timeout while processing result of transaction handler.", e2);
-								log.error("Calling transaction stacktrace.", reference.get());
-								bc.fail(reference.get());
-							} else {
-								throw e2;
-							}
-						}
-					}
-				} catch (Exception e) {
-					if (log.isTraceEnabled()) {
-						log.trace("Error while handling no-transaction.", e);
-					}
-					bc.fail(e);
-				}
-			}, false, (AsyncResult<T> done) -> {
-				if (done.failed()) {
-					sub.onError(done.cause());
-				} else {
-					sub.onSuccess(done.result());
-				}
-			});
-		});
-	}
+	<T> Single<T> asyncTx(TxAction1<Single<T>> trxHandler);
 
 	/**
 	 * Asynchronously execute the trxHandler within the scope of a non transaction.
@@ -156,48 +97,7 @@ public interface Database extends TxFactory {
 	 * @param trxHandler
 	 * @return
 	 */
-	default <T> Single<T> asyncTx(TxAction<Single<T>> trxHandler) {
-		// Create an exception which we can use to enhance error information in case of timeout or other transaction errors
-		final AtomicReference<Exception> reference = new AtomicReference<Exception>(null);
-		try {
-			throw new Exception("Transaction timeout exception");
-		} catch (Exception e1) {
-			reference.set(e1);
-		}
-
-		return Single.create(sub -> {
-			Mesh.vertx().executeBlocking(bc -> {
-				try (Tx tx = tx()) {
-					Single<T> result = trxHandler.handle(tx);
-					if (result == null) {
-						bc.complete();
-					} else {
-						try {
-							T ele = result.timeout(40, TimeUnit.SECONDS).blockingGet();
-							bc.complete(ele);
-						} catch (Exception e2) {
-							if (e2 instanceof TimeoutException) {
-								log.error("Timeout while processing result of transaction handler.", e2);
-								log.error("Calling transaction stacktrace.", reference.get());
-								bc.fail(reference.get());
-							} else {
-								throw e2;
-							}
-						}
-					}
-				} catch (Exception e) {
-					log.error("Error while handling no-transaction.", e);
-					bc.fail(e);
-				}
-			}, false, (AsyncResult<T> done) -> {
-				if (done.failed()) {
-					sub.onError(done.cause());
-				} else {
-					sub.onSuccess(done.result());
-				}
-			});
-		});
-	}
+	<T> Single<T> asyncTx(TxAction<Single<T>> trxHandler);
 
 	/**
 	 * Initialise the database and store the settings.
@@ -290,6 +190,14 @@ public interface Database extends TxFactory {
 	 */
 	void addCustomEdgeIndex(String label, String indexPostfix, String... fields);
 
+	/**
+	 * Add an edge index for the given label which is ordered by the outbound and inbound vertex of the edges. The index is used to read the inbound vertices
+	 * of an outbound vertex in order via {@link #edgeLookupAscending(String, Object, Object, int)}.
+	 * 
+	 * @param label
+	 */
+	void addSortedEdgeIndex(String label);
+
 	/**
 	 * Create a composed index key
 	 * 
@@ -298,6 +206,22 @@ public interface Database extends TxFactory {
 	 */
 	Object createComposedIndexKey(Object... keys);
 
+	/**
+	 * Return the compact numeric representation of the given element id. The numeric id of persisted elements is stable and can thus be used as a cache key.
+	 * 
+	 * @param id
+	 * @return
+	 */
+	long toNumericId(Object id);
+
+	/**
+	 * Convert the numeric id which was created via {@link #toNumericId(Object)} back into the element id which is used by the graph database.
+	 * 
+	 * @param id
+	 * @return
+	 */
+	Object fromNumericId(long id);
+
 	/**
 	 * Add a vertex index for the given type of vertex and fields.
 	 * 
@@ -321,6 +245,32 @@ public interface Database extends TxFactory {
 	 */
 	void addVertexIndex(String indexName, Class<?> clazzOfVertices, boolean unique, String fieldKey, FieldType fieldType);
 
+	/**
+	 * Add a named vertex index for the given type of vertex and field. Contrary to the indices which are created via
+	 * {@link #addVertexIndex(String, Class, boolean, String, FieldType)} the entries of the index are ordered by the value of the field and can thus be read
+	 * in order via {@link #vertexLookupAscending(Class, String, int)}.
+	 * 
+	 * @param indexName
+	 *            index name
+	 * @param clazzOfVertices
+	 * @param fieldKey
+	 * @param fieldType
+	 */
+	void addSortedVertexIndex(String indexName, Class<?> clazzOfVertices, String fieldKey, FieldType fieldType);
+
+	/**
+	 * Perform a sorted vertex index lookup. This method will load the index for the given type of vertex and return the ids of the vertices with the lowest
+	 * values of the indexed field in ascending order.
+	 * 
+	 * @param clazzOfVertices
+	 * @param indexName
+	 *            Name of the index which was created via {@link #addSortedVertexIndex(String, Class, String, FieldType)}
+	 * @param limit
+	 *            Maximum amount of ids to be returned
+	 * @return List of found vertex ids
+	 */
+	List<Object> vertexLookupAscending(Class<?> clazzOfVertices, String indexName, int limit);
+
 	/**
 	 * Check whether the values can be put into the given index for the given element.
 	 * 
@@ -397,6 +347,17 @@ public interface Database extends TxFactory {
 	 */
 	Iterator<Vertex> getVertices(Class<?> classOfVertex, String[] fieldNames, Object[] fieldValues);
 
+	/**
+	 * Utilize the index of the field and locate the vertices for all given values using a single multi-key index query.
+	 * 
+	 * @param classOfVertex
+	 * @param fieldName
+	 *            Field which is covered by a single field index
+	 * @param fieldValues
+	 * @return Ids of the found vertices per field value. Values for which no vertex could be found are omitted.
+	 */
+	Map<Object, Object> getVertexIds(Class<?> classOfVertex, String fieldName, Collection<?> fieldValues);
+
 	/**
 	 * Locate all vertices for the given type.
 	 * 
@@ -461,6 +422,49 @@ public interface Database extends TxFactory {
 	 */
 	List<Object> edgeLookup(String edgeLabel, String indexPostfix, Object key);
 
+	/**
+	 * Perform a multi-key lookup on the edge index for the given edge label and postfix using a single index query.
+	 * 
+	 * @param edgeLabel
+	 * @param indexPostfix
+	 * @param keys
+	 *            Composed keys which were created via {@link #createComposedIndexKey(Object...)}
+	 * @return Keys for which edges were found or null if no index exists for the label and postfix
+	 */
+	Set<Object> edgeLookupKeys(String edgeLabel, String indexPostfix, Collection<?> keys);
+
+	/**
+	 * Perform a range lookup on the sorted edge index of the given label. The ids of the inbound vertices of the edges which start at the given outbound vertex
+	 * are returned in ascending order. The lookup seeks directly to the first edge after the given inbound vertex.
+	 * 
+	 * @param edgeLabel
+	 *            Label of the edges which is indexed via {@link #addSortedEdgeIndex(String)}
+	 * @param outId
+	 *            Outbound vertex id of the edges
+	 * @param afterInId
+	 *            Inbound vertex id after which the lookup starts or null to start with the first edge
+	 * @param limit
+	 *            Maximum amount of ids to be returned
+	 * @return List of found inbound vertex ids or null if no sorted index exists for the label
+	 */
+	List<Object> edgeLookupAscending(String edgeLabel, Object outId, Object afterInId, int limit);
+
+	/**
+	 * Perform a range lookup on the in/out edge index of the given label. The ids of the outbound vertices of the edges which end at the given inbound vertex
+	 * are returned in ascending order. The lookup seeks directly to the first edge after the given outbound vertex.
+	 * 
+	 * @param edgeLabel
+	 *            Label of the edges which is indexed via {@link #addEdgeIndex(String, boolean, boolean, boolean, String...)} including the in/out index
+	 * @param inId
+	 *            Inbound vertex id of the edges
+	 * @param afterOutId
+	 *            Outbound vertex id after which the lookup starts or null to start with the first edge
+	 * @param limit
+	 *            Maximum amount of ids to be returned
+	 * @return List of found outbound vertex ids or null if no in/out index exists for the label
+	 */
+	List<Object> inboundEdgeLookupAscending(String edgeLabel, Object inId, Object afterOutId, int limit);
+
 	/**
 	 * Join the cluster and block until the graph database has been received.
 	 * 
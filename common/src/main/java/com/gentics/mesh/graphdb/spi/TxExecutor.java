@@ -0,0 +1,245 @@
+package com.gentics.mesh.graphdb.spi;
+
+import static com.gentics.mesh.core.rest.error.Errors.error;
+import static io.netty.handler.codec.http.HttpResponseStatus.SERVICE_UNAVAILABLE;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import com.gentics.mesh.metric.MeshMetrics;
+
+import io.reactivex.Single;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * Dedicated thread pool which is used to execute asynchronous transactions. The results are emitted on the Vert.x context of the caller.
+ *
+ * The pool reports its queue depth, the amount of active threads as well as the wait and execution times. The calling stacktrace is only recorded for sampled
+ * executions or if debug logging is enabled since capturing the stacktrace for every call is expensive.
+ *
+ * The queue of the pool is bounded. Executions which can't be queued fail with a 503 error so that an overloaded instance sheds load instead of piling up
+ * requests which would time out anyway.
+ *
+ * Ordered executions are distributed over single threaded shards by their ordering key. Executions with the same key are thus executed one after another
+ * while executions with different keys may run in parallel. By default the Vert.x context of the caller is used as the key, just like ordered blocking
+ * code of Vert.x.
+ *
+ * Executions which are started from within a thread of the pool are run inline. A nested transaction would otherwise wait for a free thread while blocking
+ * the thread of the outer transaction, which deadlocks once all threads are busy.
+ */
+public class TxExecutor {
+
+	private static final Logger log = LoggerFactory.getLogger(TxExecutor.class);
+
+	private final ThreadPoolExecutor pool;
+
+	private final ThreadPoolExecutor[] orderedShards;
+
+	/**
+	 * Flag which is set for the threads of the pool and its shards while they execute an action.
+	 */
+	private final ThreadLocal<Boolean> executing = new ThreadLocal<>();
+
+	private final double diagnosticsSampleRate;
+
+	private final Timer waitTime;
+
+	private final Timer executionTime;
+
+	private final Counter timeouts;
+
+	private final Counter rejections;
+
+	/**
+	 * Create a new executor.
+	 *
+	 * @param name
+	 *            Name of the pool which is used for the thread and metric names
+	 * @param poolSize
+	 *            Amount of threads
+	 * @param queueSize
+	 *            Maximum amount of executions which may wait for a thread
+	 * @param diagnosticsSampleRate
+	 *            Fraction of executions for which the calling stacktrace should be recorded
+	 */
+	public TxExecutor(String name, int poolSize, int queueSize, double diagnosticsSampleRate) {
+		this.diagnosticsSampleRate = diagnosticsSampleRate;
+		AtomicInteger threadCount = new AtomicInteger();
+		this.pool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueSize), r -> {
+			Thread thread = new Thread(r, name + "-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		// Each shard gets its part of the queue so that the ordered executions can't queue up more actions than the pool
+		this.orderedShards = new ThreadPoolExecutor[poolSize];
+		int shardQueueSize = Math.max(1, queueSize / poolSize);
+		for (int i = 0; i < poolSize; i++) {
+			String threadName = name + "-ordered-" + (i + 1);
+			orderedShards[i] = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(shardQueueSize), r -> {
+				Thread thread = new Thread(r, threadName);
+				thread.setDaemon(true);
+				return thread;
+			});
+			orderedShards[i].allowCoreThreadTimeOut(true);
+		}
+		this.waitTime = MeshMetrics.timer(name, "wait");
+		this.executionTime = MeshMetrics.timer(name, "execution");
+		this.timeouts = MeshMetrics.counter(name, "timeouts");
+		this.rejections = MeshMetrics.counter(name, "rejections");
+		MeshMetrics.gauge(() -> {
+			int depth = pool.getQueue().size();
+			for (ThreadPoolExecutor shard : orderedShards) {
+				depth += shard.getQueue().size();
+			}
+			return depth;
+		}, name, "queueDepth");
+		MeshMetrics.gauge(() -> pool.getActiveCount(), name, "active");
+		MeshMetrics.gauge(() -> pool.getMaximumPoolSize(), name, "size");
+	}
+
+	/**
+	 * Return the recorded calling stacktrace if the execution was selected for diagnostics.
+	 *
+	 * @return Exception which contains the stacktrace or null if no stacktrace was recorded
+	 */
+	public Exception captureDiagnostics() {
+		if (log.isDebugEnabled() || (diagnosticsSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < diagnosticsSampleRate)) {
+			return new Exception("Transaction timeout exception");
+		}
+		return null;
+	}
+
+	/**
+	 * Record a transaction which did not complete in time.
+	 */
+	public void countTimeout() {
+		timeouts.inc();
+	}
+
+	/**
+	 * Execute the action within the pool. The result will be emitted on the Vert.x context of the subscriber. The result is emitted directly if the subscriber
+	 * is not running within a Vert.x context.
+	 *
+	 * @param action
+	 * @return
+	 */
+	public <T> Single<T> execute(Callable<T> action) {
+		return execute(action, false);
+	}
+
+	/**
+	 * Execute the action within the pool. The result will be emitted on the Vert.x context of the subscriber. The result is emitted directly if the subscriber
+	 * is not running within a Vert.x context. The single fails with a 503 error if the queue of the pool is full.
+	 *
+	 * @param action
+	 * @param ordered
+	 *            Whether the action should be executed in order with the other ordered actions of the current ordering key
+	 * @return
+	 */
+	public <T> Single<T> execute(Callable<T> action, boolean ordered) {
+		return execute(action, ordered ? currentOrderingKey() : null);
+	}
+
+	/**
+	 * Execute the action within the pool. The result will be emitted on the Vert.x context of the subscriber. The result is emitted directly if the subscriber
+	 * is not running within a Vert.x context. The single fails with a 503 error if the queue of the pool is full.
+	 *
+	 * @param action
+	 * @param orderingKey
+	 *            Key of the actions which must be executed in order or null if the action can be executed in any order
+	 * @return
+	 */
+	public <T> Single<T> execute(Callable<T> action, Object orderingKey) {
+		return Single.create(sub -> {
+			// Nested executions are run by the current thread of the pool
+			if (Boolean.TRUE.equals(executing.get())) {
+				T result;
+				try {
+					result = action.call();
+				} catch (Throwable e) {
+					sub.onError(e);
+					return;
+				}
+				sub.onSuccess(result);
+				return;
+			}
+			Context context = Vertx.currentContext();
+			long queued = System.nanoTime();
+			try {
+				executorFor(orderingKey).execute(() -> {
+					long started = System.nanoTime();
+					waitTime.update(started - queued, TimeUnit.NANOSECONDS);
+					T result = null;
+					Throwable error = null;
+					executing.set(true);
+					try {
+						result = action.call();
+					} catch (Throwable e) {
+						error = e;
+					} finally {
+						executing.remove();
+						executionTime.update(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+					}
+					T value = result;
+					Throwable cause = error;
+					Runnable emit = () -> {
+						if (cause != null) {
+							sub.onError(cause);
+						} else {
+							sub.onSuccess(value);
+						}
+					};
+					if (context == null) {
+						emit.run();
+					} else {
+						context.runOnContext(v -> emit.run());
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				rejections.inc();
+				if (log.isDebugEnabled()) {
+					log.debug("The transaction pool is exhausted. Rejecting the transaction.");
+				}
+				sub.onError(error(SERVICE_UNAVAILABLE, "error_tx_pool_exhausted"));
+			}
+		});
+	}
+
+	/**
+	 * Return the ordering key of the caller. This is the Vert.x context of the caller or the current thread if the caller is not running within a context.
+	 *
+	 * @return
+	 */
+	public static Object currentOrderingKey() {
+		Context context = Vertx.currentContext();
+		return context != null ? context : Thread.currentThread();
+	}
+
+	private ThreadPoolExecutor executorFor(Object orderingKey) {
+		if (orderingKey == null) {
+			return pool;
+		}
+		return orderedShards[Math.floorMod(orderingKey.hashCode(), orderedShards.length)];
+	}
+
+	/**
+	 * Shut the pool down. Queued executions are still handled but new executions will be rejected.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+		for (ThreadPoolExecutor shard : orderedShards) {
+			shard.shutdown();
+		}
+	}
+
+}
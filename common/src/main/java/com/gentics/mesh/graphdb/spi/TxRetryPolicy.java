@@ -0,0 +1,90 @@
+package com.gentics.mesh.graphdb.spi;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.gentics.mesh.etc.config.GraphStorageOptions;
+
+/**
+ * Retry policy for transactions which failed due to concurrent modifications.
+ *
+ * The delay before each retry grows exponentially and is randomized ("full jitter"). The randomization prevents transactions which conflicted with each other
+ * from being retried at the same time again while the exponential growth reduces the load on elements which are modified by many transactions concurrently.
+ */
+public class TxRetryPolicy {
+
+	/**
+	 * Limit for the exponent to prevent an overflow of the delay.
+	 */
+	private static final int MAX_EXPONENT = 20;
+
+	private final int maxRetry;
+
+	private final long baseDelay;
+
+	private final long maxDelay;
+
+	/**
+	 * Create a new policy.
+	 *
+	 * @param maxRetry
+	 *            Maximum amount of attempts
+	 * @param baseDelay
+	 *            Upper bound of the delay in milliseconds for the first retry
+	 * @param maxDelay
+	 *            Upper bound of the delay in milliseconds for all retries
+	 */
+	public TxRetryPolicy(int maxRetry, long baseDelay, long maxDelay) {
+		this.maxRetry = maxRetry;
+		this.baseDelay = baseDelay;
+		this.maxDelay = maxDelay;
+	}
+
+	/**
+	 * Create a policy using the settings of the given options.
+	 *
+	 * @param maxRetry
+	 *            Maximum amount of attempts
+	 * @param options
+	 *            Storage options or null to use the default delays
+	 * @return
+	 */
+	public static TxRetryPolicy create(int maxRetry, GraphStorageOptions options) {
+		if (options == null) {
+			return new TxRetryPolicy(maxRetry, GraphStorageOptions.DEFAULT_TX_RETRY_DELAY, GraphStorageOptions.DEFAULT_TX_RETRY_MAX_DELAY);
+		}
+		return new TxRetryPolicy(maxRetry, options.getTxRetryDelay(), options.getTxRetryMaxDelay());
+	}
+
+	/**
+	 * Return the maximum amount of attempts.
+	 *
+	 * @return
+	 */
+	public int getMaxRetry() {
+		return maxRetry;
+	}
+
+	/**
+	 * Check whether another attempt should be made after the given attempt failed.
+	 *
+	 * @param retry
+	 *            Zero based number of the attempt which failed
+	 * @return
+	 */
+	public boolean canRetry(int retry) {
+		return retry + 1 < maxRetry;
+	}
+
+	/**
+	 * Return the randomized delay in milliseconds which should be waited before the next attempt.
+	 *
+	 * @param retry
+	 *            Zero based number of the attempt which failed
+	 * @return
+	 */
+	public long delay(int retry) {
+		long cap = Math.min(maxDelay, baseDelay << Math.min(retry, MAX_EXPONENT));
+		return 1 + ThreadLocalRandom.current().nextLong(cap);
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.gentics.mesh.graphdb.spi;
+
+import com.gentics.mesh.metric.MeshMetrics;
+
+/**
+ * Metrics for transaction conflicts and retries.
+ *
+ * Conflicts are counted per vertex class in order to find elements which are modified by many transactions concurrently. Retries and conflicts are also
+ * recorded per endpoint. The endpoint of the current thread is set by the handler which starts the transaction.
+ */
+public final class TxStats {
+
+	private static final String UNKNOWN = "unknown";
+
+	private static final ThreadLocal<String> ENDPOINT = new ThreadLocal<>();
+
+	private TxStats() {
+	}
+
+	/**
+	 * Set the name of the endpoint for which transactions are executed by the current thread.
+	 *
+	 * @param endpoint
+	 *            Name of the endpoint or null to reset the name
+	 */
+	public static void setEndpoint(String endpoint) {
+		if (endpoint == null) {
+			ENDPOINT.remove();
+		} else {
+			ENDPOINT.set(endpoint);
+		}
+	}
+
+	/**
+	 * Return the name of the endpoint for which transactions are executed by the current thread.
+	 *
+	 * @return
+	 */
+	public static String getEndpoint() {
+		String endpoint = ENDPOINT.get();
+		return endpoint == null ? UNKNOWN : endpoint;
+	}
+
+	/**
+	 * Record a conflict which was caused by a concurrent modification.
+	 *
+	 * @param vertexClass
+	 *            Class of the modified element or null if the class is unknown
+	 */
+	public static void conflict(String vertexClass) {
+		MeshMetrics.counter("tx", "conflicts", "class", vertexClass == null ? UNKNOWN : vertexClass).inc();
+		MeshMetrics.meter("tx", "conflicts", "endpoint", getEndpoint()).mark();
+	}
+
+	/**
+	 * Record a transaction which was completed.
+	 *
+	 * @param retries
+	 *            Amount of retries which were needed to complete the transaction
+	 */
+	public static void completed(int retries) {
+		String endpoint = getEndpoint();
+		MeshMetrics.meter("tx", "completed", "endpoint", endpoint).mark();
+		MeshMetrics.histogram("tx", "retries", "endpoint", endpoint).update(retries);
+	}
+
+	/**
+	 * Record a transaction which failed since the retry limit was exceeded.
+	 */
+	public static void exhausted() {
+		MeshMetrics.meter("tx", "exhausted", "endpoint", getEndpoint()).mark();
+	}
+
+}
@@ -9,12 +9,18 @@ import com.gentics.mesh.core.rest.error.GenericRestException;
 
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
 
 /**
  * Abstraction of the vertx-web routing context.
  */
 public interface ActionContext {
 
+	/**
+	 * Name of the query parameter which can be used to request pretty printed JSON responses.
+	 */
+	public static final String PRETTY_PRINT_PARAMETER = "pretty";
+
 	/**
 	 * Return the data map that is bound to this context.
 	 * 
@@ -97,6 +103,38 @@ public interface ActionContext {
 	 */
 	void send(String body, HttpResponseStatus status, String contentType);
 
+	/**
+	 * Send the body buffer with the given status code and contentType. The default implementation converts the buffer into a string.
+	 * 
+	 * @param body
+	 * @param status
+	 * @param contentType
+	 */
+	default void send(Buffer body, HttpResponseStatus status, String contentType) {
+		send(body.toString(), status, contentType);
+	}
+
+	/**
+	 * Send the JSON body buffer and complete the action.
+	 * 
+	 * @param body
+	 *            UTF-8 encoded JSON
+	 * @param status
+	 *            the status code to send
+	 */
+	default void send(Buffer body, HttpResponseStatus status) {
+		send(body, status, APPLICATION_JSON_UTF8);
+	}
+
+	/**
+	 * Check whether the client requested pretty printed JSON via the {@value #PRETTY_PRINT_PARAMETER} query parameter. Responses are compact by default.
+	 * 
+	 * @return
+	 */
+	default boolean isPrettyPrint() {
+		return Boolean.parseBoolean(getParameter(PRETTY_PRINT_PARAMETER));
+	}
+
 	/**
 	 * Return the i18n string for the given i18n key and the parameters. This method is a wrapper that will lookup the defined locale and return a matching i18n
 	 * translation.
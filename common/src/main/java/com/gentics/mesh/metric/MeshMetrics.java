@@ -0,0 +1,157 @@
+package com.gentics.mesh.metric;
+
+import java.util.Map;
+import java.util.SortedMap;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Counting;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Central access point for the metrics which are collected by Gentics Mesh. All metrics are kept in a shared dropwizard registry which can be inspected via
+ * the admin metrics endpoint.
+ */
+public final class MeshMetrics {
+
+	/**
+	 * Name of the shared metric registry and prefix of all metric names.
+	 */
+	public static final String REGISTRY_NAME = "mesh";
+
+	private static final double NANOS_PER_MILLI = 1_000_000d;
+
+	private MeshMetrics() {
+	}
+
+	/**
+	 * Return the shared metric registry.
+	 * 
+	 * @return
+	 */
+	public static MetricRegistry registry() {
+		return SharedMetricRegistries.getOrCreate(REGISTRY_NAME);
+	}
+
+	/**
+	 * Create the full metric name for the given name segments.
+	 * 
+	 * @param names
+	 * @return Name which is prefixed with the registry name
+	 */
+	public static String name(String... names) {
+		return MetricRegistry.name(REGISTRY_NAME, names);
+	}
+
+	/**
+	 * Return the counter with the given name. The counter will be created if it does not yet exist.
+	 * 
+	 * @param names
+	 * @return
+	 */
+	public static Counter counter(String... names) {
+		return registry().counter(name(names));
+	}
+
+	/**
+	 * Return the meter with the given name. The meter will be created if it does not yet exist.
+	 * 
+	 * @param names
+	 * @return
+	 */
+	public static Meter meter(String... names) {
+		return registry().meter(name(names));
+	}
+
+	/**
+	 * Return the timer with the given name. The timer will be created if it does not yet exist.
+	 * 
+	 * @param names
+	 * @return
+	 */
+	public static Timer timer(String... names) {
+		return registry().timer(name(names));
+	}
+
+	/**
+	 * Return the histogram with the given name. The histogram will be created if it does not yet exist.
+	 * 
+	 * @param names
+	 * @return
+	 */
+	public static Histogram histogram(String... names) {
+		return registry().histogram(name(names));
+	}
+
+	/**
+	 * Register the gauge using the given name. A previously registered metric with the same name will be replaced.
+	 * 
+	 * @param gauge
+	 * @param names
+	 */
+	public static <T> void gauge(Gauge<T> gauge, String... names) {
+		String name = name(names);
+		MetricRegistry registry = registry();
+		registry.remove(name);
+		registry.register(name, gauge);
+	}
+
+	/**
+	 * Create a JSON snapshot of all registered metrics. Durations of timers are returned in milliseconds.
+	 * 
+	 * @return
+	 */
+	public static JsonObject toJson() {
+		JsonObject json = new JsonObject();
+		SortedMap<String, Metric> metrics = registry().getMetrics();
+		for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+			Metric metric = entry.getValue();
+			if (metric instanceof Gauge) {
+				Object value = ((Gauge<?>) metric).getValue();
+				if (value instanceof Number || value instanceof Boolean || value instanceof String) {
+					json.put(entry.getKey(), value);
+				} else {
+					json.put(entry.getKey(), String.valueOf(value));
+				}
+			} else if (metric instanceof Counter) {
+				json.put(entry.getKey(), ((Counter) metric).getCount());
+			} else if (metric instanceof Timer) {
+				Timer timer = (Timer) metric;
+				JsonObject info = toJson(timer, timer.getSnapshot(), NANOS_PER_MILLI);
+				info.put("m1Rate", timer.getOneMinuteRate());
+				json.put(entry.getKey(), info);
+			} else if (metric instanceof Meter) {
+				Meter meter = (Meter) metric;
+				JsonObject info = new JsonObject();
+				info.put("count", meter.getCount());
+				info.put("m1Rate", meter.getOneMinuteRate());
+				info.put("m5Rate", meter.getFiveMinuteRate());
+				json.put(entry.getKey(), info);
+			} else if (metric instanceof Histogram) {
+				Histogram histogram = (Histogram) metric;
+				json.put(entry.getKey(), toJson(histogram, histogram.getSnapshot(), 1));
+			}
+		}
+		return json;
+	}
+
+	private static JsonObject toJson(Counting counting, Snapshot snapshot, double divisor) {
+		JsonObject info = new JsonObject();
+		info.put("count", counting.getCount());
+		info.put("mean", snapshot.getMean() / divisor);
+		info.put("p50", snapshot.getMedian() / divisor);
+		info.put("p95", snapshot.get95thPercentile() / divisor);
+		info.put("p99", snapshot.get99thPercentile() / divisor);
+		info.put("max", snapshot.getMax() / divisor);
+		return info;
+	}
+
+}
@@ -8,6 +8,7 @@ import com.gentics.mesh.parameter.impl.PagingParametersImpl;
 import com.gentics.mesh.parameter.impl.PublishParametersImpl;
 import com.gentics.mesh.parameter.impl.RolePermissionParametersImpl;
 import com.gentics.mesh.parameter.impl.SchemaUpdateParametersImpl;
+import com.gentics.mesh.parameter.impl.SearchParametersImpl;
 import com.gentics.mesh.parameter.impl.UserParametersImpl;
 import com.gentics.mesh.parameter.impl.VersioningParametersImpl;
 
@@ -52,4 +53,8 @@ public interface ParameterProviderContext extends ActionContext {
 		return new SchemaUpdateParametersImpl(this);
 	}
 
+	default SearchParameters getSearchParameters() {
+		return new SearchParametersImpl(this);
+	}
+
 }
@@ -13,6 +13,7 @@ import com.gentics.mesh.handler.ActionContext;
 import com.gentics.mesh.parameter.AbstractParameters;
 import com.gentics.mesh.parameter.ImageManipulationParameters;
 import com.gentics.mesh.parameter.image.CropMode;
+import com.gentics.mesh.parameter.image.ImageFormat;
 import com.gentics.mesh.parameter.image.ImageRect;
 
 /**
@@ -59,6 +60,16 @@ public class ImageManipulationParametersImpl extends AbstractParameters implemen
 
 		validateFocalPointParameter();
 
+		String format = getParameter(FORMAT_QUERY_PARAM_KEY);
+		if (format != null && !isAutoFormat() && getFormat() == null) {
+			throw error(BAD_REQUEST, "image_error_parameter_invalid", FORMAT_QUERY_PARAM_KEY, format);
+		}
+
+		Integer quality = getQuality();
+		if (quality != null && (quality < 1 || quality > 100)) {
+			throw error(BAD_REQUEST, "image_error_parameter_quality", String.valueOf(quality));
+		}
+
 	}
 
 	@Override
@@ -127,6 +138,24 @@ public class ImageManipulationParametersImpl extends AbstractParameters implemen
 		cropParameter.setType(ParamType.STRING);
 		parameters.put(CROP_MODE_QUERY_PARAM_KEY, cropParameter);
 
+		// format
+		QueryParameter formatParameter = new QueryParameter();
+		formatParameter.setDescription("Set the output format of the image. The format will be selected using the accept header of the request if "
+				+ AUTO_FORMAT + " or no format was specified. WebP is only selected if the client explicitly accepts it. Transparency is retained for "
+				+ "transparent source images if PNG is accepted. Otherwise JPEG is used. Possible formats: " + ImageFormat.description());
+		formatParameter.setExample("png");
+		formatParameter.setRequired(false);
+		formatParameter.setType(ParamType.STRING);
+		parameters.put(FORMAT_QUERY_PARAM_KEY, formatParameter);
+
+		// quality
+		QueryParameter qualityParameter = new QueryParameter();
+		qualityParameter.setDescription("Set the quality of lossy output formats between 1 and 100.");
+		qualityParameter.setExample("80");
+		qualityParameter.setRequired(false);
+		qualityParameter.setType(ParamType.NUMBER);
+		parameters.put(QUALITY_QUERY_PARAM_KEY, qualityParameter);
+
 		return parameters;
 	}
 
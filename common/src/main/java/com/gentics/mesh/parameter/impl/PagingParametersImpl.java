@@ -13,6 +13,8 @@ import com.gentics.mesh.core.rest.SortOrder;
 import com.gentics.mesh.handler.ActionContext;
 import com.gentics.mesh.parameter.AbstractParameters;
 import com.gentics.mesh.parameter.PagingParameters;
+import com.gentics.mesh.util.PagingCursor;
+import com.gentics.mesh.util.UUIDUtil;
 
 /**
  * A {@link PagingParametersImpl} can be used to add additional paging parameters to the rest requests.
@@ -31,6 +33,10 @@ public class PagingParametersImpl extends AbstractParameters implements PagingPa
 		if (perPage < 0) {
 			error(BAD_REQUEST, "error_invalid_paging_parameters");
 		}
+		String after = getAfter();
+		if (after != null) {
+			PagingCursor.decode(after);
+		}
 	}
 
 	public PagingParametersImpl(long page, int perPage, String sortBy, SortOrder order) {
@@ -100,6 +106,25 @@ public class PagingParametersImpl extends AbstractParameters implements PagingPa
 		perPageParameter.setRequired(false);
 		perPageParameter.setType(ParamType.NUMBER);
 		parameters.put(PER_PAGE_PARAMETER_KEY, perPageParameter);
+
+		// after
+		QueryParameter afterParameter = new QueryParameter();
+		afterParameter.setDescription(
+				"Cursor after which the elements should be loaded. The cursor must be the next cursor of the paging meta info of the previous page. The page parameter will be ignored if a cursor has been specified.");
+		afterParameter.setExample(PagingCursor.encode(UUIDUtil.randomUUID()));
+		afterParameter.setRequired(false);
+		afterParameter.setType(ParamType.STRING);
+		parameters.put(AFTER_PARAMETER_KEY, afterParameter);
+
+		// totalCount
+		QueryParameter totalCountParameter = new QueryParameter();
+		totalCountParameter.setDefaultValue("true");
+		totalCountParameter.setDescription(
+				"Whether the total count and the page count should be determined. Disabling the count avoids the need to check all elements and is recommended when scrolling through the elements using a cursor.");
+		totalCountParameter.setExample("false");
+		totalCountParameter.setRequired(false);
+		totalCountParameter.setType(ParamType.BOOLEAN);
+		parameters.put(TOTAL_COUNT_PARAMETER_KEY, totalCountParameter);
 		return parameters;
 	}
 
@@ -0,0 +1,58 @@
+package com.gentics.mesh.parameter.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.raml.model.ParamType;
+import org.raml.model.parameter.QueryParameter;
+
+import com.gentics.mesh.handler.ActionContext;
+import com.gentics.mesh.parameter.AbstractParameters;
+import com.gentics.mesh.parameter.SearchParameters;
+
+public class SearchParametersImpl extends AbstractParameters implements SearchParameters {
+
+	public SearchParametersImpl(ActionContext ac) {
+		super(ac);
+	}
+
+	public SearchParametersImpl() {
+	}
+
+	@Override
+	public void validate() {
+	}
+
+	@Override
+	public String getName() {
+		return "Search parameters";
+	}
+
+	@Override
+	public Map<? extends String, ? extends QueryParameter> getRAMLParameters() {
+		Map<String, QueryParameter> parameters = new HashMap<>();
+
+		// waitForIndex
+		QueryParameter waitParameter = new QueryParameter();
+		waitParameter.setDefaultValue("false");
+		waitParameter.setDescription(
+				"Specify whether the request should only return once the search index has been updated. This is only relevant if the search index is updated in the background.");
+		waitParameter.setExample("true");
+		waitParameter.setRequired(false);
+		waitParameter.setType(ParamType.BOOLEAN);
+		parameters.put(WAIT_FOR_INDEX_PARAMETER_KEY, waitParameter);
+
+		// fromSource
+		QueryParameter sourceParameter = new QueryParameter();
+		sourceParameter.setDefaultValue("false");
+		sourceParameter.setDescription(
+				"Specify whether the elements of a search result should be created from the stored search index documents. This avoids loading the elements from the graph but the elements will only contain the fields which are stored in the search index. Elements of types which can't be created this way are still loaded from the graph.");
+		sourceParameter.setExample("true");
+		sourceParameter.setRequired(false);
+		sourceParameter.setType(ParamType.BOOLEAN);
+		parameters.put(FROM_SOURCE_PARAMETER_KEY, sourceParameter);
+
+		return parameters;
+	}
+
+}
@@ -7,6 +7,7 @@ import com.gentics.mesh.core.rest.schema.Schema;
 import com.gentics.mesh.etc.config.MeshOptions;
 
 import io.reactivex.Completable;
+import io.reactivex.Maybe;
 import io.reactivex.Single;
 import io.vertx.core.json.JsonObject;
 
@@ -30,6 +31,11 @@ public class DevNullSearchProvider implements SearchProvider {
 		return Completable.complete();
 	}
 
+	@Override
+	public Maybe<Long> getDocumentCount(String index) {
+		return Maybe.empty();
+	}
+
 	@Override
 	public Completable createIndex(IndexInfo info) {
 		return Completable.complete();
@@ -77,6 +83,29 @@ public class DevNullSearchProvider implements SearchProvider {
 		return Completable.complete();
 	}
 
+	@Override
+	public Completable swapAlias(String alias, String indexName) {
+		return Completable.complete();
+	}
+
+	@Override
+	public void addMirror(String indexName, String mirrorIndexName) {
+	}
+
+	@Override
+	public void removeMirror(String indexName) {
+	}
+
+	@Override
+	public long getMirrorSequence() {
+		return 0;
+	}
+
+	@Override
+	public long getMirrorSequence(String mirrorIndexName, String documentId) {
+		return 0;
+	}
+
 	@Override
 	public void reset() {
 	}
@@ -7,6 +7,7 @@ import com.gentics.mesh.core.data.search.index.IndexInfo;
 import com.gentics.mesh.etc.config.MeshOptions;
 
 import io.reactivex.Completable;
+import io.reactivex.Maybe;
 import io.reactivex.Single;
 import io.vertx.core.json.JsonObject;
 
@@ -34,6 +35,15 @@ public interface SearchProvider {
 	 */
 	Completable refreshIndex(String... indices);
 
+	/**
+	 * Count the documents of the given index. Only documents which have been made searchable via {@link #refreshIndex(String...)} are counted.
+	 * 
+	 * @param index
+	 *            Name of the index
+	 * @return Maybe which yields the amount of documents or which is empty if the provider does not store documents
+	 */
+	Maybe<Long> getDocumentCount(String index);
+
 	/**
 	 * Create a search index with index information.
 	 * 
@@ -146,6 +156,55 @@ public interface SearchProvider {
 	 */
 	Completable deleteIndex(boolean failOnMissingIndex, String... indexNames);
 
+	/**
+	 * Atomically point the alias to the given index. An existing index with the name of the alias or the indices which were previously referenced by the
+	 * alias will be deleted.
+	 *
+	 * @param alias
+	 *            Name of the alias which is used to access the index
+	 * @param indexName
+	 *            Name of the index which should be referenced by the alias
+	 * @return Completable for the action
+	 */
+	Completable swapAlias(String alias, String indexName);
+
+	/**
+	 * Mirror all document changes for the given index into the mirror index. This is used to keep an index which is currently being rebuilt in sync with the
+	 * index which is still in use.
+	 *
+	 * @param indexName
+	 *            Name of the index which receives the document changes
+	 * @param mirrorIndexName
+	 *            Name of the index which should also receive the changes
+	 */
+	void addMirror(String indexName, String mirrorIndexName);
+
+	/**
+	 * Stop mirroring the document changes for the given index.
+	 *
+	 * @param indexName
+	 */
+	void removeMirror(String indexName);
+
+	/**
+	 * Return the sequence number of the last document change which was applied to a mirror index. The sequence number can be compared with the sequence
+	 * numbers of single documents in order to detect changes which were mirrored concurrently to a rebuild of the index.
+	 *
+	 * @return
+	 */
+	long getMirrorSequence();
+
+	/**
+	 * Return the sequence number of the last change of the document which was applied to the mirror index.
+	 *
+	 * @param mirrorIndexName
+	 *            Name of the mirror index
+	 * @param documentId
+	 *            Id of the document
+	 * @return Sequence number or 0 if the document has not been changed via the mirror
+	 */
+	long getMirrorSequence(String mirrorIndexName, String documentId);
+
 	/**
 	 * Returns the search provider vendor name.
 	 * 
@@ -10,6 +10,7 @@ import com.gentics.mesh.core.rest.schema.Schema;
 import com.gentics.mesh.etc.config.MeshOptions;
 
 import io.reactivex.Completable;
+import io.reactivex.Maybe;
 import io.reactivex.Single;
 import io.vertx.core.json.JsonObject;
 
@@ -24,6 +25,7 @@ public class TrackingSearchProvider implements SearchProvider {
 	private List<String> getEvents = new ArrayList<>();
 	private List<String> dropIndexEvents = new ArrayList<>();
 	private Map<String, JsonObject> createIndexEvents = new HashMap<>();
+	private volatile Throwable failure;
 
 	@Override
 	public SearchProvider init(MeshOptions options) {
@@ -40,6 +42,11 @@ public class TrackingSearchProvider implements SearchProvider {
 		return Completable.complete();
 	}
 
+	@Override
+	public Maybe<Long> getDocumentCount(String index) {
+		return Maybe.empty();
+	}
+
 	@Override
 	public Completable createIndex(IndexInfo info) {
 		JsonObject json = new JsonObject();
@@ -52,6 +59,7 @@ public class TrackingSearchProvider implements SearchProvider {
 	@Override
 	public Completable updateDocument(String index, String uuid, JsonObject document, boolean ignoreMissingDocumentError) {
 		return Completable.fromAction(() -> {
+			checkFailure();
 			updateEvents.put(index + "-" + uuid, document);
 		});
 	}
@@ -63,6 +71,7 @@ public class TrackingSearchProvider implements SearchProvider {
 	@Override
 	public Completable deleteDocument(String index, String uuid) {
 		return Completable.fromAction(() -> {
+			checkFailure();
 			deleteEvents.add(index + "-" + uuid);
 		});
 	}
@@ -75,12 +84,18 @@ public class TrackingSearchProvider implements SearchProvider {
 
 	@Override
 	public Completable storeDocumentBatch(String index, Map<String, JsonObject> documents) {
-		return Completable.complete();
+		return Completable.fromAction(() -> {
+			checkFailure();
+			for (Map.Entry<String, JsonObject> entry : documents.entrySet()) {
+				storeEvents.put(index + "-" + entry.getKey(), entry.getValue());
+			}
+		});
 	}
 
 	@Override
 	public Completable storeDocument(String index, String uuid, JsonObject document) {
 		return Completable.fromAction(() -> {
+			checkFailure();
 			storeEvents.put(index + "-" + uuid, document);
 		});
 	}
@@ -101,6 +116,29 @@ public class TrackingSearchProvider implements SearchProvider {
 		return Completable.complete();
 	}
 
+	@Override
+	public Completable swapAlias(String alias, String indexName) {
+		return Completable.complete();
+	}
+
+	@Override
+	public void addMirror(String indexName, String mirrorIndexName) {
+	}
+
+	@Override
+	public void removeMirror(String indexName) {
+	}
+
+	@Override
+	public long getMirrorSequence() {
+		return 0;
+	}
+
+	@Override
+	public long getMirrorSequence(String mirrorIndexName, String documentId) {
+		return 0;
+	}
+
 	@Override
 	public void reset() {
 		clear().blockingAwait();
@@ -113,6 +151,7 @@ public class TrackingSearchProvider implements SearchProvider {
 		storeEvents.clear();
 		dropIndexEvents.clear();
 		createIndexEvents.clear();
+		failure = null;
 		return Completable.complete();
 	}
 
@@ -126,6 +165,25 @@ public class TrackingSearchProvider implements SearchProvider {
 		return "1.0";
 	}
 
+	/**
+	 * Let all document operations fail with the given error. This can be used to simulate an unavailable search server.
+	 * 
+	 * @param failure
+	 *            Error or null to let the operations succeed again
+	 */
+	public void setFailure(Throwable failure) {
+		this.failure = failure;
+	}
+
+	private void checkFailure() throws Exception {
+		Throwable error = failure;
+		if (error instanceof Exception) {
+			throw (Exception) error;
+		} else if (error != null) {
+			throw new RuntimeException(error);
+		}
+	}
+
 	public Map<String, JsonObject> getStoreEvents() {
 		return storeEvents;
 	}
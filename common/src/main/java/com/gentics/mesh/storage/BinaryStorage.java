@@ -37,6 +37,16 @@ public interface BinaryStorage {
 	 */
 	Observable<Buffer> read(String uuid);
 
+	/**
+	 * Return the path of the local file which contains the binary data. Local files can be sent using zero-copy file transfers.
+	 * 
+	 * @param uuid
+	 * @return Absolute path or null if the storage does not store the data in local files
+	 */
+	default String getLocalPath(String uuid) {
+		return null;
+	}
+
 	/**
 	 * Delete the binary with the given uuid.
 	 * 
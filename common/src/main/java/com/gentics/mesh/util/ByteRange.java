@@ -0,0 +1,117 @@
+package com.gentics.mesh.util;
+
+/**
+ * Single byte range of a HTTP {@code Range} request header (RFC 7233). Only a single range is supported. Headers which contain multiple ranges or which can't
+ * be parsed are ignored and the full content is returned instead, which is permitted by the specification.
+ */
+public class ByteRange {
+
+	private static final String BYTES_UNIT = "bytes=";
+
+	private final long start;
+
+	private final long end;
+
+	private final long totalLength;
+
+	private ByteRange(long start, long end, long totalLength) {
+		this.start = start;
+		this.end = end;
+		this.totalLength = totalLength;
+	}
+
+	/**
+	 * Parse the range header value.
+	 *
+	 * @param header
+	 *            Value of the range header
+	 * @param totalLength
+	 *            Length of the full content
+	 * @return Parsed range or null if the header is not set or can't be handled
+	 */
+	public static ByteRange parse(String header, long totalLength) {
+		if (header == null || !header.startsWith(BYTES_UNIT)) {
+			return null;
+		}
+		String spec = header.substring(BYTES_UNIT.length()).trim();
+		if (spec.indexOf(',') != -1) {
+			return null;
+		}
+		int idx = spec.indexOf('-');
+		if (idx == -1) {
+			return null;
+		}
+		try {
+			String startStr = spec.substring(0, idx).trim();
+			String endStr = spec.substring(idx + 1).trim();
+			if (startStr.isEmpty()) {
+				// Suffix range which selects the last n bytes
+				if (endStr.isEmpty()) {
+					return null;
+				}
+				long suffixLength = Long.parseLong(endStr);
+				if (suffixLength <= 0) {
+					return new ByteRange(totalLength, totalLength - 1, totalLength);
+				}
+				return new ByteRange(Math.max(totalLength - suffixLength, 0), totalLength - 1, totalLength);
+			}
+			long start = Long.parseLong(startStr);
+			long end = endStr.isEmpty() ? Long.MAX_VALUE : Long.parseLong(endStr);
+			if (start < 0 || end < start) {
+				return null;
+			}
+			return new ByteRange(start, Math.min(end, totalLength - 1), totalLength);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Check whether the range overlaps the content. Ranges which are not satisfiable must be answered with 416 Range Not Satisfiable.
+	 *
+	 * @return
+	 */
+	public boolean isSatisfiable() {
+		return start < totalLength && start <= end;
+	}
+
+	/**
+	 * Return the offset of the first byte of the range.
+	 *
+	 * @return
+	 */
+	public long getStart() {
+		return start;
+	}
+
+	/**
+	 * Return the offset of the last byte of the range (inclusive).
+	 *
+	 * @return
+	 */
+	public long getEnd() {
+		return end;
+	}
+
+	/**
+	 * Return the amount of bytes within the range.
+	 *
+	 * @return
+	 */
+	public long getLength() {
+		return end - start + 1;
+	}
+
+	/**
+	 * Return the value of the {@code Content-Range} response header.
+	 *
+	 * @return
+	 */
+	public String toContentRange() {
+		if (isSatisfiable()) {
+			return "bytes " + start + "-" + end + "/" + totalLength;
+		}
+		return "bytes */" + totalLength;
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.gentics.mesh.util;
+
+import static com.gentics.mesh.core.rest.error.Errors.error;
+import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Base64;
+
+/**
+ * Utility for the cursors which are used for cursor based paging. A cursor is an opaque token which identifies the last element of a page. Clients must
+ * not make any assumptions about the content of the token.
+ */
+public final class PagingCursor {
+
+	/**
+	 * Prefix of the current cursor format. Cursors of other formats will be rejected.
+	 */
+	private static final String VERSION_PREFIX = "1:";
+
+	private PagingCursor() {
+	}
+
+	/**
+	 * Create the cursor for the element with the given uuid.
+	 *
+	 * @param uuid
+	 *            Uuid of the last element of the page
+	 * @return Encoded cursor
+	 */
+	public static String encode(String uuid) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString((VERSION_PREFIX + uuid).getBytes(UTF_8));
+	}
+
+	/**
+	 * Decode the given cursor.
+	 *
+	 * @param cursor
+	 *            Encoded cursor
+	 * @return Uuid of the element which is identified by the cursor
+	 * @throws com.gentics.mesh.core.rest.error.GenericRestException
+	 *             if the cursor is not valid
+	 */
+	public static String decode(String cursor) {
+		String decoded;
+		try {
+			decoded = new String(Base64.getUrlDecoder().decode(cursor), UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw error(BAD_REQUEST, "error_invalid_paging_cursor", cursor);
+		}
+		if (!decoded.startsWith(VERSION_PREFIX)) {
+			throw error(BAD_REQUEST, "error_invalid_paging_cursor", cursor);
+		}
+		String uuid = decoded.substring(VERSION_PREFIX.length());
+		if (!UUIDUtil.isUUID(uuid)) {
+			throw error(BAD_REQUEST, "error_invalid_paging_cursor", cursor);
+		}
+		return uuid;
+	}
+
+}
@@ -14,6 +14,7 @@ public class PropReadFileStream {
 	private FileProps props;
 	private AsyncFile file;
 	private String path;
+	private Runnable releaseHandler;
 
 	private static final OpenOptions openOptions = new OpenOptions().setRead(true);
 
@@ -64,4 +65,24 @@ public class PropReadFileStream {
 	public String getPath() {
 		return path;
 	}
+
+	/**
+	 * Set the handler which will be invoked once the file is released.
+	 * 
+	 * @param releaseHandler
+	 * @return Fluent API
+	 */
+	public PropReadFileStream setReleaseHandler(Runnable releaseHandler) {
+		this.releaseHandler = releaseHandler;
+		return this;
+	}
+
+	/**
+	 * Release the file once it is no longer needed. Files which are served from a cache may be removed after they have been released.
+	 */
+	public void release() {
+		if (releaseHandler != null) {
+			releaseHandler.run();
+		}
+	}
 }
@@ -0,0 +1,66 @@
+package com.gentics.mesh.core.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+public class ElementIdBitmapTest {
+
+	private static final long CLUSTER = 42L << 48;
+
+	@Test
+	public void testContains() {
+		ElementIdBitmap bitmap = ElementIdBitmap.of(LongStream.of(CLUSTER, CLUSTER + 1, CLUSTER + 70_000, 5));
+		assertTrue(bitmap.contains(CLUSTER));
+		assertTrue(bitmap.contains(CLUSTER + 1));
+		assertTrue(bitmap.contains(CLUSTER + 70_000));
+		assertTrue(bitmap.contains(5));
+		assertFalse(bitmap.contains(CLUSTER + 2));
+		assertFalse("Ids of other chunks must not match", bitmap.contains(CLUSTER + 65_536));
+		assertFalse(bitmap.contains(CLUSTER + 5));
+		assertEquals(4, bitmap.cardinality());
+	}
+
+	@Test
+	public void testAddAndRemove() {
+		ElementIdBitmap bitmap = ElementIdBitmap.of(LongStream.empty());
+		assertFalse(bitmap.contains(CLUSTER + 10));
+		bitmap.add(CLUSTER + 10);
+		bitmap.add(CLUSTER + 10);
+		bitmap.add(CLUSTER + 11);
+		assertTrue(bitmap.contains(CLUSTER + 10));
+		assertEquals(2, bitmap.cardinality());
+
+		bitmap.remove(CLUSTER + 10);
+		assertFalse(bitmap.contains(CLUSTER + 10));
+		assertTrue(bitmap.contains(CLUSTER + 11));
+		bitmap.remove(CLUSTER + 11);
+		bitmap.remove(CLUSTER + 12);
+		assertEquals(0, bitmap.cardinality());
+		assertEquals("Empty chunks should be released", 0, bitmap.estimatedSize());
+	}
+
+	@Test
+	public void testAddGrowsChunk() {
+		ElementIdBitmap bitmap = ElementIdBitmap.of(LongStream.of(CLUSTER));
+		for (long id = CLUSTER; id < CLUSTER + 65_536; id += 7) {
+			bitmap.add(id);
+		}
+		assertTrue(bitmap.contains(CLUSTER + 65_534));
+		assertFalse(bitmap.contains(CLUSTER + 65_535));
+		assertEquals(65_536 / 7 + 1, bitmap.cardinality());
+		assertTrue("A full chunk should not use more than one bit per id", bitmap.estimatedSize() <= 65_536 / 8 + 64);
+	}
+
+	@Test
+	public void testCompactSize() {
+		ElementIdBitmap bitmap = ElementIdBitmap.of(LongStream.range(CLUSTER, CLUSTER + 100_000));
+		assertEquals(100_000, bitmap.cardinality());
+		assertTrue("The bitmap should only use about one bit per id", bitmap.estimatedSize() < 20_000);
+	}
+
+}
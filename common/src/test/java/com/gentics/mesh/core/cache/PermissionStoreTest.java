@@ -0,0 +1,112 @@
+package com.gentics.mesh.core.cache;
+
+import static com.gentics.mesh.core.data.relationship.GraphPermission.READ_PERM;
+import static com.gentics.mesh.core.data.relationship.GraphPermission.UPDATE_PERM;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PermissionStoreTest {
+
+	private static final long USER1 = 1;
+
+	private static final long USER2 = 2;
+
+	private static final long USER3 = 3;
+
+	private static final long ELEMENT1 = 101;
+
+	private static final long ELEMENT2 = 102;
+
+	private static final long ROLE1 = 201;
+
+	private static final long ROLE2 = 202;
+
+	@Before
+	public void setup() {
+		PermissionStore.invalidate(false);
+	}
+
+	@Test
+	public void testGrantAndDeny() {
+		long generation = PermissionStore.generation();
+		assertNull(PermissionStore.getPermission(USER1, READ_PERM, ELEMENT1));
+		PermissionStore.store(USER1, READ_PERM, ELEMENT1, true, generation);
+		PermissionStore.store(USER1, UPDATE_PERM, ELEMENT1, false, generation);
+		assertEquals(Boolean.TRUE, PermissionStore.getPermission(USER1, READ_PERM, ELEMENT1));
+		assertEquals(Boolean.FALSE, PermissionStore.getPermission(USER1, UPDATE_PERM, ELEMENT1));
+		assertNull("Other users must not be affected", PermissionStore.getPermission(USER2, READ_PERM, ELEMENT1));
+
+		// Overwrite the previous result
+		PermissionStore.store(USER1, UPDATE_PERM, ELEMENT1, true, generation);
+		assertEquals(Boolean.TRUE, PermissionStore.getPermission(USER1, UPDATE_PERM, ELEMENT1));
+		assertEquals(Boolean.TRUE, PermissionStore.getPermission(USER1, READ_PERM, ELEMENT1));
+	}
+
+	@Test
+	public void testConcurrentInvalidation() {
+		long generation = PermissionStore.generation();
+		PermissionStore.invalidateElement(ELEMENT2, false);
+		PermissionStore.store(USER1, READ_PERM, ELEMENT1, false, generation);
+		assertNull("The result must not be stored since an invalidation happened in between", PermissionStore.getPermission(USER1, READ_PERM,
+				ELEMENT1));
+	}
+
+	@Test
+	public void testInvalidateElement() {
+		long generation = PermissionStore.generation();
+		PermissionStore.store(USER1, READ_PERM, ELEMENT1, true, generation);
+		PermissionStore.store(USER1, READ_PERM, ELEMENT2, true, generation);
+		PermissionStore.invalidateElement(ELEMENT1, false);
+		assertNull(PermissionStore.getPermission(USER1, READ_PERM, ELEMENT1));
+		assertEquals(Boolean.TRUE, PermissionStore.getPermission(USER1, READ_PERM, ELEMENT2));
+	}
+
+	@Test
+	public void testInvalidateUser() {
+		long generation = PermissionStore.generation();
+		PermissionStore.storeRoleIds(USER1, new long[] { ROLE1 }, generation);
+		PermissionStore.store(USER1, READ_PERM, ELEMENT1, true, generation);
+		PermissionStore.store(USER2, READ_PERM, ELEMENT1, true, generation);
+		PermissionStore.invalidateUser(USER1, false);
+		assertNull(PermissionStore.getRoleIds(USER1));
+		assertNull(PermissionStore.getPermission(USER1, READ_PERM, ELEMENT1));
+		assertEquals(Boolean.TRUE, PermissionStore.getPermission(USER2, READ_PERM, ELEMENT1));
+	}
+
+	@Test
+	public void testInvalidateRole() {
+		long generation = PermissionStore.generation();
+		PermissionStore.storeRoleIds(USER1, new long[] { ROLE1, ROLE2 }, generation);
+		PermissionStore.storeRoleIds(USER2, new long[] { ROLE2 }, generation);
+		PermissionStore.storeRoleIds(USER3, new long[] { ROLE1 }, generation);
+		PermissionStore.store(USER1, READ_PERM, ELEMENT1, true, generation);
+		PermissionStore.store(USER2, READ_PERM, ELEMENT1, true, generation);
+		PermissionStore.store(USER3, READ_PERM, ELEMENT1, true, generation);
+
+		PermissionStore.invalidateRole(ROLE1, false);
+		assertNull(PermissionStore.getRoleIds(USER1));
+		assertNull(PermissionStore.getPermission(USER1, READ_PERM, ELEMENT1));
+		assertArrayEquals(new long[] { ROLE2 }, PermissionStore.getRoleIds(USER2));
+		assertEquals(Boolean.TRUE, PermissionStore.getPermission(USER2, READ_PERM, ELEMENT1));
+		assertNull(PermissionStore.getRoleIds(USER3));
+		assertNull(PermissionStore.getPermission(USER3, READ_PERM, ELEMENT1));
+	}
+
+	@Test
+	public void testStoreAfterInvalidation() {
+		long generation = PermissionStore.generation();
+		PermissionStore.store(USER1, READ_PERM, ELEMENT1, true, generation);
+		PermissionStore.store(USER1, UPDATE_PERM, ELEMENT1, true, generation);
+		PermissionStore.invalidateUser(USER1, false);
+
+		// The permissions which were stored before the invalidation must not be merged into the new entry
+		PermissionStore.store(USER1, READ_PERM, ELEMENT1, false, PermissionStore.generation());
+		assertEquals(Boolean.FALSE, PermissionStore.getPermission(USER1, READ_PERM, ELEMENT1));
+		assertNull(PermissionStore.getPermission(USER1, UPDATE_PERM, ELEMENT1));
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.gentics.mesh.core.cache;
+
+import static com.gentics.mesh.core.data.relationship.GraphPermission.READ_PERM;
+import static com.gentics.mesh.core.data.relationship.GraphPermission.READ_PUBLISHED_PERM;
+import static com.gentics.mesh.core.data.relationship.GraphPermission.UPDATE_PERM;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gentics.mesh.core.data.relationship.GraphPermission;
+import com.gentics.mesh.etc.config.CacheOptions;
+
+public class RolePermissionIndexTest {
+
+	private static final long ROLE = 1;
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Before
+	public void setup() {
+		RolePermissionIndex.init(new CacheOptions());
+		loads.set(0);
+	}
+
+	private Map<GraphPermission, ElementIdBitmap> load(long roleId, long... readableIds) {
+		loads.incrementAndGet();
+		Map<GraphPermission, ElementIdBitmap> bitmaps = new EnumMap<>(GraphPermission.class);
+		bitmaps.put(READ_PERM, ElementIdBitmap.of(LongStream.of(readableIds)));
+		bitmaps.put(READ_PUBLISHED_PERM, ElementIdBitmap.of(LongStream.empty()));
+		return bitmaps;
+	}
+
+	@Test
+	public void testLoadOnce() {
+		assertTrue(RolePermissionIndex.get(ROLE, id -> load(id, 10)).get(READ_PERM).contains(10));
+		assertTrue(RolePermissionIndex.get(ROLE, id -> load(id, 10)).get(READ_PERM).contains(10));
+		assertEquals("The bitmaps should only be loaded once", 1, loads.get());
+		assertTrue(RolePermissionIndex.isIndexed(READ_PERM));
+		assertFalse(RolePermissionIndex.isIndexed(UPDATE_PERM));
+	}
+
+	@Test
+	public void testGrantAndRevoke() {
+		RolePermissionIndex.get(ROLE, id -> load(id, 10));
+		RolePermissionIndex.grant(ROLE, 11, READ_PERM, UPDATE_PERM);
+		RolePermissionIndex.revoke(ROLE, 10, READ_PERM);
+		Map<GraphPermission, ElementIdBitmap> bitmaps = RolePermissionIndex.get(ROLE, id -> load(id));
+		assertEquals(1, loads.get());
+		assertTrue(bitmaps.get(READ_PERM).contains(11));
+		assertFalse(bitmaps.get(READ_PERM).contains(10));
+		assertFalse(bitmaps.get(READ_PUBLISHED_PERM).contains(11));
+	}
+
+	@Test
+	public void testConcurrentModification() {
+		RolePermissionIndex.get(ROLE, id -> {
+			// Permissions are changed while the index is being loaded
+			RolePermissionIndex.grant(ROLE, 11, READ_PERM);
+			return load(id, 10);
+		});
+		assertTrue("The index should have been reloaded", RolePermissionIndex.get(ROLE, id -> load(id, 10, 11)).get(READ_PERM).contains(11));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testInvalidateRole() {
+		RolePermissionIndex.get(ROLE, id -> load(id, 10));
+		RolePermissionIndex.invalidateRole(ROLE);
+		RolePermissionIndex.get(ROLE, id -> load(id, 10));
+		assertEquals(2, loads.get());
+	}
+
+}
@@ -0,0 +1,160 @@
+package com.gentics.mesh.core.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gentics.mesh.core.cache.WebRootPathTrie.Entry;
+import com.gentics.mesh.core.data.ContainerType;
+
+public class WebRootPathTrieTest {
+
+	private static final String BASE = "base";
+
+	private static final String FOLDER = "folder";
+
+	private static final String PAGE = "page";
+
+	private WebRootPathTrie trie;
+
+	@Before
+	public void setup() {
+		trie = new WebRootPathTrie(BASE);
+		trie.add(new Entry(1, FOLDER, BASE, "en", "news"));
+		trie.add(new Entry(2, FOLDER, BASE, "de", "neuigkeiten"));
+		trie.add(new Entry(3, PAGE, FOLDER, "en", "index.html"));
+	}
+
+	@Test
+	public void testFind() {
+		assertEquals(FOLDER, trie.find(BASE, "news").getNodeUuid());
+		assertEquals(2, trie.find(BASE, "neuigkeiten").getContainerId());
+		assertEquals(PAGE, trie.find(FOLDER, "index.html").getNodeUuid());
+		assertNull(trie.find(BASE, "index.html"));
+	}
+
+	@Test
+	public void testUpdateSegment() {
+		trie.add(new Entry(3, PAGE, FOLDER, "en", "home.html"));
+		assertNull("The previous segment must have been removed", trie.find(FOLDER, "index.html"));
+		assertEquals(3, trie.find(FOLDER, "home.html").getContainerId());
+	}
+
+	@Test
+	public void testMove() {
+		trie.add(new Entry(3, PAGE, BASE, "en", "index.html"));
+		assertNull(trie.find(FOLDER, "index.html"));
+		assertEquals(PAGE, trie.find(BASE, "index.html").getNodeUuid());
+	}
+
+	@Test
+	public void testRemove() {
+		trie.remove(1);
+		assertNull(trie.find(BASE, "news"));
+		assertEquals(FOLDER, trie.find(BASE, "neuigkeiten").getNodeUuid());
+	}
+
+	@Test
+	public void testReplaceContainer() {
+		// A new version of the page is added before the previous version is removed
+		Entry previous = trie.add(new Entry(4, PAGE, FOLDER, "en", "index.html"));
+		assertEquals(3, previous.getContainerId());
+		assertNull("The path of the page was not changed by the removal", trie.remove(3));
+		assertEquals(4, trie.find(FOLDER, "index.html").getContainerId());
+		assertEquals(4, trie.remove(4).getContainerId());
+		assertNull(trie.find(FOLDER, "index.html"));
+	}
+
+	@Test
+	public void testMissingSegments() {
+		trie.addMissing(FOLDER, "missing.html", WebRootPathTrie.generation());
+		assertTrue(trie.isMissing(FOLDER, "missing.html"));
+		assertFalse("Only the segment of the given parent is missing", trie.isMissing(BASE, "missing.html"));
+
+		trie.add(new Entry(4, "other", FOLDER, "en", "missing.html"));
+		assertFalse("The segment must be forgotten once it was added", trie.isMissing(FOLDER, "missing.html"));
+	}
+
+	@Test
+	public void testMissingSegmentsAfterModification() {
+		long generation = WebRootPathTrie.generation();
+		// Another path was modified while the graph was checked for the segment
+		WebRootPathTrie.removeLocally("release", ContainerType.DRAFT, 42);
+		trie.addMissing(FOLDER, "missing.html", generation);
+		assertFalse(trie.isMissing(FOLDER, "missing.html"));
+	}
+
+	@Test
+	public void testGetSubtree() {
+		assertEquals(new HashSet<>(Arrays.asList(FOLDER, PAGE)), trie.getSubtree(FOLDER));
+		assertEquals(new HashSet<>(Arrays.asList(BASE, FOLDER, PAGE)), trie.getSubtree(BASE));
+		assertEquals(Collections.singleton(PAGE), trie.getSubtree(PAGE));
+	}
+
+	@Test
+	public void testGetSegments() {
+		assertEquals(Arrays.asList("news", "index.html"), trie.getSegments(PAGE, Arrays.asList("en"), Collections.emptyList()));
+		assertEquals("The parent segments must use the requested language first", Arrays.asList("neuigkeiten"), trie.getSegments(FOLDER, Arrays
+				.asList("de", "en"), Collections.emptyList()));
+		assertEquals("The parent segments may use the fallback languages", Arrays.asList("news", "index.html"), trie.getSegments(PAGE, Arrays
+				.asList("en"), Arrays.asList("de", "en")));
+		assertNull("The node segment must not use the fallback languages", trie.getSegments(PAGE, Arrays.asList("de"), Arrays.asList("en")));
+		assertEquals(Arrays.asList(""), trie.getSegments(BASE, Arrays.asList("en"), Collections.emptyList()));
+	}
+
+	@Test
+	public void testGetSegmentsOfUnknownParent() {
+		trie.remove(1);
+		trie.remove(2);
+		assertNull(trie.getSegments(PAGE, Arrays.asList("en"), Collections.emptyList()));
+	}
+
+	@Test
+	public void testEntryJson() {
+		Entry entry = Entry.fromJson(new Entry(3, PAGE, FOLDER, "en", "index.html").toJson());
+		assertEquals(3, entry.getContainerId());
+		assertEquals(PAGE, entry.getNodeUuid());
+		assertEquals(FOLDER, entry.getParentUuid());
+		assertEquals("en", entry.getLanguageTag());
+		assertEquals("index.html", entry.getSegment());
+		assertNull(Entry.fromJson(new Entry(1, BASE, null, "en", null).toJson()).getSegment());
+	}
+
+	@Test
+	public void testLoadOnce() throws Exception {
+		WebRootPathTrie.invalidateAll();
+		AtomicInteger loads = new AtomicInteger();
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			Thread thread = new Thread(() -> WebRootPathTrie.get("release", ContainerType.DRAFT, () -> {
+				loads.incrementAndGet();
+				try {
+					Thread.sleep(100);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return trie;
+			}));
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals("The trie must only be loaded once", 1, loads.get());
+		assertEquals(trie, WebRootPathTrie.getIfPresent("release", ContainerType.DRAFT));
+		WebRootPathTrie.invalidateAll();
+	}
+
+}
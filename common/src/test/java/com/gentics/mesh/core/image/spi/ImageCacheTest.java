@@ -0,0 +1,154 @@
+package com.gentics.mesh.core.image.spi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.reactivex.subjects.CompletableSubject;
+import io.reactivex.subjects.SingleSubject;
+
+public class ImageCacheTest {
+
+	private File cacheDir;
+
+	@Before
+	public void setup() {
+		cacheDir = new File("target/imageCache_" + System.currentTimeMillis());
+		cacheDir.mkdirs();
+	}
+
+	@After
+	public void cleanup() throws IOException {
+		try (Stream<Path> files = Files.walk(cacheDir.toPath())) {
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	@Test
+	public void testEviction() {
+		ImageCache cache = new ImageCache(cacheDir.getAbsolutePath(), 250);
+		File a = cacheFile("a");
+		File b = cacheFile("b");
+		File c = cacheFile("c");
+		cache.get(a, write(a, 100), Single::just).blockingGet();
+		cache.get(b, write(b, 100), Single::just).blockingGet();
+		assertEquals(200, cache.getSize());
+
+		// Adding the third image exceeds the size and removes the least recently used image
+		cache.get(c, write(c, 100), Single::just).blockingGet();
+		assertEquals(2, cache.getCount());
+		assertEquals(200, cache.getSize());
+		assertFalse(a.exists());
+		assertTrue(b.exists());
+		assertTrue(c.exists());
+	}
+
+	@Test
+	public void testRebuildIndex() throws IOException {
+		File a = cacheFile("a");
+		File b = cacheFile("b");
+		Files.write(a.toPath(), new byte[100]);
+		Files.write(b.toPath(), new byte[100]);
+		a.setLastModified(System.currentTimeMillis() - 10_000);
+		File temp = new File(cacheDir, "image-c.jpg" + ImageCache.TEMP_SUFFIX);
+		Files.write(temp.toPath(), new byte[100]);
+
+		// The index is rebuilt and the oldest file exceeds the size
+		ImageCache cache = new ImageCache(cacheDir.getAbsolutePath(), 150);
+		assertEquals(1, cache.getCount());
+		assertEquals(100, cache.getSize());
+		assertFalse(a.exists());
+		assertTrue(b.exists());
+		assertFalse("Incomplete files must be removed", temp.exists());
+	}
+
+	@Test
+	public void testCoalescing() {
+		ImageCache cache = new ImageCache(cacheDir.getAbsolutePath(), 0);
+		File a = cacheFile("a");
+		AtomicInteger invocations = new AtomicInteger();
+		CompletableSubject done = CompletableSubject.create();
+		Completable producer = done.andThen(Completable.fromAction(() -> {
+			invocations.incrementAndGet();
+			Files.write(a.toPath(), new byte[100]);
+		}));
+
+		Single<File> first = cache.get(a, producer, Single::just);
+		Single<File> second = cache.get(a, producer, Single::just);
+		first.subscribe();
+		second.subscribe();
+		done.onComplete();
+
+		assertEquals(a, first.blockingGet());
+		assertEquals(a, second.blockingGet());
+		assertEquals("The image must only be created once", 1, invocations.get());
+
+		// Now the file is served from the cache
+		cache.get(a, producer, Single::just).blockingGet();
+		assertEquals(1, invocations.get());
+	}
+
+	@Test
+	public void testPinnedFilesAreNotEvicted() {
+		ImageCache cache = new ImageCache(cacheDir.getAbsolutePath(), 150);
+		File a = cacheFile("a");
+		File b = cacheFile("b");
+		cache.get(a, write(a, 100), Single::just).blockingGet();
+
+		// Keep the first image pinned while it is being opened
+		SingleSubject<File> opened = SingleSubject.create();
+		cache.get(a, write(a, 100), file -> opened).subscribe();
+		cache.get(b, write(b, 100), Single::just).blockingGet();
+		assertTrue("The pinned image must not be evicted", a.exists());
+		assertEquals(200, cache.getSize());
+
+		// The image is evicted once it has been opened
+		opened.onSuccess(a);
+		assertFalse(a.exists());
+		assertTrue(b.exists());
+		assertEquals(100, cache.getSize());
+	}
+
+	@Test
+	public void testFilesArePinnedUntilReleased() {
+		ImageCache cache = new ImageCache(cacheDir.getAbsolutePath(), 150);
+		File a = cacheFile("a");
+		File b = cacheFile("b");
+
+		// Keep the first image pinned after it has been opened
+		Runnable release = cache.getPinned(a, write(a, 100), (file, r) -> Single.just(r)).blockingGet();
+		cache.get(b, write(b, 100), Single::just).blockingGet();
+		assertTrue("The image must not be evicted before it has been released", a.exists());
+		assertEquals(200, cache.getSize());
+
+		// The image is evicted once it has been released. Releasing it again has no effect.
+		release.run();
+		release.run();
+		assertFalse(a.exists());
+		assertTrue(b.exists());
+		assertEquals(100, cache.getSize());
+	}
+
+	private File cacheFile(String name) {
+		return new File(cacheDir, ImageCache.FILE_PREFIX + name + ".jpg");
+	}
+
+	private Completable write(File file, int size) {
+		return Completable.fromAction(() -> Files.write(file.toPath(), new byte[size]));
+	}
+
+}
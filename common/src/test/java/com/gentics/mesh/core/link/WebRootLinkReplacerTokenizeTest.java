@@ -0,0 +1,56 @@
+package com.gentics.mesh.core.link;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.gentics.mesh.core.link.WebRootLinkReplacer.Link;
+
+public class WebRootLinkReplacerTokenizeTest {
+
+	private static final String UUID = "9e4ecbb9a4ba4ab28ecbb9a4ba6ab2f6";
+
+	@Test
+	public void testNoLinks() {
+		assertTrue(WebRootLinkReplacer.tokenize("some content {{mesh.link(").isEmpty());
+	}
+
+	@Test
+	public void testLinkPositions() {
+		String content = "a{{mesh.link('" + UUID + "')}}b{{mesh.link(\"" + UUID + "\")}}";
+		List<Link> links = WebRootLinkReplacer.tokenize(content);
+		assertEquals(2, links.size());
+		assertEquals(1, links.get(0).start);
+		assertEquals("b", content.substring(links.get(0).end, links.get(1).start));
+		assertEquals(content.length(), links.get(1).end);
+		assertEquals(UUID, links.get(1).uuid);
+		assertNull(links.get(1).languageTags);
+	}
+
+	@Test
+	public void testLanguageArgument() {
+		Link link = WebRootLinkReplacer.tokenize("{{mesh.link(\\\"" + UUID + "\\\", 'de' )}}").get(0);
+		assertEquals(UUID, link.uuid);
+		assertArrayEquals(new String[] { "de" }, link.languageTags);
+	}
+
+	@Test
+	public void testTrailingEmptyArguments() {
+		Link link = WebRootLinkReplacer.tokenize("{{mesh.link( " + UUID + " ,,)}}").get(0);
+		assertEquals(UUID, link.uuid);
+		assertNull(link.languageTags);
+	}
+
+	@Test
+	public void testAdditionalArguments() {
+		Link link = WebRootLinkReplacer.tokenize("{{mesh.link(" + UUID + ",de,en)}}").get(0);
+		assertEquals(UUID, link.uuid);
+		assertNull("Only a single language argument is supported", link.languageTags);
+	}
+
+}
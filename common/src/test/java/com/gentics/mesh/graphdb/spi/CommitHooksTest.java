@@ -0,0 +1,68 @@
+package com.gentics.mesh.graphdb.spi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class CommitHooksTest {
+
+	@Test
+	public void testBeforeCommit() {
+		List<String> actions = new ArrayList<>();
+		CommitHooks.begin();
+		CommitHooks.register(() -> actions.add("after"));
+		CommitHooks.registerBeforeCommit(() -> {
+			actions.add("before");
+			// Actions which are registered by before commit actions must also be executed
+			CommitHooks.registerBeforeCommit(() -> actions.add("nested"));
+		});
+		assertEquals(0, actions.size());
+		CommitHooks.prepare();
+		CommitHooks.end(true);
+		assertEquals("[before, nested, after]", actions.toString());
+		assertFalse(CommitHooks.isActive());
+	}
+
+	@Test
+	public void testRegisterLast() {
+		List<String> actions = new ArrayList<>();
+		CommitHooks.begin();
+		CommitHooks.registerLast(() -> actions.add("remove"));
+		CommitHooks.register(() -> actions.add("add"));
+		CommitHooks.end(true);
+		assertEquals("[add, remove]", actions.toString());
+	}
+
+	@Test
+	public void testRollback() {
+		List<String> actions = new ArrayList<>();
+		CommitHooks.begin();
+		CommitHooks.register(() -> actions.add("after"));
+		CommitHooks.end(false);
+		assertEquals(0, actions.size());
+	}
+
+	@Test
+	public void testNestedScopes() {
+		CommitHooks.begin();
+		Object outer = CommitHooks.currentScope();
+		CommitHooks.begin();
+		assertNotSame(outer, CommitHooks.currentScope());
+		CommitHooks.end(true);
+		assertEquals(outer, CommitHooks.currentScope());
+		CommitHooks.end(true);
+		assertFalse(CommitHooks.isActive());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testBeforeCommitWithoutScope() {
+		CommitHooks.registerBeforeCommit(() -> {
+		});
+	}
+
+}
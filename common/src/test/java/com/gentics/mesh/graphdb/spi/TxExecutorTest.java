@@ -0,0 +1,182 @@
+package com.gentics.mesh.graphdb.spi;
+
+import static io.netty.handler.codec.http.HttpResponseStatus.SERVICE_UNAVAILABLE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.gentics.mesh.core.rest.error.GenericRestException;
+
+import io.reactivex.Single;
+
+public class TxExecutorTest {
+
+	@Test
+	public void testRejectWhenQueueIsFull() throws Exception {
+		TxExecutor executor = new TxExecutor("test.reject", 1, 1, 0);
+		CountDownLatch latch = new CountDownLatch(1);
+		try {
+			// The first action occupies the only thread and the second one the only queue slot
+			Single<Boolean> running = executor.execute(() -> {
+				latch.await();
+				return true;
+			}).cache();
+			running.subscribe();
+			Single<Boolean> queued = executor.execute(() -> true).cache();
+			queued.subscribe();
+			assertRejected(executor.execute(() -> true));
+
+			latch.countDown();
+			assertEquals(true, running.blockingGet());
+			assertEquals(true, queued.blockingGet());
+			assertEquals("The pool must accept actions again", true, executor.execute(() -> true).blockingGet());
+		} finally {
+			latch.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testOrderedExecution() {
+		TxExecutor executor = new TxExecutor("test.ordered", 4, 100, 0);
+		try {
+			List<Integer> order = new ArrayList<>();
+			List<Single<Integer>> results = new ArrayList<>();
+			for (int i = 0; i < 50; i++) {
+				int nr = i;
+				Single<Integer> result = executor.execute(() -> {
+					synchronized (order) {
+						order.add(nr);
+					}
+					return nr;
+				}, true).cache();
+				result.subscribe();
+				results.add(result);
+			}
+			results.forEach(Single::blockingGet);
+			for (int i = 0; i < 50; i++) {
+				assertEquals(i, order.get(i).intValue());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testOrderedExecutionPerKey() throws Exception {
+		TxExecutor executor = new TxExecutor("test.orderedKeys", 4, 100, 0);
+		try {
+			String blockedKey = "blocked";
+			// Find a key which is handled by another shard than the blocked key
+			String otherKey = null;
+			for (int i = 0; otherKey == null; i++) {
+				String key = "key" + i;
+				if (Math.floorMod(key.hashCode(), 4) != Math.floorMod(blockedKey.hashCode(), 4)) {
+					otherKey = key;
+				}
+			}
+
+			CountDownLatch latch = new CountDownLatch(1);
+			Single<Boolean> blocked = executor.execute(() -> {
+				latch.await();
+				return true;
+			}, blockedKey).cache();
+			blocked.subscribe();
+			List<Integer> order = new ArrayList<>();
+			Single<Integer> afterBlocked = executor.execute(() -> {
+				synchronized (order) {
+					order.add(1);
+				}
+				return 1;
+			}, blockedKey).cache();
+			afterBlocked.subscribe();
+
+			// Actions of other keys must not wait for the blocked key
+			assertEquals("other", executor.execute(() -> "other", otherKey).timeout(5, TimeUnit.SECONDS).blockingGet());
+			synchronized (order) {
+				assertTrue("The action must wait for the previous action of its key", order.isEmpty());
+			}
+			latch.countDown();
+			assertEquals(true, blocked.blockingGet());
+			assertEquals(1, afterBlocked.blockingGet().intValue());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testRejectOrderedWhenQueueIsFull() throws Exception {
+		TxExecutor executor = new TxExecutor("test.rejectOrdered", 1, 1, 0);
+		CountDownLatch latch = new CountDownLatch(1);
+		try {
+			Single<Boolean> running = executor.execute(() -> {
+				latch.await();
+				return true;
+			}, true).cache();
+			running.subscribe();
+			Single<Boolean> queued = executor.execute(() -> true, true).cache();
+			queued.subscribe();
+			assertRejected(executor.execute(() -> true, true));
+
+			latch.countDown();
+			assertEquals(true, running.blockingGet());
+			assertEquals(true, queued.blockingGet());
+		} finally {
+			latch.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testNestedExecution() {
+		// A single thread would deadlock if the nested action had to wait for a free thread
+		TxExecutor executor = new TxExecutor("test.nested", 1, 1, 0);
+		try {
+			Single<String> result = executor.execute(() -> {
+				String thread = Thread.currentThread().getName();
+				String nestedThread = executor.execute(() -> Thread.currentThread().getName()).blockingGet();
+				String nestedOrderedThread = executor.execute(() -> Thread.currentThread().getName(), true).blockingGet();
+				assertEquals("The nested action must be run inline", thread, nestedThread);
+				assertEquals("The nested ordered action must be run inline", thread, nestedOrderedThread);
+				return "done";
+			});
+			assertEquals("done", result.timeout(5, TimeUnit.SECONDS).blockingGet());
+
+			// Errors of nested actions are passed along
+			try {
+				executor.execute(() -> executor.execute(() -> {
+					throw new IllegalStateException("nested");
+				}).blockingGet()).timeout(5, TimeUnit.SECONDS).blockingGet();
+				fail("The nested error should have been passed along");
+			} catch (IllegalStateException e) {
+				assertEquals("nested", e.getMessage());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testRejectAfterShutdown() {
+		TxExecutor executor = new TxExecutor("test.shutdown", 1, 1, 0);
+		executor.shutdown();
+		assertRejected(executor.execute(() -> true));
+	}
+
+	private void assertRejected(Single<Boolean> single) {
+		try {
+			single.blockingGet();
+			fail("The action should have been rejected");
+		} catch (GenericRestException e) {
+			assertEquals(SERVICE_UNAVAILABLE, e.getStatus());
+			assertEquals("error_tx_pool_exhausted", e.getI18nKey());
+		}
+	}
+}
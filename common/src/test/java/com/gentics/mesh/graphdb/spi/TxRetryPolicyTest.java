@@ -0,0 +1,53 @@
+package com.gentics.mesh.graphdb.spi;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TxRetryPolicyTest {
+
+	@Test
+	public void testRetryLimit() {
+		TxRetryPolicy policy = new TxRetryPolicy(3, 10, 1000);
+		assertTrue(policy.canRetry(0));
+		assertTrue(policy.canRetry(1));
+		assertFalse("The third attempt is the last one", policy.canRetry(2));
+	}
+
+	@Test
+	public void testDelayGrowsExponentially() {
+		TxRetryPolicy policy = new TxRetryPolicy(100, 10, 1000);
+		for (int retry = 0; retry < 10; retry++) {
+			long cap = Math.min(1000, 10L << retry);
+			long max = 0;
+			for (int i = 0; i < 1000; i++) {
+				long delay = policy.delay(retry);
+				assertTrue("The delay {" + delay + "} must be within the bounds of retry {" + retry + "}", delay >= 1 && delay <= cap);
+				max = Math.max(max, delay);
+			}
+			assertTrue("The delays of retry {" + retry + "} should be spread up to the cap", max > cap / 2);
+		}
+	}
+
+	@Test
+	public void testDelayDoesNotOverflow() {
+		TxRetryPolicy policy = new TxRetryPolicy(Integer.MAX_VALUE, 10, 1000);
+		for (int retry : new int[] { 63, 64, 1000, Integer.MAX_VALUE - 1 }) {
+			long delay = policy.delay(retry);
+			assertTrue(delay >= 1 && delay <= 1000);
+		}
+	}
+
+	@Test
+	public void testJitter() {
+		TxRetryPolicy policy = new TxRetryPolicy(10, 100, 1000);
+		long first = policy.delay(3);
+		boolean differs = false;
+		for (int i = 0; i < 100 && !differs; i++) {
+			differs = policy.delay(3) != first;
+		}
+		assertTrue("The delays must be randomized", differs);
+	}
+
+}
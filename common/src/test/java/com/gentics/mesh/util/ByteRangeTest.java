@@ -0,0 +1,56 @@
+package com.gentics.mesh.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ByteRangeTest {
+
+	@Test
+	public void testParse() {
+		ByteRange range = ByteRange.parse("bytes=0-99", 1000);
+		assertTrue(range.isSatisfiable());
+		assertEquals(0, range.getStart());
+		assertEquals(99, range.getEnd());
+		assertEquals(100, range.getLength());
+		assertEquals("bytes 0-99/1000", range.toContentRange());
+
+		range = ByteRange.parse("bytes=500-", 1000);
+		assertEquals(500, range.getStart());
+		assertEquals(999, range.getEnd());
+
+		range = ByteRange.parse("bytes=-100", 1000);
+		assertEquals(900, range.getStart());
+		assertEquals(999, range.getEnd());
+
+		// The end is limited to the content length
+		range = ByteRange.parse("bytes=900-2000", 1000);
+		assertEquals(999, range.getEnd());
+		assertEquals(100, range.getLength());
+
+		range = ByteRange.parse("bytes=-2000", 1000);
+		assertEquals(0, range.getStart());
+	}
+
+	@Test
+	public void testUnsatisfiable() {
+		ByteRange range = ByteRange.parse("bytes=1000-", 1000);
+		assertFalse(range.isSatisfiable());
+		assertEquals("bytes */1000", range.toContentRange());
+		assertFalse(ByteRange.parse("bytes=-0", 1000).isSatisfiable());
+		assertFalse(ByteRange.parse("bytes=0-", 0).isSatisfiable());
+	}
+
+	@Test
+	public void testIgnored() {
+		assertNull(ByteRange.parse(null, 1000));
+		assertNull(ByteRange.parse("items=0-10", 1000));
+		assertNull(ByteRange.parse("bytes=0-10,20-30", 1000));
+		assertNull(ByteRange.parse("bytes=10-5", 1000));
+		assertNull(ByteRange.parse("bytes=abc-", 1000));
+		assertNull(ByteRange.parse("bytes=-", 1000));
+	}
+}
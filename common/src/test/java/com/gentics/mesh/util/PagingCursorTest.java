@@ -0,0 +1,33 @@
+package com.gentics.mesh.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import com.gentics.mesh.core.rest.error.GenericRestException;
+
+public class PagingCursorTest {
+
+	@Test
+	public void testRoundTrip() {
+		String uuid = UUIDUtil.randomUUID();
+		String cursor = PagingCursor.encode(uuid);
+		assertFalse("The cursor must not expose the plain uuid", cursor.contains(uuid));
+		assertEquals(uuid, PagingCursor.decode(cursor));
+	}
+
+	@Test
+	public void testInvalidCursor() {
+		String uuid = UUIDUtil.randomUUID();
+		for (String cursor : new String[] { uuid, "bogus", "%%%", PagingCursor.encode("bogus"), PagingCursor.encode(uuid).substring(1) }) {
+			try {
+				PagingCursor.decode(cursor);
+				fail("The cursor {" + cursor + "} should have been rejected");
+			} catch (GenericRestException e) {
+				assertEquals("error_invalid_paging_cursor", e.getI18nKey());
+			}
+		}
+	}
+}
@@ -36,6 +36,8 @@ import com.gentics.mesh.MeshVersion;
 import com.gentics.mesh.changelog.ChangelogSystem;
 import com.gentics.mesh.changelog.ReindexAction;
 import com.gentics.mesh.core.cache.PermissionStore;
+import com.gentics.mesh.core.cache.WebRootLinkCache;
+import com.gentics.mesh.core.cache.WebRootPathTrie;
 import com.gentics.mesh.core.console.ConsoleProvider;
 import com.gentics.mesh.core.data.Group;
 import com.gentics.mesh.core.data.Language;
@@ -47,6 +49,7 @@ import com.gentics.mesh.core.data.binary.BinaryRoot;
 import com.gentics.mesh.core.data.generic.MeshVertexImpl;
 import com.gentics.mesh.core.data.impl.DatabaseHelper;
 import com.gentics.mesh.core.data.job.JobRoot;
+import com.gentics.mesh.core.data.job.impl.ReindexJobImpl;
 import com.gentics.mesh.core.data.root.GroupRoot;
 import com.gentics.mesh.core.data.root.LanguageRoot;
 import com.gentics.mesh.core.data.root.MeshRoot;
@@ -61,6 +64,7 @@ import com.gentics.mesh.core.data.root.UserRoot;
 import com.gentics.mesh.core.data.root.impl.MeshRootImpl;
 import com.gentics.mesh.core.data.schema.SchemaContainer;
 import com.gentics.mesh.core.data.search.IndexHandler;
+import com.gentics.mesh.core.data.search.impl.SearchOutbox;
 import com.gentics.mesh.core.data.service.ServerSchemaStorage;
 import com.gentics.mesh.core.rest.schema.BinaryFieldSchema;
 import com.gentics.mesh.core.rest.schema.HtmlFieldSchema;
@@ -112,6 +116,9 @@ public class BootstrapInitializerImpl implements BootstrapInitializer {
 	@Inject
 	public SearchProvider searchProvider;
 
+	@Inject
+	public SearchOutbox searchOutbox;
+
 	@Inject
 	public BCryptPasswordEncoder encoder;
 
@@ -220,6 +227,8 @@ public class BootstrapInitializerImpl implements BootstrapInitializer {
 	@Override
 	public void init(Mesh mesh, boolean forceReindex, MeshOptions options, MeshCustomLoader<Vertx> verticleLoader) throws Exception {
 		this.mesh = (MeshImpl) mesh;
+		PermissionStore.init(options.getCacheOptions());
+		WebRootLinkCache.init(options.getCacheOptions());
 		GraphStorageOptions storageOptions = options.getStorageOptions();
 		boolean isClustered = options.getClusterOptions().isEnabled();
 		boolean isInitMode = options.isInitClusterMode();
@@ -293,7 +302,13 @@ public class BootstrapInitializerImpl implements BootstrapInitializer {
 		}
 
 		eventManager.registerHandlers();
+		// The indices of unfinished reindex jobs must receive all changes until the jobs are resumed
+		db.tx(() -> {
+			ReindexJobImpl.restoreMirrors(jobRoot().findAllIt());
+		});
 		handleLocalData(forceReindex, options, verticleLoader);
+		// Process the search index changes which were left over in the outbox
+		searchOutbox.start();
 	}
 
 	/**
@@ -430,6 +445,7 @@ public class BootstrapInitializerImpl implements BootstrapInitializer {
 	public void registerEventHandlers() {
 		RouterStorage.registerEventbus();
 		PermissionStore.registerEventHandler();
+		WebRootPathTrie.registerEventHandler();
 	}
 
 	@Override
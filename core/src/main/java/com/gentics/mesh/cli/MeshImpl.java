@@ -309,6 +309,7 @@ public class MeshImpl implements Mesh {
 		setStatus(MeshStatus.SHUTTING_DOWN);
 		MeshComponent meshInternal = MeshInternal.get();
 		// meshInternal.searchQueue().blockUntilEmpty(120);
+		meshInternal.searchOutbox().stop();
 		meshInternal.database().stop();
 		meshInternal.searchProvider().stop();
 		getVertx().close();
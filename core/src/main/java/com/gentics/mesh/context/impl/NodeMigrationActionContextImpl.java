@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import com.gentics.mesh.context.AbstractInternalActionContext;
 import com.gentics.mesh.context.InternalActionContext;
@@ -245,6 +246,11 @@ public class NodeMigrationActionContextImpl extends AbstractInternalActionContex
 				return true;
 			}
 
+			@Override
+			public Predicate<Object> createPermissionFilter(GraphPermission permission) {
+				return elementId -> true;
+			}
+
 			@Override
 			public boolean hasPermission(MeshVertex element, GraphPermission permission) {
 				return true;
@@ -28,6 +28,7 @@ import com.gentics.mesh.core.data.node.field.DisplayField;
 import org.apache.commons.collections.CollectionUtils;
 
 import com.gentics.mesh.context.InternalActionContext;
+import com.gentics.mesh.core.cache.WebRootPathTrie;
 import com.gentics.mesh.core.data.ContainerType;
 import com.gentics.mesh.core.data.NodeGraphFieldContainer;
 import com.gentics.mesh.core.data.Release;
@@ -61,6 +62,7 @@ import com.gentics.mesh.core.rest.schema.FieldSchema;
 import com.gentics.mesh.core.rest.schema.Schema;
 import com.gentics.mesh.core.rest.schema.SchemaModel;
 import com.gentics.mesh.dagger.MeshInternal;
+import com.gentics.mesh.graphdb.spi.CommitHooks;
 import com.gentics.mesh.graphdb.spi.Database;
 import com.gentics.mesh.graphdb.spi.FieldType;
 import com.gentics.mesh.path.Path;
@@ -181,6 +183,7 @@ public class NodeGraphFieldContainerImpl extends AbstractGraphFieldContainerImpl
 			ContainerType type = tuple.v2();
 			if (type != ContainerType.INITIAL) {
 				batch.delete(this, releaseUuid, type, false);
+				removeFromWebrootPathTrie(releaseUuid, type);
 			}
 		});
 
@@ -196,6 +199,7 @@ public class NodeGraphFieldContainerImpl extends AbstractGraphFieldContainerImpl
 		if (isPublished(releaseUuid)) {
 			batch.delete(this, releaseUuid, PUBLISHED, false);
 			setProperty(PUBLISHED_WEBROOT_PROPERTY_KEY, null);
+			removeFromWebrootPathTrie(releaseUuid, PUBLISHED);
 		}
 		// Remove the edge between the node and the container that matches the release
 		inE(HAS_FIELD_CONTAINER).has(GraphFieldContainerEdgeImpl.RELEASE_UUID_KEY, releaseUuid).or(e -> e.traversal().has(
@@ -203,6 +207,7 @@ public class NodeGraphFieldContainerImpl extends AbstractGraphFieldContainerImpl
 						GraphFieldContainerEdgeImpl.EDGE_TYPE_KEY, ContainerType.PUBLISHED.getCode())).removeAll();
 		// remove webroot property
 		setProperty(WEBROOT_PROPERTY_KEY, null);
+		removeFromWebrootPathTrie(releaseUuid, DRAFT);
 	}
 
 	@Override
@@ -295,16 +300,65 @@ public class NodeGraphFieldContainerImpl extends AbstractGraphFieldContainerImpl
 			updateWebrootPathInfo(releaseUuid, conflictI18n, ContainerType.DRAFT, WEBROOT_PROPERTY_KEY, WEBROOT_INDEX_NAME);
 			updateWebrootUrlFieldsInfo(releaseUuid, urlFieldValues, WEBROOT_URLFIELD_PROPERTY_KEY, WEBROOT_URLFIELD_INDEX_NAME);
 		} else {
-			setProperty(WEBROOT_PROPERTY_KEY, null);
-			setProperty(WEBROOT_URLFIELD_PROPERTY_KEY, null);
+			clearWebrootPathInfo(releaseUuid, DRAFT);
 		}
 		if (isPublished(releaseUuid)) {
 			updateWebrootPathInfo(releaseUuid, conflictI18n, ContainerType.PUBLISHED, PUBLISHED_WEBROOT_PROPERTY_KEY, PUBLISHED_WEBROOT_INDEX_NAME);
 			updateWebrootUrlFieldsInfo(releaseUuid, urlFieldValues, PUBLISHED_WEBROOT_URLFIELD_PROPERTY_KEY, PUBLISHED_WEBROOT_URLFIELD_INDEX_NAME);
 		} else {
+			clearWebrootPathInfo(releaseUuid, PUBLISHED);
+		}
+	}
+
+	@Override
+	public void clearWebrootPathInfo(String releaseUuid, ContainerType type) {
+		if (type == PUBLISHED) {
 			setProperty(PUBLISHED_WEBROOT_PROPERTY_KEY, null);
 			setProperty(PUBLISHED_WEBROOT_URLFIELD_PROPERTY_KEY, null);
+		} else {
+			setProperty(WEBROOT_PROPERTY_KEY, null);
+			setProperty(WEBROOT_URLFIELD_PROPERTY_KEY, null);
 		}
+		removeFromWebrootPathTrie(releaseUuid, type);
+	}
+
+	/**
+	 * Remove the container from the webroot path trie of the release once the transaction has been committed. The removal is applied after the additions of
+	 * the transaction so that the trie can tell whether the container was replaced by a new version with the same path.
+	 * 
+	 * @param releaseUuid
+	 * @param type
+	 */
+	private void removeFromWebrootPathTrie(String releaseUuid, ContainerType type) {
+		Node node = getParentNode();
+		if (node != null) {
+			node.updatePathStamp();
+		}
+		Database db = MeshInternal.get().database();
+		CommitHooks.registerLast(() -> WebRootPathTrie.remove(releaseUuid, type, db.toNumericId(getId())));
+	}
+
+	/**
+	 * Add the segment of the container to the webroot path trie of the release once the transaction has been committed. The id of new containers is only
+	 * final after the commit.
+	 * 
+	 * @param releaseUuid
+	 * @param type
+	 * @param node
+	 *            Node of the container
+	 * @param parent
+	 *            Parent node or null for the base node
+	 * @param segment
+	 *            Path segment of the container
+	 */
+	private void addToWebrootPathTrie(String releaseUuid, ContainerType type, Node node, Node parent, String segment) {
+		node.updatePathStamp();
+		Database db = MeshInternal.get().database();
+		String nodeUuid = node.getUuid();
+		String parentUuid = parent == null ? null : parent.getUuid();
+		String languageTag = getLanguage().getLanguageTag();
+		CommitHooks.register(() -> WebRootPathTrie.update(releaseUuid, type, new WebRootPathTrie.Entry(db.toNumericId(getId()), nodeUuid, parentUuid,
+				languageTag, segment)));
 	}
 
 	/**
@@ -349,9 +403,11 @@ public class NodeGraphFieldContainerImpl extends AbstractGraphFieldContainerImpl
 						.getLanguageTag(), conflictI18n, segmentFieldName, segment);
 			} else {
 				setProperty(propertyName, webRootInfo.toString());
+				addToWebrootPathTrie(releaseUuid, type, node, parent, segment);
 			}
 		} else {
 			setProperty(propertyName, null);
+			addToWebrootPathTrie(releaseUuid, type, node, node.getParentNode(releaseUuid), null);
 		}
 	}
 
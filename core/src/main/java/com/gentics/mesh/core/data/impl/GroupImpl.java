@@ -80,15 +80,15 @@ public class GroupImpl extends AbstractMeshCoreVertex<GroupResponse, Group> impl
 		for (Role role : getRoles()) {
 			user.setUniqueLinkOutTo(role, ASSIGNED_TO_ROLE);
 		}
+		PermissionStore.invalidateUser(MeshInternal.get().database().toNumericId(user.getId()));
 	}
 
 	@Override
 	public void removeUser(User user) {
 		unlinkIn(user, HAS_USER);
 
-		// The user does no longer belong to the group so lets update the shortcut edges
+		// The user does no longer belong to the group so lets update the shortcut edges. This will also invalidate the cached permissions of the user.
 		user.updateShortcutEdges();
-		PermissionStore.invalidate();
 	}
 
 	@Override
@@ -103,6 +103,7 @@ public class GroupImpl extends AbstractMeshCoreVertex<GroupResponse, Group> impl
 		// Add shortcut edges from role to users of this group
 		for (User user : getUsers()) {
 			user.setUniqueLinkOutTo(role, ASSIGNED_TO_ROLE);
+			PermissionStore.invalidateUser(MeshInternal.get().database().toNumericId(user.getId()));
 		}
 
 	}
@@ -115,7 +116,6 @@ public class GroupImpl extends AbstractMeshCoreVertex<GroupResponse, Group> impl
 		for (User user : getUsers()) {
 			user.updateShortcutEdges();
 		}
-		PermissionStore.invalidate();
 	}
 
 	@Override
@@ -177,7 +177,6 @@ public class GroupImpl extends AbstractMeshCoreVertex<GroupResponse, Group> impl
 		for (User user : affectedUsers) {
 			user.updateShortcutEdges();
 		}
-		PermissionStore.invalidate();
 	}
 
 	@Override
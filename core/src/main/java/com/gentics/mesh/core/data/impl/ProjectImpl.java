@@ -15,6 +15,7 @@ import static com.gentics.mesh.core.rest.error.Errors.conflict;
 import static com.gentics.mesh.core.rest.error.Errors.error;
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
@@ -23,6 +24,7 @@ import javax.naming.InvalidNameException;
 
 import com.gentics.mesh.Mesh;
 import com.gentics.mesh.context.InternalActionContext;
+import com.gentics.mesh.core.cache.WebRootPathTrie;
 import com.gentics.mesh.core.data.ContainerType;
 import com.gentics.mesh.core.data.HandleElementAction;
 import com.gentics.mesh.core.data.Language;
@@ -58,6 +60,7 @@ import com.gentics.mesh.core.rest.project.ProjectResponse;
 import com.gentics.mesh.core.rest.project.ProjectUpdateRequest;
 import com.gentics.mesh.dagger.DB;
 import com.gentics.mesh.dagger.MeshInternal;
+import com.gentics.mesh.graphdb.spi.CommitHooks;
 import com.gentics.mesh.graphdb.spi.Database;
 import com.gentics.mesh.graphdb.spi.FieldType;
 import com.gentics.mesh.router.RouterStorage;
@@ -110,6 +113,15 @@ public class ProjectImpl extends AbstractMeshCoreVertex<ProjectResponse, Project
 		setProperty("name", name);
 	}
 
+	@Override
+	public void invalidateWebrootPaths() {
+		List<String> releaseUuids = new ArrayList<>();
+		for (Release release : getReleaseRoot().findAllIt()) {
+			releaseUuids.add(release.getUuid());
+		}
+		CommitHooks.register(() -> releaseUuids.forEach(uuid -> WebRootPathTrie.invalidateRelease(uuid, true)));
+	}
+
 	@Override
 	public TagFamilyRoot getTagFamilyRoot() {
 		TagFamilyRoot root = out(HAS_TAGFAMILY_ROOT).nextOrDefaultExplicit(TagFamilyRootImpl.class, null);
@@ -260,6 +272,7 @@ public class ProjectImpl extends AbstractMeshCoreVertex<ProjectResponse, Project
 			setName(newName);
 			setEditor(ac.getUser());
 			setLastEditedTimestamp();
+			invalidateWebrootPaths();
 
 			// Update the project and its nodes in the index
 			batch.store(this, true);
@@ -105,6 +105,8 @@ public class ReleaseImpl extends AbstractMeshCoreVertex<ReleaseResponse, Release
 		if (modified) {
 			setEditor(ac.getUser());
 			setLastEditedTimestamp();
+			// Links to nodes of the project contain the hostname of the latest release
+			getProject().invalidateWebrootPaths();
 		}
 		return modified;
 	}
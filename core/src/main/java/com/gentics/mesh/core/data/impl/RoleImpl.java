@@ -7,6 +7,7 @@ import static com.gentics.mesh.core.data.relationship.GraphRelationships.HAS_EDI
 import static com.gentics.mesh.core.data.relationship.GraphRelationships.HAS_ROLE;
 import static com.gentics.mesh.core.rest.error.Errors.conflict;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -16,6 +17,7 @@ import java.util.stream.StreamSupport;
 import com.gentics.mesh.cli.BootstrapInitializer;
 import com.gentics.mesh.context.InternalActionContext;
 import com.gentics.mesh.core.cache.PermissionStore;
+import com.gentics.mesh.core.cache.RolePermissionIndex;
 import com.gentics.mesh.core.data.Group;
 import com.gentics.mesh.core.data.HandleElementAction;
 import com.gentics.mesh.core.data.IndexableElement;
@@ -24,6 +26,7 @@ import com.gentics.mesh.core.data.Role;
 import com.gentics.mesh.core.data.User;
 import com.gentics.mesh.core.data.generic.AbstractMeshCoreVertex;
 import com.gentics.mesh.core.data.generic.MeshVertexImpl;
+import com.gentics.mesh.core.data.node.Node;
 import com.gentics.mesh.core.data.page.Page;
 import com.gentics.mesh.core.data.page.impl.DynamicTransformablePageImpl;
 import com.gentics.mesh.core.data.relationship.GraphPermission;
@@ -33,6 +36,7 @@ import com.gentics.mesh.core.rest.role.RoleResponse;
 import com.gentics.mesh.core.rest.role.RoleUpdateRequest;
 import com.gentics.mesh.dagger.DB;
 import com.gentics.mesh.dagger.MeshInternal;
+import com.gentics.mesh.graphdb.spi.CommitHooks;
 import com.gentics.mesh.graphdb.spi.Database;
 import com.gentics.mesh.graphdb.spi.FieldType;
 import com.gentics.mesh.parameter.PagingParameters;
@@ -101,11 +105,31 @@ public class RoleImpl extends AbstractMeshCoreVertex<RoleResponse, Role> impleme
 
 	@Override
 	public void grantPermissions(MeshVertex vertex, GraphPermission... permissions) {
+		List<GraphPermission> granted = new ArrayList<>();
 		for (GraphPermission permission : permissions) {
 			if (!hasPermission(permission, vertex)) {
 				addFramedEdge(permission.label(), vertex);
+				granted.add(permission);
 			}
 		}
+		// Denying permissions are cached as well and thus the element needs to be invalidated
+		if (!granted.isEmpty()) {
+			updateETagStamp(vertex);
+			Database db = MeshInternal.get().database();
+			long roleId = db.toNumericId(getId());
+			PermissionStore.invalidateElement(db.toNumericId(vertex.getId()), false);
+			GraphPermission[] grantedPermissions = granted.toArray(new GraphPermission[granted.size()]);
+			if (!CommitHooks.isActive()) {
+				// The commit can't be tracked and thus the index of the role will be reloaded instead
+				RolePermissionIndex.invalidateRole(roleId);
+			}
+			// The permission index must only contain committed permissions. The id of new elements is also only final after the commit.
+			CommitHooks.register(() -> {
+				long elementId = db.toNumericId(vertex.getId());
+				PermissionStore.invalidatePermissions(roleId, elementId);
+				RolePermissionIndex.grant(roleId, elementId, grantedPermissions);
+			});
+		}
 	}
 
 	@Override
@@ -135,7 +159,29 @@ public class RoleImpl extends AbstractMeshCoreVertex<RoleResponse, Role> impleme
 				key, indexKey).spliterator(), false)).peek(Edge::remove).count();
 
 		if (edgesRemoved > 0) {
-			PermissionStore.invalidate();
+			updateETagStamp(vertex);
+			Database db = MeshInternal.get().database();
+			long roleId = db.toNumericId(getId());
+			long elementId = db.toNumericId(vertex.getId());
+			PermissionStore.invalidateElement(elementId, false);
+			RolePermissionIndex.revoke(roleId, elementId, permissions);
+			// Repeat the update once the transaction has been committed since the index may have been reloaded in between
+			CommitHooks.register(() -> {
+				PermissionStore.invalidatePermissions(roleId, elementId);
+				RolePermissionIndex.revoke(roleId, elementId, permissions);
+			});
+		}
+	}
+
+	/**
+	 * Update the etag stamp of the element if it is a node. The etag of the parent nodes contains the stamps of the children and thus covers the children
+	 * info.
+	 * 
+	 * @param vertex
+	 */
+	private void updateETagStamp(MeshVertex vertex) {
+		if (vertex instanceof Node) {
+			((Node) vertex).updateETagStamp();
 		}
 	}
 
@@ -165,9 +211,10 @@ public class RoleImpl extends AbstractMeshCoreVertex<RoleResponse, Role> impleme
 				}
 			}
 		}
+		long roleId = MeshInternal.get().database().toNumericId(getId());
 		getVertex().remove();
 
-		PermissionStore.invalidate();
+		PermissionStore.invalidateRole(roleId);
 	}
 
 	@Override
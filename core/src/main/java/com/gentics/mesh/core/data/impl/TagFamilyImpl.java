@@ -195,6 +195,10 @@ public class TagFamilyImpl extends AbstractMeshCoreVertex<TagFamilyResponse, Tag
 		if(!getName().equals(newName)) {
 			this.setName(newName);
 			batch.store(this, true);
+			// The tag references of the nodes contain the name of the tag family
+			for (Tag tag : findAllIt()) {
+				tag.updateNodeETagStamps();
+			}
 			return true;
 		} else {
 			return false;
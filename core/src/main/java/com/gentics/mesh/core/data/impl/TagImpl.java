@@ -137,6 +137,7 @@ public class TagImpl extends AbstractMeshCoreVertex<TagResponse, Tag> implements
 			String releaseUuid = release.getUuid();
 			for (Node node : getNodes(release)) {
 				batch.store(node, releaseUuid);
+				node.updateETagStamp();
 			}
 		}
 		getVertex().remove();
@@ -199,6 +200,7 @@ public class TagImpl extends AbstractMeshCoreVertex<TagResponse, Tag> implements
 				setName(newTagName);
 				batch.store(getTagFamily(), false);
 				batch.store(this, true);
+				updateNodeETagStamps();
 				return true;
 			}
 		}
@@ -206,6 +208,15 @@ public class TagImpl extends AbstractMeshCoreVertex<TagResponse, Tag> implements
 
 	}
 
+	@Override
+	public void updateNodeETagStamps() {
+		for (Release release : getProject().getReleaseRoot().findAllIt()) {
+			for (Node node : getNodes(release)) {
+				node.updateETagStamp();
+			}
+		}
+	}
+
 	@Override
 	public void handleRelatedEntries(HandleElementAction action) {
 		// Locate all nodes that use the tag across all releases and update these nodes
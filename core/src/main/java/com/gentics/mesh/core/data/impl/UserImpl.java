@@ -19,15 +19,24 @@ import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 import static io.netty.handler.codec.http.HttpResponseStatus.FORBIDDEN;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.lang3.BooleanUtils;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import com.gentics.mesh.context.InternalActionContext;
+import com.gentics.mesh.core.cache.ElementIdBitmap;
 import com.gentics.mesh.core.cache.PermissionStore;
+import com.gentics.mesh.core.cache.RolePermissionIndex;
 import com.gentics.mesh.core.data.ContainerType;
 import com.gentics.mesh.core.data.Group;
 import com.gentics.mesh.core.data.MeshVertex;
@@ -227,6 +236,8 @@ public class UserImpl extends AbstractMeshCoreVertex<UserResponse, User> impleme
 				setUniqueLinkOutTo(role, ASSIGNED_TO_ROLE);
 			}
 		}
+		// The roles of the user may have changed
+		PermissionStore.invalidateUser(MeshInternal.get().database().toNumericId(getId()));
 	}
 
 	@Override
@@ -276,37 +287,107 @@ public class UserImpl extends AbstractMeshCoreVertex<UserResponse, User> impleme
 
 	@Override
 	public boolean hasPermissionForId(Object elementId, GraphPermission permission) {
-		if (PermissionStore.hasPermission(getId(), permission, elementId)) {
-			return true;
-		} else {
-			FramedGraph graph = getGraph();
-			// Find all roles that are assigned to the user by checking the
-			// shortcut edge from the index
-			Iterable<Edge> roleEdges = graph.getEdges("e." + ASSIGNED_TO_ROLE + "_out", this.getId());
-			for (Edge roleEdge : roleEdges) {
-				Vertex role = roleEdge.getVertex(Direction.IN);
-				// Find all permission edges between the found role and target
-				// vertex with the specified label
-				Iterable<Edge> edges = graph.getEdges("e." + permission.label() + "_inout",
-						MeshInternal.get().database().createComposedIndexKey(elementId, role.getId()));
-				boolean foundPermEdge = edges.iterator().hasNext();
-				if (foundPermEdge) {
-					// We only store granting permissions in the store in order
-					// reduce the invalidation calls.
-					// This way we do not need to invalidate the cache if a role
-					// is removed from a group or a role is deleted.
-					PermissionStore.store(getId(), permission, elementId);
-					return true;
-				}
+		Database db = MeshInternal.get().database();
+		long userId = db.toNumericId(getId());
+		long numericElementId = db.toNumericId(elementId);
+		Boolean cachedPerm = PermissionStore.getPermission(userId, permission, numericElementId);
+		if (cachedPerm != null) {
+			return cachedPerm;
+		}
+		// Remember the generation of the store so that the result is not cached if the permissions are changed concurrently
+		long generation = PermissionStore.generation();
+		FramedGraph graph = getGraph();
+		boolean granted = false;
+		for (long roleId : getRoleIds(db, generation)) {
+			// Find all permission edges between the found role and target
+			// vertex with the specified label
+			Iterable<Edge> edges = graph.getEdges("e." + permission.label() + "_inout", db.createComposedIndexKey(elementId, db.fromNumericId(roleId)));
+			if (edges.iterator().hasNext()) {
+				granted = true;
+				break;
 			}
-			// Fall back to read and check whether the user has read perm. Read permission also includes read published.
+		}
+		// Fall back to read and check whether the user has read perm. Read permission also includes read published.
+		if (!granted && permission == READ_PUBLISHED_PERM) {
+			granted = hasPermissionForId(elementId, READ_PERM);
+		}
+		// Denying permissions are stored as well. The store will be invalidated whenever permissions or roles change.
+		PermissionStore.store(userId, permission, numericElementId, granted, generation);
+		return granted;
+	}
+
+	@Override
+	public Predicate<Object> createPermissionFilter(GraphPermission permission) {
+		if (!RolePermissionIndex.isIndexed(permission)) {
+			return elementId -> hasPermissionForId(elementId, permission);
+		}
+		Database db = MeshInternal.get().database();
+		List<ElementIdBitmap> bitmaps = new ArrayList<>();
+		for (long roleId : getRoleIds(db, PermissionStore.generation())) {
+			Map<GraphPermission, ElementIdBitmap> rolePermissions = RolePermissionIndex.get(roleId, id -> loadPermissionIndex(db, id));
+			bitmaps.add(rolePermissions.get(permission));
+			// Read permission also includes read published
 			if (permission == READ_PUBLISHED_PERM) {
-				return hasPermissionForId(elementId, READ_PERM);
-			} else {
-				return false;
+				bitmaps.add(rolePermissions.get(READ_PERM));
 			}
 		}
+		ElementIdBitmap[] granted = bitmaps.toArray(new ElementIdBitmap[bitmaps.size()]);
+		return elementId -> {
+			long numericId = db.toNumericId(elementId);
+			for (ElementIdBitmap bitmap : granted) {
+				if (bitmap.contains(numericId)) {
+					return true;
+				}
+			}
+			return false;
+		};
+	}
 
+	/**
+	 * Load the bitmaps of the indexed permissions for the given role from the permission edges of the role.
+	 * 
+	 * @param db
+	 * @param roleId
+	 *            Numeric id of the role
+	 * @return
+	 */
+	private Map<GraphPermission, ElementIdBitmap> loadPermissionIndex(Database db, long roleId) {
+		Map<GraphPermission, ElementIdBitmap> bitmaps = new EnumMap<>(GraphPermission.class);
+		Vertex role = getGraph().getVertex(db.fromNumericId(roleId));
+		for (GraphPermission permission : Arrays.asList(READ_PERM, READ_PUBLISHED_PERM)) {
+			Stream<Edge> edges = role == null ? Stream.empty() : StreamSupport.stream(role.getEdges(Direction.OUT, permission.label()).spliterator(), false);
+			bitmaps.put(permission, ElementIdBitmap.of(edges.mapToLong(edge -> db.toNumericId(edge.getVertex(Direction.IN).getId()))));
+		}
+		return bitmaps;
+	}
+
+	@Override
+	public String getRolesHash() {
+		long[] roleIds = getRoleIds(MeshInternal.get().database(), PermissionStore.generation()).clone();
+		Arrays.sort(roleIds);
+		return ETag.hash(Arrays.toString(roleIds));
+	}
+
+	/**
+	 * Return the numeric ids of all roles that are assigned to the user. The ids are loaded from the role shortcut edges and cached in the permission store.
+	 * 
+	 * @param db
+	 * @param generation
+	 *            Generation of the permission store at the time the permission check was started
+	 * @return
+	 */
+	private long[] getRoleIds(Database db, long generation) {
+		Object userId = getId();
+		long numericUserId = db.toNumericId(userId);
+		long[] roleIds = PermissionStore.getRoleIds(numericUserId);
+		if (roleIds == null) {
+			// Find all roles that are assigned to the user by checking the
+			// shortcut edge from the index
+			Iterable<Edge> roleEdges = getGraph().getEdges("e." + ASSIGNED_TO_ROLE + "_out", userId);
+			roleIds = StreamSupport.stream(roleEdges.spliterator(), false).mapToLong(edge -> db.toNumericId(edge.getVertex(Direction.IN).getId())).toArray();
+			PermissionStore.storeRoleIds(numericUserId, roleIds, generation);
+		}
+		return roleIds;
 	}
 
 	@Override
@@ -460,8 +541,9 @@ public class UserImpl extends AbstractMeshCoreVertex<UserResponse, User> impleme
 		// }
 		// outE(HAS_USER).removeAll();
 		batch.delete(this, false);
+		long userId = MeshInternal.get().database().toNumericId(getId());
 		getElement().remove();
-		PermissionStore.invalidate();
+		PermissionStore.invalidateUser(userId);
 	}
 
 	/**
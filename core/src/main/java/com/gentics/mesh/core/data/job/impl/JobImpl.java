@@ -82,8 +82,11 @@ public abstract class JobImpl extends AbstractMeshCoreVertex<JobResponse, Job> i
 		response.setNodeName(getNodeName());
 
 		Map<String, String> props = response.getProperties();
-		props.put("releaseName", getRelease().getName());
-		props.put("releaseUuid", getRelease().getUuid());
+		Release release = getRelease();
+		if (release != null) {
+			props.put("releaseName", release.getName());
+			props.put("releaseUuid", release.getUuid());
+		}
 
 		if (getToSchemaVersion() != null) {
 			SchemaContainer container = getToSchemaVersion().getSchemaContainer();
@@ -154,6 +157,16 @@ public abstract class JobImpl extends AbstractMeshCoreVertex<JobResponse, Job> i
 		setProperty(COMPLETION_COUNT_PROPERTY_KEY, count);
 	}
 
+	@Override
+	public Long getCheckpoint() {
+		return getProperty(CHECKPOINT_PROPERTY_KEY);
+	}
+
+	@Override
+	public void setCheckpoint(Long checkpoint) {
+		setProperty(CHECKPOINT_PROPERTY_KEY, checkpoint);
+	}
+
 	@Override
 	public Release getRelease() {
 		return out(HAS_RELEASE).nextOrDefaultExplicit(ReleaseImpl.class, null);
@@ -265,6 +278,7 @@ public abstract class JobImpl extends AbstractMeshCoreVertex<JobResponse, Job> i
 		setStopTimestamp(null);
 		setErrorDetail(null);
 		setErrorMessage(null);
+		setCheckpoint(null);
 	}
 
 	@Override
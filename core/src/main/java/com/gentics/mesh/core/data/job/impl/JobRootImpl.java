@@ -47,6 +47,7 @@ public class JobRootImpl extends AbstractRootVertex<Job> implements JobRoot {
 	public static void init(Database database) {
 		database.addVertexType(JobRootImpl.class, MeshVertexImpl.class);
 		database.addEdgeIndex(HAS_JOB, true, false, true);
+		database.addSortedEdgeIndex(HAS_JOB);
 	}
 
 	@Override
@@ -163,6 +164,20 @@ public class JobRootImpl extends AbstractRootVertex<Job> implements JobRoot {
 		return job;
 	}
 
+	@Override
+	public Job enqueueReindex(User creator) {
+		Job job = getGraph().addFramedVertex(ReindexJobImpl.class);
+		job.setCreated(creator);
+		job.setType(MigrationType.reindex);
+		job.setStatus(QUEUED);
+		job.prepare();
+		addItem(job);
+		if (log.isDebugEnabled()) {
+			log.debug("Enqueued reindex job {" + job.getUuid() + "}");
+		}
+		return job;
+	}
+
 	@Override
 	public MeshVertex resolveToElement(Stack<String> stack) {
 		throw error(BAD_REQUEST, "Jobs are not accessible");
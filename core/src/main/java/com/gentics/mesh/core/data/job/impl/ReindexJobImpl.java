@@ -0,0 +1,245 @@
+package com.gentics.mesh.core.data.job.impl;
+
+import static com.gentics.mesh.core.rest.admin.migration.MigrationStatus.RUNNING;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.gentics.mesh.Mesh;
+import com.gentics.mesh.core.data.job.Job;
+import com.gentics.mesh.core.data.generic.MeshVertexImpl;
+import com.gentics.mesh.core.data.search.IndexHandler;
+import com.gentics.mesh.core.data.search.SearchQueueBatch;
+import com.gentics.mesh.core.data.search.index.IndexInfo;
+import com.gentics.mesh.core.rest.admin.migration.MigrationType;
+import com.gentics.mesh.core.verticle.migration.MigrationStatusHandler;
+import com.gentics.mesh.core.verticle.migration.impl.MigrationStatusHandlerImpl;
+import com.gentics.mesh.dagger.MeshInternal;
+import com.gentics.mesh.graphdb.spi.Database;
+import com.gentics.mesh.search.SearchProvider;
+
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * Job which rebuilds all search indices. The documents are written to new indices which are named after the job. The aliases of the indices will be switched
+ * to the new indices once all handlers have been processed and the document counts of the new indices have been verified. This way searches will never access
+ * an incomplete index. The job records the currently processed index handler and the id of the last reindexed element so that an interrupted or failed reindex
+ * can be resumed. The new indices are kept until the job has completed and changes are mirrored into them, also after a restart. The new indices are only
+ * deleted if their document counts don't match or if the job is deleted.
+ */
+public class ReindexJobImpl extends JobImpl {
+
+	private static final Logger log = LoggerFactory.getLogger(ReindexJobImpl.class);
+
+	public static final String CURRENT_HANDLER_PROPERTY_KEY = "currentHandler";
+
+	/**
+	 * Amount of attempts to verify the document counts. Changes which happen while the counts are verified may cause a temporary mismatch.
+	 */
+	private static final int VERIFY_ATTEMPTS = 5;
+
+	private static final long VERIFY_DELAY = 1000;
+
+	public static void init(Database database) {
+		database.addVertexType(ReindexJobImpl.class, MeshVertexImpl.class);
+	}
+
+	@Override
+	public void prepare() {
+		// NOP
+	}
+
+	/**
+	 * Return the name of the index handler which is currently being processed.
+	 *
+	 * @return
+	 */
+	public String getCurrentHandler() {
+		return getProperty(CURRENT_HANDLER_PROPERTY_KEY);
+	}
+
+	/**
+	 * Set the name of the index handler which is currently being processed.
+	 *
+	 * @param handlerName
+	 */
+	public void setCurrentHandler(String handlerName) {
+		setProperty(CURRENT_HANDLER_PROPERTY_KEY, handlerName);
+	}
+
+	/**
+	 * Mirror the changes into the new indices of the reindex jobs which have not yet completed. This must be invoked during the startup before any changes
+	 * are applied to the search indices. Otherwise the new indices would miss the changes which happen until the job is resumed.
+	 *
+	 * @param jobs
+	 */
+	public static void restoreMirrors(Iterable<? extends Job> jobs) {
+		SearchProvider searchProvider = MeshInternal.get().searchProvider();
+		for (Job job : jobs) {
+			if (job instanceof ReindexJobImpl && ((ReindexJobImpl) job).getCurrentHandler() != null) {
+				ReindexJobImpl reindexJob = (ReindexJobImpl) job;
+				log.info("Mirroring changes into the indices of the unfinished reindex job {" + reindexJob.getUuid() + "}");
+				for (Map.Entry<String, IndexInfo> entry : reindexJob.getTargets().entrySet()) {
+					searchProvider.addMirror(entry.getKey(), entry.getValue().getIndexName());
+				}
+			}
+		}
+	}
+
+	@Override
+	public void resetJob() {
+		Long checkpoint = getCheckpoint();
+		super.resetJob();
+		// Keep the progress since the new indices are kept as well. The job will thus resume where it failed.
+		setCheckpoint(checkpoint);
+	}
+
+	@Override
+	public void delete(SearchQueueBatch batch) {
+		if (getCurrentHandler() != null) {
+			deleteTargets(MeshInternal.get().searchProvider(), getTargets());
+		}
+		super.delete(batch);
+	}
+
+	@Override
+	protected void processTask() {
+		MigrationStatusHandler status = new MigrationStatusHandlerImpl(this, Mesh.vertx(), MigrationType.reindex);
+		SearchProvider searchProvider = MeshInternal.get().searchProvider();
+		List<IndexHandler<?>> handlers = MeshInternal.get().indexHandlerRegistry().getHandlers();
+		Map<String, IndexInfo> targets = getTargets();
+		try {
+			status.setStatus(RUNNING);
+			status.commit();
+
+			// Create the new indices and keep them in sync with the changes which happen during the reindex. The indices already exist if the job is
+			// resumed.
+			for (Map.Entry<String, IndexInfo> entry : targets.entrySet()) {
+				searchProvider.createIndex(entry.getValue()).blockingAwait();
+				searchProvider.addMirror(entry.getKey(), entry.getValue().getIndexName());
+			}
+
+			// Handlers before the current handler have already been processed by an interrupted run
+			String currentHandler = getCurrentHandler();
+			boolean resumed = currentHandler != null;
+			for (IndexHandler<?> handler : handlers) {
+				String handlerName = handler.getClass().getSimpleName();
+				if (resumed && !handlerName.equals(currentHandler)) {
+					continue;
+				}
+				Long checkpoint = resumed ? status.getCheckpoint() : null;
+				resumed = false;
+				setCurrentHandler(handlerName);
+				status.setCheckpoint(checkpoint);
+				status.commit();
+
+				log.info("Reindexing documents of handler {" + handlerName + "} for job {" + getUuid() + "}");
+				handler.reindexAll(index -> targets.containsKey(index) ? targets.get(index).getIndexName() : index, checkpoint, (id, count) -> {
+					status.setCheckpoint(id);
+					status.setCompletionCount(getCompletionCount() + count);
+					status.commit();
+				}).blockingAwait();
+			}
+
+			if (!verifyDocumentCounts(searchProvider, handlers, targets)) {
+				// The new indices can't be repaired by resuming the job. They are thus rebuilt by the next run.
+				deleteTargets(searchProvider, targets);
+				setCurrentHandler(null);
+				status.setCheckpoint(null);
+				status.setCompletionCount(0);
+				throw new IllegalStateException("The document counts of the new indices don't match the expected counts.");
+			}
+
+			// Now switch the aliases to the new indices
+			for (Map.Entry<String, IndexInfo> entry : targets.entrySet()) {
+				searchProvider.swapAlias(entry.getKey(), entry.getValue().getIndexName()).blockingAwait();
+			}
+			removeMirrors(searchProvider, targets);
+			searchProvider.refreshIndex().blockingAwait();
+			setCurrentHandler(null);
+			status.done();
+		} catch (Exception e) {
+			// The new indices, the mirrors and the checkpoint are kept so that the job can be resumed
+			status.error(e, "Error while reindexing the search indices.");
+		}
+	}
+
+	/**
+	 * Return the new indices of the job, keyed by the name of the index which they will replace.
+	 *
+	 * @return
+	 */
+	private Map<String, IndexInfo> getTargets() {
+		Map<String, IndexInfo> targets = new HashMap<>();
+		for (IndexHandler<?> handler : MeshInternal.get().indexHandlerRegistry().getHandlers()) {
+			for (IndexInfo info : handler.getIndices().values()) {
+				String target = info.getIndexName() + "-" + getUuid();
+				targets.put(info.getIndexName(), new IndexInfo(target, info.getIndexSettings(), info.getIndexMappings()));
+			}
+		}
+		return targets;
+	}
+
+	/**
+	 * Compare the amount of documents in the new indices with the amount of documents which should exist according to the graph. Changes which are still
+	 * being applied may cause a mismatch. The counts are thus compared again after a short delay.
+	 *
+	 * @param searchProvider
+	 * @param handlers
+	 * @param targets
+	 * @return true if the counts match or if the search provider does not support counting documents
+	 * @throws InterruptedException
+	 */
+	private boolean verifyDocumentCounts(SearchProvider searchProvider, List<IndexHandler<?>> handlers, Map<String, IndexInfo> targets)
+		throws InterruptedException {
+		String[] names = targets.values().stream().map(IndexInfo::getIndexName).toArray(String[]::new);
+		for (int attempt = 1; attempt <= VERIFY_ATTEMPTS; attempt++) {
+			searchProvider.refreshIndex(names).blockingAwait();
+			Map<String, Long> expected = new HashMap<>();
+			for (IndexHandler<?> handler : handlers) {
+				expected.putAll(handler.getDocumentCounts());
+			}
+			boolean match = true;
+			for (Map.Entry<String, IndexInfo> entry : targets.entrySet()) {
+				Long count = searchProvider.getDocumentCount(entry.getValue().getIndexName()).blockingGet();
+				if (count == null) {
+					// The provider does not store any documents
+					return true;
+				}
+				long expectedCount = expected.getOrDefault(entry.getKey(), 0L);
+				if (count != expectedCount) {
+					log.warn("Index {" + entry.getValue().getIndexName() + "} contains {" + count + "} documents instead of {" + expectedCount
+						+ "}. Attempt {" + attempt + "}");
+					match = false;
+				}
+			}
+			if (match) {
+				return true;
+			}
+			Thread.sleep(VERIFY_DELAY);
+		}
+		return false;
+	}
+
+	private void deleteTargets(SearchProvider searchProvider, Map<String, IndexInfo> targets) {
+		// Stop mirroring before the indices are deleted since mirrored changes could otherwise recreate the indices
+		removeMirrors(searchProvider, targets);
+		if (!targets.isEmpty()) {
+			try {
+				String[] names = targets.values().stream().map(IndexInfo::getIndexName).toArray(String[]::new);
+				searchProvider.deleteIndex(false, names).blockingAwait();
+			} catch (Exception e) {
+				log.error("Could not delete the indices of the reindex job {" + getUuid() + "}", e);
+			}
+		}
+	}
+
+	private void removeMirrors(SearchProvider searchProvider, Map<String, IndexInfo> targets) {
+		for (String index : targets.keySet()) {
+			searchProvider.removeMirror(index);
+		}
+	}
+
+}
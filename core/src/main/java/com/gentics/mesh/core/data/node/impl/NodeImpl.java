@@ -25,24 +25,26 @@ import static io.netty.handler.codec.http.HttpResponseStatus.METHOD_NOT_ALLOWED;
 import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import com.gentics.mesh.Mesh;
 import com.gentics.mesh.context.InternalActionContext;
+import com.gentics.mesh.core.cache.WebRootPathTrie;
 import com.gentics.mesh.core.data.ContainerType;
 import com.gentics.mesh.core.data.GraphFieldContainer;
 import com.gentics.mesh.core.data.GraphFieldContainerEdge;
@@ -114,7 +116,9 @@ import com.gentics.mesh.path.PathSegment;
 import com.gentics.mesh.util.DateUtils;
 import com.gentics.mesh.util.ETag;
 import com.gentics.mesh.util.URIUtils;
+import com.gentics.mesh.util.UUIDUtil;
 import com.gentics.mesh.util.VersionNumber;
+import com.google.common.hash.Hashing;
 import com.syncleus.ferma.EdgeFrame;
 import com.syncleus.ferma.FramedGraph;
 import com.syncleus.ferma.VertexFrame;
@@ -139,6 +143,10 @@ public class NodeImpl extends AbstractGenericFieldContainerVertex<NodeResponse,
 
 	public static final String RELEASE_UUID_KEY = "releaseUuid";
 
+	public static final String ETAG_STAMP_PROPERTY_KEY = "etagStamp";
+
+	public static final String PATH_STAMP_PROPERTY_KEY = "pathStamp";
+
 	public static void init(Database database) {
 		database.addVertexType(NodeImpl.class, MeshVertexImpl.class);
 		database.addEdgeIndex(HAS_PARENT_NODE);
@@ -146,6 +154,8 @@ public class NodeImpl extends AbstractGenericFieldContainerVertex<NodeResponse,
 		database.addCustomEdgeIndex(HAS_PARENT_NODE, "release", "in", RELEASE_UUID_KEY);
 		database.addCustomEdgeIndex(HAS_FIELD_CONTAINER, "field", "out", GraphFieldContainerEdgeImpl.RELEASE_UUID_KEY,
 				GraphFieldContainerEdgeImpl.EDGE_TYPE_KEY);
+		// The nodes of a schema are read in the order of their ids during schema migrations
+		database.addEdgeIndex(HAS_SCHEMA_CONTAINER, true, false, false);
 	}
 
 	@Override
@@ -176,6 +186,15 @@ public class NodeImpl extends AbstractGenericFieldContainerVertex<NodeResponse,
 		String cacheKey = getUuid() + releaseUuid + type.getCode() + Arrays.toString(languageTag);
 		return (String) ac.data().computeIfAbsent(cacheKey, key -> {
 
+			// Use the webroot path trie of the release if it has already been loaded
+			WebRootPathTrie trie = WebRootPathTrie.getIfPresent(releaseUuid, type);
+			if (trie != null) {
+				List<String> trieSegments = trie.getSegments(getUuid(), Arrays.asList(languageTag), MeshInternal.get().boot().getAllLanguageTags());
+				if (trieSegments != null) {
+					return buildPath(trieSegments);
+				}
+			}
+
 			List<String> segments = new ArrayList<>();
 			String segment = getPathSegment(releaseUuid, type, languageTag);
 			if (segment == null) {
@@ -209,19 +228,27 @@ public class NodeImpl extends AbstractGenericFieldContainerVertex<NodeResponse,
 			}
 
 			Collections.reverse(segments);
-
-			// Finally construct the path from all segments
-			StringBuilder builder = new StringBuilder();
-			Iterator<String> it = segments.iterator();
-			while (it.hasNext()) {
-				String fragment = it.next();
-				builder.append("/").append(URIUtils.encodeFragment(fragment));
-			}
-			return builder.toString();
+			return buildPath(segments);
 		});
 
 	}
 
+	/**
+	 * Construct the path from the given segments.
+	 * 
+	 * @param segments
+	 * @return
+	 */
+	private String buildPath(List<String> segments) {
+		StringBuilder builder = new StringBuilder();
+		Iterator<String> it = segments.iterator();
+		while (it.hasNext()) {
+			String fragment = it.next();
+			builder.append("/").append(URIUtils.encodeFragment(fragment));
+		}
+		return builder.toString();
+	}
+
 	@Override
 	public void assertPublishConsistency(InternalActionContext ac, Release release) {
 
@@ -373,8 +400,7 @@ public class NodeImpl extends AbstractGenericFieldContainerVertex<NodeResponse,
 
 		// remove existing draft edge
 		if (draftEdge != null) {
-			previous.setProperty(NodeGraphFieldContainerImpl.WEBROOT_PROPERTY_KEY, null);
-			previous.setProperty(NodeGraphFieldContainerImpl.WEBROOT_URLFIELD_PROPERTY_KEY, null);
+			previous.clearWebrootPathInfo(releaseUuid, DRAFT);
 			container.updateWebrootPathInfo(releaseUuid, "node_conflicting_segmentfield_update");
 			draftEdge.remove();
 		}
@@ -445,11 +471,13 @@ public class NodeImpl extends AbstractGenericFieldContainerVertex<NodeResponse,
 	@Override
 	public void removeTag(Tag tag, Release release) {
 		outE(HAS_TAG).has(TagEdgeImpl.RELEASE_UUID_KEY, release.getUuid()).mark().inV().retain(tag).back().removeAll();
+		updateETagStamp();
 	}
 
 	@Override
 	public void removeAllTags(Release release) {
 		outE(HAS_TAG).has(TagEdgeImpl.RELEASE_UUID_KEY, release.getUuid()).removeAll();
+		updateETagStamp();
 	}
 
 	@Override
@@ -504,6 +532,45 @@ public class NodeImpl extends AbstractGenericFieldContainerVertex<NodeResponse,
 	public void setParentNode(String releaseUuid, Node parent) {
 		outE(HAS_PARENT_NODE).has(RELEASE_UUID_KEY, releaseUuid).removeAll();
 		addFramedEdge(HAS_PARENT_NODE, parent).setProperty(RELEASE_UUID_KEY, releaseUuid);
+		updatePathStamp();
+	}
+
+	@Override
+	public String getETagStamp() {
+		return getProperty(ETAG_STAMP_PROPERTY_KEY);
+	}
+
+	@Override
+	public void updateETagStamp() {
+		setProperty(ETAG_STAMP_PROPERTY_KEY, UUIDUtil.randomUUID());
+	}
+
+	/**
+	 * Return a stamp of the children of the node in the given release. The stamp is derived from the ids and the etag stamps of the children and thus changes
+	 * whenever children are created, moved or deleted and whenever the permissions of a child change. The parent node itself does not need to be modified.
+	 * 
+	 * @param releaseUuid
+	 * @return
+	 */
+	private String getChildrenStamp(String releaseUuid) {
+		// The children are combined independent of their order
+		long hash = 0;
+		int count = 0;
+		for (Node child : getChildren(releaseUuid)) {
+			hash += Hashing.murmur3_128().hashString(child.getId() + "-" + child.getETagStamp(), StandardCharsets.UTF_8).asLong();
+			count++;
+		}
+		return count + ":" + Long.toHexString(hash);
+	}
+
+	@Override
+	public String getPathStamp() {
+		return getProperty(PATH_STAMP_PROPERTY_KEY);
+	}
+
+	@Override
+	public void updatePathStamp() {
+		setProperty(PATH_STAMP_PROPERTY_KEY, UUIDUtil.randomUUID());
 	}
 
 	@Override
@@ -1100,10 +1167,7 @@ public class NodeImpl extends AbstractGenericFieldContainerVertex<NodeResponse,
 		List<? extends NodeGraphFieldContainer> publishedContainers = getGraphFieldContainers(releaseUuid, PUBLISHED);
 		getGraphFieldContainerEdges(releaseUuid, PUBLISHED).stream().forEach(EdgeFrame::remove);
 		// Reset the webroot property for each published container
-		published.forEach(c -> {
-			c.setProperty(NodeGraphFieldContainer.PUBLISHED_WEBROOT_PROPERTY_KEY, null);
-			c.setProperty(NodeGraphFieldContainer.PUBLISHED_WEBROOT_URLFIELD_PROPERTY_KEY, null);
-		});
+		published.forEach(c -> c.clearWebrootPathInfo(releaseUuid, PUBLISHED));
 
 		// Handle recursion
 		if (parameters.isRecursive()) {
@@ -1192,8 +1256,7 @@ public class NodeImpl extends AbstractGenericFieldContainerVertex<NodeResponse,
 		}
 		// 2. Remove the "published" edge
 		getGraphFieldContainerEdge(languageTag, releaseUuid, PUBLISHED).remove();
-		published.setProperty(NodeGraphFieldContainer.PUBLISHED_WEBROOT_PROPERTY_KEY, null);
-		published.setProperty(NodeGraphFieldContainer.PUBLISHED_WEBROOT_URLFIELD_PROPERTY_KEY, null);
+		published.clearWebrootPathInfo(releaseUuid, PUBLISHED);
 
 		assertPublishConsistency(ac, release);
 
@@ -1803,10 +1866,9 @@ public class NodeImpl extends AbstractGenericFieldContainerVertex<NodeResponse,
 		Release release = ac.getRelease(getProject());
 		VersioningParameters versioiningParameters = ac.getVersioningParameters();
 		ContainerType type = forVersion(versioiningParameters.getVersion());
+		NodeParameters nodeParameters = ac.getNodeParameters();
 
-		Node parentNode = getParentNode(release.getUuid());
-		NodeGraphFieldContainer container = findVersion(ac.getNodeParameters().getLanguageList(), release.getUuid(), ac.getVersioningParameters()
-				.getVersion());
+		NodeGraphFieldContainer container = findVersion(nodeParameters.getLanguageList(), release.getUuid(), versioiningParameters.getVersion());
 
 		StringBuilder keyBuilder = new StringBuilder();
 		keyBuilder.append(superkey);
@@ -1817,8 +1879,6 @@ public class NodeImpl extends AbstractGenericFieldContainerVertex<NodeResponse,
 		keyBuilder.append(release.getUuid());
 		keyBuilder.append("-");
 
-		// TODO version, language list
-
 		// We can omit further etag keys since this would return a 404 anyhow
 		// since the requested container could not be found.
 		if (container == null) {
@@ -1826,103 +1886,69 @@ public class NodeImpl extends AbstractGenericFieldContainerVertex<NodeResponse,
 			return keyBuilder.toString();
 		}
 
+		// fields version
+		keyBuilder.append(container.getETag(ac));
+		keyBuilder.append("-");
+		keyBuilder.append(type.getCode());
+
 		/**
-		 * Parent node
+		 * Tags and permissions
 		 * 
-		 * The node can be moved and this would also affect the response. The etag must also be changed when the node is moved.
+		 * The stamp of the node is updated whenever tags are assigned, tags are renamed or the permissions of the node change.
 		 */
-		if (parentNode != null) {
-			keyBuilder.append("-");
-			keyBuilder.append(parentNode.getUuid());
-		}
+		keyBuilder.append("-");
+		keyBuilder.append(getETagStamp());
 
-		// fields version
-		if (container != null) {
+		/**
+		 * Children
+		 * 
+		 * The children stamp is derived from the children at read time. Creating, moving or deleting children thus does not write the parent node.
+		 */
+		keyBuilder.append("-");
+		keyBuilder.append(getChildrenStamp(release.getUuid()));
+
+		/**
+		 * Parent node, available languages, breadcrumb and paths
+		 * 
+		 * The path stamp of a node is updated whenever its containers are created, updated, published, taken offline or deleted and whenever the node is moved.
+		 * The path stamps of the node and its parents thus cover modified display names and segments of the parent nodes.
+		 */
+		Node current = this;
+		while (current != null) {
 			keyBuilder.append("-");
-			keyBuilder.append(container.getETag(ac));
+			keyBuilder.append(current.getPathStamp());
+			current = current.getParentNode(release.getUuid());
 		}
 
+		/**
+		 * Roles of the user
+		 * 
+		 * The children info only lists the children which are readable by the user.
+		 */
+		keyBuilder.append("-");
+		keyBuilder.append(ac.getUser().getRolesHash());
+
 		/**
 		 * Expansion (all)
 		 * 
 		 * The expandAll parameter changes the json response and thus must be included in the etag computation.
 		 */
-		if (ac.getNodeParameters().getExpandAll()) {
+		if (nodeParameters.getExpandAll()) {
 			keyBuilder.append("-");
 			keyBuilder.append("expand:true");
 		}
 
 		// expansion (selective)
-		String expandedFields = Arrays.toString(ac.getNodeParameters().getExpandedFieldNames());
+		String expandedFields = Arrays.toString(nodeParameters.getExpandedFieldNames());
 		keyBuilder.append("-");
 		keyBuilder.append("expandFields:");
 		keyBuilder.append(expandedFields);
 
-		// release specific tags
-		for (Tag tag : getTags(release)) {
-			// Tags can't be moved across releases thus we don't need to add the
-			// tag family etag
-			keyBuilder.append(tag.getETag(ac));
-		}
-
-		// release specific children
-		for (Node child : getChildren(release.getUuid())) {
-			if (ac.getUser().hasPermission(child, READ_PERM)) {
-				keyBuilder.append("-");
-				keyBuilder.append(child.getSchemaContainer().getName());
-			}
-		}
-
-		// editor etag - (can be omitted since update would also affect the
-		// NGFC)
-		// creator etag
-		// keyBuilder.append("-");
-		// keyBuilder.append(getCreator().getETag(ac));
-
-		// availableLanguages
+		// languages and link type which are used to render the breadcrumb and the paths
 		keyBuilder.append("-");
-		keyBuilder.append(Arrays.toString(getAvailableLanguageNames(release, type).toArray()));
-
-		// breadcrumb
+		keyBuilder.append(nodeParameters.getLanguageList());
 		keyBuilder.append("-");
-		Node current = getParentNode(release.getUuid());
-		if (current != null) {
-			while (current != null) {
-
-				String key = current.getUuid() + current.getDisplayName(ac);
-				keyBuilder.append(key);
-				if (LinkType.OFF != ac.getNodeParameters().getResolveLinks()) {
-					WebRootLinkReplacer linkReplacer = MeshInternal.get().webRootLinkReplacer();
-					String url = linkReplacer.resolve(ac, release.getUuid(), type, current.getUuid(), ac.getNodeParameters().getResolveLinks(),
-							getProject().getName(), container.getLanguage().getLanguageTag());
-					keyBuilder.append(url);
-				}
-				current = current.getParentNode(release.getUuid());
-
-			}
-		}
-
-		/**
-		 * webroot path & language paths
-		 * 
-		 * The webroot and language paths must be included in the etag computation in order to invalidate the etag once a node language gets updated or once the
-		 * display name of any parent node changes.
-		 */
-		if (ac.getNodeParameters().getResolveLinks() != LinkType.OFF) {
-
-			WebRootLinkReplacer linkReplacer = MeshInternal.get().webRootLinkReplacer();
-			String path = linkReplacer.resolve(ac, release.getUuid(), type, getUuid(), ac.getNodeParameters().getResolveLinks(), getProject()
-					.getName(), container.getLanguage().getLanguageTag());
-			keyBuilder.append(path);
-
-			// languagePaths
-			for (GraphFieldContainer currentFieldContainer : getGraphFieldContainers(release, forVersion(versioiningParameters.getVersion()))) {
-				Language currLanguage = currentFieldContainer.getLanguage();
-				keyBuilder.append(currLanguage.getLanguageTag() + "=" + linkReplacer.resolve(ac, release.getUuid(), type, this, ac.getNodeParameters()
-						.getResolveLinks(), currLanguage.getLanguageTag()));
-			}
-
-		}
+		keyBuilder.append(nodeParameters.getResolveLinks());
 
 		/**
 		 * permissions (&roleUuid query parameter aware)
@@ -1934,12 +1960,11 @@ public class NodeImpl extends AbstractGenericFieldContainerVertex<NodeResponse,
 			Role role = MeshInternal.get().boot().meshRoot().getRoleRoot().loadObjectByUuid(ac, roleUuid, READ_PERM);
 			if (role != null) {
 				Set<GraphPermission> permSet = role.getPermissions(this);
-				Set<String> humanNames = new HashSet<>();
+				Set<String> humanNames = new TreeSet<>();
 				for (GraphPermission permission : permSet) {
 					humanNames.add(permission.getRestPerm().getName());
 				}
-				String[] names = humanNames.toArray(new String[humanNames.size()]);
-				keyBuilder.append(names);
+				keyBuilder.append(humanNames);
 			}
 
 		}
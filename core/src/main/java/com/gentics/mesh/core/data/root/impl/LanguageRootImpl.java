@@ -30,6 +30,7 @@ public class LanguageRootImpl extends AbstractRootVertex<Language> implements La
 	public static void init(Database database) {
 		database.addVertexType(LanguageRootImpl.class, MeshVertexImpl.class);
 		database.addEdgeIndex(HAS_LANGUAGE, true, false, false);
+		database.addSortedEdgeIndex(HAS_LANGUAGE);
 		// TODO add unique index
 	}
 
@@ -14,6 +14,7 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -63,6 +64,7 @@ public class NodeRootImpl extends AbstractRootVertex<Node> implements NodeRoot {
 	public static void init(Database database) {
 		database.addVertexType(NodeRootImpl.class, MeshVertexImpl.class);
 		database.addEdgeIndex(HAS_NODE, true, false, true);
+		database.addSortedEdgeIndex(HAS_NODE);
 	}
 
 	@Override
@@ -170,8 +172,9 @@ public class NodeRootImpl extends AbstractRootVertex<Node> implements NodeRoot {
 	 * @return vertex traversal
 	 */
 	protected VertexTraversal<?, ?, ?> getAllTraversal(MeshAuthUser requestUser, Release release, ContainerType type, GraphPermission permission) {
+		Predicate<Object> permissionFilter = requestUser.createPermissionFilter(permission);
 		return out(getRootLabel()).filter(vertex -> {
-			return requestUser.hasPermissionForId(vertex.getId(), permission);
+			return permissionFilter.test(vertex.getId());
 		}).mark().outE(HAS_FIELD_CONTAINER).has(GraphFieldContainerEdgeImpl.RELEASE_UUID_KEY, release.getUuid())
 				.has(GraphFieldContainerEdgeImpl.EDGE_TYPE_KEY, type.getCode()).outV().back();
 	}
@@ -41,6 +41,7 @@ public class ReleaseRootImpl extends AbstractRootVertex<Release> implements Rele
 		database.addVertexType(ReleaseRootImpl.class, MeshVertexImpl.class);
 		database.addEdgeType(HAS_RELEASE);
 		database.addEdgeIndex(HAS_RELEASE, true, false, true);
+		database.addSortedEdgeIndex(HAS_RELEASE);
 	}
 
 	@Override
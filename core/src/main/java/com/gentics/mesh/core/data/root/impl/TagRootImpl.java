@@ -34,6 +34,7 @@ public class TagRootImpl extends AbstractRootVertex<Tag> implements TagRoot {
 		database.addVertexType(TagRootImpl.class, MeshVertexImpl.class);
 		database.addEdgeIndex(HAS_TAG, TagEdgeImpl.RELEASE_UUID_KEY);
 		database.addEdgeIndex(HAS_TAG, true, false, true);
+		database.addSortedEdgeIndex(HAS_TAG);
 	}
 
 	private static final Logger log = LoggerFactory.getLogger(TagRootImpl.class);
@@ -48,6 +48,7 @@ public class UserRootImpl extends AbstractRootVertex<User> implements UserRoot {
 	public static void init(Database database) {
 		database.addVertexType(UserRootImpl.class, MeshVertexImpl.class);
 		database.addEdgeIndex(HAS_USER, true, false, true);
+		database.addSortedEdgeIndex(HAS_USER);
 	}
 
 	@Override
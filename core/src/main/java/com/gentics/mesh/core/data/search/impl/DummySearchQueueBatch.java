@@ -14,6 +14,7 @@ import com.gentics.mesh.core.data.search.SearchQueueBatch;
 import com.gentics.mesh.core.data.search.SearchQueueEntry;
 import com.gentics.mesh.core.data.search.context.GenericEntryContext;
 import com.gentics.mesh.core.rest.schema.Schema;
+import com.gentics.mesh.parameter.ParameterProviderContext;
 
 import io.reactivex.Completable;
 
@@ -83,6 +84,16 @@ public class DummySearchQueueBatch implements SearchQueueBatch {
 		return Completable.complete();
 	}
 
+	@Override
+	public Completable processAsync(boolean refresh) {
+		return Completable.complete();
+	}
+
+	@Override
+	public Completable processAsync(ParameterProviderContext ac) {
+		return Completable.complete();
+	}
+
 	@Override
 	public void processSync(long timeout, TimeUnit unit) {
 
@@ -93,6 +104,11 @@ public class DummySearchQueueBatch implements SearchQueueBatch {
 
 	}
 
+	@Override
+	public void processSync(ParameterProviderContext ac) {
+
+	}
+
 	@Override
 	public void printDebug() {
 
@@ -0,0 +1,460 @@
+package com.gentics.mesh.core.data.search.impl;
+
+import static com.gentics.mesh.core.data.search.SearchQueueEntryAction.DELETE_ACTION;
+import static com.gentics.mesh.core.data.search.SearchQueueEntryAction.STORE_ACTION;
+import static com.gentics.mesh.core.rest.error.Errors.error;
+import static io.netty.handler.codec.http.HttpResponseStatus.SERVICE_UNAVAILABLE;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.gentics.mesh.Mesh;
+import com.gentics.mesh.core.data.ContainerType;
+import com.gentics.mesh.core.data.NodeGraphFieldContainer;
+import com.gentics.mesh.core.data.node.Node;
+import com.gentics.mesh.core.data.search.MoveDocumentEntry;
+import com.gentics.mesh.core.data.search.SearchOutboxBatch;
+import com.gentics.mesh.core.data.search.SearchQueueEntry;
+import com.gentics.mesh.core.data.search.SearchQueueEntryAction;
+import com.gentics.mesh.core.data.search.UpdateDocumentEntry;
+import com.gentics.mesh.core.data.search.context.GenericEntryContext;
+import com.gentics.mesh.core.data.search.context.MoveEntryContext;
+import com.gentics.mesh.core.data.search.context.impl.GenericEntryContextImpl;
+import com.gentics.mesh.core.rest.error.GenericRestException;
+import com.gentics.mesh.graphdb.spi.Database;
+import com.gentics.mesh.metric.MeshMetrics;
+import com.gentics.mesh.search.IndexHandlerRegistry;
+import com.gentics.mesh.search.SearchProvider;
+import com.gentics.mesh.search.index.entry.UpdateDocumentEntryImpl;
+import com.syncleus.ferma.tx.Tx;
+
+import dagger.Lazy;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * The search index outbox is used when the write-behind mode has been enabled. Search queue batches are written to the outbox within the transaction which
+ * contains the changes of the request. A background indexer processes the outbox batches in the order of their creation and removes them once the search
+ * index has been updated. Outbox batches which could not be processed are kept and retried. This way changes are delivered at least once even if the
+ * search provider is not reachable or the instance is restarted.
+ */
+@Singleton
+public class SearchOutbox {
+
+	private static final Logger log = LoggerFactory.getLogger(SearchOutbox.class);
+
+	/**
+	 * Interval in which the outbox is checked for batches which were not announced via {@link #wake()}. This is the case for batches which were left over from
+	 * a previous run or which were written by other instances of the cluster.
+	 */
+	private static final long POLL_INTERVAL = 1000;
+
+	/**
+	 * Maximum delay between two attempts to process the outbox after a failure.
+	 */
+	private static final long MAX_RETRY_DELAY = 30_000;
+
+	/**
+	 * Maximum amount of outbox batches which are processed together.
+	 */
+	private static final int DRAIN_LIMIT = 100;
+
+	private final Meter batches = MeshMetrics.meter("search", "outbox", "batches");
+
+	private final Histogram lag = MeshMetrics.histogram("search", "outbox", "lag");
+
+	private final Counter dropped = MeshMetrics.counter("search", "outbox", "dropped");
+
+	private final Counter failures = MeshMetrics.counter("search", "outbox", "failures");
+
+	private final Database db;
+
+	private final Lazy<IndexHandlerRegistry> registry;
+
+	private final Lazy<SearchProvider> searchProvider;
+
+	/**
+	 * Futures of requests which wait until the outbox batch with the given uuid has been processed.
+	 */
+	private final Map<String, CompletableFuture<Void>> waiters = new ConcurrentHashMap<>();
+
+	private final AtomicBoolean wakeScheduled = new AtomicBoolean(false);
+
+	private ScheduledExecutorService scheduler;
+
+	private int failedAttempts = 0;
+
+	private long notBefore = 0;
+
+	@Inject
+	public SearchOutbox(Database db, Lazy<IndexHandlerRegistry> registry, Lazy<SearchProvider> searchProvider) {
+		this.db = db;
+		this.registry = registry;
+		this.searchProvider = searchProvider;
+	}
+
+	/**
+	 * Check whether the write-behind mode has been enabled.
+	 *
+	 * @return
+	 */
+	public boolean isEnabled() {
+		return Mesh.mesh().getOptions().getSearchOptions().isWriteBehind();
+	}
+
+	/**
+	 * Start the background indexer. Batches which were left over from a previous run will be processed right away.
+	 */
+	public synchronized void start() {
+		if (scheduler != null || !isEnabled()) {
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "mesh-search-outbox");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::drain, 0, POLL_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop the background indexer. Batches which have not yet been processed will remain in the outbox.
+	 */
+	public synchronized void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+	/**
+	 * Notify the background indexer about new outbox batches.
+	 */
+	public synchronized void wake() {
+		if (scheduler != null && wakeScheduled.compareAndSet(false, true)) {
+			scheduler.execute(this::drain);
+		}
+	}
+
+	/**
+	 * Write the given entries to the outbox. This method must be invoked within the transaction which also contains the changes of the entries.
+	 *
+	 * @param entries
+	 * @return Uuid of the created outbox batch or null if the entries can't be written to the outbox and need to be processed directly
+	 */
+	public String write(List<? extends SearchQueueEntry> entries) {
+		JsonArray json = new JsonArray();
+		for (SearchQueueEntry entry : entries) {
+			if (entry instanceof UpdateDocumentEntryImpl) {
+				UpdateDocumentEntryImpl updateEntry = (UpdateDocumentEntryImpl) entry;
+				json.add(toJson(updateEntry.getElementAction(), updateEntry.getElementUuid(), updateEntry.getIndexHandler().getElementClass(), updateEntry
+						.getContext()));
+			} else if (entry instanceof MoveDocumentEntry) {
+				// The move is stored as a store entry for the new container and a delete entry for the old container. The containers themselves can't be
+				// referenced since the ids of new containers are only final after the commit.
+				MoveEntryContext context = ((MoveDocumentEntry) entry).getContext();
+				json.add(toJson(STORE_ACTION, context.getNewContainer(), context.getReleaseUuid(), context.getContainerType()));
+				json.add(toJson(DELETE_ACTION, context.getOldContainer(), context.getReleaseUuid(), context.getContainerType()));
+			} else {
+				// Index creation and removal must happen before the documents are processed and can't be deferred.
+				return null;
+			}
+		}
+		SearchOutboxBatch batch = Tx.getActive().getGraph().addFramedVertex(SearchOutboxBatchImpl.class);
+		batch.setEntries(json.encode());
+		batch.setCreated(System.currentTimeMillis());
+		return batch.getUuid();
+	}
+
+	/**
+	 * Wait until the outbox batches with the given uuids have been processed. The returned completable fails if the batches have not been processed within the
+	 * configured write-behind timeout. The batches will still be processed by the background indexer in that case.
+	 *
+	 * @param uuids
+	 * @return
+	 */
+	public Completable await(Collection<String> uuids) {
+		long timeout = Mesh.mesh().getOptions().getSearchOptions().getWriteBehindTimeout();
+		return awaitProcessing(uuids).timeout(timeout, TimeUnit.MILLISECONDS, Completable.error(() -> {
+			// Remove the futures of the batches which have not been processed in order to release them
+			for (String uuid : uuids) {
+				waiters.remove(uuid);
+			}
+			return error(SERVICE_UNAVAILABLE, "search_error_outbox_timeout", String.valueOf(timeout));
+		}));
+	}
+
+	private Completable awaitProcessing(Collection<String> uuids) {
+		return Completable.defer(() -> {
+			List<CompletableFuture<Void>> futures = new ArrayList<>();
+			for (String uuid : uuids) {
+				futures.add(waiters.computeIfAbsent(uuid, key -> new CompletableFuture<>()));
+			}
+			// Batches which have already been processed or which were rolled back will not be completed by the indexer
+			Set<String> pending = db.tx(() -> {
+				return uuids.stream().filter(uuid -> db.findVertex("uuid", uuid, SearchOutboxBatchImpl.class) != null).collect(Collectors.toSet());
+			});
+			for (String uuid : uuids) {
+				if (!pending.contains(uuid)) {
+					complete(uuid);
+				}
+			}
+			wake();
+			CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
+			return Completable.create(sub -> all.whenComplete((result, error) -> {
+				if (error == null) {
+					sub.onComplete();
+				} else if (!sub.isDisposed()) {
+					sub.onError(error);
+				}
+			}));
+		});
+	}
+
+	/**
+	 * Process the outbox batches until the outbox is empty or an error occurs.
+	 */
+	private void drain() {
+		wakeScheduled.set(false);
+		if (System.currentTimeMillis() < notBefore) {
+			return;
+		}
+		try {
+			while (drainOnce()) {
+				// Continue with the next batches
+			}
+			failedAttempts = 0;
+		} catch (Exception e) {
+			failures.inc();
+			failedAttempts++;
+			long delay = Math.min(MAX_RETRY_DELAY, POLL_INTERVAL << Math.min(failedAttempts, 5));
+			notBefore = System.currentTimeMillis() + delay;
+			log.error("Error while processing the search index outbox. Retrying in {" + delay + "} ms", e);
+		}
+	}
+
+	/**
+	 * Process the oldest outbox batches.
+	 *
+	 * @return Flag which indicates whether further outbox batches may be available
+	 */
+	private boolean drainOnce() {
+		List<Record> records = db.tx(() -> {
+			List<Record> list = new ArrayList<>();
+			// The sorted index returns the ids of the oldest batches without loading the whole outbox
+			for (Object id : db.vertexLookupAscending(SearchOutboxBatchImpl.class, SearchOutboxBatchImpl.CREATED_INDEX_NAME, DRAIN_LIMIT)) {
+				SearchOutboxBatchImpl batch = Tx.getActive().getGraph().getFramedVertexExplicit(SearchOutboxBatchImpl.class, id);
+				if (batch != null) {
+					list.add(new Record(batch.getId(), batch.getUuid(), batch.getCreated(), batch.getEntries()));
+				}
+			}
+			return list;
+		});
+		if (records.isEmpty()) {
+			return false;
+		}
+
+		List<SearchQueueEntry> entries = new ArrayList<>();
+		for (Record record : records) {
+			try {
+				entries.addAll(restore(record.entries));
+			} catch (Exception e) {
+				// The batch can never be processed. Keeping it would block the outbox.
+				dropped.inc();
+				log.error("Could not restore the entries of outbox batch {" + record.uuid + "}. Dropping the batch.", e);
+			}
+		}
+		process(entries).andThen(searchProvider.get().refreshIndex()).blockingAwait();
+
+		db.tx(() -> {
+			for (Record record : records) {
+				SearchOutboxBatchImpl batch = Tx.getActive().getGraph().getFramedVertexExplicit(SearchOutboxBatchImpl.class, record.id);
+				// The batch may already have been processed by another instance
+				if (batch != null) {
+					batch.remove();
+				}
+			}
+		});
+
+		long now = System.currentTimeMillis();
+		for (Record record : records) {
+			lag.update(now - record.created);
+			complete(record.uuid);
+		}
+		batches.mark(records.size());
+		if (log.isDebugEnabled()) {
+			log.debug("Processed {" + records.size() + "} outbox batches with {" + entries.size() + "} entries");
+		}
+		return records.size() == DRAIN_LIMIT;
+	}
+
+	/**
+	 * Process the entries in the order of their creation. Store and delete entries of multiple outbox batches which handle the same document are collapsed
+	 * and only the last entry is processed. Entries of different documents are processed concurrently so that they can be combined into bulk requests.
+	 *
+	 * @param entries
+	 * @return
+	 */
+	private Completable process(List<SearchQueueEntry> entries) {
+		Map<Object, SearchQueueEntry> collapsed = new LinkedHashMap<>();
+		for (SearchQueueEntry entry : entries) {
+			SearchQueueEntryAction action = entry.getElementAction();
+			Object key = entry;
+			if (entry instanceof UpdateDocumentEntry && (action == STORE_ACTION || action == DELETE_ACTION)) {
+				// The last store or delete entry for a document supersedes the previous ones
+				key = new ArrayList<>(((UpdateDocumentEntry) entry).getDocumentKey());
+				((List<?>) key).remove(action);
+			}
+			collapsed.remove(key);
+			collapsed.put(key, entry);
+		}
+
+		// Split the entries into groups which contain each element only once. The groups are processed one after another. Entries which can't be assigned
+		// to an element form a group of their own.
+		int concurrency = Mesh.mesh().getOptions().getSearchOptions().getBulkLimit();
+		List<Completable> groups = new ArrayList<>();
+		List<Completable> group = new ArrayList<>();
+		Set<String> elements = new HashSet<>();
+		for (SearchQueueEntry entry : collapsed.values()) {
+			String elementUuid = entry instanceof UpdateDocumentEntry ? ((UpdateDocumentEntry) entry).getElementUuid() : null;
+			if (!group.isEmpty() && (elementUuid == null || elements.contains(elementUuid))) {
+				groups.add(Completable.merge(Flowable.fromIterable(group), concurrency));
+				group = new ArrayList<>();
+				elements.clear();
+			}
+			group.add(process(entry));
+			if (elementUuid == null) {
+				groups.add(group.get(0));
+				group = new ArrayList<>();
+			} else {
+				elements.add(elementUuid);
+			}
+		}
+		if (!group.isEmpty()) {
+			groups.add(Completable.merge(Flowable.fromIterable(group), concurrency));
+		}
+		return Completable.concat(groups);
+	}
+
+	/**
+	 * Process the entry. Errors which are caused by the state of the graph (e.g. the element has been deleted in the meantime) will not be resolved by a retry
+	 * and are thus only logged.
+	 *
+	 * @param entry
+	 * @return
+	 */
+	private Completable process(SearchQueueEntry entry) {
+		return Completable.defer(entry::process).onErrorResumeNext(error -> {
+			if (error instanceof GenericRestException) {
+				dropped.inc();
+				log.warn("Skipping outbox entry {" + entry + "}", error);
+				return Completable.complete();
+			}
+			return Completable.error(error);
+		});
+	}
+
+	private void complete(String uuid) {
+		CompletableFuture<Void> future = waiters.remove(uuid);
+		if (future != null) {
+			future.complete(null);
+		}
+	}
+
+	private JsonObject toJson(SearchQueueEntryAction action, NodeGraphFieldContainer container, String releaseUuid, ContainerType type) {
+		Node node = container.getParentNode();
+		GenericEntryContextImpl context = new GenericEntryContextImpl();
+		context.setContainerType(type);
+		context.setReleaseUuid(releaseUuid);
+		context.setProjectUuid(node.getProject().getUuid());
+		context.setLanguageTag(container.getLanguage().getLanguageTag());
+		context.setSchemaContainerVersionUuid(container.getSchemaContainerVersion().getUuid());
+		return toJson(action, node.getUuid(), Node.class, context);
+	}
+
+	private JsonObject toJson(SearchQueueEntryAction action, String elementUuid, Class<?> elementClass, GenericEntryContext context) {
+		JsonObject json = new JsonObject();
+		json.put("action", action.name());
+		json.put("elementUuid", elementUuid);
+		json.put("elementClass", elementClass.getName());
+		json.put("projectUuid", context.getProjectUuid());
+		json.put("releaseUuid", context.getReleaseUuid());
+		json.put("languageTag", context.getLanguageTag());
+		json.put("schemaContainerVersionUuid", context.getSchemaContainerVersionUuid());
+		json.put("oldContainerUuid", context.getOldContainerUuid());
+		json.put("newContainerUuid", context.getNewContainerUuid());
+		json.put("contextElementUuid", context.getElementUuid());
+		if (context.getContainerType() != null) {
+			json.put("containerType", context.getContainerType().name());
+		}
+		return json;
+	}
+
+	private List<SearchQueueEntry> restore(String entries) throws ClassNotFoundException {
+		List<SearchQueueEntry> list = new ArrayList<>();
+		for (Object element : new JsonArray(entries)) {
+			JsonObject json = (JsonObject) element;
+			GenericEntryContextImpl context = new GenericEntryContextImpl();
+			context.setProjectUuid(json.getString("projectUuid"));
+			context.setReleaseUuid(json.getString("releaseUuid"));
+			context.setLanguageTag(json.getString("languageTag"));
+			context.setSchemaContainerVersionUuid(json.getString("schemaContainerVersionUuid"));
+			context.setOldContainerUuid(json.getString("oldContainerUuid"));
+			context.setNewContainerUuid(json.getString("newContainerUuid"));
+			context.setElementUuid(json.getString("contextElementUuid"));
+			String type = json.getString("containerType");
+			if (type != null) {
+				context.setContainerType(ContainerType.valueOf(type));
+			}
+			Class<?> elementClass = Class.forName(json.getString("elementClass"));
+			SearchQueueEntryAction action = SearchQueueEntryAction.valueOf(json.getString("action"));
+			list.add(new UpdateDocumentEntryImpl(registry.get().getForClass(elementClass), json.getString("elementUuid"), context, action));
+		}
+		return list;
+	}
+
+	/**
+	 * Outbox batch which was loaded by the background indexer.
+	 */
+	private static class Record {
+
+		private final Object id;
+
+		private final String uuid;
+
+		private final long created;
+
+		private final String entries;
+
+		Record(Object id, String uuid, Long created, String entries) {
+			this.id = id;
+			this.uuid = uuid;
+			this.created = created == null ? 0 : created;
+			this.entries = entries;
+		}
+
+	}
+
+}
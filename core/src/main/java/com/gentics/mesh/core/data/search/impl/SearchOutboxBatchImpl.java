@@ -0,0 +1,24 @@
+package com.gentics.mesh.core.data.search.impl;
+
+import static com.gentics.mesh.graphdb.spi.FieldType.LONG;
+
+import com.gentics.mesh.core.data.generic.MeshVertexImpl;
+import com.gentics.mesh.core.data.search.SearchOutboxBatch;
+import com.gentics.mesh.graphdb.spi.Database;
+
+/**
+ * @see SearchOutboxBatch
+ */
+public class SearchOutboxBatchImpl extends MeshVertexImpl implements SearchOutboxBatch {
+
+	/**
+	 * Name of the sorted index which is used to load the oldest outbox batches.
+	 */
+	public static final String CREATED_INDEX_NAME = "searchOutboxBatchCreated";
+
+	public static void init(Database database) {
+		database.addVertexType(SearchOutboxBatchImpl.class, MeshVertexImpl.class);
+		database.addSortedVertexIndex(CREATED_INDEX_NAME, SearchOutboxBatchImpl.class, CREATED_PROPERTY_KEY, LONG);
+	}
+
+}
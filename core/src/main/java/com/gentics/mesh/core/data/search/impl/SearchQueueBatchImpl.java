@@ -6,13 +6,17 @@ import static com.gentics.mesh.core.rest.error.Errors.error;
 import static io.netty.handler.codec.http.HttpResponseStatus.INTERNAL_SERVER_ERROR;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
+import com.gentics.mesh.Mesh;
 import com.gentics.mesh.core.data.ContainerType;
 import com.gentics.mesh.core.data.IndexableElement;
 import com.gentics.mesh.core.data.NodeGraphFieldContainer;
@@ -32,6 +36,8 @@ import com.gentics.mesh.core.data.search.context.MoveEntryContext;
 import com.gentics.mesh.core.data.search.context.impl.GenericEntryContextImpl;
 import com.gentics.mesh.core.data.search.context.impl.MoveEntryContextImpl;
 import com.gentics.mesh.core.rest.schema.Schema;
+import com.gentics.mesh.graphdb.spi.CommitHooks;
+import com.gentics.mesh.parameter.ParameterProviderContext;
 import com.gentics.mesh.search.IndexHandlerRegistry;
 import com.gentics.mesh.search.SearchProvider;
 import com.gentics.mesh.search.index.common.CreateIndexEntryImpl;
@@ -44,7 +50,7 @@ import com.gentics.mesh.search.index.tag.TagIndexHandler;
 import com.gentics.mesh.search.index.tagfamily.TagFamilyIndexHandler;
 
 import io.reactivex.Completable;
-import io.reactivex.Observable;
+import io.reactivex.Flowable;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 
@@ -56,6 +62,23 @@ public class SearchQueueBatchImpl implements SearchQueueBatch {
 	private String batchId;
 	private List<SearchQueueEntry> entries = new ArrayList<>();
 
+	/**
+	 * Uuids of the outbox batches to which the entries of this batch have been written.
+	 */
+	private List<String> outboxUuids = new ArrayList<>();
+
+	/**
+	 * Scope of the transaction in which the entries will be written to the outbox.
+	 */
+	private Object outboxScope;
+
+	/**
+	 * Flag which is set once the batch contains entries which can't be written to the outbox.
+	 */
+	private boolean outboxDisabled = false;
+
+	private boolean waitForIndex = false;
+
 	private static final Logger log = LoggerFactory.getLogger(SearchQueueBatchImpl.class);
 
 	@Inject
@@ -76,6 +99,9 @@ public class SearchQueueBatchImpl implements SearchQueueBatch {
 	@Inject
 	SearchProvider searchProvider;
 
+	@Inject
+	SearchOutbox outbox;
+
 	@Inject
 	public SearchQueueBatchImpl() {
 	}
@@ -215,9 +241,42 @@ public class SearchQueueBatchImpl implements SearchQueueBatch {
 	@Override
 	public SearchQueueEntry addEntry(SearchQueueEntry entry) {
 		entries.add(entry);
+		// In write-behind mode the entries are written to the outbox along with the changes of the current transaction
+		if (!outboxDisabled && CommitHooks.isActive() && outbox.isEnabled()) {
+			Object scope = CommitHooks.currentScope();
+			if (scope != outboxScope) {
+				outboxScope = scope;
+				CommitHooks.registerBeforeCommit(this::writeOutbox);
+			}
+		}
 		return entry;
 	}
 
+	/**
+	 * Write the entries to the outbox. The entries will be processed by the background indexer once the transaction has been committed. The entries are only
+	 * removed from the batch after the commit. The entries of a transaction which was rolled back thus remain in the batch and will be written again by the
+	 * retried transaction or processed directly.
+	 */
+	private void writeOutbox() {
+		outboxScope = null;
+		if (outboxDisabled || entries.isEmpty()) {
+			return;
+		}
+		List<SearchQueueEntry> written = new ArrayList<>(entries);
+		String uuid = outbox.write(written);
+		if (uuid == null) {
+			// The batch contains entries which must be processed directly. The following entries must not overtake them.
+			outboxDisabled = true;
+			return;
+		}
+		CommitHooks.register(() -> {
+			Set<SearchQueueEntry> writtenEntries = Collections.newSetFromMap(new IdentityHashMap<>());
+			writtenEntries.addAll(written);
+			entries.removeIf(writtenEntries::contains);
+			outboxUuids.add(uuid);
+		});
+	}
+
 	@Override
 	public List<? extends SearchQueueEntry> getEntries() {
 		entries.sort((o1, o2) -> o1.getElementAction().compareTo(o2.getElementAction()));
@@ -244,9 +303,21 @@ public class SearchQueueBatchImpl implements SearchQueueBatch {
 
 	@Override
 	public Completable processAsync() {
+		return processAsync(true);
+	}
+
+	@Override
+	public Completable processAsync(ParameterProviderContext ac) {
+		waitForIndex = ac.getSearchParameters().isWaitForIndex();
+		return processAsync();
+	}
+
+	@Override
+	public Completable processAsync(boolean refresh) {
 		return Completable.defer(() -> {
 			// Process the batch
 			Completable obs = Completable.complete();
+			boolean hasEntries = !entries.isEmpty();
 			List<? extends SearchQueueEntry> nonStoreEntries = getEntries().stream().filter(i -> i.getElementAction() != STORE_ACTION).collect(
 					Collectors.toList());
 
@@ -256,23 +327,31 @@ public class SearchQueueBatchImpl implements SearchQueueBatch {
 			if (!nonStoreEntries.isEmpty()) {
 				obs = Completable.concat(nonStoreEntries.stream().map(entry -> entry.process()).collect(Collectors.toList()));
 			}
-			AtomicLong counter = new AtomicLong();
 			if (!storeEntries.isEmpty()) {
-				List<Completable> entryList = storeEntries.stream().map(entry -> entry.process()).collect(Collectors.toList());
-				// Handle all entries sequentially since some entries create entries and those need to be executed first
-				int batchSize = 8;
-				long totalBatchCount = entryList.size() / batchSize + 1;
-				Observable<Completable> obs2 = Observable.fromIterable(entryList);
-				Observable<List<Completable>> buffers = obs2.buffer(batchSize);
-				// First ensure that the non-store events are processed before handling the store batches
-				obs = obs.andThen(buffers.map(i -> Completable.merge(i).doOnComplete(() -> {
-					if (totalBatchCount > 0) {
-						log.info("Search queue entry batch completed {" + counter.incrementAndGet() + "/" + totalBatchCount + "}");
+				// Entries which store the same documents only need to be processed once
+				Set<List<Object>> storedDocuments = new HashSet<>();
+				List<Completable> entryList = storeEntries.stream().filter(entry -> !(entry instanceof UpdateDocumentEntry) || storedDocuments.add(
+						((UpdateDocumentEntry) entry).getDocumentKey())).map(entry -> entry.process()).collect(Collectors.toList());
+				// The documents are sent to the search provider concurrently so that they can be combined into bulk requests. The concurrency is limited
+				// to the bulk size in order to limit the amount of documents which are held in memory.
+				int concurrency = Mesh.mesh().getOptions().getSearchOptions().getBulkLimit();
+				// First ensure that the non-store events are processed before handling the store entries
+				obs = obs.andThen(Completable.merge(Flowable.fromIterable(entryList), concurrency).doOnComplete(() -> {
+					if (log.isDebugEnabled()) {
+						log.debug("Processed {" + entryList.size() + "} store entries of batch {" + batchId + "}");
 					}
-				})).toList().flatMapCompletable(it -> Completable.concat(it)));
+				}));
 			}
 
-			return obs.andThen(searchProvider.refreshIndex()).doOnComplete(() -> {
+			// Entries which were written to the outbox are refreshed by the background indexer
+			if (refresh && (hasEntries || outboxUuids.isEmpty())) {
+				obs = obs.andThen(searchProvider.refreshIndex());
+			}
+			if (!outboxUuids.isEmpty()) {
+				List<String> uuids = new ArrayList<>(outboxUuids);
+				obs = obs.andThen(waitForIndex ? outbox.await(uuids) : Completable.fromAction(outbox::wake));
+			}
+			return obs.doOnComplete(() -> {
 				if (log.isDebugEnabled()) {
 					log.debug("Handled all search queue items.");
 				}
@@ -301,6 +380,12 @@ public class SearchQueueBatchImpl implements SearchQueueBatch {
 		processSync(120, TimeUnit.SECONDS);
 	}
 
+	@Override
+	public void processSync(ParameterProviderContext ac) {
+		waitForIndex = ac.getSearchParameters().isWaitForIndex();
+		processSync();
+	}
+
 	@Override
 	public void clear() {
 		entries.clear();
@@ -1,7 +1,12 @@
 package com.gentics.mesh.core.data.service;
 
+import static com.gentics.mesh.core.rest.error.Errors.error;
+import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
+
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Stack;
 
@@ -9,14 +14,22 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import com.gentics.mesh.context.InternalActionContext;
+import com.gentics.mesh.core.cache.WebRootPathTrie;
 import com.gentics.mesh.core.data.ContainerType;
 import com.gentics.mesh.core.data.NodeGraphFieldContainer;
 import com.gentics.mesh.core.data.Project;
+import com.gentics.mesh.core.data.Release;
 import com.gentics.mesh.core.data.container.impl.NodeGraphFieldContainerImpl;
 import com.gentics.mesh.core.data.node.Node;
+import com.gentics.mesh.core.data.node.field.BinaryGraphField;
+import com.gentics.mesh.core.data.node.field.StringGraphField;
+import com.gentics.mesh.core.rest.error.GenericRestException;
 import com.gentics.mesh.graphdb.spi.Database;
 import com.gentics.mesh.path.Path;
 import com.gentics.mesh.path.PathSegment;
+import com.syncleus.ferma.FramedGraph;
+import com.syncleus.ferma.tx.Tx;
+import com.tinkerpop.blueprints.Vertex;
 
 @Singleton
 public class WebRootServiceImpl implements WebRootService {
@@ -31,10 +44,11 @@ public class WebRootServiceImpl implements WebRootService {
 	@Override
 	public Path findByProjectPath(InternalActionContext ac, String path) {
 		Project project = ac.getProject();
+		Release release = ac.getRelease();
 
 		// First try to locate the content via the url path index
 		ContainerType type = ContainerType.forVersion(ac.getVersioningParameters().getVersion());
-		NodeGraphFieldContainer containerByWebUrlPath = findByPath(ac.getRelease().getUuid(), path, type);
+		NodeGraphFieldContainer containerByWebUrlPath = findByPath(release.getUuid(), path, type);
 		if (containerByWebUrlPath != null) {
 			return containerByWebUrlPath.getPath(ac);
 		}
@@ -55,13 +69,150 @@ public class WebRootServiceImpl implements WebRootService {
 		// Prepare the stack which we use for resolving
 		String sanitizedPath = path.replaceAll("^/+", "");
 		String[] elements = sanitizedPath.split("\\/");
+
+		// The trie of the release can only be used once all nodes have been migrated to the release
+		WebRootPathTrie trie = null;
+		long generation = WebRootPathTrie.generation();
+		if (release.isMigrated()) {
+			trie = WebRootPathTrie.get(release.getUuid(), type, () -> loadTrie(release.getUuid(), type, baseNode));
+			Path trieNodePath = resolveByTrie(trie, release.getUuid(), type, baseNode, path, elements);
+			if (trieNodePath != null) {
+				return trieNodePath;
+			}
+		}
+
 		List<String> list = Arrays.asList(elements);
 		Stack<String> stack = new Stack<String>();
 		Collections.reverse(list);
 		stack.addAll(list);
 
 		// Traverse the graph and buildup the result path while doing so
-		return baseNode.resolvePath(ac.getRelease().getUuid(), ContainerType.forVersion(ac.getVersioningParameters().getVersion()), nodePath, stack);
+		try {
+			return baseNode.resolvePath(release.getUuid(), type, nodePath, stack);
+		} catch (GenericRestException e) {
+			if (trie != null && e.getStatus() == NOT_FOUND) {
+				// Remember the segment which could not be found so that the next request does not need to check the children in the graph again
+				int resolvedSegments = nodePath.getSegments().size();
+				String parentUuid = resolvedSegments == 0 ? baseNode.getUuid() : nodePath.getLast().getContainer().getParentNode().getUuid();
+				trie.addMissing(parentUuid, elements[resolvedSegments], generation);
+			}
+			throw e;
+		} finally {
+			if (trie != null) {
+				// The segments were not found in the trie although they exist. The trie is outdated and will be repaired using the resolved segments.
+				repairTrie(release.getUuid(), type, baseNode, nodePath);
+			}
+		}
+	}
+
+	/**
+	 * Store the webroot path info of the resolved segments in the trie of the release.
+	 *
+	 * @param releaseUuid
+	 * @param type
+	 * @param baseNode
+	 * @param resolvedPath
+	 */
+	private void repairTrie(String releaseUuid, ContainerType type, Node baseNode, Path resolvedPath) {
+		String parentUuid = baseNode.getUuid();
+		for (PathSegment segment : resolvedPath.getSegments()) {
+			NodeGraphFieldContainer container = segment.getContainer();
+			String nodeUuid = container.getParentNode().getUuid();
+			WebRootPathTrie.updateLocally(releaseUuid, type, new WebRootPathTrie.Entry(database.toNumericId(container.getId()), nodeUuid, parentUuid,
+					container.getLanguage().getLanguageTag(), container.getSegmentFieldValue()));
+			parentUuid = nodeUuid;
+		}
+	}
+
+	/**
+	 * Resolve the path using the webroot path trie of the release.
+	 *
+	 * @param trie
+	 * @param releaseUuid
+	 * @param type
+	 * @param baseNode
+	 * @param path
+	 * @param segments
+	 * @return Resolved path or null if the path could not be resolved using the trie
+	 */
+	private Path resolveByTrie(WebRootPathTrie trie, String releaseUuid, ContainerType type, Node baseNode, String path, String[] segments) {
+		FramedGraph graph = Tx.getActive().getGraph();
+		Path nodePath = new Path();
+		nodePath.setTargetPath(path);
+		String parentUuid = baseNode.getUuid();
+		for (String segment : segments) {
+			WebRootPathTrie.Entry entry = trie.find(parentUuid, segment);
+			if (entry == null) {
+				if (trie.isMissing(parentUuid, segment)) {
+					throw error(NOT_FOUND, "node_not_found_for_path", path);
+				}
+				// The trie may miss paths which were created by other instances. Only the graph can tell whether the path exists.
+				return null;
+			}
+			Vertex vertex = graph.getVertex(database.fromNumericId(entry.getContainerId()));
+			PathSegment pathSegment = null;
+			if (vertex != null) {
+				pathSegment = getSegment(graph.frameElementExplicit(vertex, NodeGraphFieldContainerImpl.class), segment);
+			}
+			if (pathSegment == null) {
+				// The container was modified without updating the trie. Only the outdated entry is dropped and the path is resolved using the graph.
+				WebRootPathTrie.removeLocally(releaseUuid, type, entry.getContainerId());
+				return null;
+			}
+			nodePath.addSegment(pathSegment);
+			parentUuid = entry.getNodeUuid();
+		}
+		return nodePath;
+	}
+
+	/**
+	 * Create the path segment for the container if the segment field of the container matches the given segment.
+	 *
+	 * @param container
+	 * @param segment
+	 * @return Path segment or null if the segment does not match
+	 */
+	private PathSegment getSegment(NodeGraphFieldContainer container, String segment) {
+		String segmentFieldName = container.getSchemaContainerVersion().getSchema().getSegmentField();
+		if (segmentFieldName == null) {
+			return null;
+		}
+		StringGraphField field = container.getString(segmentFieldName);
+		if (field != null && segment.equals(field.getString())) {
+			return new PathSegment(container, field, container.getLanguage().getLanguageTag());
+		}
+		BinaryGraphField binaryField = container.getBinary(segmentFieldName);
+		if (binaryField != null && segment.equals(binaryField.getFileName())) {
+			return new PathSegment(container, binaryField, container.getLanguage().getLanguageTag());
+		}
+		return null;
+	}
+
+	/**
+	 * Load the webroot path trie of the release by traversing the node tree of the project.
+	 *
+	 * @param releaseUuid
+	 * @param type
+	 * @param baseNode
+	 * @return
+	 */
+	private WebRootPathTrie loadTrie(String releaseUuid, ContainerType type, Node baseNode) {
+		WebRootPathTrie trie = new WebRootPathTrie(baseNode.getUuid());
+		Deque<Node> parents = new ArrayDeque<>();
+		parents.add(baseNode);
+		while (!parents.isEmpty()) {
+			Node parent = parents.poll();
+			String parentUuid = parent.getUuid();
+			for (Node child : parent.getChildren(releaseUuid)) {
+				String childUuid = child.getUuid();
+				for (NodeGraphFieldContainer container : child.getGraphFieldContainers(releaseUuid, type)) {
+					trie.add(new WebRootPathTrie.Entry(database.toNumericId(container.getId()), childUuid, parentUuid, container.getLanguage()
+							.getLanguageTag(), container.getSegmentFieldValue()));
+				}
+				parents.add(child);
+			}
+		}
+		return trie;
 	}
 
 	@Override
@@ -55,6 +55,7 @@ public class AdminEndpoint extends AbstractEndpoint {
 		addRestoreHandler();
 		addClusterStatusHandler();
 		addConsistencyCheckHandler();
+		addMetricsHandler();
 		// addImportHandler();
 		// addExportHandler();
 		// addVerticleHandler();
@@ -76,6 +77,18 @@ public class AdminEndpoint extends AbstractEndpoint {
 
 	}
 
+	private void addMetricsHandler() {
+		EndpointRoute endpoint = createEndpoint();
+		endpoint.path("/metrics");
+		endpoint.method(GET);
+		endpoint.description("Returns a snapshot of the internal metrics (e.g. cache hit rates) of the Gentics Mesh instance.");
+		endpoint.produces(APPLICATION_JSON);
+		endpoint.exampleResponse(OK, "Metrics snapshot.");
+		endpoint.handler(rc -> {
+			adminHandler.handleMetrics(new InternalRoutingActionContextImpl(rc));
+		});
+	}
+
 	private void addConsistencyCheckHandler() {
 		EndpointRoute endpoint = createEndpoint();
 		endpoint.path("/consistency/check");
@@ -22,6 +22,7 @@ import com.gentics.mesh.core.rest.admin.status.MeshStatusResponse;
 import com.gentics.mesh.core.verticle.handler.AbstractHandler;
 import com.gentics.mesh.etc.config.MeshOptions;
 import com.gentics.mesh.graphdb.spi.Database;
+import com.gentics.mesh.metric.MeshMetrics;
 import com.syncleus.ferma.tx.Tx;
 
 import io.vertx.core.logging.Logger;
@@ -131,6 +132,20 @@ public class AdminHandler extends AbstractHandler {
 		}
 	}
 
+	/**
+	 * Return a snapshot of the collected metrics.
+	 * 
+	 * @param ac
+	 */
+	public void handleMetrics(InternalActionContext ac) {
+		db.asyncTx(() -> {
+			if (!ac.getUser().hasAdminRole()) {
+				throw error(FORBIDDEN, "error_admin_permission_required");
+			}
+			return Single.just(MeshMetrics.toJson().encodePrettily());
+		}).subscribe(json -> ac.send(json, OK), ac::fail);
+	}
+
 	public void handleClusterStatus(InternalActionContext ac) {
 		db.asyncTx(() -> {
 			if (!ac.getUser().hasAdminRole()) {
@@ -50,7 +50,7 @@ public class JobHandler extends AbstractCrudHandler<Job, JobResponse> {
 
 	@Override
 	public void handleReadList(InternalActionContext ac) {
-		utils.asyncTx(ac, (tx) -> {
+		utils.asyncTxJson(ac, (tx) -> {
 			if (!ac.getUser().hasAdminRole()) {
 				throw error(FORBIDDEN, "error_admin_permission_required");
 			}
@@ -65,9 +65,9 @@ public class JobHandler extends AbstractCrudHandler<Job, JobResponse> {
 			if (ac.matches(etag, true)) {
 				throw new NotModifiedException();
 			} else {
-				return page.transformToRest(ac, 0).blockingGet();
+				return page.transformToJson(ac, 0);
 			}
-		}, (e) -> ac.send(e, OK));
+		}, OK);
 	}
 
 	@Override
@@ -53,6 +53,23 @@ public interface MigrationStatusHandler {
 	 */
 	void setCompletionCount(long completionCount);
 
+	/**
+	 * Increment the completion count.
+	 */
 	void incCompleted();
 
+	/**
+	 * Return the checkpoint which was recorded by a previous run of the migration.
+	 * 
+	 * @return Checkpoint or null if the migration has not recorded a checkpoint yet
+	 */
+	Long getCheckpoint();
+
+	/**
+	 * Set the checkpoint which will be stored in the job with the next commit. A restarted migration can use the checkpoint to resume where it left off.
+	 * 
+	 * @param checkpoint
+	 */
+	void setCheckpoint(Long checkpoint);
+
 }
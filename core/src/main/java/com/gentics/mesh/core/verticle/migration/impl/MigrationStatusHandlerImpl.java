@@ -41,10 +41,17 @@ public class MigrationStatusHandlerImpl implements MigrationStatusHandler {
 
 	private MigrationStatus status;
 
+	private Long checkpoint;
+
 	public MigrationStatusHandlerImpl(Job job, Vertx vertx, MigrationType type) {
 		this.vertx = vertx;
 		this.job = job;
 		status = job.getStatus();
+		checkpoint = job.getCheckpoint();
+		// Continue counting when resuming an interrupted migration
+		if (checkpoint != null) {
+			completionCount = job.getCompletionCount();
+		}
 	}
 
 	@Override
@@ -53,6 +60,7 @@ public class MigrationStatusHandlerImpl implements MigrationStatusHandler {
 			versionEdge.setMigrationStatus(status);
 		}
 		job.setCompletionCount(completionCount);
+		job.setCheckpoint(checkpoint);
 		job.setStatus(status);
 
 		Tx.getActive().getGraph().commit();
@@ -89,6 +97,7 @@ public class MigrationStatusHandlerImpl implements MigrationStatusHandler {
 	 */
 	public MigrationStatusHandler done() {
 		setStatus(COMPLETED);
+		setCheckpoint(null);
 		log.info("Migration completed without errors.");
 		JsonObject result = new JsonObject().put("type", "completed");
 		vertx.eventBus().publish(MESH_MIGRATION, result);
@@ -139,4 +148,14 @@ public class MigrationStatusHandlerImpl implements MigrationStatusHandler {
 		completionCount++;
 	}
 
+	@Override
+	public Long getCheckpoint() {
+		return checkpoint;
+	}
+
+	@Override
+	public void setCheckpoint(Long checkpoint) {
+		this.checkpoint = checkpoint;
+	}
+
 }
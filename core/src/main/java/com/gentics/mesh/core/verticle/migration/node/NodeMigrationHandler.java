@@ -2,35 +2,56 @@ package com.gentics.mesh.core.verticle.migration.node;
 
 import static com.gentics.mesh.core.data.ContainerType.DRAFT;
 import static com.gentics.mesh.core.data.ContainerType.PUBLISHED;
+import static com.gentics.mesh.core.data.relationship.GraphRelationships.HAS_SCHEMA_CONTAINER;
 import static com.gentics.mesh.core.rest.admin.migration.MigrationStatus.RUNNING;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.gentics.mesh.Mesh;
 import com.gentics.mesh.context.impl.NodeMigrationActionContextImpl;
 import com.gentics.mesh.core.data.NodeGraphFieldContainer;
 import com.gentics.mesh.core.data.Project;
 import com.gentics.mesh.core.data.Release;
+import com.gentics.mesh.core.data.container.impl.NodeGraphFieldContainerImpl;
+import com.gentics.mesh.core.data.impl.ReleaseImpl;
 import com.gentics.mesh.core.data.node.Node;
+import com.gentics.mesh.core.data.node.impl.NodeImpl;
 import com.gentics.mesh.core.data.schema.SchemaContainerVersion;
+import com.gentics.mesh.core.data.schema.impl.SchemaContainerVersionImpl;
 import com.gentics.mesh.core.data.search.SearchQueue;
 import com.gentics.mesh.core.data.search.SearchQueueBatch;
+import com.gentics.mesh.core.data.search.SearchQueueEntry;
 import com.gentics.mesh.core.rest.node.NodeResponse;
 import com.gentics.mesh.core.rest.node.NodeUpdateRequest;
 import com.gentics.mesh.core.rest.schema.SchemaModel;
 import com.gentics.mesh.core.verticle.migration.AbstractMigrationHandler;
 import com.gentics.mesh.core.verticle.migration.MigrationStatusHandler;
 import com.gentics.mesh.core.verticle.node.BinaryFieldHandler;
+import com.gentics.mesh.etc.config.MigrationOptions;
 import com.gentics.mesh.graphdb.spi.Database;
+import com.gentics.mesh.search.SearchProvider;
 import com.gentics.mesh.util.Tuple;
 import com.gentics.mesh.util.VersionNumber;
+import com.syncleus.ferma.FramedGraph;
 import com.syncleus.ferma.tx.Tx;
 
 import io.reactivex.Completable;
@@ -46,13 +67,29 @@ public class NodeMigrationHandler extends AbstractMigrationHandler {
 
 	private static final Logger log = LoggerFactory.getLogger(NodeMigrationHandler.class);
 
+	/**
+	 * Amount of chunks per worker which are loaded within one page.
+	 */
+	private static final int PAGE_CHUNKS_PER_WORKER = 4;
+
+	private final SearchProvider searchProvider;
+
+	private ExecutorService workers;
+
 	@Inject
-	public NodeMigrationHandler(Database db, SearchQueue searchQueue, BinaryFieldHandler nodeFieldAPIHandler) {
+	public NodeMigrationHandler(Database db, SearchQueue searchQueue, BinaryFieldHandler nodeFieldAPIHandler, SearchProvider searchProvider) {
 		super(db, searchQueue, nodeFieldAPIHandler);
+		this.searchProvider = searchProvider;
 	}
 
 	/**
 	 * Migrate all nodes of a release referencing the given schema container to the latest version of the schema.
+	 * 
+	 * The containers are loaded in pages which are ordered by the id of their node. The nodes of the schema are read via a range lookup on the in/out index of
+	 * the schema container edges which starts right after the last node of the previous page. The containers of a page are partitioned into chunks which are migrated
+	 * in parallel by the shared pool of migration workers. Each chunk is migrated within a single transaction and the search index updates of the chunk are
+	 * sent as one batch. The search indices are refreshed once at the end of the migration. The last node of the chunks which have been migrated without
+	 * errors is recorded as checkpoint so that a restarted migration can resume where it left off. The checkpoint is not advanced past a failed chunk.
 	 *
 	 * @param project
 	 *            Specific project to handle
@@ -69,124 +106,309 @@ public class NodeMigrationHandler extends AbstractMigrationHandler {
 	public Completable migrateNodes(Project project, Release release, SchemaContainerVersion fromVersion, SchemaContainerVersion toVersion,
 			MigrationStatusHandler status) {
 
-		// Get the draft containers that need to be transformed. Containers which need to be transformed are those which are still linked to older schema
-		// versions. We'll work on drafts. The migration code will later on also handle publish versions.
-		Iterator<? extends NodeGraphFieldContainer> fieldContainers = fromVersion.getDraftFieldContainers(release.getUuid());
+		MigrationOptions options = Mesh.mesh().getOptions().getMigrationOptions();
 
 		// Prepare the migration - Collect the migration scripts
 		List<Tuple<String, List<Tuple<String, Object>>>> migrationScripts = new ArrayList<>();
 		Set<String> touchedFields = new HashSet<>();
+		String releaseUuid;
+		Object releaseId;
+		Object schemaContainerId;
+		Object fromVersionId;
+		Object toVersionId;
+		SchemaModel newSchema;
 		try (Tx tx = db.tx()) {
 			prepareMigration(fromVersion, migrationScripts, touchedFields);
+			releaseUuid = release.getUuid();
+			releaseId = release.getId();
+			schemaContainerId = fromVersion.getSchemaContainer().getId();
+			fromVersionId = fromVersion.getId();
+			toVersionId = toVersion.getId();
+			newSchema = toVersion.getSchema();
 		} catch (IOException e) {
 			return Completable.error(e);
 		}
 
-		NodeMigrationActionContextImpl ac = new NodeMigrationActionContextImpl();
-		ac.setProject(project);
-		ac.setRelease(release);
-
-		SchemaModel newSchema = toVersion.getSchema();
-
 		if (status != null) {
 			status.setStatus(RUNNING);
 			status.commit();
 		}
 
-		// Iterate over all containers and invoke a migration for each one
+		List<Exception> errorsDetected = Collections.synchronizedList(new ArrayList<>());
+		ExecutorService workers = getWorkers(options.getPoolSize());
+		int pageSize = options.getChunkSize() * options.getPoolSize() * PAGE_CHUNKS_PER_WORKER;
+		Long cursor = status == null ? null : status.getCheckpoint();
+		// The checkpoint must only be advanced as long as all previous chunks have been migrated without errors
+		boolean advanceCheckpoint = true;
 		long count = 0;
-		List<Exception> errorsDetected = new ArrayList<>();
-		while (fieldContainers.hasNext()) {
-			NodeGraphFieldContainer container = fieldContainers.next();
-			migrateContainer(ac, container, toVersion, migrationScripts, release, newSchema, errorsDetected, touchedFields);
+		while (true) {
+			Long pageCursor = cursor;
+			NavigableMap<Long, List<Long>> page = db.tx(() -> loadPage(schemaContainerId, fromVersionId, releaseUuid, pageCursor,
+					pageSize));
+			if (page.isEmpty()) {
+				break;
+			}
+			cursor = page.lastKey();
 
-			if (status != null) {
-				status.incCompleted();
+			// Submit the chunks of the page to the workers
+			List<List<long[]>> chunks = createChunks(page, options.getChunkSize());
+			List<Future<Boolean>> results = new ArrayList<>(chunks.size());
+			for (List<long[]> chunk : chunks) {
+				results.add(workers.submit(() -> migrateChunk(chunk, releaseId, toVersionId, migrationScripts, newSchema, errorsDetected, touchedFields)));
 			}
-			if (count % 50 == 0) {
-				log.info("Migrated containers: " + count);
-				if (status != null) {
-					status.commit();
+
+			// Wait for the chunks in order to track the progress. All nodes up to the last node of a chunk have been handled if the chunk and all previous
+			// chunks succeeded.
+			try {
+				for (int i = 0; i < chunks.size(); i++) {
+					List<long[]> chunk = chunks.get(i);
+					boolean success;
+					try {
+						success = results.get(i).get();
+					} catch (ExecutionException e) {
+						log.error("Error while migrating chunk {" + i + "}", e.getCause());
+						errorsDetected.add(e);
+						success = false;
+					}
+					advanceCheckpoint &= success;
+					count += chunk.size();
+					log.info("Migrated containers: " + count);
+					if (status != null) {
+						for (int n = 0; n < chunk.size(); n++) {
+							status.incCompleted();
+						}
+						if (advanceCheckpoint) {
+							status.setCheckpoint(chunk.get(chunk.size() - 1)[0]);
+						}
+						status.commit();
+					}
 				}
+			} catch (InterruptedException e) {
+				for (Future<Boolean> result : results) {
+					result.cancel(true);
+				}
+				Thread.currentThread().interrupt();
+				return Completable.error(e);
 			}
-			count++;
 		}
+
 		log.info("Migration of " + count + " containers done..");
 		log.info("Encountered {" + errorsDetected.size() + "} errors during node migration.");
 		// TODO prepare errors. They should be easy to understand and to grasp
-		Completable result = Completable.complete();
+		// Make the changes visible in the search index
+		Completable result = searchProvider.refreshIndex();
 		if (!errorsDetected.isEmpty()) {
 			if (log.isDebugEnabled()) {
 				for (Exception error : errorsDetected) {
 					log.error("Encountered migration error.", error);
 				}
 			}
-			result = Completable.error(new CompositeException(errorsDetected));
+			result = result.andThen(Completable.error(new CompositeException(errorsDetected)));
 		}
 
 		return result;
 	}
 
 	/**
-	 * Migrates the given container.
+	 * Load the next page of containers. The page contains the draft containers of the old version which belong to the nodes with the lowest ids which are
+	 * greater than the cursor. All containers of a node are always placed in the same page, since they need to be migrated together. The nodes are read in
+	 * the order of their ids via the in/out index of the schema container edges and the lookup directly starts after the cursor. Every node is thus only
+	 * read once during the migration.
 	 * 
-	 * @param ac
-	 * @param container
-	 *            Container to be migrated
-	 * @param toVersion
+	 * @param schemaContainerId
+	 *            Id of the schema container of the nodes
+	 * @param fromVersionId
+	 *            Id of the old version
+	 * @param releaseUuid
+	 * @param cursor
+	 *            Numeric id of the last node of the previous page, the checkpoint or null
+	 * @param pageSize
+	 *            Maximum amount of nodes within the page
+	 * @return Container ids per node id, ordered by the node id
+	 */
+	private NavigableMap<Long, List<Long>> loadPage(Object schemaContainerId, Object fromVersionId, String releaseUuid, Long cursor, int pageSize) {
+		FramedGraph graph = Tx.getActive().getGraph();
+		NavigableMap<Long, List<Long>> page = new TreeMap<>();
+		Object afterNodeId = cursor == null ? null : db.fromNumericId(cursor);
+		while (page.size() < pageSize) {
+			// Every node adds at most one entry to the page which thus can't exceed the page size
+			List<Object> nodeIds = db.inboundEdgeLookupAscending(HAS_SCHEMA_CONTAINER, schemaContainerId, afterNodeId, pageSize - page.size());
+			if (nodeIds == null) {
+				throw new IllegalStateException("The in/out index for edges {" + HAS_SCHEMA_CONTAINER + "} is missing");
+			}
+			if (nodeIds.isEmpty()) {
+				break;
+			}
+			for (Object nodeId : nodeIds) {
+				Node node = graph.getFramedVertexExplicit(NodeImpl.class, nodeId);
+				for (NodeGraphFieldContainer container : node.getGraphFieldContainers(releaseUuid, DRAFT)) {
+					if (fromVersionId.equals(container.getSchemaContainerVersion().getId())) {
+						page.computeIfAbsent(db.toNumericId(nodeId), id -> new ArrayList<>()).add(db.toNumericId(container.getId()));
+					}
+				}
+			}
+			afterNodeId = nodeIds.get(nodeIds.size() - 1);
+		}
+		return page;
+	}
+
+	/**
+	 * Partition the containers of the page into chunks. Containers of the same node are always placed in the same chunk.
+	 * 
+	 * @param page
+	 *            Container ids per node id
+	 * @param chunkSize
+	 * @return Chunks of node and container ids
+	 */
+	private List<List<long[]>> createChunks(NavigableMap<Long, List<Long>> page, int chunkSize) {
+		List<List<long[]>> chunks = new ArrayList<>();
+		List<long[]> chunk = new ArrayList<>();
+		for (Map.Entry<Long, List<Long>> entry : page.entrySet()) {
+			if (chunk.size() >= chunkSize) {
+				chunks.add(chunk);
+				chunk = new ArrayList<>();
+			}
+			for (Long containerId : entry.getValue()) {
+				chunk.add(new long[] { entry.getKey(), containerId });
+			}
+		}
+		if (!chunk.isEmpty()) {
+			chunks.add(chunk);
+		}
+		return chunks;
+	}
+
+	/**
+	 * Return the pool of migration workers which is shared by all node migrations. Idle workers are terminated. The queue of the pool is bounded. Chunks
+	 * which can't be queued are migrated by the submitting thread, which thus slows down until the workers catch up.
+	 * 
+	 * @param poolSize
+	 * @return
+	 */
+	private synchronized ExecutorService getWorkers(int poolSize) {
+		if (workers == null) {
+			AtomicInteger threadCount = new AtomicInteger();
+			ThreadFactory threadFactory = r -> {
+				Thread thread = new Thread(r, "mesh-migration-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			};
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(poolSize
+					* PAGE_CHUNKS_PER_WORKER), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+			pool.allowCoreThreadTimeOut(true);
+			workers = pool;
+		}
+		return workers;
+	}
+
+	/**
+	 * Migrate the containers of the chunk within a single transaction. If the transaction fails, the containers are migrated again using one transaction per
+	 * container in order to isolate the failing containers.
+	 * 
+	 * @param chunk
+	 *            Node and container ids
+	 * @param releaseId
+	 * @param toVersionId
 	 * @param migrationScripts
-	 * @param release
 	 * @param newSchema
 	 * @param errorsDetected
 	 * @param touchedFields
-	 * @return
+	 * @return true if all containers of the chunk have been migrated, otherwise false
 	 */
-	private void migrateContainer(NodeMigrationActionContextImpl ac, NodeGraphFieldContainer container, SchemaContainerVersion toVersion,
-			List<Tuple<String, List<Tuple<String, Object>>>> migrationScripts, Release release, SchemaModel newSchema, List<Exception> errorsDetected,
-			Set<String> touchedFields) {
-
-		if (log.isDebugEnabled()) {
-			log.debug("Migrating container {" + container.getUuid() + "}");
-		}
+	private boolean migrateChunk(List<long[]> chunk, Object releaseId, Object toVersionId, List<Tuple<String, List<Tuple<String, Object>>>> migrationScripts,
+			SchemaModel newSchema, List<Exception> errorsDetected, Set<String> touchedFields) {
+		SearchQueueBatch batch;
+		boolean success = true;
 		try {
-			// Run the actual migration in a dedicated transaction
-			SearchQueueBatch batch = db.tx((tx) -> {
+			batch = db.tx((tx) -> {
 				SearchQueueBatch sqb = searchQueue.create();
-
-				Node node = container.getParentNode();
-				String languageTag = container.getLanguage().getLanguageTag();
-				ac.getNodeParameters().setLanguages(languageTag);
-				ac.getVersioningParameters().setVersion("draft");
-				NodeGraphFieldContainer oldPublished = node.getGraphFieldContainer(languageTag, release.getUuid(), PUBLISHED);
-
-				VersionNumber nextDraftVersion = null;
-				// 1. Check whether there is any other published container which we need to handle separately
-				if (oldPublished != null && !oldPublished.equals(container)) {
-					// We only need to migrate the container if the container's schema version is also "old"
-					boolean hasSameOldSchemaVersion = container != null
-							&& container.getSchemaContainerVersion().getId().equals(container.getSchemaContainerVersion().getId());
-					if (hasSameOldSchemaVersion) {
-						nextDraftVersion = migratePublishedContainer(ac, sqb, release, node, container, toVersion, touchedFields, migrationScripts,
-								newSchema);
-						nextDraftVersion = nextDraftVersion.nextDraft();
+				for (long[] id : chunk) {
+					migrateContainer(tx, sqb, id[1], releaseId, toVersionId, migrationScripts, newSchema, touchedFields);
+				}
+				return sqb;
+			});
+		} catch (Exception e) {
+			log.warn("Error while migrating chunk of {" + chunk.size() + "} containers. Migrating the containers one by one.", e);
+			batch = searchQueue.create();
+			for (long[] id : chunk) {
+				try {
+					SearchQueueBatch containerBatch = db.tx((tx) -> {
+						SearchQueueBatch sqb = searchQueue.create();
+						migrateContainer(tx, sqb, id[1], releaseId, toVersionId, migrationScripts, newSchema, touchedFields);
+						return sqb;
+					});
+					for (SearchQueueEntry<?> entry : containerBatch.getEntries()) {
+						batch.addEntry(entry);
 					}
-
+				} catch (Exception e1) {
+					log.error("Error while handling container {" + id[1] + "} during schema migration.", e1);
+					errorsDetected.add(e1);
+					success = false;
 				}
+			}
+		}
 
-				// 2. Migrate the draft container. This will also update the draft edge.
-				migrateDraftContainer(ac, sqb, release, node, container, toVersion, touchedFields, migrationScripts, newSchema, nextDraftVersion);
+		// Process the search queue batch in order to update the search index. The indices will be refreshed once the migration is done.
+		batch.processAsync(false).blockingAwait();
+		return success;
+	}
 
-				return sqb;
-			});
-			// Process the search queue batch in order to update the search index
-			if (batch != null) {
-				batch.processSync();
+	/**
+	 * Migrates the given container.
+	 * 
+	 * @param tx
+	 *            Transaction of the chunk
+	 * @param sqb
+	 *            Batch to be updated to handle index changes
+	 * @param containerId
+	 *            Numeric id of the container to be migrated
+	 * @param releaseId
+	 * @param toVersionId
+	 * @param migrationScripts
+	 * @param newSchema
+	 * @param touchedFields
+	 * @throws Exception
+	 */
+	private void migrateContainer(Tx tx, SearchQueueBatch sqb, long containerId, Object releaseId, Object toVersionId,
+			List<Tuple<String, List<Tuple<String, Object>>>> migrationScripts, SchemaModel newSchema, Set<String> touchedFields) throws Exception {
+
+		FramedGraph graph = tx.getGraph();
+		Release release = graph.getFramedVertexExplicit(ReleaseImpl.class, releaseId);
+		SchemaContainerVersion toVersion = graph.getFramedVertexExplicit(SchemaContainerVersionImpl.class, toVersionId);
+		NodeGraphFieldContainer container = graph.getFramedVertexExplicit(NodeGraphFieldContainerImpl.class, db.fromNumericId(containerId));
+		if (container == null || !container.isDraft(release.getUuid())) {
+			// The container has been migrated in the meantime
+			return;
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Migrating container {" + container.getUuid() + "}");
+		}
+
+		NodeMigrationActionContextImpl ac = new NodeMigrationActionContextImpl();
+		ac.setProject(release.getProject());
+		ac.setRelease(release);
+
+		Node node = container.getParentNode();
+		String languageTag = container.getLanguage().getLanguageTag();
+		ac.getNodeParameters().setLanguages(languageTag);
+		ac.getVersioningParameters().setVersion("draft");
+		NodeGraphFieldContainer oldPublished = node.getGraphFieldContainer(languageTag, release.getUuid(), PUBLISHED);
+
+		VersionNumber nextDraftVersion = null;
+		// 1. Check whether there is any other published container which we need to handle separately
+		if (oldPublished != null && !oldPublished.equals(container)) {
+			// We only need to migrate the container if the container's schema version is also "old"
+			boolean hasSameOldSchemaVersion = container != null
+					&& container.getSchemaContainerVersion().getId().equals(container.getSchemaContainerVersion().getId());
+			if (hasSameOldSchemaVersion) {
+				nextDraftVersion = migratePublishedContainer(ac, sqb, release, node, container, toVersion, touchedFields, migrationScripts, newSchema);
+				nextDraftVersion = nextDraftVersion.nextDraft();
 			}
-		} catch (Exception e1) {
-			log.error("Error while handling container {" + container.getUuid() + "} during schema migration.", e1);
-			errorsDetected.add(e1);
+
 		}
 
+		// 2. Migrate the draft container. This will also update the draft edge.
+		migrateDraftContainer(ac, sqb, release, node, container, toVersion, touchedFields, migrationScripts, newSchema, nextDraftVersion);
 	}
 
 	/**
@@ -11,6 +11,7 @@ import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.gentics.mesh.core.cache.WebRootPathTrie;
 import com.gentics.mesh.core.data.Project;
 import com.gentics.mesh.core.data.Release;
 import com.gentics.mesh.core.data.impl.GraphFieldContainerEdgeImpl;
@@ -89,6 +90,8 @@ public class ReleaseMigrationHandler extends AbstractMigrationHandler {
 		db.tx(() -> {
 			newRelease.setMigrated(true);
 		});
+		// The webroot paths of the release will be loaded once the migration has been completed
+		WebRootPathTrie.invalidateRelease(newRelease.getUuid(), true);
 
 	}
 
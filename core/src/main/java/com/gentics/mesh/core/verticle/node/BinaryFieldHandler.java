@@ -11,10 +11,15 @@ import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
+import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -40,6 +45,7 @@ import com.gentics.mesh.core.image.spi.ImageInfo;
 import com.gentics.mesh.core.image.spi.ImageManipulator;
 import com.gentics.mesh.core.rest.error.GenericRestException;
 import com.gentics.mesh.core.rest.error.NodeVersionConflictException;
+import com.gentics.mesh.core.rest.node.NodeResponse;
 import com.gentics.mesh.core.rest.node.field.BinaryFieldTransformRequest;
 import com.gentics.mesh.core.rest.node.field.image.FocalPoint;
 import com.gentics.mesh.core.rest.schema.BinaryFieldSchema;
@@ -47,16 +53,19 @@ import com.gentics.mesh.core.rest.schema.FieldSchema;
 import com.gentics.mesh.core.verticle.handler.AbstractHandler;
 import com.gentics.mesh.etc.config.MeshUploadOptions;
 import com.gentics.mesh.graphdb.spi.Database;
-import com.gentics.mesh.handler.ActionContext;
 import com.gentics.mesh.json.JsonUtil;
+import com.gentics.mesh.metric.MeshMetrics;
 import com.gentics.mesh.parameter.ImageManipulationParameters;
 import com.gentics.mesh.parameter.image.CropMode;
 import com.gentics.mesh.parameter.impl.ImageManipulationParametersImpl;
 import com.gentics.mesh.storage.BinaryStorage;
 import com.gentics.mesh.util.FileUtils;
+import com.gentics.mesh.util.PropReadFileStream;
 import com.gentics.mesh.util.RxUtil;
+import com.gentics.mesh.util.UUIDUtil;
 
 import dagger.Lazy;
+import io.reactivex.Completable;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 import io.vertx.core.MultiMap;
@@ -171,195 +180,214 @@ public class BinaryFieldHandler extends AbstractHandler {
 			throw error(BAD_REQUEST, "node_error_uploadlimit_reached", humanReadableFileSize, humanReadableUploadLimit);
 		}
 
-		// This the name and path of the file to be moved to a new location.
-		// This will be changed because it is possible that the file has to be moved multiple times
-		// (if the transaction failed and has to be repeated).
-		ac.put("sourceFile", ul.uploadedFileName());
-
+		// Check the permission, the language and the field before the upload is processed. Otherwise unauthorized requests could make the server hash,
+		// inspect and store arbitrary data.
 		db.tx(() -> {
-			Project project = ac.getProject();
-			Release release = ac.getRelease();
-			Node node = project.getNodeRoot().loadObjectByUuid(ac, nodeUuid, UPDATE_PERM);
-
+			Node node = ac.getProject().getNodeRoot().loadObjectByUuid(ac, nodeUuid, UPDATE_PERM);
 			Language language = boot.get().languageRoot().findByLanguageTag(languageTag);
 			if (language == null) {
 				throw error(NOT_FOUND, "error_language_not_found", languageTag);
 			}
-
-			// Load the current latest draft
-			NodeGraphFieldContainer latestDraftVersion = node.getGraphFieldContainer(language, release, ContainerType.DRAFT);
-
+			NodeGraphFieldContainer latestDraftVersion = node.getGraphFieldContainer(language, ac.getRelease(), ContainerType.DRAFT);
 			if (latestDraftVersion == null) {
-				// latestDraftVersion = node.createGraphFieldContainer(language, release, ac.getUser());
-				// TODO Maybe it would be better to just create a new field container for the language?
-				// In that case we would also need to:
-				// * check for segment field conflicts
-				// * update display name
-				// * fail if mandatory fields are missing
 				throw error(NOT_FOUND, "error_language_not_found", languageTag);
 			}
+			checkBinaryField(latestDraftVersion, fieldName);
+		});
+
+		// Hash, store and inspect the upload in a single pass before the transaction is started. The data is stored using a new binary uuid and the
+		// transaction only needs to check whether the data was already stored.
+		String binaryUuid = UUIDUtil.randomUUID();
+		TransformationResult upload = processUpload(ul, binaryUuid);
+		AtomicBoolean stored = new AtomicBoolean();
+
+		Single<NodeResponse> result;
+		try {
+			result = db.tx(() -> {
+				Project project = ac.getProject();
+				Release release = ac.getRelease();
+				Node node = project.getNodeRoot().loadObjectByUuid(ac, nodeUuid, UPDATE_PERM);
+
+				Language language = boot.get().languageRoot().findByLanguageTag(languageTag);
+				if (language == null) {
+					throw error(NOT_FOUND, "error_language_not_found", languageTag);
+				}
 
-			// Load the base version field container in order to create the diff
-			NodeGraphFieldContainer baseVersionContainer = node.findVersion(languageTag, release.getUuid(), nodeVersion);
-			if (baseVersionContainer == null) {
-				throw error(BAD_REQUEST, "node_error_draft_not_found", nodeVersion, languageTag);
-			}
+				// Load the current latest draft
+				NodeGraphFieldContainer latestDraftVersion = node.getGraphFieldContainer(language, release, ContainerType.DRAFT);
+
+				if (latestDraftVersion == null) {
+					// latestDraftVersion = node.createGraphFieldContainer(language, release, ac.getUser());
+					// TODO Maybe it would be better to just create a new field container for the language?
+					// In that case we would also need to:
+					// * check for segment field conflicts
+					// * update display name
+					// * fail if mandatory fields are missing
+					throw error(NOT_FOUND, "error_language_not_found", languageTag);
+				}
+
+				// Load the base version field container in order to create the diff
+				NodeGraphFieldContainer baseVersionContainer = node.findVersion(languageTag, release.getUuid(), nodeVersion);
+				if (baseVersionContainer == null) {
+					throw error(BAD_REQUEST, "node_error_draft_not_found", nodeVersion, languageTag);
+				}
 
-			List<FieldContainerChange> baseVersionDiff = baseVersionContainer.compareTo(latestDraftVersion);
-			List<FieldContainerChange> requestVersionDiff = Arrays.asList(new FieldContainerChange(fieldName, FieldChangeTypes.UPDATED));
+				List<FieldContainerChange> baseVersionDiff = baseVersionContainer.compareTo(latestDraftVersion);
+				List<FieldContainerChange> requestVersionDiff = Arrays.asList(new FieldContainerChange(fieldName, FieldChangeTypes.UPDATED));
 
-			// Compare both sets of change sets
-			List<FieldContainerChange> intersect = baseVersionDiff.stream().filter(requestVersionDiff::contains).collect(Collectors.toList());
+				// Compare both sets of change sets
+				List<FieldContainerChange> intersect = baseVersionDiff.stream().filter(requestVersionDiff::contains).collect(Collectors.toList());
 
-			// Check whether the update was not based on the latest draft version. In that case a conflict check needs to occur.
-			if (!latestDraftVersion.getVersion().equals(nodeVersion)) {
+				// Check whether the update was not based on the latest draft version. In that case a conflict check needs to occur.
+				if (!latestDraftVersion.getVersion().equals(nodeVersion)) {
 
-				// Check whether a conflict has been detected
-				if (intersect.size() > 0) {
-					NodeVersionConflictException conflictException = new NodeVersionConflictException("node_error_conflict_detected");
-					conflictException.setOldVersion(baseVersionContainer.getVersion().toString());
-					conflictException.setNewVersion(latestDraftVersion.getVersion().toString());
-					for (FieldContainerChange fcc : intersect) {
-						conflictException.addConflict(fcc.getFieldCoordinates());
+					// Check whether a conflict has been detected
+					if (intersect.size() > 0) {
+						NodeVersionConflictException conflictException = new NodeVersionConflictException("node_error_conflict_detected");
+						conflictException.setOldVersion(baseVersionContainer.getVersion().toString());
+						conflictException.setNewVersion(latestDraftVersion.getVersion().toString());
+						for (FieldContainerChange fcc : intersect) {
+							conflictException.addConflict(fcc.getFieldCoordinates());
+						}
+						throw conflictException;
 					}
-					throw conflictException;
 				}
-			}
 
-			FieldSchema fieldSchema = latestDraftVersion.getSchemaContainerVersion().getSchema().getField(fieldName);
-			if (fieldSchema == null) {
-				throw error(BAD_REQUEST, "error_schema_definition_not_found", fieldName);
-			}
-			if (!(fieldSchema instanceof BinaryFieldSchema)) {
-				// TODO Add support for other field types
-				throw error(BAD_REQUEST, "error_found_field_is_not_binary", fieldName);
-			}
-
-			SearchQueueBatch batch = searchQueue.create();
-			// Create a new node version field container to store the upload
-			NodeGraphFieldContainer newDraftVersion = node.createGraphFieldContainer(language, release, ac.getUser(), latestDraftVersion, true);
+				// The schema could have been changed while the upload was processed
+				checkBinaryField(latestDraftVersion, fieldName);
 
-			// Check whether the binary with the given hashsum was already stored
-			BinaryRoot binaryRoot = boot.get().meshRoot().getBinaryRoot();
-			String hash = FileUtils.hash(ul.uploadedFileName());
-			Binary binary = binaryRoot.findByHash(hash);
+				SearchQueueBatch batch = searchQueue.create();
+				// Create a new node version field container to store the upload
+				NodeGraphFieldContainer newDraftVersion = node.createGraphFieldContainer(language, release, ac.getUser(), latestDraftVersion, true);
 
-			// Create a new binary if the data was not already stored
-			boolean storeBinary = binary == null;
-			if (storeBinary) {
-				binary = binaryRoot.create(hash, ul.size());
-			}
+				// Check whether the binary with the given hashsum was already stored
+				BinaryRoot binaryRoot = boot.get().meshRoot().getBinaryRoot();
+				Binary binary = binaryRoot.findByHash(upload.getHash());
 
-			// Get the potential existing field
-			BinaryGraphField oldField = newDraftVersion.getBinary(fieldName);
+				// Create a new binary for the stored data if the data was not already stored
+				stored.set(binary == null);
+				if (binary == null) {
+					binary = binaryRoot.create(binaryUuid, upload.getHash(), upload.getSize());
+				}
 
-			// Create the new field
-			BinaryGraphField field = newDraftVersion.createBinary(fieldName, binary);
+				// Get the potential existing field
+				BinaryGraphField oldField = newDraftVersion.getBinary(fieldName);
+
+				// Create the new field and set the upload information
+				BinaryGraphField field = newDraftVersion.createBinary(fieldName, binary);
+				ImageInfo imageInfo = upload.getImageInfo();
+				// Only add image information if image properties were found
+				if (imageInfo != null) {
+					binary.setImageHeight(imageInfo.getHeight());
+					binary.setImageWidth(imageInfo.getWidth());
+					field.setImageDominantColor(imageInfo.getDominantColor());
+				}
+				field.setFileName(ul.fileName());
+				binary.setSize(upload.getSize());
+				field.setMimeType(ul.contentType());
 
-			// Process the upload which will update the binary field
-			processUpload(ac, ul, field, storeBinary);
+				// Now get rid of the old field
+				if (oldField != null) {
+					oldField.removeField(newDraftVersion);
+				}
+				// If the binary field is the segment field, we need to update the webroot info in the node
+				if (field.getFieldKey().equals(newDraftVersion.getSchemaContainerVersion().getSchema().getSegmentField())) {
+					newDraftVersion.updateWebrootPathInfo(release.getUuid(), "node_conflicting_segmentfield_upload");
+				}
 
-			// Now get rid of the old field
-			if (oldField != null) {
-				oldField.removeField(newDraftVersion);
-			}
-			// If the binary field is the segment field, we need to update the webroot info in the node
-			if (field.getFieldKey().equals(newDraftVersion.getSchemaContainerVersion().getSchema().getSegmentField())) {
-				newDraftVersion.updateWebrootPathInfo(release.getUuid(), "node_conflicting_segmentfield_upload");
-			}
+				return batch.store(node, release.getUuid(), DRAFT, false).processAsync().andThen(node.transformToRest(ac, 0));
+			});
+		} catch (RuntimeException e) {
+			discardUpload(binaryUuid);
+			throw e;
+		}
+		if (!stored.get()) {
+			log.debug("Data with hash {" + upload.getHash() + "} has already been stored. Discarding the uploaded data.");
+			discardUpload(binaryUuid);
+		}
+		result.subscribe(model -> ac.send(model, CREATED), ac::fail);
+	}
 
-			return batch.store(node, release.getUuid(), DRAFT, false).processAsync().andThen(node.transformToRest(ac, 0));
-		}).subscribe(model -> ac.send(model, CREATED), ac::fail);
+	/**
+	 * Check whether the schema of the container contains a binary field with the given name.
+	 * 
+	 * @param container
+	 * @param fieldName
+	 */
+	private void checkBinaryField(NodeGraphFieldContainer container, String fieldName) {
+		FieldSchema fieldSchema = container.getSchemaContainerVersion().getSchema().getField(fieldName);
+		if (fieldSchema == null) {
+			throw error(BAD_REQUEST, "error_schema_definition_not_found", fieldName);
+		}
+		if (!(fieldSchema instanceof BinaryFieldSchema)) {
+			// TODO Add support for other field types
+			throw error(BAD_REQUEST, "error_found_field_is_not_binary", fieldName);
+		}
 	}
 
 	/**
-	 * Processes the upload and set the binary information (e.g.: image dimensions) within the provided field. The binary data will be stored in the
-	 * {@link BinaryStorage} if desired.
+	 * Process the upload in a single pass over the uploaded file. The data is hashed and stored in the {@link BinaryStorage} using the given binary uuid.
+	 * The image information is extracted from the same data stream if the upload is an image.
 	 * 
-	 * @param ac
 	 * @param ul
 	 *            Upload to process
-	 * @param field
-	 *            Field which will be updated with the extracted information
-	 * @param storeBinary
-	 *            Whether to store the data in the binary store
+	 * @param binaryUuid
+	 *            Uuid which is used to store the data
+	 * @return Hash, size and image information of the upload
 	 */
-	private void processUpload(ActionContext ac, FileUpload ul, BinaryGraphField field, boolean storeBinary) {
-		AsyncFile asyncFile = Mesh.vertx().fileSystem().openBlocking(ul.uploadedFileName(), new OpenOptions());
-		Binary binary = field.getBinary();
-		String hash = binary.getSHA512Sum();
-		String binaryUuid = binary.getUuid();
+	private TransformationResult processUpload(FileUpload ul, String binaryUuid) {
 		String contentType = ul.contentType();
-		boolean isImage = contentType.startsWith("image/");
-
-		// Calculate how many streams will connect to the data stream
-		int neededDataStreams = 0;
-		if (isImage) {
-			neededDataStreams++;
-		}
-		if (storeBinary) {
-			neededDataStreams++;
-		}
-
-		if (neededDataStreams > 0) {
-			Observable<Buffer> stream = RxUtil.toBufferObs(asyncFile).publish().autoConnect(neededDataStreams);
+		boolean isImage = contentType != null && contentType.startsWith("image/");
+		long start = System.nanoTime();
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-512");
+			AtomicLong size = new AtomicLong();
+			AsyncFile asyncFile = Mesh.vertx().fileSystem().openBlocking(ul.uploadedFileName(), new OpenOptions());
+			Observable<Buffer> stream = RxUtil.toBufferObs(asyncFile).doOnNext(buffer -> {
+				digest.update(buffer.getByteBuf().nioBuffer());
+				size.addAndGet(buffer.length());
+			}).publish().autoConnect(isImage ? 2 : 1);
 
 			// Only gather image info for actual images. Otherwise return an empty image info object.
 			Single<Optional<ImageInfo>> imageInfo = Single.just(Optional.empty());
 			if (isImage) {
-				imageInfo = processImageInfo(ac, stream);
-			}
-
-			// Store the data
-			Single<Long> store = Single.just(ul.size());
-			if (storeBinary) {
-				store = binaryStorage.store(stream, binaryUuid).andThen(Single.just(ul.size()));
+				imageInfo = imageManipulator.readImageInfo(stream).map(Optional::of).onErrorReturn(e -> {
+					// suppress error
+					return Optional.empty();
+				});
 			}
+			Single<Boolean> store = binaryStorage.store(stream, binaryUuid).andThen(Single.just(true));
 
-			// Handle the data in parallel
-
-			TransformationResult info = Single.zip(imageInfo, store, (imageinfoOpt, size) -> {
-				ImageInfo iinfo = null;
-				if (imageinfoOpt.isPresent()) {
-					iinfo = imageinfoOpt.get();
-				}
-				return new TransformationResult(hash, 0, iinfo, null);
+			// The digest is complete once the data has been stored
+			TransformationResult result = Single.zip(imageInfo, store, (info, done) -> {
+				return new TransformationResult(FileUtils.bytesToHex(digest.digest()), size.get(), info.orElse(null), ul.uploadedFileName());
 			}).blockingGet();
-			// Only add image information if image properties were found
-			if (info.getImageInfo() != null) {
-				binary.setImageHeight(info.getImageInfo().getHeight());
-				binary.setImageWidth(info.getImageInfo().getWidth());
-				field.setImageDominantColor(info.getImageInfo().getDominantColor());
-			}
 
+			// The metric is named after the detected image format since the content type is controlled by the client
+			ImageInfo info = result.getImageInfo();
+			String format = info == null || info.getFormat() == null ? "other" : info.getFormat();
+			MeshMetrics.timer("binary", "upload", format).update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			return result;
+		} catch (GenericRestException e) {
+			discardUpload(binaryUuid);
+			throw e;
+		} catch (Exception e) {
+			log.error("Error while processing upload {" + ul.uploadedFileName() + "}", e);
+			discardUpload(binaryUuid);
+			throw error(INTERNAL_SERVER_ERROR, "node_error_upload_failed", e);
 		}
-
-		field.setFileName(ul.fileName());
-		field.getBinary().setSize(ul.size());
-		field.setMimeType(contentType);
 	}
 
 	/**
-	 * Processes the given file and extracts the image info. The image info is cached within the action context in case the method is called again (e.g.: due to
-	 * tx retry). In that case the previously loaded image info is returned.
+	 * Delete the stored data of an upload which is not referenced by a binary.
 	 * 
-	 * @param ac
-	 * @param stream
-	 * @return
+	 * @param binaryUuid
 	 */
-	private Single<Optional<ImageInfo>> processImageInfo(ActionContext ac, Observable<Buffer> stream) {
-		// Caches the image info in the action context so that it does not need to be
-		// calculated again if the transaction failed
-		ImageInfo imageInfo = ac.get("imageInfo");
-		if (imageInfo != null) {
-			return Single.just(Optional.of(imageInfo));
-		} else {
-			return imageManipulator.readImageInfo(stream).doOnSuccess(ii -> {
-				ac.put("imageInfo", ii);
-			}).map(Optional::of).onErrorReturn(e -> {
-				// suppress error
-				return Optional.empty();
-			});
+	private void discardUpload(String binaryUuid) {
+		Completable delete = binaryStorage.delete(binaryUuid);
+		if (delete != null) {
+			delete.subscribe(() -> {
+			}, e -> log.warn("Could not delete the data of binary {" + binaryUuid + "}", e));
 		}
 	}
 
@@ -447,7 +475,9 @@ public class BinaryFieldHandler extends AbstractHandler {
 					}
 
 					// Resize the original image and store the result in the filesystem
+					AtomicReference<PropReadFileStream> resized = new AtomicReference<>();
 					Single<TransformationResult> obsTransformation = imageManipulator.handleResize(stream, binaryUuid, parameters).flatMap(file -> {
+						resized.set(file);
 						Observable<Buffer> obs = RxUtil.toBufferObs(file.getFile());
 						Observable<Buffer> resizedImageData = obs.publish().autoConnect(2);
 
@@ -465,19 +495,28 @@ public class BinaryFieldHandler extends AbstractHandler {
 					});
 
 					// Now that the binary data has been resized and inspected we can use this information to create a new binary and store it.
-					TransformationResult result = obsTransformation.blockingGet();
-					String hash = result.getHash();
-					BinaryRoot binaryRoot = boot.get().meshRoot().getBinaryRoot();
-					Binary binary = binaryRoot.findByHash(hash);
-
-					// Check whether the binary was already stored.
-					if (binary == null) {
-						// Open the file again since we already read from it. We need to read it again in order to store it in the binary storage.
-						Observable<Buffer> data = fs.rxOpen(result.getFilePath(), new OpenOptions()).flatMapObservable(RxUtil::toBufferObs);
-						binary = binaryRoot.create(hash, result.getSize());
-						binaryStorage.store(data, binary.getUuid()).andThen(Single.just(result)).toCompletable().blockingAwait();
-					} else {
-						log.debug("Data of resized image with hash {" + hash + "} has already been stored. Skipping store.");
+					TransformationResult result;
+					Binary binary;
+					try {
+						result = obsTransformation.blockingGet();
+						String hash = result.getHash();
+						BinaryRoot binaryRoot = boot.get().meshRoot().getBinaryRoot();
+						binary = binaryRoot.findByHash(hash);
+
+						// Check whether the binary was already stored.
+						if (binary == null) {
+							// Open the file again since we already read from it. We need to read it again in order to store it in the binary storage.
+							Observable<Buffer> data = fs.rxOpen(result.getFilePath(), new OpenOptions()).flatMapObservable(RxUtil::toBufferObs);
+							binary = binaryRoot.create(hash, result.getSize());
+							binaryStorage.store(data, binary.getUuid()).andThen(Single.just(result)).toCompletable().blockingAwait();
+						} else {
+							log.debug("Data of resized image with hash {" + hash + "} has already been stored. Skipping store.");
+						}
+					} finally {
+						// The cached image file is no longer needed
+						if (resized.get() != null) {
+							resized.get().release();
+						}
 					}
 
 					// Now create the binary field in which we store the information about the file
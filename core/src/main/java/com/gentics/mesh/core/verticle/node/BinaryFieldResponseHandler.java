@@ -1,9 +1,17 @@
 package com.gentics.mesh.core.verticle.node;
 
 import static com.gentics.mesh.core.rest.error.Errors.error;
+import static com.gentics.mesh.http.HttpConstants.ACCEPT_RANGES;
+import static com.gentics.mesh.http.HttpConstants.CONTENT_RANGE;
 import static com.gentics.mesh.http.HttpConstants.ETAG;
+import static com.gentics.mesh.http.HttpConstants.IF_RANGE;
+import static com.gentics.mesh.http.HttpConstants.RANGE;
 import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
 import static io.netty.handler.codec.http.HttpResponseStatus.NOT_MODIFIED;
+import static io.netty.handler.codec.http.HttpResponseStatus.PARTIAL_CONTENT;
+import static io.netty.handler.codec.http.HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE;
+
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -14,9 +22,11 @@ import com.gentics.mesh.core.data.binary.Binary;
 import com.gentics.mesh.core.data.node.field.BinaryGraphField;
 import com.gentics.mesh.core.image.spi.ImageManipulator;
 import com.gentics.mesh.http.MeshHeaders;
+import com.gentics.mesh.parameter.ImageManipulationParameters;
+import com.gentics.mesh.parameter.image.ImageFormat;
 import com.gentics.mesh.storage.BinaryStorage;
+import com.gentics.mesh.util.ByteRange;
 import com.gentics.mesh.util.ETag;
-import com.gentics.mesh.util.RxUtil;
 
 import io.reactivex.Observable;
 import io.vertx.core.buffer.Buffer;
@@ -53,14 +63,14 @@ public class BinaryFieldResponseHandler {
 		} else {
 			InternalActionContext ac = new InternalRoutingActionContextImpl(rc);
 			Binary binary = binaryField.getBinary();
-			String contentLength = String.valueOf(binary.getSize());
 			String fileName = binaryField.getFileName();
 			String contentType = binaryField.getMimeType();
 			String sha512sum = binary.getSHA512Sum();
 
 			// Check the etag
 			String etagKey = sha512sum;
-			if (binaryField.hasImage() && ac.getImageParameters().isSet()) {
+			boolean manipulate = prepareImageParameters(rc, binaryField, ac.getImageParameters());
+			if (manipulate) {
 				etagKey += ac.getImageParameters().getQueryParameters();
 			}
 
@@ -71,22 +81,24 @@ public class BinaryFieldResponseHandler {
 
 			if (requestETag != null && requestETag.equals(etagHeaderValue)) {
 				response.setStatusCode(NOT_MODIFIED.code()).end();
-			} else if (binaryField.hasImage() && ac.getImageParameters().isSet()) {
+			} else if (manipulate) {
 				// Resize the image if needed
 				Observable<Buffer> data = binary.getStream();
-				Observable<Buffer> resizedData = imageManipulator.handleResize(data, sha512sum, ac.getImageParameters()).toObservable()
-					.map(fileWithProps -> {
-						response.putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(fileWithProps.getProps().size()));
-						response.putHeader(HttpHeaders.CONTENT_TYPE, "image/jpeg");
-						response.putHeader(HttpHeaders.CACHE_CONTROL, "must-revalidate");
-						response.putHeader(MeshHeaders.WEBROOT_RESPONSE_TYPE, "binary");
-						// TODO encode filename?
-						response.putHeader("content-disposition", "inline; filename=" + fileName);
-						return fileWithProps.getFile();
-					}).flatMap(RxUtil::toBufferObs);
-				resizedData.subscribe(response::write, rc::fail, response::end);
+				ImageManipulationParameters imageParameters = ac.getImageParameters();
+				ImageFormat format = imageParameters.getFormat() == null ? ImageFormat.JPG : imageParameters.getFormat();
+				imageManipulator.handleResize(data, sha512sum, imageParameters).subscribe(fileWithProps -> {
+					// The resized image is sent from the cache file. It must stay in the cache until the response has been sent.
+					fileWithProps.getFile().close();
+					rc.addBodyEndHandler(v -> fileWithProps.release());
+					response.closeHandler(v -> fileWithProps.release());
+					response.putHeader(HttpHeaders.CONTENT_TYPE, format.getMimeType());
+					response.putHeader(HttpHeaders.CACHE_CONTROL, "must-revalidate");
+					response.putHeader(MeshHeaders.WEBROOT_RESPONSE_TYPE, "binary");
+					// TODO encode filename?
+					response.putHeader("content-disposition", "inline; filename=" + fileName);
+					sendContent(rc, etagHeaderValue, fileWithProps.getProps().size(), fileWithProps.getPath(), null);
+				}, rc::fail);
 			} else {
-				response.putHeader(HttpHeaders.CONTENT_LENGTH, contentLength);
 				if (contentType != null) {
 					response.putHeader(HttpHeaders.CONTENT_TYPE, contentType);
 				}
@@ -95,9 +107,95 @@ public class BinaryFieldResponseHandler {
 				// TODO encode filename?
 				// TODO images and pdf files should be shown in inline format
 				response.putHeader("content-disposition", "attachment; filename=" + fileName);
-				binary.getStream().subscribe(response::write, rc::fail, response::end);
+				String localPath = storage.getLocalPath(binary.getUuid());
+				sendContent(rc, etagHeaderValue, binary.getSize(), localPath, localPath == null ? binary.getStream() : null);
+			}
+		}
+	}
+
+	/**
+	 * Check whether the image of the binary field will be manipulated and select the output format. The negotiated format is stored in the image
+	 * parameters so that it becomes part of the etag and the cache key of the image variant. JPEG is the default format and is not stored.
+	 * 
+	 * @param rc
+	 * @param binaryField
+	 * @param parameters
+	 *            Image parameters of the request
+	 * @return true if the image will be manipulated
+	 */
+	public boolean prepareImageParameters(RoutingContext rc, BinaryGraphField binaryField, ImageManipulationParameters parameters) {
+		if (!binaryField.hasImage() || !parameters.isSet()) {
+			return false;
+		}
+		if (parameters.getFormat() == null) {
+			ImageFormat format = imageManipulator.negotiateFormat(parameters, binaryField.getMimeType(), rc.request().getHeader(HttpHeaders.ACCEPT));
+			if (format != ImageFormat.JPG) {
+				parameters.setFormat(format);
+			}
+			// The response depends on the accept header
+			rc.response().putHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+		}
+		return true;
+	}
+
+	/**
+	 * Send the content and handle range requests. Local files are sent using zero-copy file transfers. Other content is streamed and only the requested
+	 * range is written.
+	 * 
+	 * @param rc
+	 * @param etag
+	 *            ETag header value of the content which is used to evaluate the If-Range header
+	 * @param length
+	 *            Length of the full content
+	 * @param localPath
+	 *            Path to the local file which contains the content or null if the content must be streamed
+	 * @param stream
+	 *            Stream of the full content which is used if the content is not stored in a local file
+	 */
+	private void sendContent(RoutingContext rc, String etag, long length, String localPath, Observable<Buffer> stream) {
+		HttpServerResponse response = rc.response();
+		response.putHeader(ACCEPT_RANGES, "bytes");
+
+		ByteRange range = null;
+		String ifRange = rc.request().getHeader(IF_RANGE);
+		// Ranges must be ignored if the content was changed. Dates are never matched since no last modified date is sent.
+		if (ifRange == null || ifRange.equals(etag)) {
+			range = ByteRange.parse(rc.request().getHeader(RANGE), length);
+		}
+
+		long offset = 0;
+		long count = length;
+		if (range != null) {
+			response.putHeader(CONTENT_RANGE, range.toContentRange());
+			if (!range.isSatisfiable()) {
+				response.setStatusCode(REQUESTED_RANGE_NOT_SATISFIABLE.code()).end();
+				return;
 			}
+			response.setStatusCode(PARTIAL_CONTENT.code());
+			offset = range.getStart();
+			count = range.getLength();
+		}
+		response.putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(count));
+
+		if (localPath != null) {
+			response.sendFile(localPath, offset, count, rh -> {
+				if (rh.failed()) {
+					rc.fail(rh.cause());
+				}
+			});
+		} else if (range == null) {
+			stream.subscribe(response::write, rc::fail, response::end);
+		} else {
+			long start = offset;
+			long end = offset + count;
+			AtomicLong position = new AtomicLong();
+			stream.map(buffer -> {
+				long bufferStart = position.getAndAdd(buffer.length());
+				int from = (int) Math.max(start - bufferStart, 0);
+				int to = (int) Math.min(end - bufferStart, buffer.length());
+				return from < to ? buffer.slice(from, to) : Buffer.buffer();
+			}).takeUntil(buffer -> position.get() >= end).filter(buffer -> buffer.length() > 0).subscribe(response::write, rc::fail, response::end);
 		}
 	}
 
-}
+}
\ No newline at end of file
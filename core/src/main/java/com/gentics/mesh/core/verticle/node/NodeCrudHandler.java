@@ -85,7 +85,7 @@ public class NodeCrudHandler extends AbstractCrudHandler<Node, NodeResponse> {
 				SearchQueueBatch batch = searchQueue.create();
 				node.deleteFromRelease(ac, ac.getRelease(), batch, false);
 				return batch;
-			}).processSync();
+			}).processSync(ac);
 			return null;
 		}, m -> ac.send(NO_CONTENT));
 	}
@@ -115,7 +115,7 @@ public class NodeCrudHandler extends AbstractCrudHandler<Node, NodeResponse> {
 				SearchQueueBatch batch = searchQueue.create();
 				node.deleteLanguageContainer(ac, ac.getRelease(), language, batch, true);
 				return batch;
-			}).processSync();
+			}).processSync(ac);
 			return null;
 		}, m -> ac.send(NO_CONTENT));
 	}
@@ -145,7 +145,7 @@ public class NodeCrudHandler extends AbstractCrudHandler<Node, NodeResponse> {
 				SearchQueueBatch batch = searchQueue.create();
 				sourceNode.moveTo(ac, targetNode, batch);
 				return batch;
-			}).processSync();
+			}).processSync(ac);
 			return null;
 		}, m -> ac.send(NO_CONTENT));
 
@@ -179,7 +179,7 @@ public class NodeCrudHandler extends AbstractCrudHandler<Node, NodeResponse> {
 	public void handleReadChildren(InternalActionContext ac, String uuid) {
 		validateParameter(uuid, "uuid");
 
-		utils.asyncTx(ac, () -> {
+		utils.asyncTxJson(ac, (tx) -> {
 			NodeParameters nodeParams = ac.getNodeParameters();
 			PagingParameters pagingParams = ac.getPagingParameters();
 			VersioningParameters versionParams = ac.getVersioningParameters();
@@ -193,9 +193,9 @@ public class NodeCrudHandler extends AbstractCrudHandler<Node, NodeResponse> {
 			if (ac.matches(etag, true)) {
 				throw new NotModifiedException();
 			} else {
-				return page.transformToRest(ac, 0).blockingGet();
+				return page.transformToJson(ac, 0);
 			}
-		}, model -> ac.send(model, OK));
+		}, OK);
 
 	}
 
@@ -262,7 +262,7 @@ public class NodeCrudHandler extends AbstractCrudHandler<Node, NodeResponse> {
 				batch.store(node, release.getUuid(), DRAFT, false);
 				return Tuple.tuple(node, batch);
 			});
-			return tuple.v2().processAsync().andThen(tuple.v1().transformToRest(ac, 0));
+			return tuple.v2().processAsync(ac).andThen(tuple.v1().transformToRest(ac, 0));
 		}).subscribe(model -> ac.send(model, OK), ac::fail);
 
 	}
@@ -293,7 +293,7 @@ public class NodeCrudHandler extends AbstractCrudHandler<Node, NodeResponse> {
 				batch.store(node, release.getUuid(), DRAFT, false);
 				node.removeTag(tag, release);
 				return batch;
-			}).processAsync().andThen(Single.just(Optional.empty()));
+			}).processAsync(ac).andThen(Single.just(Optional.empty()));
 		}).subscribe(model -> ac.send(NO_CONTENT), ac::fail);
 	}
 
@@ -332,7 +332,7 @@ public class NodeCrudHandler extends AbstractCrudHandler<Node, NodeResponse> {
 				node.publish(ac, batch);
 				return batch;
 			});
-			return sqb.processAsync().andThen(Single.just(node.transformToPublishStatus(ac)));
+			return sqb.processAsync(ac).andThen(Single.just(node.transformToPublishStatus(ac)));
 		}).subscribe(model -> ac.send(model, OK), ac::fail);
 	}
 
@@ -351,7 +351,7 @@ public class NodeCrudHandler extends AbstractCrudHandler<Node, NodeResponse> {
 			Node node = getRootVertex(ac).loadObjectByUuid(ac, uuid, PUBLISH_PERM);
 			SearchQueueBatch batch = searchQueue.create();
 			node.takeOffline(ac, batch);
-			return batch.processAsync().andThen(Single.just(Optional.empty()));
+			return batch.processAsync(ac).andThen(Single.just(Optional.empty()));
 		}).subscribe(model -> ac.send(NO_CONTENT), ac::fail);
 	}
 
@@ -394,7 +394,7 @@ public class NodeCrudHandler extends AbstractCrudHandler<Node, NodeResponse> {
 				node.publish(ac, batch, languageTag);
 				return batch;
 			});
-			return sqb.processAsync().andThen(Single.just(node.transformToPublishStatus(ac, languageTag)));
+			return sqb.processAsync(ac).andThen(Single.just(node.transformToPublishStatus(ac, languageTag)));
 		}).subscribe(model -> ac.send(model, OK), ac::fail);
 	}
 
@@ -418,7 +418,7 @@ public class NodeCrudHandler extends AbstractCrudHandler<Node, NodeResponse> {
 				Release release = ac.getRelease(ac.getProject());
 				node.takeOffline(ac, batch, release, languageTag);
 				return batch;
-			}).processAsync().andThen(Single.just(Optional.empty()));
+			}).processAsync(ac).andThen(Single.just(Optional.empty()));
 		}).subscribe(model -> ac.send(NO_CONTENT), ac::fail);
 	}
 
@@ -467,7 +467,7 @@ public class NodeCrudHandler extends AbstractCrudHandler<Node, NodeResponse> {
 				return Tuple.tuple(tags, batch);
 			});
 
-			return tuple.v2().processAsync().andThen(tuple.v1().transformToRest(ac, 0));
+			return tuple.v2().processAsync(ac).andThen(tuple.v1().transformToRest(ac, 0));
 		}).subscribe(model -> ac.send(model, OK), ac::fail);
 
 	}
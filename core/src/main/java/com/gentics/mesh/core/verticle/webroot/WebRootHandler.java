@@ -85,7 +85,7 @@ public class WebRootHandler {
 
 				// Check the etag
 				String etagKey = sha512sum;
-				if (binaryField.hasImage() && ac.getImageParameters().isSet()) {
+				if (binaryFieldResponseHandler.prepareImageParameters(rc, binaryField, ac.getImageParameters())) {
 					etagKey += ac.getImageParameters().getQueryParameters();
 				}
 				String etag = ETag.hash(etagKey);
@@ -114,7 +114,7 @@ public class WebRootHandler {
 
 		}).subscribe(result -> {
 			if (result.isPresent()) {
-				ac.send(JsonUtil.toJson(result.get()),
+				ac.send(JsonUtil.toJsonBuffer(result.get(), ac.isPrettyPrint()),
 						HttpResponseStatus.valueOf(NumberUtils.toInt(rc.data().getOrDefault("statuscode", "").toString(), OK.code())));
 			}
 		}, ac::fail);
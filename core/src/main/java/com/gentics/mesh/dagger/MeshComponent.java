@@ -9,6 +9,7 @@ import com.gentics.mesh.auth.MeshAuthHandler;
 import com.gentics.mesh.cli.BootstrapInitializer;
 import com.gentics.mesh.core.data.schema.handler.SchemaComparator;
 import com.gentics.mesh.core.data.search.SearchQueue;
+import com.gentics.mesh.core.data.search.impl.SearchOutbox;
 import com.gentics.mesh.core.data.service.ServerSchemaStorage;
 import com.gentics.mesh.core.image.spi.ImageManipulator;
 import com.gentics.mesh.core.link.WebRootLinkReplacer;
@@ -59,6 +60,8 @@ public interface MeshComponent {
 
 	SearchProvider searchProvider();
 
+	SearchOutbox searchOutbox();
+
 	BCryptPasswordEncoder passwordEncoder();
 
 	Provider<RouterStorage> routerStorageProvider();
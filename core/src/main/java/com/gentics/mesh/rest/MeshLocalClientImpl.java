@@ -103,6 +103,7 @@ import com.gentics.mesh.rest.client.MeshRestClient;
 import com.gentics.mesh.rest.client.impl.MeshLocalRequestImpl;
 import com.gentics.mesh.util.UUIDUtil;
 
+import io.reactivex.Flowable;
 import io.reactivex.Single;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
@@ -1247,6 +1248,17 @@ public class MeshLocalClientImpl implements MeshRestClient {
 		return new MeshLocalRequestImpl<>(ac.getFuture());
 	}
 
+	@Override
+	public MeshRequest<Flowable<NodeResponse>> exportNodes(String json, ParameterProvider... parameters) {
+		// The export is streamed and thus not supported by the local client
+		return null;
+	}
+
+	@Override
+	public MeshRequest<Flowable<NodeResponse>> exportNodes(String projectName, String json, ParameterProvider... parameters) {
+		return null;
+	}
+
 	@Override
 	public MeshRequest<TagListResponse> searchTags(String projectName, String json, ParameterProvider... parameters) {
 		// TODO Auto-generated method stub
@@ -18,6 +18,7 @@ import com.gentics.mesh.core.rest.common.RestModel;
 import com.gentics.mesh.core.rest.node.NodeListResponse;
 import com.gentics.mesh.core.rest.tag.TagFamilyListResponse;
 import com.gentics.mesh.core.rest.tag.TagListResponse;
+import com.gentics.mesh.parameter.impl.SearchParametersImpl;
 import com.gentics.mesh.rest.EndpointRoute;
 import com.gentics.mesh.router.route.AbstractProjectEndpoint;
 import com.gentics.mesh.search.index.node.NodeSearchHandler;
@@ -65,6 +66,7 @@ public class ProjectSearchEndpointImpl extends AbstractProjectEndpoint implement
 	private void addSearchEndpoints() {
 		registerSearchHandler("nodes", () -> boot.meshRoot().getNodeRoot(), NodeListResponse.class, nodeSearchHandler, nodeExamples
 			.getNodeListResponse(), true);
+		registerExportHandler("nodes", () -> boot.meshRoot().getNodeRoot(), nodeSearchHandler, true);
 		registerSearchHandler("tags", () -> boot.meshRoot().getTagRoot(), TagListResponse.class, tagSearchHandler, tagExamples
 			.createTagListResponse(), false);
 		registerSearchHandler("tagFamilies", () -> boot.meshRoot().getTagFamilyRoot(), TagFamilyListResponse.class, tagFamilySearchHandler,
@@ -98,6 +100,7 @@ public class ProjectSearchEndpointImpl extends AbstractProjectEndpoint implement
 		endpoint.produces(APPLICATION_JSON);
 		endpoint.exampleResponse(OK, exampleResponse, "Paged search result list.");
 		endpoint.exampleRequest(miscExamples.getSearchQueryExample());
+		endpoint.addQueryParameters(SearchParametersImpl.class);
 		endpoint.handler(rc -> {
 			try {
 				InternalActionContext ac = new InternalRoutingActionContextImpl(rc);
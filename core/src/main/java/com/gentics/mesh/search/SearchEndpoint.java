@@ -1,14 +1,26 @@
 package com.gentics.mesh.search;
 
 import static com.gentics.mesh.http.HttpConstants.APPLICATION_JSON;
+import static com.gentics.mesh.http.HttpConstants.APPLICATION_NDJSON;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 import static io.vertx.core.http.HttpMethod.POST;
 
+import java.util.function.Supplier;
+
 import com.gentics.mesh.context.InternalActionContext;
 import com.gentics.mesh.context.impl.InternalRoutingActionContextImpl;
+import com.gentics.mesh.core.data.MeshCoreVertex;
+import com.gentics.mesh.core.data.root.RootVertex;
+import com.gentics.mesh.core.rest.common.RestModel;
+import com.gentics.mesh.parameter.impl.SearchParametersImpl;
 import com.gentics.mesh.rest.Endpoint;
 import com.gentics.mesh.rest.EndpointRoute;
 
+import io.reactivex.disposables.Disposable;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.logging.LoggerFactory;
+
 public interface SearchEndpoint extends Endpoint {
 
 	/**
@@ -35,4 +47,45 @@ public interface SearchEndpoint extends Endpoint {
 			}
 		});
 	}
+
+	/**
+	 * Register the export handler which will stream all found elements as newline delimited JSON.
+	 * 
+	 * @param typeName
+	 *            Name of the search endpoint
+	 * @param root
+	 *            Aggregation node that should be used to load the objects that were found within the search index
+	 * @param searchHandler
+	 * @param filterByLanguage
+	 *            Whether to append the language filter
+	 */
+	default <T extends MeshCoreVertex<TR, T>, TR extends RestModel> void registerExportHandler(String typeName, Supplier<RootVertex<T>> root,
+		SearchHandler<T, TR> searchHandler, boolean filterByLanguage) {
+		EndpointRoute endpoint = createEndpoint();
+		endpoint.path("/" + typeName + "/export");
+		endpoint.method(POST);
+		endpoint.description("Invoke a search query for " + typeName
+			+ " and stream all found elements as newline delimited JSON. The results are not paged. Instead the search results are loaded in batches while the response is being written.");
+		endpoint.consumes(APPLICATION_JSON);
+		endpoint.produces(APPLICATION_NDJSON);
+		endpoint.exampleResponse(OK, "Found elements. Each line contains one element.");
+		endpoint.exampleRequest(miscExamples.getSearchQueryExample());
+		endpoint.addQueryParameters(SearchParametersImpl.class);
+		endpoint.handler(rc -> {
+			InternalActionContext ac = new InternalRoutingActionContextImpl(rc);
+			HttpServerResponse response = rc.response();
+			response.setChunked(true);
+			response.putHeader(HttpHeaders.CONTENT_TYPE, APPLICATION_NDJSON);
+			Disposable export = searchHandler.export(ac, root, response, filterByLanguage).subscribe(response::end, error -> {
+				if (response.headWritten()) {
+					// The status has already been sent. Closing the connection tells the client that the response is incomplete.
+					LoggerFactory.getLogger(SearchEndpoint.class).error("Error while exporting the search results for " + typeName, error);
+					response.close();
+				} else {
+					rc.fail(error);
+				}
+			});
+			response.closeHandler(v -> export.dispose());
+		});
+	}
 }
@@ -25,6 +25,7 @@ import com.gentics.mesh.core.rest.schema.SchemaListResponse;
 import com.gentics.mesh.core.rest.tag.TagFamilyListResponse;
 import com.gentics.mesh.core.rest.tag.TagListResponse;
 import com.gentics.mesh.core.rest.user.UserListResponse;
+import com.gentics.mesh.parameter.impl.SearchParametersImpl;
 import com.gentics.mesh.rest.EndpointRoute;
 import com.gentics.mesh.router.route.AbstractEndpoint;
 import com.gentics.mesh.search.index.AdminIndexHandler;
@@ -109,6 +110,7 @@ public class SearchEndpointImpl extends AbstractEndpoint implements SearchEndpoi
 
 		registerHandler("nodes", () -> boot.get().meshRoot().getNodeRoot(), NodeListResponse.class, nodeSearchHandler, nodeExamples
 			.getNodeListResponse(), true);
+		registerExportHandler("nodes", () -> boot.get().meshRoot().getNodeRoot(), nodeSearchHandler, true);
 		registerHandler("tags", () -> boot.get().meshRoot().getTagRoot(), TagListResponse.class, tagSearchHandler, tagExamples
 			.createTagListResponse(), false);
 		registerHandler("tagFamilies", () -> boot.get().meshRoot().getTagFamilyRoot(), TagFamilyListResponse.class, tagFamilySearchHandler,
@@ -150,7 +152,7 @@ public class SearchEndpointImpl extends AbstractEndpoint implements SearchEndpoi
 		reindexEndpoint.path("/reindex");
 		reindexEndpoint.method(POST);
 		reindexEndpoint.produces(APPLICATION_JSON);
-		reindexEndpoint.description("Invokes a full reindex of the search indices. This operation may take some time to complete.");
+		reindexEndpoint.description("Invokes a full reindex of the search indices. The indices are rebuilt by a job and replaced once the job has completed. This operation may take some time to complete.");
 		reindexEndpoint.exampleResponse(OK, miscExamples.createMessageResponse(), "Invoked reindex command for all elements.");
 		reindexEndpoint.handler(rc -> {
 			InternalActionContext ac = new InternalRoutingActionContextImpl(rc);
@@ -180,6 +182,7 @@ public class SearchEndpointImpl extends AbstractEndpoint implements SearchEndpoi
 		endpoint.produces(APPLICATION_JSON);
 		endpoint.exampleResponse(OK, exampleListResponse, "Paged search result for " + typeName);
 		endpoint.exampleRequest(miscExamples.getSearchQueryExample());
+		endpoint.addQueryParameters(SearchParametersImpl.class);
 		endpoint.handler(rc -> {
 			try {
 				InternalActionContext ac = new InternalRoutingActionContextImpl(rc);
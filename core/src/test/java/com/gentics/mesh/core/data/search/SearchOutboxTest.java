@@ -0,0 +1,203 @@
+package com.gentics.mesh.core.data.search;
+
+import static com.gentics.mesh.test.TestSize.PROJECT;
+import static io.netty.handler.codec.http.HttpResponseStatus.SERVICE_UNAVAILABLE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.codahale.metrics.Counter;
+import com.gentics.mesh.Mesh;
+import com.gentics.mesh.core.data.search.impl.SearchOutbox;
+import com.gentics.mesh.core.data.search.impl.SearchOutboxBatchImpl;
+import com.gentics.mesh.core.rest.error.GenericRestException;
+import com.gentics.mesh.etc.config.search.ElasticSearchOptions;
+import com.gentics.mesh.graphdb.spi.CommitHooks;
+import com.gentics.mesh.metric.MeshMetrics;
+import com.gentics.mesh.test.context.AbstractMeshTest;
+import com.gentics.mesh.test.context.MeshTestSetting;
+import com.syncleus.ferma.tx.Tx;
+
+@MeshTestSetting(useElasticsearch = false, testSize = PROJECT, startServer = false)
+public class SearchOutboxTest extends AbstractMeshTest {
+
+	private SearchOutbox outbox;
+
+	@Before
+	public void setupOutbox() {
+		outbox = meshDagger().searchOutbox();
+		// The background indexer is only started by the tests which need it
+		Mesh.mesh().getOptions().getSearchOptions().setWriteBehind(true);
+	}
+
+	@After
+	public void resetOutbox() {
+		outbox.stop();
+		Mesh.mesh().getOptions().getSearchOptions().setWriteBehind(false).setWriteBehindTimeout(ElasticSearchOptions.DEFAULT_WRITE_BEHIND_TIMEOUT);
+		tx(() -> {
+			Iterator<? extends SearchOutboxBatchImpl> it = db().getVerticesForType(SearchOutboxBatchImpl.class);
+			while (it.hasNext()) {
+				it.next().remove();
+			}
+		});
+	}
+
+	@Test
+	public void testDrainInCreationOrder() {
+		String first = writeBatch();
+		String second = writeBatch();
+		String third = writeBatch();
+
+		// Reverse the creation order of the batches
+		tx(() -> {
+			setCreated(first, 3000);
+			setCreated(second, 2000);
+			setCreated(third, 1000);
+		});
+		List<String> oldest = tx(() -> {
+			List<String> uuids = new ArrayList<>();
+			for (Object id : db().vertexLookupAscending(SearchOutboxBatchImpl.class, SearchOutboxBatchImpl.CREATED_INDEX_NAME, 2)) {
+				uuids.add(Tx.getActive().getGraph().getFramedVertexExplicit(SearchOutboxBatchImpl.class, id).getUuid());
+			}
+			return uuids;
+		});
+		assertEquals("The oldest batches should be returned in the order of their creation", Arrays.asList(third, second), oldest);
+
+		outbox.start();
+		assertTrue("The batches should have been processed", outbox.await(Arrays.asList(first, second, third)).blockingAwait(10, TimeUnit.SECONDS));
+		assertTrue("The processed batches should have been removed", outboxUuids().isEmpty());
+		assertUserStored();
+	}
+
+	@Test
+	public void testLastActionPerDocumentWins() {
+		String store = writeBatch();
+		List<String> before = outboxUuids();
+		tx(() -> {
+			createBatch().delete(user(), false);
+		});
+		List<String> uuids = outboxUuids();
+		uuids.removeAll(before);
+		assertEquals("One outbox batch should have been written", 1, uuids.size());
+		String delete = uuids.get(0);
+		dummySearchProvider().reset();
+
+		outbox.start();
+		assertTrue("The batches should have been processed", outbox.await(Arrays.asList(store, delete)).blockingAwait(10, TimeUnit.SECONDS));
+		String userUuid = userUuid();
+		assertFalse("The store entry should have been superseded by the later delete entry", dummySearchProvider().getStoreEvents().keySet().stream()
+				.anyMatch(key -> key.endsWith(userUuid)));
+		assertTrue("The user document should have been deleted", dummySearchProvider().getDeleteEvents().stream().anyMatch(key -> key.endsWith(
+				userUuid)));
+	}
+
+	@Test
+	public void testRollbackLeavesNoOutboxBatch() {
+		SearchQueueBatch batch = createBatch();
+		try {
+			tx(() -> {
+				batch.store(user(), false);
+				// Let the transaction fail after the entries have been written to the outbox
+				CommitHooks.registerBeforeCommit(() -> {
+					throw new RuntimeException("Rollback");
+				});
+			});
+			fail("The transaction should have failed");
+		} catch (RuntimeException e) {
+			assertEquals("Rollback", e.getMessage());
+		}
+		assertTrue("The outbox batch should have been rolled back", outboxUuids().isEmpty());
+		assertEquals("The entries should remain in the batch", 1, batch.getEntries().size());
+	}
+
+	@Test
+	public void testRetryAfterSearchFailure() throws Exception {
+		Counter failures = MeshMetrics.counter("search", "outbox", "failures");
+		long failuresBefore = failures.getCount();
+		dummySearchProvider().setFailure(new RuntimeException("Search server unavailable"));
+		String uuid = writeBatch();
+
+		outbox.start();
+		long timeout = System.currentTimeMillis() + 10_000;
+		while (failures.getCount() == failuresBefore) {
+			if (System.currentTimeMillis() > timeout) {
+				fail("The background indexer did not try to process the batch");
+			}
+			Thread.sleep(50);
+		}
+		assertEquals("The batch should be kept after the failure", Arrays.asList(uuid), outboxUuids());
+
+		dummySearchProvider().setFailure(null);
+		assertTrue("The batch should have been processed by the retry", outbox.await(Arrays.asList(uuid)).blockingAwait(10, TimeUnit.SECONDS));
+		assertTrue("The processed batch should have been removed", outboxUuids().isEmpty());
+		assertUserStored();
+	}
+
+	@Test
+	public void testAwaitTimeout() {
+		Mesh.mesh().getOptions().getSearchOptions().setWriteBehindTimeout(100);
+		String uuid = writeBatch();
+
+		// The background indexer has not been started and will thus not process the batch
+		try {
+			outbox.await(Arrays.asList(uuid)).blockingAwait();
+			fail("Waiting for the batch should have timed out");
+		} catch (GenericRestException e) {
+			assertEquals(SERVICE_UNAVAILABLE, e.getStatus());
+			assertEquals("search_error_outbox_timeout", e.getI18nKey());
+		}
+		assertEquals("The batch should remain in the outbox", Arrays.asList(uuid), outboxUuids());
+	}
+
+	/**
+	 * Store the user within a transaction and return the uuid of the outbox batch which was written along with the transaction.
+	 *
+	 * @return
+	 */
+	private String writeBatch() {
+		List<String> before = outboxUuids();
+		SearchQueueBatch batch = tx(() -> {
+			SearchQueueBatch sqb = createBatch();
+			sqb.store(user(), false);
+			return sqb;
+		});
+		assertTrue("The entries should have been moved to the outbox", batch.getEntries().isEmpty());
+		List<String> uuids = outboxUuids();
+		uuids.removeAll(before);
+		assertEquals("One outbox batch should have been written", 1, uuids.size());
+		return uuids.get(0);
+	}
+
+	private List<String> outboxUuids() {
+		return tx(() -> {
+			List<String> uuids = new ArrayList<>();
+			Iterator<? extends SearchOutboxBatchImpl> it = db().getVerticesForType(SearchOutboxBatchImpl.class);
+			while (it.hasNext()) {
+				uuids.add(it.next().getUuid());
+			}
+			return uuids;
+		});
+	}
+
+	private void setCreated(String uuid, long created) {
+		db().findVertex("uuid", uuid, SearchOutboxBatchImpl.class).setCreated(created);
+	}
+
+	private void assertUserStored() {
+		String userUuid = userUuid();
+		assertTrue("The user document should have been stored", dummySearchProvider().getStoreEvents().keySet().stream().anyMatch(key -> key.endsWith(
+				userUuid)));
+	}
+
+}
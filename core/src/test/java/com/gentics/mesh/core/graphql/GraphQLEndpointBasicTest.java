@@ -5,22 +5,31 @@ import static com.gentics.mesh.test.TestDataProvider.PROJECT_NAME;
 import static com.gentics.mesh.test.ClientHelper.call;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import java.io.IOException;
 
 import org.json.JSONException;
 import org.junit.Test;
 
+import com.codahale.metrics.Counter;
+import com.gentics.mesh.Mesh;
 import com.syncleus.ferma.tx.Tx;
 import com.gentics.mesh.core.data.schema.MicroschemaContainer;
 import com.gentics.mesh.core.rest.graphql.GraphQLRequest;
 import com.gentics.mesh.core.rest.graphql.GraphQLResponse;
+import com.gentics.mesh.etc.config.GraphQLOptions;
+import com.gentics.mesh.graphql.GraphQLDocumentCache;
 import com.gentics.mesh.json.JsonUtil;
+import com.gentics.mesh.metric.MeshMetrics;
 import com.gentics.mesh.test.TestSize;
 import com.gentics.mesh.test.context.AbstractMeshTest;
 import com.gentics.mesh.test.context.MeshTestSetting;
 import com.gentics.mesh.util.MeshJSONAssert;
 
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
 @MeshTestSetting(useElasticsearch = false, testSize = TestSize.FULL, startServer = true)
@@ -46,6 +55,142 @@ public class GraphQLEndpointBasicTest extends AbstractMeshTest {
 		MeshJSONAssert.assertEquals("{'me':{'firstname':'Joe'}}", response.getData());
 	}
 
+	@Test
+	public void testSchemaCache() {
+		Counter hits = MeshMetrics.counter("graphql", "schema", "hits");
+		Counter misses = MeshMetrics.counter("graphql", "schema", "misses");
+		call(() -> client().graphqlQuery(PROJECT_NAME, "{me{firstname}}"));
+
+		long hitCount = hits.getCount();
+		long missCount = misses.getCount();
+		call(() -> client().graphqlQuery(PROJECT_NAME, "{me{firstname}}"));
+		assertEquals("The cached schema should have been used", hitCount + 1, hits.getCount());
+		assertEquals("The schema should not have been built again", missCount, misses.getCount());
+
+		// The schema must be rebuilt once the microschemas of the project change
+		try (Tx tx = tx()) {
+			for (MicroschemaContainer microschema : meshRoot().getMicroschemaContainerRoot().findAllIt()) {
+				microschema.remove();
+			}
+			tx.success();
+		}
+		call(() -> client().graphqlQuery(PROJECT_NAME, "{me{firstname}}"));
+		assertEquals("The schema should have been rebuilt", missCount + 1, misses.getCount());
+	}
+
+	@Test
+	public void testDocumentCache() {
+		Counter hits = MeshMetrics.counter("graphql", "documents", "hits");
+		Counter misses = MeshMetrics.counter("graphql", "documents", "misses");
+		long missCount = misses.getCount();
+		call(() -> client().graphqlQuery(PROJECT_NAME, "{cacheTest: me{lastname}}"));
+		assertEquals("The query should have been parsed once", missCount + 1, misses.getCount());
+
+		long hitCount = hits.getCount();
+		GraphQLResponse response = call(() -> client().graphqlQuery(PROJECT_NAME, "{cacheTest: me{lastname}}"));
+		assertEquals("The parsed query should have been reused", hitCount + 1, hits.getCount());
+		assertNotNull(response.getData().getJsonObject("cacheTest"));
+	}
+
+	@Test
+	public void testPersistedQuery() {
+		String query = "{me{username}}";
+		JsonObject extensions = new JsonObject().put("persistedQuery", new JsonObject().put("version", 1).put("sha256Hash", GraphQLDocumentCache.hash(
+			query)));
+
+		// The query is not yet known
+		GraphQLResponse response = call(() -> client().graphql(PROJECT_NAME, new GraphQLRequest().setExtensions(extensions)));
+		assertEquals("PersistedQueryNotFound", response.getErrors().get(0).getType());
+
+		// Register the query
+		response = call(() -> client().graphql(PROJECT_NAME, new GraphQLRequest().setQuery(query).setExtensions(extensions)));
+		assertEquals("joe1", response.getData().getJsonObject("me").getString("username"));
+
+		// Now the hash is sufficient
+		response = call(() -> client().graphql(PROJECT_NAME, new GraphQLRequest().setExtensions(extensions)));
+		assertEquals("joe1", response.getData().getJsonObject("me").getString("username"));
+
+		// The hash must match the query
+		response = call(() -> client().graphql(PROJECT_NAME, new GraphQLRequest().setQuery("{me{uuid}}").setExtensions(extensions)));
+		assertEquals("PersistedQueryHashMismatch", response.getErrors().get(0).getType());
+	}
+
+	@Test
+	public void testBatchedFields() {
+		GraphQLResponse response = call(() -> client().graphqlQuery(PROJECT_NAME,
+			"{ node(path: \"/News\") { uuid children { elements { parent { uuid } editor { username } tags { totalCount } } } } }"));
+		assertThat(response.getErrors()).isNullOrEmpty();
+		JsonObject node = response.getData().getJsonObject("node");
+		JsonArray children = node.getJsonObject("children").getJsonArray("elements");
+		assertFalse(children.isEmpty());
+		for (int i = 0; i < children.size(); i++) {
+			JsonObject child = children.getJsonObject(i);
+			assertEquals("All children should reference the same parent", node.getString("uuid"), child.getJsonObject("parent").getString("uuid"));
+			assertNotNull(child.getJsonObject("editor").getString("username"));
+			assertNotNull(child.getJsonObject("tags").getLong("totalCount"));
+		}
+	}
+
+	@Test
+	public void testQueryLimits() {
+		String query = "{ rootNode { children { elements { children { elements { children { elements { uuid } } } } } } } }";
+		GraphQLOptions options = Mesh.mesh().getOptions().getGraphQLOptions();
+		int maxDepth = options.getMaxQueryDepth();
+		long maxCost = options.getMaxQueryCost();
+		try {
+			GraphQLResponse response = call(() -> client().graphqlQuery(PROJECT_NAME, query));
+			assertThat(response.getErrors()).isNullOrEmpty();
+			JsonObject cost = response.getExtensions().getJsonObject("cost");
+			assertEquals(8, cost.getInteger("depth").intValue());
+			assertNotNull(cost.getLong("estimated"));
+			assertNotNull(cost.getLong("actual"));
+			assertNotNull(cost.getLong("duration"));
+
+			// Expensive queries are only logged by default
+			options.setMaxQueryDepth(5);
+			response = call(() -> client().graphqlQuery(PROJECT_NAME, query));
+			assertThat(response.getErrors()).isNullOrEmpty();
+			assertNotNull(response.getData());
+
+			options.setRejectExpensiveQueries(true);
+			response = call(() -> client().graphqlQuery(PROJECT_NAME, query));
+			assertEquals("QueryTooDeep", response.getErrors().get(0).getType());
+			assertNull(response.getData());
+
+			options.setMaxQueryDepth(maxDepth);
+			options.setMaxQueryCost(cost.getLong("estimated") - 1);
+			response = call(() -> client().graphqlQuery(PROJECT_NAME, query));
+			assertEquals("QueryTooExpensive", response.getErrors().get(0).getType());
+		} finally {
+			options.setMaxQueryDepth(maxDepth);
+			options.setMaxQueryCost(maxCost);
+			options.setRejectExpensiveQueries(GraphQLOptions.DEFAULT_REJECT_EXPENSIVE_QUERIES);
+		}
+	}
+
+	@Test
+	public void testNestedFragmentCost() {
+		// Each fragment spreads the next one twice which doubles the amount of selected fields per level
+		int levels = 50;
+		StringBuilder query = new StringBuilder("{ me { ...f0 } }");
+		for (int i = 0; i < levels; i++) {
+			query.append(" fragment f" + i + " on User { ...f" + (i + 1) + " ...f" + (i + 1) + " }");
+		}
+		query.append(" fragment f" + levels + " on User { firstname }");
+
+		GraphQLOptions options = Mesh.mesh().getOptions().getGraphQLOptions();
+		options.setRejectExpensiveQueries(true);
+		try {
+			long start = System.currentTimeMillis();
+			GraphQLResponse response = call(() -> client().graphqlQuery(PROJECT_NAME, query.toString()));
+			assertEquals("QueryTooExpensive", response.getErrors().get(0).getType());
+			assertNull(response.getData());
+			assertThat(System.currentTimeMillis() - start).as("Duration of the cost analysis").isLessThan(5000);
+		} finally {
+			options.setRejectExpensiveQueries(GraphQLOptions.DEFAULT_REJECT_EXPENSIVE_QUERIES);
+		}
+	}
+
 	@Test
 	public void testEmptyQuery() throws Throwable {
 		GraphQLResponse response = call(() -> client().graphqlQuery(PROJECT_NAME, ""));
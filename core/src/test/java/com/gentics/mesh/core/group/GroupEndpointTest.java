@@ -28,9 +28,11 @@ import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -55,6 +57,7 @@ import com.gentics.mesh.rest.client.MeshResponse;
 import com.gentics.mesh.test.context.AbstractMeshTest;
 import com.gentics.mesh.test.context.MeshTestSetting;
 import com.gentics.mesh.test.definition.BasicRestTestcases;
+import com.gentics.mesh.util.PagingCursor;
 import com.gentics.mesh.util.UUIDUtil;
 import com.syncleus.ferma.tx.Tx;
 
@@ -288,6 +291,75 @@ public class GroupEndpointTest extends AbstractMeshTest implements BasicRestTest
 		assertEquals(0, list.getData().size());
 	}
 
+	@Test
+	public void testReadMultipleByCursor() {
+		final int nGroups = 12;
+		try (Tx tx = tx()) {
+			GroupRoot root = meshRoot().getGroupRoot();
+			for (int i = 0; i < nGroups; i++) {
+				Group group = root.create("group_" + i, user());
+				role().grantPermissions(group, READ_PERM);
+			}
+			tx.success();
+		}
+		GroupListResponse allGroups = call(() -> client().findGroups(new PagingParametersImpl(1, 100)));
+		assertNull("There is no next page", allGroups.getMetainfo().getNextCursor());
+
+		List<String> loadedUuids = new ArrayList<>();
+		String cursor = null;
+		do {
+			PagingParametersImpl paging = new PagingParametersImpl(1, 5);
+			paging.setTotalCount(false);
+			if (cursor != null) {
+				paging.setAfter(cursor);
+			}
+			GroupListResponse page = call(() -> client().findGroups(paging));
+			assertEquals("The total count was not requested", -1, page.getMetainfo().getTotalCount());
+			assertEquals(-1, page.getMetainfo().getPageCount());
+			page.getData().forEach(group -> loadedUuids.add(group.getUuid()));
+			cursor = page.getMetainfo().getNextCursor();
+		} while (cursor != null);
+		assertEquals(allGroups.getData().stream().map(GroupResponse::getUuid).collect(Collectors.toList()), loadedUuids);
+
+		// The total count is still determined by default
+		String after = call(() -> client().findGroups(new PagingParametersImpl(1, 5))).getMetainfo().getNextCursor();
+		GroupListResponse page = call(() -> client().findGroups(new PagingParametersImpl(1, 5).setAfter(after)));
+		assertEquals(loadedUuids.get(5), page.getData().get(0).getUuid());
+		assertEquals(allGroups.getMetainfo().getTotalCount(), page.getMetainfo().getTotalCount());
+
+		call(() -> client().findGroups(new PagingParametersImpl(1, 5).setAfter("bogus")), BAD_REQUEST, "error_invalid_paging_cursor", "bogus");
+		// The cursor is opaque and plain uuids are thus not accepted
+		String uuid = loadedUuids.get(4);
+		call(() -> client().findGroups(new PagingParametersImpl(1, 5).setAfter(uuid)), BAD_REQUEST, "error_invalid_paging_cursor", uuid);
+	}
+
+	@Test
+	public void testReadMultipleByUnknownCursor() {
+		String deletedCursor;
+		String hiddenCursor;
+		try (Tx tx = tx()) {
+			GroupRoot root = meshRoot().getGroupRoot();
+			Group deletedGroup = root.create("deleted_group", user());
+			role().grantPermissions(deletedGroup, READ_PERM);
+			deletedCursor = PagingCursor.encode(deletedGroup.getUuid());
+			deletedGroup.delete(createBatch());
+
+			Group hiddenGroup = root.create("hidden_group", user());
+			role().revokePermissions(hiddenGroup, READ_PERM);
+			hiddenCursor = PagingCursor.encode(hiddenGroup.getUuid());
+			tx.success();
+		}
+
+		for (boolean totalCount : Arrays.asList(true, false)) {
+			PagingParametersImpl paging = new PagingParametersImpl(1, 5);
+			paging.setTotalCount(totalCount);
+			paging.setAfter(deletedCursor);
+			call(() -> client().findGroups(paging), BAD_REQUEST, "error_paging_cursor_not_found", deletedCursor);
+			paging.setAfter(hiddenCursor);
+			call(() -> client().findGroups(paging), BAD_REQUEST, "error_paging_cursor_not_found", hiddenCursor);
+		}
+	}
+
 	@Test
 	@Override
 	public void testReadByUUID() throws Exception {
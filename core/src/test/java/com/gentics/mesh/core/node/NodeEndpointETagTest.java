@@ -15,6 +15,7 @@ import com.gentics.mesh.FieldUtil;
 import com.gentics.mesh.core.data.node.Node;
 import com.gentics.mesh.core.rest.node.NodeCreateRequest;
 import com.gentics.mesh.core.rest.node.NodeResponse;
+import com.gentics.mesh.core.rest.node.NodeUpdateRequest;
 import com.gentics.mesh.core.rest.schema.SchemaModel;
 import com.gentics.mesh.core.rest.schema.impl.SchemaReferenceImpl;
 import com.gentics.mesh.core.rest.user.NodeReference;
@@ -120,4 +121,59 @@ public class NodeEndpointETagTest extends AbstractMeshTest {
 
 	}
 
+	@Test
+	public void testReadOneAfterModification() {
+		String etag = callETag(() -> client().findNodeByUuid(PROJECT_NAME, contentUuid()));
+		callETag(() -> client().findNodeByUuid(PROJECT_NAME, contentUuid()), etag, true, 304);
+
+		// Tagging the node changes the tags of the response
+		String tagUuid = tx(() -> tag("red").getUuid());
+		call(() -> client().addTagToNode(PROJECT_NAME, contentUuid(), tagUuid));
+		String taggedEtag = callETag(() -> client().findNodeByUuid(PROJECT_NAME, contentUuid()), etag, true, 200);
+		assertNotEquals(etag, taggedEtag);
+		callETag(() -> client().findNodeByUuid(PROJECT_NAME, contentUuid()), taggedEtag, true, 304);
+
+		// Moving the node changes the parent node and the breadcrumb of the response
+		String targetUuid = tx(() -> folder("news").getUuid());
+		call(() -> client().moveNode(PROJECT_NAME, contentUuid(), targetUuid));
+		callETag(() -> client().findNodeByUuid(PROJECT_NAME, contentUuid()), taggedEtag, true, 200);
+	}
+
+	@Test
+	public void testReadOneAfterParentModification() {
+		String parentUuid = tx(() -> folder("news").getUuid());
+		String childUuid = tx(() -> folder("2015").getUuid());
+		String parentEtag = callETag(() -> client().findNodeByUuid(PROJECT_NAME, parentUuid));
+		String childEtag = callETag(() -> client().findNodeByUuid(PROJECT_NAME, childUuid));
+
+		// Renaming the parent changes the breadcrumb and the path of the child
+		NodeResponse parent = call(() -> client().findNodeByUuid(PROJECT_NAME, parentUuid));
+		NodeUpdateRequest update = new NodeUpdateRequest();
+		update.setLanguage("en");
+		update.setVersion(parent.getVersion());
+		update.getFields().put("slug", FieldUtil.createStringField("renamed-news"));
+		call(() -> client().updateNode(PROJECT_NAME, parentUuid, update));
+		String renamedParentEtag = callETag(() -> client().findNodeByUuid(PROJECT_NAME, parentUuid), parentEtag, true, 200);
+		String renamedChildEtag = callETag(() -> client().findNodeByUuid(PROJECT_NAME, childUuid), childEtag, true, 200);
+		callETag(() -> client().findNodeByUuid(PROJECT_NAME, childUuid), renamedChildEtag, true, 304);
+
+		// Creating a child changes the children info of the parent but not the etag of the siblings
+		NodeCreateRequest request = new NodeCreateRequest();
+		request.setLanguage("en");
+		request.setParentNode(new NodeReference().setUuid(parentUuid));
+		request.setSchema(new SchemaReferenceImpl().setName("content"));
+		request.getFields().put("teaser", FieldUtil.createStringField("someTeaser"));
+		request.getFields().put("slug", FieldUtil.createStringField("someSlug"));
+		String parentStamp = tx(() -> folder("news").getETagStamp());
+		NodeResponse created = call(() -> client().createNode(PROJECT_NAME, request));
+		String parentEtagWithChild = callETag(() -> client().findNodeByUuid(PROJECT_NAME, parentUuid), renamedParentEtag, true, 200);
+		callETag(() -> client().findNodeByUuid(PROJECT_NAME, childUuid), renamedChildEtag, true, 304);
+		assertEquals("Creating a child must not modify the parent node", parentStamp, tx(() -> folder("news").getETagStamp()));
+
+		// Deleting the child changes the children info of the parent again
+		call(() -> client().deleteNode(PROJECT_NAME, created.getUuid()));
+		callETag(() -> client().findNodeByUuid(PROJECT_NAME, parentUuid), parentEtagWithChild, true, 200);
+		assertEquals("Deleting a child must not modify the parent node", parentStamp, tx(() -> folder("news").getETagStamp()));
+	}
+
 }
@@ -0,0 +1,282 @@
+package com.gentics.mesh.core.schema;
+
+import static com.gentics.mesh.test.TestSize.FULL;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gentics.mesh.FieldUtil;
+import com.gentics.mesh.Mesh;
+import com.gentics.mesh.core.data.NodeGraphFieldContainer;
+import com.gentics.mesh.core.data.node.Node;
+import com.gentics.mesh.core.data.release.ReleaseVersionEdge;
+import com.gentics.mesh.core.data.schema.SchemaContainer;
+import com.gentics.mesh.core.data.schema.SchemaContainerVersion;
+import com.gentics.mesh.core.data.schema.impl.SchemaContainerImpl;
+import com.gentics.mesh.core.data.schema.impl.SchemaContainerVersionImpl;
+import com.gentics.mesh.core.data.schema.impl.UpdateFieldChangeImpl;
+import com.gentics.mesh.core.rest.admin.migration.MigrationStatus;
+import com.gentics.mesh.core.rest.schema.SchemaModel;
+import com.gentics.mesh.core.rest.schema.impl.SchemaModelImpl;
+import com.gentics.mesh.core.verticle.migration.MigrationStatusHandler;
+import com.gentics.mesh.core.verticle.migration.node.NodeMigrationHandler;
+import com.gentics.mesh.etc.config.MigrationOptions;
+import com.gentics.mesh.test.context.AbstractMeshTest;
+import com.gentics.mesh.test.context.MeshTestSetting;
+import com.gentics.mesh.util.UUIDUtil;
+import com.syncleus.ferma.tx.Tx;
+
+import io.reactivex.exceptions.CompositeException;
+
+@MeshTestSetting(useElasticsearch = false, testSize = FULL, startServer = false)
+public class NodeMigrationCheckpointTest extends AbstractMeshTest {
+
+	private static final String FIELD_NAME = "migratedField";
+
+	private static final String FAILING_VALUE = "fail";
+
+	private static final String SCRIPT = "function migrate(node, fieldname) {if (node.fields[fieldname] == '" + FAILING_VALUE
+			+ "') {throw 'Migration failed';} return node;}";
+
+	private NodeMigrationHandler nodeMigrationHandler;
+
+	private int chunkSize;
+
+	private int poolSize;
+
+	private SchemaContainerVersion versionA;
+
+	private SchemaContainerVersion versionB;
+
+	@Before
+	public void setupMigration() {
+		nodeMigrationHandler = meshDagger().nodeMigrationHandler();
+
+		// Migrate one node per chunk and load four nodes per page
+		MigrationOptions options = Mesh.mesh().getOptions().getMigrationOptions();
+		chunkSize = options.getChunkSize();
+		poolSize = options.getPoolSize();
+		options.setChunkSize(1).setPoolSize(1);
+
+		try (Tx tx = tx()) {
+			SchemaContainer container = tx.getGraph().addFramedVertex(SchemaContainerImpl.class);
+			container.setName(UUIDUtil.randomUUID());
+			container.setCreated(user());
+			boot().schemaContainerRoot().addItem(container);
+			versionA = createSchemaVersion(tx, container, "1.0");
+			container.setLatestVersion(versionA);
+			versionB = createSchemaVersion(tx, container, "2.0");
+
+			UpdateFieldChangeImpl change = tx.getGraph().addFramedVertex(UpdateFieldChangeImpl.class);
+			change.setFieldName(FIELD_NAME);
+			change.setCustomMigrationScript(SCRIPT);
+			change.setPreviousContainerVersion(versionA);
+			change.setNextSchemaContainerVersion(versionB);
+			versionA.setNextVersion(versionB);
+			project().getLatestRelease().assignSchemaVersion(user(), versionA);
+			tx.success();
+		}
+	}
+
+	@After
+	public void resetOptions() {
+		Mesh.mesh().getOptions().getMigrationOptions().setChunkSize(chunkSize).setPoolSize(poolSize);
+	}
+
+	@Test
+	public void testResumeFromCheckpoint() {
+		List<Node> nodes = createNodes("a", "b", "c", "d", "e", "f");
+		TestStatusHandler status = new TestStatusHandler(nodeId(nodes.get(1)));
+
+		migrate(status);
+
+		try (Tx tx = tx()) {
+			assertVersion(nodes.get(0), versionA);
+			assertVersion(nodes.get(1), versionA);
+			for (Node node : nodes.subList(2, nodes.size())) {
+				assertVersion(node, versionB);
+			}
+		}
+		assertEquals("The checkpoint should point to the last node", Long.valueOf(nodeId(nodes.get(5))), status.getCheckpoint());
+		assertEquals("Only the nodes after the checkpoint should have been migrated", 4, status.completed);
+	}
+
+	@Test
+	public void testMigrateMultiplePages() {
+		// Four nodes are loaded per page
+		List<Node> nodes = createNodes("a", "b", "c", "d", "e", "f", "g", "h", "i", "j");
+		TestStatusHandler status = new TestStatusHandler(null);
+
+		migrate(status);
+
+		try (Tx tx = tx()) {
+			for (Node node : nodes) {
+				assertVersion(node, versionB);
+				// The migrated container directly follows the initial container of the old version
+				NodeGraphFieldContainer previous = node.getGraphFieldContainer("en").getPreviousVersion();
+				assertEquals(versionA.getUuid(), previous.getSchemaContainerVersion().getUuid());
+				assertNull(previous.getPreviousVersion());
+			}
+		}
+		assertEquals("Every container should have been migrated exactly once", nodes.size(), status.completed);
+		assertEquals(Long.valueOf(nodeId(nodes.get(nodes.size() - 1))), status.getCheckpoint());
+	}
+
+	@Test
+	public void testFailingChunk() {
+		List<Node> nodes = createNodes("a", "b", "c", "d", "e", "f");
+		try (Tx tx = tx()) {
+			nodes.get(2).getGraphFieldContainer("en").getString(FIELD_NAME).setString(FAILING_VALUE);
+			tx.success();
+		}
+		TestStatusHandler status = new TestStatusHandler(null);
+
+		try {
+			migrate(status);
+			fail("The migration should have failed");
+		} catch (CompositeException e) {
+			// Expected
+		}
+
+		try (Tx tx = tx()) {
+			assertVersion(nodes.get(2), versionA);
+			for (Node node : nodes) {
+				if (node != nodes.get(2)) {
+					assertVersion(node, versionB);
+				}
+			}
+		}
+		assertEquals("The checkpoint must not be advanced past the failed chunk", Long.valueOf(nodeId(nodes.get(1))), status.getCheckpoint());
+
+		// Resuming the migration from the checkpoint must retry the failed node
+		try (Tx tx = tx()) {
+			nodes.get(2).getGraphFieldContainer("en").getString(FIELD_NAME).setString("c");
+			tx.success();
+		}
+		migrate(status);
+		try (Tx tx = tx()) {
+			assertVersion(nodes.get(2), versionB);
+		}
+		assertEquals(Long.valueOf(nodeId(nodes.get(5))), status.getCheckpoint());
+	}
+
+	private void migrate(MigrationStatusHandler status) {
+		try (Tx tx = tx()) {
+			project().getLatestRelease().assignSchemaVersion(user(), versionB);
+			tx.success();
+		}
+		nodeMigrationHandler.migrateNodes(project(), project().getLatestRelease(), versionA, versionB, status).blockingAwait();
+	}
+
+	/**
+	 * Create a node with an english container for each of the given values. The nodes are returned in the order of their numeric ids, which is the order of
+	 * the migration.
+	 *
+	 * @param values
+	 * @return
+	 */
+	private List<Node> createNodes(String... values) {
+		List<Node> nodes = new ArrayList<>();
+		try (Tx tx = tx()) {
+			Node parentNode = folder("2015");
+			for (String value : values) {
+				Node node = parentNode.create(user(), versionA, project());
+				NodeGraphFieldContainer container = node.createGraphFieldContainer(english(), project().getLatestRelease(), user());
+				container.createString(FIELD_NAME).setString(value);
+				nodes.add(node);
+			}
+			tx.success();
+		}
+		nodes.sort(Comparator.comparingLong(this::nodeId));
+		return nodes;
+	}
+
+	private long nodeId(Node node) {
+		return db().toNumericId(node.getId());
+	}
+
+	private void assertVersion(Node node, SchemaContainerVersion version) {
+		assertEquals("Node {" + node.getUuid() + "} has the wrong schema version", version.getUuid(), node.getGraphFieldContainer("en")
+				.getSchemaContainerVersion().getUuid());
+	}
+
+	private SchemaContainerVersion createSchemaVersion(Tx tx, SchemaContainer container, String version) {
+		SchemaModel schema = new SchemaModelImpl();
+		schema.setName("migratedSchema");
+		schema.setVersion(version);
+		schema.addField(FieldUtil.createStringFieldSchema(FIELD_NAME));
+		schema.validate();
+
+		SchemaContainerVersion containerVersion = tx.getGraph().addFramedVertex(SchemaContainerVersionImpl.class);
+		containerVersion.setName("migratedSchema");
+		containerVersion.setSchema(schema);
+		containerVersion.setSchemaContainer(container);
+		return containerVersion;
+	}
+
+	/**
+	 * Status handler which keeps the progress in memory.
+	 */
+	private static class TestStatusHandler implements MigrationStatusHandler {
+
+		private Long checkpoint;
+
+		private long completed;
+
+		TestStatusHandler(Long checkpoint) {
+			this.checkpoint = checkpoint;
+		}
+
+		@Override
+		public MigrationStatusHandler commit() {
+			return this;
+		}
+
+		@Override
+		public MigrationStatusHandler done() {
+			return this;
+		}
+
+		@Override
+		public MigrationStatusHandler error(Throwable error, String string) {
+			return this;
+		}
+
+		@Override
+		public void setVersionEdge(ReleaseVersionEdge versionEdge) {
+		}
+
+		@Override
+		public void setStatus(MigrationStatus status) {
+		}
+
+		@Override
+		public void setCompletionCount(long completionCount) {
+			completed = completionCount;
+		}
+
+		@Override
+		public void incCompleted() {
+			completed++;
+		}
+
+		@Override
+		public Long getCheckpoint() {
+			return checkpoint;
+		}
+
+		@Override
+		public void setCheckpoint(Long checkpoint) {
+			this.checkpoint = checkpoint;
+		}
+	}
+
+}
@@ -1,11 +1,13 @@
 package com.gentics.mesh.core.webroot.node;
 
 import static com.gentics.mesh.test.TestSize.FULL;
+import static io.netty.handler.codec.http.HttpResponseStatus.FORBIDDEN;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
@@ -13,9 +15,14 @@ import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.FileUtils;
 import org.junit.After;
@@ -25,6 +32,7 @@ import org.junit.Test;
 import com.gentics.mesh.Mesh;
 import com.gentics.mesh.context.InternalActionContext;
 import com.gentics.mesh.core.data.node.field.BinaryGraphField;
+import com.gentics.mesh.core.data.relationship.GraphPermission;
 import com.gentics.mesh.core.rest.error.GenericRestException;
 import com.gentics.mesh.core.verticle.node.BinaryFieldHandler;
 import com.gentics.mesh.etc.config.MeshUploadOptions;
@@ -132,6 +140,70 @@ public class BinaryFieldHandlerTest extends AbstractMeshTest {
 		}
 	}
 
+	@Test
+	public void testUploadDeduplication() throws Exception {
+		String uuid;
+		try (Tx tx = tx()) {
+			prepareSchema(content(), null, "binaryField");
+			CaseInsensitiveHeaders attributes = new CaseInsensitiveHeaders();
+			attributes.add("language", "en");
+			attributes.add("version", "1.0");
+			handler.handleUpdateField(mockContext(mockUpload("blub123")), contentUuid(), "binaryField", attributes);
+			uuid = content().getLatestDraftFieldContainer(english()).getBinary("binaryField").getBinary().getUuid();
+		}
+
+		try (Tx tx = tx()) {
+			// Upload the same data again
+			CaseInsensitiveHeaders attributes = new CaseInsensitiveHeaders();
+			attributes.add("language", "en");
+			attributes.add("version", "1.1");
+			handler.handleUpdateField(mockContext(mockUpload("blub123")), contentUuid(), "binaryField", attributes);
+
+			BinaryGraphField field = content().getLatestDraftFieldContainer(english()).getBinary("binaryField");
+			assertEquals("The already stored binary should have been reused.", uuid, field.getBinary().getUuid());
+			assertEquals("Size of the file did not match.", 7, field.getBinary().getSize());
+			assertTrue("The file should still be placed in the local binary storage.", new File(LocalBinaryStorage.getFilePath(uuid)).exists());
+		}
+		// The data of the duplicate upload is deleted in the background
+		assertStoredFiles(uuid);
+
+		try (Tx tx = tx()) {
+			// Upload new data for a version which does not exist. The transaction will fail after the data has been stored.
+			CaseInsensitiveHeaders attributes = new CaseInsensitiveHeaders();
+			attributes.add("language", "en");
+			attributes.add("version", "42.0");
+			try {
+				handler.handleUpdateField(mockContext(mockUpload("other data")), contentUuid(), "binaryField", attributes);
+				fail("The upload should have failed");
+			} catch (GenericRestException e) {
+				assertEquals("node_error_draft_not_found", e.getI18nKey());
+			}
+		}
+		assertStoredFiles(uuid);
+	}
+
+	@Test
+	public void testUploadWithoutPermission() throws IOException {
+		try (Tx tx = tx()) {
+			prepareSchema(content(), null, "binaryField");
+			role().revokePermissions(content(), GraphPermission.UPDATE_PERM);
+			tx.success();
+		}
+
+		try (Tx tx = tx()) {
+			CaseInsensitiveHeaders attributes = new CaseInsensitiveHeaders();
+			attributes.add("language", "en");
+			attributes.add("version", "1.0");
+			try {
+				handler.handleUpdateField(mockContext(mockUpload("blub123")), contentUuid(), "binaryField", attributes);
+				fail("The upload should have been rejected");
+			} catch (GenericRestException e) {
+				assertEquals(FORBIDDEN, e.getStatus());
+			}
+		}
+		assertFalse("The upload must be rejected before the data is stored", getUploadFolder().exists());
+	}
+
 	@Test(expected = GenericRestException.class)
 	public void testFileUploadWithNoUploadFile() throws Throwable {
 		try (Tx tx = tx()) {
@@ -151,6 +223,32 @@ public class BinaryFieldHandlerTest extends AbstractMeshTest {
 		}
 	}
 
+	/**
+	 * Wait until the binary storage only contains the data of the given binaries. Discarded uploads are deleted asynchronously.
+	 * 
+	 * @param binaryUuids
+	 * @throws Exception
+	 */
+	private void assertStoredFiles(String... binaryUuids) throws Exception {
+		Set<String> expected = Arrays.stream(binaryUuids).map(uuid -> uuid + ".bin").collect(Collectors.toSet());
+		long timeout = System.currentTimeMillis() + 10_000;
+		Set<String> stored = getStoredFiles();
+		while (!stored.equals(expected)) {
+			if (System.currentTimeMillis() > timeout) {
+				fail("The binary storage should only contain {" + expected + "} but contained {" + stored + "}");
+			}
+			Thread.sleep(50);
+			stored = getStoredFiles();
+		}
+	}
+
+	private Set<String> getStoredFiles() throws IOException {
+		try (Stream<Path> files = Files.walk(getUploadFolder().toPath())) {
+			return files.filter(Files::isRegularFile).map(file -> file.getFileName().toString()).filter(name -> name.endsWith(".bin")).collect(
+				Collectors.toSet());
+		}
+	}
+
 	private File getUploadFolder() {
 		return new File(uploadOptions.getDirectory());
 	}
@@ -1,12 +1,19 @@
 package com.gentics.mesh.graphdb;
 
+import static com.gentics.mesh.core.data.relationship.GraphRelationships.HAS_GROUP;
 import static com.gentics.mesh.test.TestSize.FULL;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.io.FileUtils;
 import org.junit.After;
@@ -17,8 +24,10 @@ import org.junit.Test;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.gentics.mesh.Mesh;
+import com.gentics.mesh.core.data.Group;
 import com.gentics.mesh.core.data.impl.LanguageImpl;
 import com.gentics.mesh.core.data.relationship.GraphRelationships;
+import com.gentics.mesh.core.data.root.GroupRoot;
 import com.gentics.mesh.error.MeshSchemaException;
 import com.gentics.mesh.graphdb.spi.FieldType;
 import com.gentics.mesh.test.context.AbstractMeshTest;
@@ -52,6 +61,55 @@ public class DatabaseTest extends AbstractMeshTest {
 		}
 	}
 
+	@Test
+	public void testSortedEdgeIndexLookup() {
+		try (Tx tx = tx()) {
+			GroupRoot root = meshRoot().getGroupRoot();
+			for (int i = 0; i < 5; i++) {
+				root.create("sorted_group_" + i, user());
+			}
+			tx.success();
+		}
+		try (Tx tx = tx()) {
+			GroupRoot root = meshRoot().getGroupRoot();
+			List<Object> allIds = db().edgeLookupAscending(HAS_GROUP, root.getId(), null, 1000);
+			Set<Object> expectedIds = new HashSet<>();
+			for (Group group : root.findAllDynamic()) {
+				expectedIds.add(group.getId());
+			}
+			assertEquals(expectedIds, new HashSet<>(allIds));
+			assertEquals(expectedIds.size(), allIds.size());
+
+			// Seek through the index in chunks
+			List<Object> seekedIds = new ArrayList<>();
+			List<Object> chunk = db().edgeLookupAscending(HAS_GROUP, root.getId(), null, 2);
+			while (!chunk.isEmpty()) {
+				assertTrue(chunk.size() <= 2);
+				seekedIds.addAll(chunk);
+				chunk = db().edgeLookupAscending(HAS_GROUP, root.getId(), chunk.get(chunk.size() - 1), 2);
+			}
+			assertEquals(allIds, seekedIds);
+			assertNull("There is no sorted index for the label", db().edgeLookupAscending(GraphRelationships.ASSIGNED_TO_ROLE, user().getId(), null,
+					10));
+		}
+	}
+
+	@Test
+	public void testFindByUuids() {
+		try (Tx tx = tx()) {
+			GroupRoot root = meshRoot().getGroupRoot();
+			// Groups which were created within the current transaction must also be found
+			Group newGroup = root.create("multi_key_group", user());
+			List<String> uuids = Arrays.asList(group().getUuid(), newGroup.getUuid(), group().getUuid(), user().getUuid(), "bogus");
+			Map<String, Group> groups = root.findByUuids(uuids);
+			assertEquals(2, groups.size());
+			assertEquals(group().getId(), groups.get(group().getUuid()).getId());
+			assertEquals(newGroup.getId(), groups.get(newGroup.getUuid()).getId());
+			assertNull("The user is not part of the group root", groups.get(user().getUuid()));
+			assertTrue(root.findByUuids(Arrays.asList()).isEmpty());
+		}
+	}
+
 	@Test
 	public void testExport() throws IOException {
 		db().exportGraph(outputDirectory.getAbsolutePath());
@@ -18,6 +18,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
 import com.syncleus.ferma.tx.Tx;
 import com.gentics.mesh.core.data.Project;
 import com.gentics.mesh.core.data.Tag;
@@ -29,9 +31,13 @@ import com.gentics.mesh.core.data.impl.UserImpl;
 import com.gentics.mesh.core.data.node.Node;
 import com.gentics.mesh.core.data.node.impl.NodeImpl;
 import com.gentics.mesh.core.data.root.UserRoot;
+import com.gentics.mesh.graphdb.spi.TxStats;
+import com.gentics.mesh.metric.MeshMetrics;
 import com.gentics.mesh.test.context.AbstractMeshTest;
 import com.gentics.mesh.test.context.MeshTestSetting;
 import com.gentics.mesh.test.util.TestUtils;
+import com.orientechnologies.orient.core.exception.OConcurrentModificationException;
+import com.orientechnologies.orient.core.id.ORID;
 
 import io.reactivex.Single;
 
@@ -136,6 +142,67 @@ public class TxTest extends AbstractMeshTest {
 		assertEquals("OK", result);
 	}
 
+	@Test
+	public void testRetryConflictingTx() {
+		AtomicInteger attempts = new AtomicInteger();
+		Object userId = db().tx(() -> user().getId());
+		Counter conflicts = MeshMetrics.counter("tx", "conflicts", "class", UserImpl.class.getSimpleName());
+		long conflictsBefore = conflicts.getCount();
+
+		String result = db().tx(() -> {
+			if (attempts.incrementAndGet() <= 2) {
+				throw new OConcurrentModificationException((ORID) userId, 2, 1, 0);
+			}
+			return "OK";
+		});
+		assertEquals("OK", result);
+		assertEquals("The transaction should have been retried twice", 3, attempts.get());
+		assertEquals("The conflicts should have been recorded for the class of the conflicting element", conflictsBefore + 2, conflicts.getCount());
+	}
+
+	@Test
+	public void testAsyncRetryConflictingTx() throws Exception {
+		AtomicInteger attempts = new AtomicInteger();
+		Object userId = db().tx(() -> user().getId());
+		Histogram retries = MeshMetrics.histogram("tx", "retries", "endpoint", "test.asyncRetry");
+		long completedBefore = retries.getCount();
+
+		CompletableFuture<String> result = new CompletableFuture<>();
+		TxStats.setEndpoint("test.asyncRetry");
+		try {
+			db().asyncRetryTx(tx -> {
+				if (attempts.incrementAndGet() <= 2) {
+					throw new OConcurrentModificationException((ORID) userId, 2, 1, 0);
+				}
+				return "OK";
+			}, false, rh -> {
+				if (rh.succeeded()) {
+					result.complete(rh.result());
+				} else {
+					result.completeExceptionally(rh.cause());
+				}
+			});
+		} finally {
+			TxStats.setEndpoint(null);
+		}
+		assertEquals("OK", result.get(10, TimeUnit.SECONDS));
+		assertEquals("The transaction should have been retried twice", 3, attempts.get());
+		assertEquals("The completion should have been recorded for the endpoint of the caller", completedBefore + 1, retries.getCount());
+	}
+
+	@Test
+	public void testAsyncRetryTxError() throws Exception {
+		AtomicInteger attempts = new AtomicInteger();
+		CompletableFuture<Throwable> result = new CompletableFuture<>();
+		db().asyncRetryTx(tx -> {
+			attempts.incrementAndGet();
+			throw new IllegalStateException("error");
+		}, false, rh -> result.complete(rh.cause()));
+		Throwable cause = result.get(10, TimeUnit.SECONDS);
+		assertEquals("error", cause.getMessage());
+		assertEquals("Errors which are not caused by conflicts must not be retried", 1, attempts.get());
+	}
+
 	@Test
 	public void testAsyncNoTrxSuccess() throws Throwable {
 		String result = db().asyncTx(() -> {
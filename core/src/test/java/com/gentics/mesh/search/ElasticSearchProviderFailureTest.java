@@ -0,0 +1,142 @@
+package com.gentics.mesh.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.codahale.metrics.Counter;
+import com.gentics.mesh.Mesh;
+import com.gentics.mesh.core.data.search.SearchQueueBatch;
+import com.gentics.mesh.core.data.search.impl.SearchOutbox;
+import com.gentics.mesh.core.data.search.impl.SearchOutboxBatchImpl;
+import com.gentics.mesh.dagger.MeshInternal;
+import com.gentics.mesh.etc.config.search.ElasticSearchHost;
+import com.gentics.mesh.etc.config.search.ElasticSearchOptions;
+import com.gentics.mesh.metric.MeshMetrics;
+import com.gentics.mesh.search.impl.ElasticSearchProvider;
+import com.gentics.mesh.test.TestSize;
+import com.gentics.mesh.test.context.AbstractMeshTest;
+import com.gentics.mesh.test.context.MeshTestSetting;
+
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.http.HttpServer;
+
+@MeshTestSetting(useElasticsearch = true, testSize = TestSize.PROJECT, startServer = false)
+public class ElasticSearchProviderFailureTest extends AbstractMeshTest {
+
+	private ElasticSearchProvider provider;
+
+	private List<ElasticSearchHost> hosts;
+
+	private HttpServer server;
+
+	/**
+	 * Use a server which rejects all bulk requests instead of Elasticsearch.
+	 *
+	 * @throws IOException
+	 */
+	@Before
+	public void setupFailingServer() throws IOException {
+		Vertx vertx = new Vertx(Mesh.mesh().getVertx());
+		provider = ((ElasticSearchProvider) MeshInternal.get().searchProvider());
+		ElasticSearchOptions options = provider.getOptions();
+
+		server = vertx.createHttpServer(new HttpServerOptions().setPort(0));
+		server.requestHandler(rh -> {
+			if (rh.path().endsWith("_bulk")) {
+				rh.response().setStatusCode(503).end(new JsonObject().put("error", "unavailable").encode());
+			} else {
+				rh.response().end(new JsonObject().encode());
+			}
+		});
+		server.rxListen().blockingGet();
+
+		hosts = new ArrayList<>(options.getHosts());
+		options.getHosts().clear();
+		options.getHosts().add(new ElasticSearchHost().setHostname("localhost").setPort(server.actualPort()));
+		provider.stop();
+		provider.start(false);
+	}
+
+	@After
+	public void restoreProvider() throws IOException {
+		if (server == null) {
+			return;
+		}
+		ElasticSearchOptions options = provider.getOptions();
+		options.getHosts().clear();
+		options.getHosts().addAll(hosts);
+		provider.stop();
+		provider.start(false);
+		server.rxClose().blockingAwait();
+		server = null;
+	}
+
+	@Test
+	public void testStoreFailure() {
+		try {
+			provider.storeDocument("test", "1", new JsonObject().put("value", 1)).blockingAwait();
+			fail("The failed bulk request should have been reported");
+		} catch (RuntimeException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testOutboxKeepsBatches() throws Exception {
+		SearchOutbox outbox = meshDagger().searchOutbox();
+		Mesh.mesh().getOptions().getSearchOptions().setWriteBehind(true).setWriteBehindTimeout(30_000);
+		try {
+			Counter failures = MeshMetrics.counter("search", "outbox", "failures");
+			long failuresBefore = failures.getCount();
+			tx(() -> {
+				SearchQueueBatch batch = createBatch();
+				batch.store(user(), false);
+			});
+			List<String> uuids = outboxUuids();
+			assertEquals("One outbox batch should have been written", 1, uuids.size());
+
+			outbox.start();
+			long timeout = System.currentTimeMillis() + 30_000;
+			while (failures.getCount() == failuresBefore) {
+				if (System.currentTimeMillis() > timeout) {
+					fail("The background indexer did not try to process the batch");
+				}
+				Thread.sleep(50);
+			}
+			assertEquals("The batch should be kept after the bulk request failed", uuids, outboxUuids());
+
+			// Switch back to Elasticsearch. The batch should be processed by the next attempt.
+			restoreProvider();
+			assertTrue("The batch should have been processed by the retry", outbox.await(uuids).blockingAwait(40, TimeUnit.SECONDS));
+			assertTrue("The processed batch should have been removed", outboxUuids().isEmpty());
+		} finally {
+			outbox.stop();
+			Mesh.mesh().getOptions().getSearchOptions().setWriteBehind(false).setWriteBehindTimeout(ElasticSearchOptions.DEFAULT_WRITE_BEHIND_TIMEOUT);
+		}
+	}
+
+	private List<String> outboxUuids() {
+		return tx(() -> {
+			List<String> uuids = new ArrayList<>();
+			Iterator<? extends SearchOutboxBatchImpl> it = db().getVerticesForType(SearchOutboxBatchImpl.class);
+			while (it.hasNext()) {
+				uuids.add(it.next().getUuid());
+			}
+			return uuids;
+		});
+	}
+
+}
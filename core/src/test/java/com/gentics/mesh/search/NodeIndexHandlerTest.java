@@ -5,8 +5,15 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
 import org.junit.Test;
 
+import com.gentics.mesh.Mesh;
+import com.gentics.mesh.etc.config.search.ElasticSearchOptions;
 import com.gentics.mesh.test.context.AbstractMeshTest;
 import com.gentics.mesh.test.context.MeshTestSetting;
 import com.syncleus.ferma.tx.Tx;
@@ -34,4 +41,25 @@ public class NodeIndexHandlerTest extends AbstractMeshTest {
 		}
 	}
 
+	@Test
+	public void testReindexInChunks() throws Exception {
+		ElasticSearchOptions options = Mesh.mesh().getOptions().getSearchOptions();
+		int chunkSize = options.getReindexChunkSize();
+		options.setReindexChunkSize(2);
+		try {
+			searchProvider().reset();
+			List<Long> checkpoints = new ArrayList<>();
+			meshDagger().nodeContainerIndexHandler().reindexAll(Function.identity(), null, (id, count) -> checkpoints.add(id)).blockingAwait();
+			assertTrue("The nodes should have been processed in multiple chunks", checkpoints.size() > 1);
+			List<Long> sorted = new ArrayList<>(checkpoints);
+			Collections.sort(sorted);
+			assertEquals("The chunks should have been processed in the order of the element ids", sorted, checkpoints);
+
+			long expected = meshDagger().nodeContainerIndexHandler().getDocumentCounts().values().stream().mapToLong(Long::longValue).sum();
+			assertEquals("The counted documents should match the stored documents", expected, dummySearchProvider().getStoreEvents().size());
+		} finally {
+			options.setReindexChunkSize(chunkSize);
+		}
+	}
+
 }
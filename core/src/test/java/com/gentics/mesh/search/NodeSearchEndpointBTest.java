@@ -11,6 +11,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 
 import org.codehaus.jettison.json.JSONException;
@@ -27,6 +28,8 @@ import com.gentics.mesh.test.context.MeshTestSetting;
 import com.gentics.mesh.test.util.TestUtils;
 import com.syncleus.ferma.tx.Tx;
 
+import io.reactivex.Flowable;
+
 @MeshTestSetting(useElasticsearch = true, testSize = FULL, startServer = true)
 public class NodeSearchEndpointBTest extends AbstractNodeSearchEndpointTest {
 
@@ -159,4 +162,21 @@ public class NodeSearchEndpointBTest extends AbstractNodeSearchEndpointTest {
 		assertThat(response.getData()).as("Search result").usingElementComparatorOnFields("uuid").containsOnly(concorde);
 	}
 
+	@Test
+	public void testExportNodes() throws Exception {
+		try (Tx tx = tx()) {
+			recreateIndices();
+		}
+
+		String query = "{\"query\":{\"match_all\":{}}}";
+		NodeListResponse response = call(() -> client().searchNodes(PROJECT_NAME, query, new PagingParametersImpl().setPerPage(10000),
+				new VersioningParametersImpl().draft()));
+
+		Flowable<NodeResponse> export = call(() -> client().exportNodes(PROJECT_NAME, query, new VersioningParametersImpl().draft()));
+		List<NodeResponse> exported = export.toList().blockingGet();
+		assertThat(exported).as("Exported nodes").isNotEmpty().usingElementComparatorOnFields("uuid", "language").containsOnlyElementsOf(response
+				.getData());
+		assertEquals("All found nodes should have been exported", response.getMetainfo().getTotalCount(), exported.size());
+	}
+
 }
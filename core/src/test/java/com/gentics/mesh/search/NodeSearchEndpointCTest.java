@@ -191,8 +191,10 @@ public class NodeSearchEndpointCTest extends AbstractNodeSearchEndpointTest {
 		tx(() -> user().addGroup(groups().get("admin")));
 		searchProvider().refreshIndex().blockingAwait();
 
-		GenericMessageResponse message = call(() -> client().invokeReindex());
-		assertMessage(message, "search_admin_reindex_invoked");
+		waitForJobs(() -> {
+			GenericMessageResponse message = call(() -> client().invokeReindex());
+			assertMessage(message, "search_admin_reindex_invoked");
+		}, COMPLETED, 1);
 
 		NodeListResponse response = call(() -> client().searchNodes(PROJECT_NAME, getSimpleTermQuery("fields.teaser.raw", "Concorde_english_name"),
 			new PagingParametersImpl().setPage(1).setPerPage(2), new VersioningParametersImpl().draft()));
@@ -1,6 +1,7 @@
 package com.gentics.mesh.search;
 
 import static com.gentics.mesh.core.data.ContainerType.DRAFT;
+import static com.gentics.mesh.core.rest.admin.migration.MigrationStatus.COMPLETED;
 import static com.gentics.mesh.test.ClientHelper.assertMessage;
 import static com.gentics.mesh.test.ClientHelper.call;
 import static com.gentics.mesh.test.TestSize.FULL;
@@ -35,8 +36,10 @@ public class SearchEndpointTest extends AbstractMeshTest {
 		}
 		searchProvider().refreshIndex().blockingAwait();
 
-		GenericMessageResponse message = call(() -> client().invokeReindex());
-		assertMessage(message, "search_admin_reindex_invoked");
+		waitForJobs(() -> {
+			GenericMessageResponse message = call(() -> client().invokeReindex());
+			assertMessage(message, "search_admin_reindex_invoked");
+		}, COMPLETED, 1);
 	}
 
 	@Test
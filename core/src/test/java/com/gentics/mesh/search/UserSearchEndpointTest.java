@@ -9,19 +9,25 @@ import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import org.codehaus.jettison.json.JSONException;
 import org.junit.Test;
 
+import com.gentics.mesh.core.data.User;
 import com.gentics.mesh.core.rest.group.GroupResponse;
 import com.gentics.mesh.core.rest.user.UserCreateRequest;
 import com.gentics.mesh.core.rest.user.UserListResponse;
 import com.gentics.mesh.core.rest.user.UserResponse;
 import com.gentics.mesh.core.rest.user.UserUpdateRequest;
 import com.gentics.mesh.parameter.impl.PagingParametersImpl;
+import com.gentics.mesh.parameter.impl.SearchParametersImpl;
 import com.gentics.mesh.rest.client.MeshResponse;
 import com.gentics.mesh.test.TestSize;
 import com.gentics.mesh.test.context.AbstractMeshTest;
@@ -29,6 +35,9 @@ import com.gentics.mesh.test.context.MeshTestSetting;
 import com.gentics.mesh.test.definition.BasicSearchCrudTestcases;
 import com.syncleus.ferma.tx.Tx;
 
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
 @MeshTestSetting(useElasticsearch = true, testSize = TestSize.PROJECT_AND_NODE, startServer = true)
 public class UserSearchEndpointTest extends AbstractMeshTest implements BasicSearchCrudTestcases {
 
@@ -281,6 +290,70 @@ public class UserSearchEndpointTest extends AbstractMeshTest implements BasicSea
 		assertEquals(1, list.getMetainfo().getTotalCount());
 	}
 
+	@Test
+	public void testHydrateInHitOrder() throws Exception {
+		List<String> usernames = Arrays.asList("testuser_c", "testuser_a", "testuser_b");
+		for (String username : usernames) {
+			createUser(username);
+		}
+		String json = new JsonObject(getESText("userWildcard.es")).put("sort", new JsonArray().add(new JsonObject().put("username.raw", "desc")))
+			.encode();
+
+		// All hits are loaded from the graph and must keep the order of the search response
+		UserListResponse list = call(() -> client().searchUsers(json));
+		assertEquals(Arrays.asList("testuser_c", "testuser_b", "testuser_a"), list.getData().stream().map(UserResponse::getUsername).collect(Collectors
+			.toList()));
+		for (UserResponse user : list.getData()) {
+			assertNotNull("The user should have been loaded from the graph", user.getGroups());
+			assertEquals("The user should have been loaded from the graph", 1, user.getGroups().size());
+			assertTrue("The permissions should have been set by the graph element", user.getPermissions().getRead());
+		}
+
+		// Remove one of the users only from the graph. The hit will be omitted.
+		try (Tx tx = tx()) {
+			User user = meshRoot().getUserRoot().findByUsername("testuser_b");
+			user.remove();
+			tx.success();
+		}
+		list = call(() -> client().searchUsers(json));
+		assertEquals(Arrays.asList("testuser_c", "testuser_a"), list.getData().stream().map(UserResponse::getUsername).collect(Collectors.toList()));
+		assertEquals("The missing element should not be counted", 2, list.getMetainfo().getTotalCount());
+	}
+
+	@Test
+	public void testFromSource() throws Exception {
+		UserCreateRequest request = new UserCreateRequest();
+		request.setUsername("testuser42a");
+		request.setPassword("test1234");
+		request.setFirstname("Joe");
+		request.setLastname("Doe");
+		request.setEmailAddress("joe@nowhere.com");
+		UserResponse created = call(() -> client().createUser(request));
+
+		String json = getESText("userWildcard.es");
+		UserListResponse list = call(() -> client().searchUsers(json, new SearchParametersImpl().setFromSource(true)));
+		assertEquals(1, list.getData().size());
+		UserResponse user = list.getData().get(0);
+		assertEquals(created.getUuid(), user.getUuid());
+		assertEquals("testuser42a", user.getUsername());
+		assertEquals("Joe", user.getFirstname());
+		assertEquals("Doe", user.getLastname());
+		assertEquals("joe@nowhere.com", user.getEmailAddress());
+		assertEquals(created.getCreator().getUuid(), user.getCreator().getUuid());
+		assertEquals(created.getCreated(), user.getCreated());
+		// The permissions are not part of the document and are thus not set
+		assertNull("The user should have been created from the search index document", user.getPermissions().getRead());
+
+		// The response must not depend on the graph element
+		try (Tx tx = tx()) {
+			meshRoot().getUserRoot().findByUuid(created.getUuid()).remove();
+			tx.success();
+		}
+		list = call(() -> client().searchUsers(json, new SearchParametersImpl().setFromSource(true)));
+		assertEquals(1, list.getData().size());
+		assertEquals(created.getUuid(), list.getData().get(0).getUuid());
+	}
+
 	@Test
 	@Override
 	public void testDocumentDeletion() throws InterruptedException, JSONException {
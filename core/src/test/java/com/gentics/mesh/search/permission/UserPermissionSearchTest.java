@@ -3,6 +3,8 @@ package com.gentics.mesh.search.permission;
 import static com.gentics.mesh.test.ClientHelper.call;
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 
 import com.gentics.mesh.core.data.Role;
@@ -11,6 +13,7 @@ import com.gentics.mesh.core.data.relationship.GraphPermission;
 import com.gentics.mesh.core.rest.role.RolePermissionRequest;
 import com.gentics.mesh.core.rest.user.UserListResponse;
 import com.gentics.mesh.core.rest.user.UserResponse;
+import com.gentics.mesh.parameter.impl.SearchParametersImpl;
 import com.gentics.mesh.test.TestSize;
 import com.gentics.mesh.test.context.AbstractMeshTest;
 import com.gentics.mesh.test.context.MeshTestSetting;
@@ -79,4 +82,24 @@ public class UserPermissionSearchTest extends AbstractMeshTest {
 
 	}
 
+	@Test
+	public void testIndexPermUpdateFromSource() throws Exception {
+		UserResponse visible = createUser("testuser42a");
+		UserResponse hidden = createUser("testuser42b");
+
+		// Revoke read permission on one of the users
+		RolePermissionRequest request = new RolePermissionRequest();
+		request.getPermissions().setRead(false);
+		call(() -> client().updateRolePermissions(roleUuid(), "/users/" + hidden.getUuid(), request));
+
+		// The filtered hit must be omitted regardless of whether the elements are created from the documents or loaded from the graph
+		String json = getESText("userWildcard.es");
+		for (boolean fromSource : Arrays.asList(true, false)) {
+			UserListResponse list = call(() -> client().searchUsers(json, new SearchParametersImpl().setFromSource(fromSource)));
+			assertEquals("Only the readable user should be found", 1, list.getData().size());
+			assertEquals(visible.getUuid(), list.getData().get(0).getUuid());
+			assertEquals(1, list.getMetainfo().getTotalCount());
+		}
+	}
+
 }
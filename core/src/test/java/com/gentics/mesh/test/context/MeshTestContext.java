@@ -14,6 +14,7 @@ import org.testcontainers.containers.wait.Wait;
 import com.gentics.mesh.Mesh;
 import com.gentics.mesh.cli.BootstrapInitializerImpl;
 import com.gentics.mesh.core.cache.PermissionStore;
+import com.gentics.mesh.core.cache.WebRootPathTrie;
 import com.gentics.mesh.core.data.impl.DatabaseHelper;
 import com.gentics.mesh.core.data.search.IndexHandler;
 import com.gentics.mesh.crypto.KeyStoreHelper;
@@ -231,6 +232,7 @@ public class MeshTestContext extends TestWatcher {
 			FileUtils.deleteDirectory(folder);
 		}
 		PermissionStore.invalidate(false);
+		WebRootPathTrie.invalidateAll();
 	}
 
 	public TestDataProvider getData() {
@@ -30,6 +30,7 @@ import com.gentics.mesh.core.rest.user.UserResponse;
 import com.gentics.mesh.example.GraphQLExamples;
 import com.gentics.mesh.json.JsonUtil;
 
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 
 public class JsonUtilTest {
@@ -39,6 +40,40 @@ public class JsonUtilTest {
 		JsonUtil.toJson(new Loop());
 	}
 
+	@Test(expected = GenericRestException.class)
+	public void testToJsonBufferError() {
+		JsonUtil.toJsonBuffer(new Loop(), false);
+	}
+
+	@Test
+	public void testToJsonBuffer() {
+		ListResponse<UserResponse> list = new ListResponse<>();
+		UserResponse user = new UserResponse();
+		user.setUsername("joe");
+		list.getData().add(user);
+		list.getMetainfo().setTotalCount(1);
+
+		Buffer compact = JsonUtil.toJsonBuffer(list, false);
+		assertFalse("Compact JSON must not contain line breaks", compact.toString().contains("\n"));
+		Buffer pretty = JsonUtil.toJsonBuffer(list, true);
+		assertEquals(JsonUtil.toJson(list), pretty.toString());
+		assertEquals(JsonUtil.toJson(list, false), compact.toString());
+		assertEquals(new JsonObject(pretty.toString()), new JsonObject(compact.toString()));
+
+		// Incrementally written JSON must match the JSON of the model
+		Buffer incremental = JsonUtil.toJsonBuffer(false, gen -> {
+			gen.writeStartObject();
+			gen.writeArrayFieldStart("data");
+			for (UserResponse element : list.getData()) {
+				gen.writeObject(element);
+			}
+			gen.writeEndArray();
+			gen.writeObjectField("_metainfo", list.getMetainfo());
+			gen.writeEndObject();
+		});
+		assertEquals(compact.toString(), incremental.toString());
+	}
+
 	@Test
 	public void testCompareJson() {
 		JsonObject a = new JsonObject();
@@ -20,10 +20,14 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
@@ -39,18 +43,27 @@ import com.gentics.mesh.etc.config.GraphStorageOptions;
 import com.gentics.mesh.etc.config.MeshOptions;
 import com.gentics.mesh.graphdb.model.MeshElement;
 import com.gentics.mesh.graphdb.spi.AbstractDatabase;
+import com.gentics.mesh.graphdb.spi.CommitHooks;
 import com.gentics.mesh.graphdb.spi.FieldType;
+import com.gentics.mesh.graphdb.spi.TxExecutor;
+import com.gentics.mesh.graphdb.spi.TxRetryPolicy;
+import com.gentics.mesh.graphdb.spi.TxStats;
 import com.gentics.mesh.util.DateUtils;
 import com.hazelcast.core.HazelcastInstance;
 import com.orientechnologies.common.concur.ONeedRetryException;
 import com.orientechnologies.orient.core.OConstants;
 import com.orientechnologies.orient.core.Orient;
 import com.orientechnologies.orient.core.command.OCommandOutputListener;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.db.tool.ODatabaseExport;
 import com.orientechnologies.orient.core.db.tool.ODatabaseImport;
+import com.orientechnologies.orient.core.exception.OConcurrentModificationException;
 import com.orientechnologies.orient.core.exception.OSchemaException;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.index.OCompositeKey;
 import com.orientechnologies.orient.core.index.OIndex;
 import com.orientechnologies.orient.core.index.OIndexCursor;
@@ -84,6 +97,9 @@ import com.tinkerpop.blueprints.impls.orient.OrientVertex;
 import com.tinkerpop.blueprints.impls.orient.OrientVertexType;
 import com.tinkerpop.blueprints.util.wrappers.wrapped.WrappedVertex;
 
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 
@@ -106,6 +122,13 @@ public class OrientDBDatabase extends AbstractDatabase {
 
 	private static final String ORIENTDB_STUDIO_ZIP = "orientdb-studio-2.2.26.zip";
 
+	/**
+	 * The cluster id is stored in the upper 16 bits of the numeric id and the cluster position in the lower 48 bits.
+	 */
+	private static final int CLUSTER_ID_SHIFT = 48;
+
+	private static final long CLUSTER_POSITION_MASK = (1L << CLUSTER_ID_SHIFT) - 1;
+
 	private TopologyEventBridge topologyEventBridge;
 
 	private OrientGraphFactory factory;
@@ -120,8 +143,26 @@ public class OrientDBDatabase extends AbstractDatabase {
 
 	private int maxRetry = 100;
 
+	private TxRetryPolicy retryPolicy = TxRetryPolicy.create(maxRetry, null);
+
+	/**
+	 * Marker which is returned by attempts which need to be retried.
+	 */
+	private static final Object RETRY = new Object();
+
+	/**
+	 * Marker which is emitted by asynchronous attempts whose handler returned null since singles can't emit null.
+	 */
+	private static final Object NO_RESULT = new Object();
+
+	/**
+	 * Names of the classes per cluster id. Used to count conflicts per vertex class.
+	 */
+	private final Map<Integer, String> clusterClassNames = new ConcurrentHashMap<>();
+
 	@Override
 	public void stop() {
+		shutdownTxExecutor();
 		if (factory != null) {
 			factory.close();
 			Orient.instance().shutdown();
@@ -175,6 +216,7 @@ public class OrientDBDatabase extends AbstractDatabase {
 			this.maxRetry = Integer.valueOf(storageOptions.getParameters().get("maxTransactionRetry"));
 			log.info("Using {" + this.maxRetry + "} transaction retries before failing");
 		}
+		retryPolicy = TxRetryPolicy.create(maxRetry, storageOptions);
 	}
 
 	@Override
@@ -520,6 +562,76 @@ public class OrientDBDatabase extends AbstractDatabase {
 		}
 	}
 
+	@Override
+	public void addSortedEdgeIndex(String label) {
+		OrientGraphNoTx noTx = factory.getNoTx();
+		try {
+			OrientEdgeType e = noTx.getEdgeType(label);
+			if (e == null) {
+				e = noTx.createEdgeType(label);
+			}
+			if (e.getProperty("in") == null) {
+				e.createProperty("in", OType.LINK);
+			}
+			if (e.getProperty("out") == null) {
+				e.createProperty("out", OType.LINK);
+			}
+			String name = "e." + label.toLowerCase() + "_outin";
+			if (e.getClassIndex(name) == null) {
+				// SB-Tree indices keep the entries ordered by their keys
+				e.createIndex(name, OClass.INDEX_TYPE.NOTUNIQUE, new String[] { "out", "in" });
+			}
+		} finally {
+			noTx.shutdown();
+		}
+	}
+
+	@Override
+	public List<Object> edgeLookupAscending(String edgeLabel, Object outId, Object afterInId, int limit) {
+		return lookupAscending(edgeLabel, "outin", outId, afterInId, limit);
+	}
+
+	@Override
+	public List<Object> inboundEdgeLookupAscending(String edgeLabel, Object inId, Object afterOutId, int limit) {
+		return lookupAscending(edgeLabel, "inout", inId, afterOutId, limit);
+	}
+
+	/**
+	 * Perform a range lookup on the SB-Tree edge index with the given postfix. The index key consists of the given vertex id and the id of the vertex on the
+	 * other side of the edge.
+	 * 
+	 * @param edgeLabel
+	 * @param indexPostfix
+	 * @param id
+	 * @param afterId
+	 * @param limit
+	 * @return Ids of the vertices on the other side of the edges or null if the index does not exist
+	 */
+	private List<Object> lookupAscending(String edgeLabel, String indexPostfix, Object id, Object afterId, int limit) {
+		OrientBaseGraph orientBaseGraph = unwrapCurrentGraph();
+		OrientEdgeType edgeType = orientBaseGraph.getEdgeType(edgeLabel);
+		if (edgeType == null) {
+			return null;
+		}
+		OIndex<?> index = edgeType.getClassIndex("e." + edgeLabel.toLowerCase() + "_" + indexPostfix);
+		if (index == null) {
+			return null;
+		}
+		List<Object> ids = new ArrayList<>();
+		// The partial key of the vertex covers all edges of the vertex. The lookup thus starts right after the given vertex on the other side.
+		OCompositeKey from = afterId == null ? new OCompositeKey(id) : new OCompositeKey(id, afterId);
+		OIndexCursor cursor = index.iterateEntriesBetween(from, afterId == null, new OCompositeKey(id), true, true);
+		while (ids.size() < limit) {
+			Entry<Object, OIdentifiable> entry = cursor.nextEntry();
+			if (entry == null) {
+				break;
+			}
+			OCompositeKey entryKey = (OCompositeKey) entry.getKey();
+			ids.add(entryKey.getKeys().get(1));
+		}
+		return ids;
+	}
+
 	@Override
 	public List<Object> edgeLookup(String edgeLabel, String indexPostfix, Object key) {
 		OrientBaseGraph orientBaseGraph = unwrapCurrentGraph();
@@ -552,12 +664,90 @@ public class OrientDBDatabase extends AbstractDatabase {
 		return ids;
 	}
 
+	@Override
+	public Set<Object> edgeLookupKeys(String edgeLabel, String indexPostfix, Collection<?> keys) {
+		OrientBaseGraph orientBaseGraph = unwrapCurrentGraph();
+		OrientEdgeType edgeType = orientBaseGraph.getEdgeType(edgeLabel);
+		if (edgeType == null) {
+			return null;
+		}
+		OIndex<?> index = edgeType.getClassIndex("e." + edgeLabel.toLowerCase() + "_" + indexPostfix);
+		if (index == null) {
+			return null;
+		}
+		Set<Object> foundKeys = new HashSet<>();
+		if (keys.isEmpty()) {
+			return foundKeys;
+		}
+		OIndexCursor cursor = index.iterateEntries(keys, false);
+		Entry<Object, OIdentifiable> entry;
+		while ((entry = cursor.nextEntry()) != null) {
+			foundKeys.add(entry.getKey());
+		}
+		return foundKeys;
+	}
+
+	@Override
+	public List<Object> vertexLookupAscending(Class<?> clazzOfVertices, String indexName, int limit) {
+		OrientBaseGraph orientBaseGraph = unwrapCurrentGraph();
+		List<Object> ids = new ArrayList<>();
+
+		OrientVertexType vertexType = orientBaseGraph.getVertexType(clazzOfVertices.getSimpleName());
+		if (vertexType != null) {
+			OIndex<?> index = vertexType.getClassIndex(indexName);
+			if (index != null) {
+				// Iterate over the sb-tree index entries which are ordered by their keys
+				OIndexCursor cursor = index.cursor();
+				while (ids.size() < limit) {
+					Entry<Object, OIdentifiable> entry = cursor.nextEntry();
+					if (entry == null) {
+						break;
+					}
+					ids.add(entry.getValue().getIdentity());
+				}
+			}
+		}
+		return ids;
+	}
+
 	@Override
 	public Iterator<Vertex> getVertices(Class<?> classOfVertex, String[] fieldNames, Object[] fieldValues) {
 		OrientBaseGraph orientBaseGraph = unwrapCurrentGraph();
 		return orientBaseGraph.getVertices(classOfVertex.getSimpleName(), fieldNames, fieldValues).iterator();
 	}
 
+	@Override
+	public Map<Object, Object> getVertexIds(Class<?> classOfVertex, String fieldName, Collection<?> fieldValues) {
+		OrientBaseGraph orientBaseGraph = unwrapCurrentGraph();
+		Map<Object, Object> ids = new HashMap<>(fieldValues.size());
+		if (fieldValues.isEmpty()) {
+			return ids;
+		}
+		OrientVertexType vertexType = orientBaseGraph.getVertexType(classOfVertex.getSimpleName());
+		if (vertexType != null) {
+			// The involved indices also include the indices of the super classes
+			for (OIndex<?> index : vertexType.getInvolvedIndexes(fieldName)) {
+				if (index.getDefinition().getFields().size() != 1) {
+					continue;
+				}
+				OIndexCursor cursor = index.iterateEntries(fieldValues, false);
+				Entry<Object, OIdentifiable> entry;
+				while ((entry = cursor.nextEntry()) != null) {
+					ids.putIfAbsent(entry.getKey(), entry.getValue().getIdentity());
+				}
+				return ids;
+			}
+		}
+		// Fall back to single lookups if the field is not indexed
+		for (Object value : fieldValues) {
+			Iterator<Vertex> it = getVertices(classOfVertex, new String[] { fieldName }, new Object[] { value });
+			if (it.hasNext()) {
+				ids.putIfAbsent(value, it.next().getId());
+			}
+		}
+		return ids;
+	}
+
 	@Override
 	public <T extends MeshVertex> Iterator<? extends T> getVerticesForType(Class<T> classOfVertex) {
 		OrientBaseGraph orientBaseGraph = unwrapCurrentGraph();
@@ -697,6 +887,8 @@ public class OrientDBDatabase extends AbstractDatabase {
 			return OType.STRING;
 		case INTEGER:
 			return OType.INTEGER;
+		case LONG:
+			return OType.LONG;
 		case BOOLEAN:
 			return OType.BOOLEAN;
 		case STRING_SET:
@@ -727,6 +919,17 @@ public class OrientDBDatabase extends AbstractDatabase {
 
 	@Override
 	public void addVertexIndex(String indexName, Class<?> clazzOfVertices, boolean unique, String fieldKey, FieldType fieldType) {
+		String indexType = unique ? OClass.INDEX_TYPE.UNIQUE_HASH_INDEX.toString() : OClass.INDEX_TYPE.NOTUNIQUE_HASH_INDEX.toString();
+		addVertexIndex(indexName, clazzOfVertices, indexType, fieldKey, fieldType);
+	}
+
+	@Override
+	public void addSortedVertexIndex(String indexName, Class<?> clazzOfVertices, String fieldKey, FieldType fieldType) {
+		// SB-Tree indices keep the entries ordered by their keys
+		addVertexIndex(indexName, clazzOfVertices, OClass.INDEX_TYPE.NOTUNIQUE.toString(), fieldKey, fieldType);
+	}
+
+	private void addVertexIndex(String indexName, Class<?> clazzOfVertices, String indexType, String fieldKey, FieldType fieldType) {
 		if (log.isDebugEnabled()) {
 			log.debug("Adding vertex index  for class {" + clazzOfVertices.getName() + "}");
 		}
@@ -749,8 +952,7 @@ public class OrientDBDatabase extends AbstractDatabase {
 			}
 
 			if (v.getClassIndex(indexName) == null) {
-				v.createIndex(indexName, unique ? OClass.INDEX_TYPE.UNIQUE_HASH_INDEX.toString() : OClass.INDEX_TYPE.NOTUNIQUE_HASH_INDEX.toString(),
-					null, new ODocument().fields("ignoreNullValues", true), new String[] { fieldKey });
+				v.createIndex(indexName, indexType, null, new ODocument().fields("ignoreNullValues", true), new String[] { fieldKey });
 			}
 		} finally {
 			noTx.shutdown();
@@ -826,57 +1028,171 @@ public class OrientDBDatabase extends AbstractDatabase {
 		 * OrientDB uses the MVCC pattern which requires a retry of the code that manipulates the graph in cases where for example an
 		 * {@link OConcurrentModificationException} is thrown.
 		 */
-		T handlerResult = null;
-		boolean handlerFinished = false;
 		for (int retry = 0; retry < maxRetry; retry++) {
-
-			try (Tx tx = tx()) {
-				handlerResult = txHandler.handle(tx);
-				handlerFinished = true;
-				tx.success();
-			} catch (OSchemaException e) {
-				log.error("OrientDB schema exception detected.");
-				// TODO maybe we should invoke a metadata getschema reload?
-				// factory.getTx().getRawGraph().getMetadata().getSchema().reload();
-				// Database.getThreadLocalGraph().getMetadata().getSchema().reload();
-			} catch (ONeedRetryException e) {
-				if (log.isTraceEnabled()) {
-					log.trace("Error while handling transaction. Retrying " + retry, e);
-				}
+			Object result = attempt(txHandler, retry);
+			if (result != RETRY) {
+				return (T) result;
+			}
+			if (retryPolicy.canRetry(retry)) {
 				try {
-					// Increase the delay for each retry by 25ms to give the other transaction a chance to finish
-					Thread.sleep(50 + (retry * 25));
-				} catch (InterruptedException e1) {
-					e1.printStackTrace();
-				}
-				// Reset previous result
-				handlerFinished = false;
-				handlerResult = null;
-			} catch (ORecordDuplicatedException e) {
-				log.error(e);
-				throw error(INTERNAL_SERVER_ERROR, "error_internal");
-			} catch (GenericRestException e) {
-				// Don't log. Just throw it along so that others can handle it
-				throw e;
-			} catch (RuntimeException e) {
-				if (log.isDebugEnabled()) {
-					log.debug("Error handling transaction", e);
-				}
-				throw e;
-			} catch (Exception e) {
-				if (log.isDebugEnabled()) {
-					log.debug("Error handling transaction", e);
+					// Give the other transaction a chance to finish
+					Thread.sleep(retryPolicy.delay(retry));
+				} catch (InterruptedException e) {
+					log.error("Interrupted while waiting for the next transaction attempt. Aborting the transaction.", e);
+					Thread.currentThread().interrupt();
+					throw new RuntimeException("Transaction aborted since the thread was interrupted", e);
 				}
-				throw new RuntimeException("Transaction error", e);
 			}
-			if (!handlerFinished && log.isDebugEnabled()) {
-				log.debug("Retrying .. {" + retry + "}");
+		}
+		throw new RuntimeException("Retry limit {" + maxRetry + "} for trx exceeded");
+	}
+
+	@Override
+	public <T> void asyncRetryTx(TxAction<T> txHandler, boolean ordered, Handler<AsyncResult<T>> resultHandler) {
+		// The retries are started from a timer. The ordering key of the caller is thus determined only once.
+		asyncAttempt(txHandler, ordered ? TxExecutor.currentOrderingKey() : null, 0, TxStats.getEndpoint(), resultHandler);
+	}
+
+	/**
+	 * Execute the attempt in the transaction pool. Conflicting attempts are rescheduled using a timer. The pool thread is thus not blocked while waiting for
+	 * the next attempt.
+	 * 
+	 * @param txHandler
+	 * @param orderingKey
+	 *            Ordering key of the transaction or null if the transaction is not ordered
+	 * @param retry
+	 *            Zero based number of the attempt
+	 * @param endpoint
+	 *            Endpoint for which the transaction is executed
+	 * @param resultHandler
+	 */
+	private <T> void asyncAttempt(TxAction<T> txHandler, Object orderingKey, int retry, String endpoint, Handler<AsyncResult<T>> resultHandler) {
+		txExecutor().execute(() -> {
+			TxStats.setEndpoint(endpoint);
+			try {
+				Object result = attempt(txHandler, retry);
+				return result == null ? NO_RESULT : result;
+			} finally {
+				TxStats.setEndpoint(null);
+			}
+		}, orderingKey).subscribe(result -> {
+			if (result == NO_RESULT) {
+				resultHandler.handle(Future.succeededFuture());
+			} else if (result != RETRY) {
+				resultHandler.handle(Future.succeededFuture((T) result));
+			} else if (retryPolicy.canRetry(retry)) {
+				Mesh.vertx().setTimer(retryPolicy.delay(retry), id -> asyncAttempt(txHandler, orderingKey, retry + 1, endpoint, resultHandler));
+			} else {
+				resultHandler.handle(Future.failedFuture(new RuntimeException("Retry limit {" + maxRetry + "} for trx exceeded")));
+			}
+		}, error -> resultHandler.handle(Future.failedFuture(error)));
+	}
+
+	/**
+	 * Execute the handler within a new transaction.
+	 * 
+	 * @param txHandler
+	 * @param retry
+	 *            Zero based number of the attempt
+	 * @return Result of the handler or {@link #RETRY} if the transaction needs to be retried
+	 */
+	private Object attempt(TxAction<?> txHandler, int retry) {
+		Object handlerResult = null;
+		boolean handlerFinished = false;
+		CommitHooks.begin();
+		try (Tx tx = tx()) {
+			handlerResult = txHandler.handle(tx);
+			// Write the changes which must be committed along with the changes of the handler
+			CommitHooks.prepare();
+			handlerFinished = true;
+			tx.success();
+		} catch (OSchemaException e) {
+			log.error("OrientDB schema exception detected.");
+			// TODO maybe we should invoke a metadata getschema reload?
+			// factory.getTx().getRawGraph().getMetadata().getSchema().reload();
+			// Database.getThreadLocalGraph().getMetadata().getSchema().reload();
+		} catch (ONeedRetryException e) {
+			if (log.isTraceEnabled()) {
+				log.trace("Error while handling transaction. Retrying " + retry, e);
+			}
+			TxStats.conflict(conflictingClass(e));
+			// Reset previous result
+			handlerFinished = false;
+			handlerResult = null;
+		} catch (ORecordDuplicatedException e) {
+			log.error(e);
+			throw error(INTERNAL_SERVER_ERROR, "error_internal");
+		} catch (GenericRestException e) {
+			// Don't log. Just throw it along so that others can handle it
+			throw e;
+		} catch (RuntimeException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Error handling transaction", e);
 			}
-			if (handlerFinished) {
-				return handlerResult;
+			throw e;
+		} catch (Exception e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Error handling transaction", e);
+			}
+			throw new RuntimeException("Transaction error", e);
+		} finally {
+			// Run the actions which were registered during the transaction once the changes have been committed
+			CommitHooks.end(handlerFinished);
+		}
+		if (handlerFinished) {
+			TxStats.completed(retry);
+			return handlerResult;
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Retrying .. {" + retry + "}");
+		}
+		if (!retryPolicy.canRetry(retry)) {
+			TxStats.exhausted();
+		}
+		return RETRY;
+	}
+
+	/**
+	 * Determine the name of the class of the record which was modified concurrently.
+	 * 
+	 * @param e
+	 * @return Name of the class or null if the class could not be determined
+	 */
+	private String conflictingClass(ONeedRetryException e) {
+		if (!(e instanceof OConcurrentModificationException)) {
+			return null;
+		}
+		ORID rid = ((OConcurrentModificationException) e).getRid();
+		if (rid == null) {
+			return null;
+		}
+		return clusterClassNames.computeIfAbsent(rid.getClusterId(), this::loadClassName);
+	}
+
+	/**
+	 * Load the name of the class which owns the given cluster. The schema is loaded via a separate graph instance. The database which was bound to the
+	 * current thread is restored afterwards since the conflict may occur within a nested transaction.
+	 * 
+	 * @param clusterId
+	 * @return
+	 */
+	private String loadClassName(int clusterId) {
+		ODatabaseDocumentInternal previous = ODatabaseRecordThreadLocal.INSTANCE.getIfDefined();
+		OrientGraphNoTx noTx = factory.getNoTx();
+		try {
+			OClass clazz = noTx.getRawGraph().getMetadata().getSchema().getClassByClusterId(clusterId);
+			return clazz == null ? null : clazz.getName();
+		} catch (Exception e) {
+			log.debug("Could not determine class of cluster {" + clusterId + "}", e);
+			return null;
+		} finally {
+			noTx.shutdown();
+			if (previous != null) {
+				ODatabaseRecordThreadLocal.INSTANCE.set(previous);
+			} else {
+				ODatabaseRecordThreadLocal.INSTANCE.remove();
 			}
 		}
-		throw new RuntimeException("Retry limit {" + maxRetry + "} for trx exceeded");
 	}
 
 	@Override
@@ -971,6 +1287,20 @@ public class OrientDBDatabase extends AbstractDatabase {
 		return new OCompositeKey(keys);
 	}
 
+	@Override
+	public long toNumericId(Object id) {
+		ORID rid = (ORID) id;
+		return ((long) rid.getClusterId() << CLUSTER_ID_SHIFT) | (rid.getClusterPosition() & CLUSTER_POSITION_MASK);
+	}
+
+	@Override
+	public Object fromNumericId(long id) {
+		int clusterId = (int) (id >> CLUSTER_ID_SHIFT);
+		// Restore the sign of temporary record positions
+		long clusterPosition = (id << (64 - CLUSTER_ID_SHIFT)) >> (64 - CLUSTER_ID_SHIFT);
+		return new ORecordId(clusterId, clusterPosition);
+	}
+
 	@Override
 	public void setVertexType(Element element, Class<?> classOfVertex) {
 		if (element instanceof WrappedVertex) {
@@ -0,0 +1,45 @@
+package com.gentics.mesh.graphdb.orientdb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+import com.gentics.mesh.graphdb.OrientDBDatabase;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.orient.OrientGraph;
+import com.tinkerpop.blueprints.impls.orient.OrientGraphFactory;
+
+/**
+ * The permission caches are keyed by the numeric ids of the elements since the record ids of new elements change once they are committed.
+ */
+public class OrientDBNumericIdTest {
+
+	private OrientDBDatabase db = new OrientDBDatabase();
+
+	@Test
+	public void testRoundTrip() {
+		for (ORecordId rid : new ORecordId[] { new ORecordId(0, 0), new ORecordId(42, 123456), new ORecordId(Short.MAX_VALUE, 1L << 40),
+				new ORecordId(17, -2) }) {
+			assertEquals(rid, db.fromNumericId(db.toNumericId(rid)));
+		}
+		assertNotEquals(db.toNumericId(new ORecordId(1, 2)), db.toNumericId(new ORecordId(2, 1)));
+	}
+
+	@Test
+	public void testIdChangesOnCommit() {
+		OrientGraphFactory factory = new OrientGraphFactory("memory:numericIdTest");
+		OrientGraph tx = factory.getTx();
+		try {
+			Vertex vertex = tx.addVertex(null);
+			long temporaryId = db.toNumericId(vertex.getId());
+			tx.commit();
+			assertNotEquals("The id of the new element should have changed on commit", temporaryId, db.toNumericId(vertex.getId()));
+		} finally {
+			tx.shutdown();
+			factory.close();
+		}
+	}
+
+}
@@ -16,6 +16,10 @@ import com.gentics.mesh.error.MeshConfigurationException;
 import com.gentics.mesh.json.MeshJsonException;
 import com.gentics.mesh.parameter.PagingParameters;
 
+import io.reactivex.Completable;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
+
 /**
  * 
  * @param <T>
@@ -63,6 +67,21 @@ public interface SearchHandler<T extends MeshCoreVertex<RM, T>, RM extends RestM
 	<RL extends ListResponse<RM>> void query(InternalActionContext ac, Supplier<RootVertex<T>> rootVertex, Class<RL> classOfRL, boolean filterByLanguage)
 		throws InstantiationException, IllegalAccessException, InvalidArgumentException, MeshJsonException, MeshConfigurationException;
 
+	/**
+	 * Invoke the query and write all found elements to the stream. The hits are loaded from the search provider in batches using the scroll API and the
+	 * elements are written as newline delimited JSON. The next batch will only be loaded once the stream is able to accept more data.
+	 *
+	 * @param ac
+	 * @param rootVertex
+	 *            Root Vertex of the elements that should be searched
+	 * @param stream
+	 *            Stream to which the elements should be written
+	 * @param filterByLanguage
+	 *            Whether to add the language term filter (Usually only needed for node queries)
+	 * @return Completable which completes once all elements have been written
+	 */
+	Completable export(InternalActionContext ac, Supplier<RootVertex<T>> rootVertex, WriteStream<Buffer> stream, boolean filterByLanguage);
+
 	/**
 	 * Invoke a raw query which will not post process the search result. Instead the result of the search provider will directly be returned.
 	 * 
@@ -0,0 +1,460 @@
+package com.gentics.mesh.search.impl;
+
+import static com.gentics.mesh.search.SearchProvider.DEFAULT_TYPE;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+import com.gentics.mesh.etc.config.search.ElasticSearchOptions;
+import com.gentics.mesh.metric.MeshMetrics;
+
+import io.reactivex.Completable;
+import io.reactivex.CompletableEmitter;
+import io.vertx.core.Context;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * Indexer which sends store and delete operations to Elasticsearch using bulk requests.
+ *
+ * Operations are queued and coalesced per index and document id. A queued operation is replaced by a later operation for the same document (last write wins)
+ * and the subscribers of both operations are notified once the latest operation has been applied. The queue is flushed once the configured amount of
+ * documents or bytes has been reached or when the flush interval has passed. The amount of concurrent bulk requests is bounded. Operations for documents which
+ * are part of a pending bulk request are held back until the request has finished, so that the order of operations per document is preserved. Failed
+ * operations are retried individually.
+ *
+ * The amount of queued documents is bounded. Producers wait until the queue has space again. Producers which run on the event loop must not block and fail
+ * right away, as do producers which could not queue their operation within the configured timeout.
+ */
+public class BulkIndexer {
+
+	private static final Logger log = LoggerFactory.getLogger(BulkIndexer.class);
+
+	/**
+	 * Base delay in milliseconds before failed operations are sent again.
+	 */
+	private static final long RETRY_DELAY = 100;
+
+	private final Meter documents = MeshMetrics.meter("search", "bulk", "documents");
+
+	private final Timer requests = MeshMetrics.timer("search", "bulk", "requests");
+
+	private final Histogram requestSize = MeshMetrics.histogram("search", "bulk", "size");
+
+	private final Counter coalesced = MeshMetrics.counter("search", "bulk", "coalesced");
+
+	private final Counter retries = MeshMetrics.counter("search", "bulk", "retries");
+
+	private final Counter failures = MeshMetrics.counter("search", "bulk", "failures");
+
+	private final Counter rejected = MeshMetrics.counter("search", "bulk", "rejected");
+
+	private final SearchClient client;
+
+	private final int limit;
+
+	private final long sizeLimit;
+
+	private final int concurrency;
+
+	private final long flushInterval;
+
+	private final int retryLimit;
+
+	private final int queueLimit;
+
+	private final long timeout;
+
+	private final ScheduledExecutorService scheduler;
+
+	private final LinkedHashMap<String, Action> queue = new LinkedHashMap<>();
+
+	private final Set<String> pendingKeys = new HashSet<>();
+
+	private long queuedBytes = 0;
+
+	private int pendingRequests = 0;
+
+	private ScheduledFuture<?> scheduledFlush;
+
+	private boolean closed = false;
+
+	public BulkIndexer(SearchClient client, ElasticSearchOptions options) {
+		this.client = client;
+		this.limit = options.getBulkLimit();
+		this.sizeLimit = options.getBulkSizeLimit();
+		this.concurrency = options.getBulkConcurrency();
+		this.flushInterval = options.getBulkFlushInterval();
+		this.retryLimit = options.getBulkRetryLimit();
+		this.queueLimit = options.getBulkQueueLimit();
+		this.timeout = options.getTimeout();
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "mesh-search-bulk");
+			thread.setDaemon(true);
+			return thread;
+		});
+		MeshMetrics.gauge(this::getQueueDepth, "search", "bulk", "queueDepth");
+		MeshMetrics.gauge(this::getPendingRequests, "search", "bulk", "pendingRequests");
+	}
+
+	/**
+	 * Queue the document for storage.
+	 *
+	 * @param index
+	 * @param id
+	 * @param document
+	 * @return Completable which completes once the document has been stored
+	 */
+	public Completable store(String index, String id, JsonObject document) {
+		return Completable.create(emitter -> enqueue(new Action(index, id, document.encode(), emitter)));
+	}
+
+	/**
+	 * Queue the deletion of the document. Documents which do not exist are ignored.
+	 *
+	 * @param index
+	 * @param id
+	 * @return Completable which completes once the document has been deleted
+	 */
+	public Completable delete(String index, String id) {
+		return Completable.create(emitter -> enqueue(new Action(index, id, null, emitter)));
+	}
+
+	/**
+	 * Return the amount of queued operations.
+	 *
+	 * @return
+	 */
+	public synchronized int getQueueDepth() {
+		return queue.size();
+	}
+
+	/**
+	 * Return the amount of bulk requests which are currently pending.
+	 *
+	 * @return
+	 */
+	public synchronized int getPendingRequests() {
+		return pendingRequests;
+	}
+
+	private void enqueue(Action action) throws InterruptedException {
+		boolean flush;
+		synchronized (this) {
+			if (!awaitSpace(action)) {
+				return;
+			}
+			add(action);
+			flush = queue.size() >= limit || queuedBytes >= sizeLimit;
+			if (!flush && scheduledFlush == null) {
+				scheduledFlush = scheduler.schedule(this::flush, flushInterval, TimeUnit.MILLISECONDS);
+			}
+		}
+		if (flush) {
+			flush();
+		}
+	}
+
+	/**
+	 * Wait until the queue has space for the action. An action for a document which is already queued replaces the queued action and thus needs no space.
+	 * The action is failed if the indexer has been closed, if the caller runs on the event loop or if the queue stays full for the configured timeout.
+	 *
+	 * @param action
+	 * @return true if the action can be queued, false if the action has been failed
+	 * @throws InterruptedException
+	 */
+	private boolean awaitSpace(Action action) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeout;
+		while (!closed && queue.size() >= queueLimit && !queue.containsKey(action.key)) {
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0 || Context.isOnEventLoopThread()) {
+				rejected.inc();
+				action.fail(new IllegalStateException("The bulk indexer queue is full. Limit: {" + queueLimit + "}"));
+				return false;
+			}
+			wait(remaining);
+		}
+		if (closed) {
+			action.fail(new IllegalStateException("The bulk indexer has been closed."));
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Add the action to the queue. A queued action for the same document will be replaced.
+	 *
+	 * @param action
+	 */
+	private void add(Action action) {
+		Action previous = queue.remove(action.key);
+		if (previous != null) {
+			queuedBytes -= previous.size;
+			action.emitters.addAll(previous.emitters);
+			coalesced.inc();
+		}
+		queue.put(action.key, action);
+		queuedBytes += action.size;
+	}
+
+	/**
+	 * Add the failed action to the queue again. A newer action for the same document supersedes the failed action.
+	 *
+	 * @param action
+	 */
+	private void requeue(Action action) {
+		Action newer = queue.get(action.key);
+		if (newer != null) {
+			newer.emitters.addAll(action.emitters);
+		} else {
+			action.notBefore = System.currentTimeMillis() + RETRY_DELAY * action.attempts;
+			queue.put(action.key, action);
+			queuedBytes += action.size;
+		}
+	}
+
+	/**
+	 * Send the queued operations. This will send as many bulk requests as the concurrency limit allows.
+	 */
+	public void flush() {
+		List<Action> bulk;
+		while ((bulk = nextBulk()) != null) {
+			send(bulk);
+		}
+	}
+
+	/**
+	 * Take the operations for the next bulk request from the queue.
+	 *
+	 * @return Operations or null if no request should be sent
+	 */
+	private synchronized List<Action> nextBulk() {
+		if (scheduledFlush != null) {
+			scheduledFlush.cancel(false);
+			scheduledFlush = null;
+		}
+		if (queue.isEmpty() || pendingRequests >= concurrency) {
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		long bytes = 0;
+		long nextRetry = Long.MAX_VALUE;
+		List<Action> bulk = new ArrayList<>();
+		Iterator<Action> it = queue.values().iterator();
+		while (it.hasNext() && bulk.size() < limit) {
+			Action action = it.next();
+			// Keep the operation until the pending operation for the same document has finished
+			if (pendingKeys.contains(action.key)) {
+				continue;
+			}
+			if (action.notBefore > now) {
+				nextRetry = Math.min(nextRetry, action.notBefore);
+				continue;
+			}
+			if (!bulk.isEmpty() && bytes + action.size > sizeLimit) {
+				break;
+			}
+			it.remove();
+			queuedBytes -= action.size;
+			pendingKeys.add(action.key);
+			bulk.add(action);
+			bytes += action.size;
+		}
+		if (nextRetry != Long.MAX_VALUE) {
+			scheduledFlush = scheduler.schedule(this::flush, nextRetry - now, TimeUnit.MILLISECONDS);
+		}
+		if (bulk.isEmpty()) {
+			return null;
+		}
+		// Wake up the producers which wait for space in the queue
+		notifyAll();
+		pendingRequests++;
+		return bulk;
+	}
+
+	private void send(List<Action> bulk) {
+		StringBuilder data = new StringBuilder();
+		for (Action action : bulk) {
+			action.appendTo(data);
+		}
+		requestSize.update(bulk.size());
+		Timer.Context context = requests.time();
+		client.bulk(data.toString()).timeout(timeout, TimeUnit.MILLISECONDS).subscribe(response -> {
+			context.stop();
+			handleResponse(bulk, response);
+		}, error -> {
+			context.stop();
+			log.error("Bulk request with {" + bulk.size() + "} documents failed.", error);
+			handleFailure(bulk, error);
+		});
+	}
+
+	private void handleResponse(List<Action> bulk, JsonObject response) {
+		JsonArray items = response.getJsonArray("items");
+		if (items == null || items.size() != bulk.size()) {
+			handleFailure(bulk, new IllegalStateException("Unexpected bulk response {" + response.encode() + "}"));
+			return;
+		}
+		List<Action> succeeded = new ArrayList<>(bulk.size());
+		List<Action> failed = new ArrayList<>();
+		List<Throwable> errors = new ArrayList<>();
+		for (int i = 0; i < bulk.size(); i++) {
+			Action action = bulk.get(i);
+			JsonObject item = items.getJsonObject(i);
+			JsonObject result = item.getJsonObject(action.isDelete() ? "delete" : "index");
+			int status = result == null ? 500 : result.getInteger("status", 500);
+			// Deleting a document which does not exist is not an error
+			if (status < 300 || (status == 404 && action.isDelete())) {
+				succeeded.add(action);
+			} else {
+				failed.add(action);
+				errors.add(new IllegalStateException("Operation on document {" + action.index + "} / {" + action.id + "} failed with status {" + status
+						+ "} and response {" + item.encode() + "}"));
+			}
+		}
+		documents.mark(succeeded.size());
+		finish(bulk, failed, errors);
+		for (Action action : succeeded) {
+			action.complete();
+		}
+	}
+
+	private void handleFailure(List<Action> bulk, Throwable error) {
+		List<Throwable> errors = new ArrayList<>(bulk.size());
+		for (int i = 0; i < bulk.size(); i++) {
+			errors.add(error);
+		}
+		finish(bulk, bulk, errors);
+	}
+
+	/**
+	 * Release the documents of the finished bulk request and retry or fail the failed operations.
+	 *
+	 * @param bulk
+	 * @param failed
+	 * @param errors
+	 */
+	private void finish(List<Action> bulk, List<Action> failed, List<Throwable> errors) {
+		List<Action> dropped = new ArrayList<>();
+		List<Throwable> droppedErrors = new ArrayList<>();
+		synchronized (this) {
+			pendingRequests--;
+			for (Action action : bulk) {
+				pendingKeys.remove(action.key);
+			}
+			for (int i = 0; i < failed.size(); i++) {
+				Action action = failed.get(i);
+				if (!closed && action.attempts < retryLimit) {
+					action.attempts++;
+					retries.inc();
+					requeue(action);
+				} else {
+					dropped.add(action);
+					droppedErrors.add(errors.get(i));
+				}
+			}
+		}
+		for (int i = 0; i < dropped.size(); i++) {
+			failures.inc();
+			dropped.get(i).fail(droppedErrors.get(i));
+		}
+		flush();
+	}
+
+	/**
+	 * Stop the indexer. Queued operations will fail.
+	 */
+	public void close() {
+		List<Action> remaining;
+		synchronized (this) {
+			closed = true;
+			remaining = new ArrayList<>(queue.values());
+			queue.clear();
+			queuedBytes = 0;
+			notifyAll();
+		}
+		scheduler.shutdownNow();
+		for (Action action : remaining) {
+			action.fail(new IllegalStateException("The bulk indexer has been closed."));
+		}
+	}
+
+	/**
+	 * Queued store or delete operation.
+	 */
+	static class Action {
+
+		final String index;
+
+		final String id;
+
+		final String key;
+
+		/**
+		 * Encoded document or null for deletions.
+		 */
+		final String source;
+
+		final String header;
+
+		final int size;
+
+		final List<CompletableEmitter> emitters = new ArrayList<>(1);
+
+		int attempts = 0;
+
+		long notBefore = 0;
+
+		Action(String index, String id, String source, CompletableEmitter emitter) {
+			this.index = index;
+			this.id = id;
+			this.key = index + "/" + id;
+			this.source = source;
+			JsonObject meta = new JsonObject().put("_index", index).put("_type", DEFAULT_TYPE).put("_id", id);
+			this.header = new JsonObject().put(isDelete() ? "delete" : "index", meta).encode();
+			this.size = header.length() + 1 + (source == null ? 0 : source.length() + 1);
+			this.emitters.add(emitter);
+		}
+
+		boolean isDelete() {
+			return source == null;
+		}
+
+		void appendTo(StringBuilder data) {
+			data.append(header).append('\n');
+			if (source != null) {
+				data.append(source).append('\n');
+			}
+		}
+
+		void complete() {
+			for (CompletableEmitter emitter : emitters) {
+				emitter.onComplete();
+			}
+		}
+
+		void fail(Throwable error) {
+			for (CompletableEmitter emitter : emitters) {
+				if (!emitter.isDisposed()) {
+					emitter.onError(error);
+				}
+			}
+		}
+	}
+
+}
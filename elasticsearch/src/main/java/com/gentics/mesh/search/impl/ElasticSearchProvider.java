@@ -1,18 +1,26 @@
 package com.gentics.mesh.search.impl;
 
 import static com.gentics.mesh.core.rest.error.Errors.error;
+import static com.gentics.mesh.search.impl.ElasticsearchErrorHelper.isAliasExistsError;
+import static com.gentics.mesh.search.impl.ElasticsearchErrorHelper.isAliasMatchError;
 import static com.gentics.mesh.search.impl.ElasticsearchErrorHelper.isConflictError;
+import static com.gentics.mesh.search.impl.ElasticsearchErrorHelper.isIndexNotFoundError;
 import static com.gentics.mesh.search.impl.ElasticsearchErrorHelper.isNotFoundError;
 import static com.gentics.mesh.search.impl.ElasticsearchErrorHelper.isResourceAlreadyExistsError;
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 import static io.netty.handler.codec.http.HttpResponseStatus.INTERNAL_SERVER_ERROR;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.inject.Singleton;
@@ -32,6 +40,7 @@ import com.gentics.mesh.util.UUIDUtil;
 import io.reactivex.Completable;
 import io.reactivex.CompletableTransformer;
 import io.reactivex.Maybe;
+import io.reactivex.Observable;
 import io.reactivex.Single;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
@@ -50,10 +59,24 @@ public class ElasticSearchProvider implements SearchProvider {
 
 	private SearchClient client;
 
+	private BulkIndexer bulkIndexer;
+
 	private MeshOptions options;
 
 	private ElasticsearchProcessManager processManager;
 
+	/**
+	 * Map of indices and the indices which receive a copy of all document changes.
+	 */
+	private final Map<String, String> mirrors = new ConcurrentHashMap<>();
+
+	/**
+	 * Sequence numbers of the documents which were changed via a mirror, keyed by the mirror index and the document id.
+	 */
+	private final Map<String, Map<String, Long>> mirroredDocuments = new ConcurrentHashMap<>();
+
+	private final AtomicLong mirrorSequence = new AtomicLong();
+
 	private final static int MAX_RETRY_ON_ERROR = 5;
 
 	public ElasticSearchProvider() {
@@ -95,6 +118,7 @@ public class ElasticSearchProvider implements SearchProvider {
 		// TODO add support for multiple servers
 		HttpHost first = hosts.get(0);
 		client = new SearchClient(first.getSchemeName(), first.getHostName(), first.getPort());
+		bulkIndexer = new BulkIndexer(client, searchOptions);
 
 		if (waitForCluster) {
 			waitForCluster(client, 45);
@@ -204,6 +228,9 @@ public class ElasticSearchProvider implements SearchProvider {
 
 	@Override
 	public void stop() throws IOException {
+		if (bulkIndexer != null) {
+			bulkIndexer.close();
+		}
 		if (client != null) {
 			log.info("Closing Elasticsearch REST client.");
 			client.close();
@@ -226,6 +253,14 @@ public class ElasticSearchProvider implements SearchProvider {
 			.compose(withTimeoutAndLog("Refreshing indices {" + indicesStr + "}", true));
 	}
 
+	@Override
+	public Maybe<Long> getDocumentCount(String index) {
+		return client.count(index).map(response -> response.getLong("count")).toMaybe().timeout(getOptions().getTimeout(), TimeUnit.MILLISECONDS)
+			.doOnError(error -> {
+				log.error("Counting the documents of index {" + index + "} failed.", error);
+			});
+	}
+
 	@Override
 	public Completable createIndex(IndexInfo info) {
 		String indexName = info.getIndexName();
@@ -241,7 +276,8 @@ public class ElasticSearchProvider implements SearchProvider {
 					log.debug("Create index {" + indexName + "}response: {" + response.toString() + "}");
 				}
 			}).toCompletable()
-			.onErrorResumeNext(error -> isResourceAlreadyExistsError(error) ? Completable.complete() : Completable.error(error))
+			.onErrorResumeNext(error -> isResourceAlreadyExistsError(error) || isAliasExistsError(error) ? Completable.complete() : Completable.error(
+				error))
 			.compose(withTimeoutAndLog("Creating index {" + indexName + "}", true));
 	}
 
@@ -263,14 +299,11 @@ public class ElasticSearchProvider implements SearchProvider {
 		if (log.isDebugEnabled()) {
 			log.debug("Deleting document {" + uuid + "} from index {" + index + "}.");
 		}
-		return client.deleteDocument(index, DEFAULT_TYPE, uuid).async()
-			.doOnSuccess(response -> {
-				if (log.isDebugEnabled()) {
-					log.debug("Deleted object {" + uuid + "} from index {" + index + "}");
-				}
-			}).toCompletable()
-			.onErrorResumeNext(error -> isNotFoundError(error) ? Completable.complete() : Completable.error(error))
-			.compose(withTimeoutAndLog("Deleting document {" + index + "} / {" + uuid + "}", true));
+		return withMirror(index, Collections.singleton(uuid), name -> bulkIndexer.delete(name, uuid)).doOnComplete(() -> {
+			if (log.isDebugEnabled()) {
+				log.debug("Deleted object {" + uuid + "} from index {" + index + "}");
+			}
+		}).compose(withErrorLog("Deleting document {" + index + "} / {" + uuid + "}"));
 	}
 
 	@Override
@@ -280,18 +313,20 @@ public class ElasticSearchProvider implements SearchProvider {
 			log.debug("Updating object {" + uuid + ":" + DEFAULT_TYPE + "} to index.");
 		}
 
-		return client.updateDocument(index, DEFAULT_TYPE, uuid, new JsonObject().put("doc", document)).async()
+		return withMirror(index, Collections.singleton(uuid), name -> client.updateDocument(name, DEFAULT_TYPE, uuid, new JsonObject().put("doc", document))
+			.async()
 			.doOnSuccess(response -> {
 				if (log.isDebugEnabled()) {
 					log.debug(
 						"Update object {" + uuid + ":" + DEFAULT_TYPE + "} to index. Duration " + (System.currentTimeMillis() - start) + "[ms]");
 				}
 			}).toCompletable().onErrorResumeNext(error -> {
-				if (ignoreMissingDocumentError && isNotFoundError(error)) {
+				// The document may not yet have been added to the mirror index
+				if ((ignoreMissingDocumentError || !name.equals(index)) && isNotFoundError(error)) {
 					return Completable.complete();
 				}
 				return Completable.error(error);
-			}).compose(withTimeoutAndLog("Updating document {" + index + "} / {" + uuid + "}", true));
+			})).compose(withTimeoutAndLog("Updating document {" + index + "} / {" + uuid + "}", true));
 	}
 
 	@Override
@@ -300,29 +335,16 @@ public class ElasticSearchProvider implements SearchProvider {
 			return Completable.complete();
 		}
 		long start = System.currentTimeMillis();
-
-		JsonArray items = new JsonArray();
-		JsonObject bulkData = new JsonObject();
-		bulkData.put("items", items);
-
-		// Add index requests for each document to the bulk request
-		// for (Map.Entry<String, JsonObject> entry : documents.entrySet()) {
-		// JsonObject item = new JsonObject();
-		// item.put("index", value)
-		// String documentId = entry.getKey();
-		// JsonObject document = entry.getValue();
-		// request.add(new IndexRequest(index, DEFAULT_TYPE, documentId).source(document.toString(), XContentType.JSON));
-		// items.add(item);
-		// }
-
-		return client.storeDocumentBulk(bulkData).async()
-			.doOnSuccess(response -> {
-				if (log.isDebugEnabled()) {
-					log.debug("Finished bulk  store request on index {" + index + ":" + DEFAULT_TYPE + "}. Duration " + (System.currentTimeMillis()
-						- start) + "[ms]");
-				}
-			}).toCompletable()
-			.compose(withTimeoutAndLog("Storing document batch {" + index + "} / {" + DEFAULT_TYPE + "}", true));
+		return withMirror(index, documents.keySet(), name -> {
+			List<Completable> actions = documents.entrySet().stream().map(entry -> bulkIndexer.store(name, entry.getKey(), entry.getValue())).collect(
+				Collectors.toList());
+			return Completable.merge(actions);
+		}).doOnComplete(() -> {
+			if (log.isDebugEnabled()) {
+				log.debug("Finished bulk  store request on index {" + index + ":" + DEFAULT_TYPE + "}. Duration " + (System.currentTimeMillis()
+					- start) + "[ms]");
+			}
+		}).compose(withErrorLog("Storing document batch {" + index + "} / {" + DEFAULT_TYPE + "}"));
 	}
 
 	@Override
@@ -331,13 +353,12 @@ public class ElasticSearchProvider implements SearchProvider {
 		if (log.isDebugEnabled()) {
 			log.debug("Adding object {" + uuid + ":" + DEFAULT_TYPE + "} to index {" + index + "}");
 		}
-		return client.storeDocument(index, DEFAULT_TYPE, uuid, document).async()
-			.doOnSuccess(response -> {
-				if (log.isDebugEnabled()) {
-					log.debug("Added object {" + uuid + ":" + DEFAULT_TYPE + "} to index {" + index + "}. Duration " + (System.currentTimeMillis()
-						- start) + "[ms]");
-				}
-			}).toCompletable().compose(withTimeoutAndLog("Storing document {" + index + "} / {" + uuid + "}", true));
+		return withMirror(index, Collections.singleton(uuid), name -> bulkIndexer.store(name, uuid, document)).doOnComplete(() -> {
+			if (log.isDebugEnabled()) {
+				log.debug("Added object {" + uuid + ":" + DEFAULT_TYPE + "} to index {" + index + "}. Duration " + (System.currentTimeMillis()
+					- start) + "[ms]");
+			}
+		}).compose(withErrorLog("Storing document {" + index + "} / {" + uuid + "}"));
 	}
 
 	@Override
@@ -353,10 +374,118 @@ public class ElasticSearchProvider implements SearchProvider {
 					log.debug("Deleted index {" + indices + "}. Duration " + (System.currentTimeMillis() - start) + "[ms]");
 				}
 			}).toCompletable()
-			.onErrorResumeNext(error -> isNotFoundError(error) ? Completable.complete() : Completable.error(error))
+			.onErrorResumeNext(error -> {
+				if (isNotFoundError(error)) {
+					return Completable.complete();
+				}
+				// Indices which have been rebuilt are only accessible via their alias. Elasticsearch requires the concrete index names for the deletion.
+				if (isAliasMatchError(error)) {
+					return resolveIndices(indexNames).flatMapCompletable(resolved -> resolved.isEmpty() ? Completable.complete()
+						: client.deleteIndex(resolved.toArray(new String[resolved.size()])).async().toCompletable());
+				}
+				return Completable.error(error);
+			})
 			.compose(withTimeoutAndLog("Deletion of indices " + indices, true));
 	}
 
+	@Override
+	public Completable swapAlias(String alias, String indexName) {
+		return resolveIndices(alias).flatMapCompletable(current -> {
+			JsonArray actions = new JsonArray();
+			actions.add(new JsonObject().put("add", new JsonObject().put("index", indexName).put("alias", alias)));
+			List<String> obsolete = new ArrayList<>();
+			for (String name : current) {
+				if (name.equals(indexName)) {
+					continue;
+				}
+				if (name.equals(alias)) {
+					// The alias can only be created once the index with the same name has been removed
+					actions.add(new JsonObject().put("remove_index", new JsonObject().put("index", name)));
+				} else {
+					actions.add(new JsonObject().put("remove", new JsonObject().put("index", name).put("alias", alias)));
+					obsolete.add(name);
+				}
+			}
+			if (log.isDebugEnabled()) {
+				log.debug("Updating alias {" + alias + "} with actions {" + actions.encode() + "}");
+			}
+			Completable swap = client.updateAliases(new JsonObject().put("actions", actions)).toCompletable();
+			if (obsolete.isEmpty()) {
+				return swap;
+			}
+			return swap.andThen(client.deleteIndex(obsolete.toArray(new String[obsolete.size()])).async().toCompletable());
+		}).compose(withTimeoutAndLog("Swapping alias {" + alias + "} to index {" + indexName + "}", false));
+	}
+
+	@Override
+	public void addMirror(String indexName, String mirrorIndexName) {
+		mirroredDocuments.put(mirrorIndexName, new ConcurrentHashMap<>());
+		mirrors.put(indexName, mirrorIndexName);
+	}
+
+	@Override
+	public void removeMirror(String indexName) {
+		String mirror = mirrors.remove(indexName);
+		if (mirror != null) {
+			mirroredDocuments.remove(mirror);
+		}
+	}
+
+	@Override
+	public long getMirrorSequence() {
+		return mirrorSequence.get();
+	}
+
+	@Override
+	public long getMirrorSequence(String mirrorIndexName, String documentId) {
+		Map<String, Long> documents = mirroredDocuments.get(mirrorIndexName);
+		if (documents == null) {
+			return 0;
+		}
+		return documents.getOrDefault(documentId, 0L);
+	}
+
+	/**
+	 * Apply the action to the given index and to its mirror index, if a mirror has been registered. The change is recorded for the documents of the mirror
+	 * index before the action is executed.
+	 * 
+	 * @param index
+	 * @param documentIds
+	 *            Ids of the documents which are changed by the action
+	 * @param action
+	 *            Function which creates the action for the passed index name
+	 * @return
+	 */
+	private Completable withMirror(String index, Collection<String> documentIds, Function<String, Completable> action) {
+		String mirror = mirrors.get(index);
+		if (mirror == null) {
+			return action.apply(index);
+		}
+		Map<String, Long> documents = mirroredDocuments.get(mirror);
+		if (documents != null) {
+			long sequence = mirrorSequence.incrementAndGet();
+			for (String documentId : documentIds) {
+				documents.put(documentId, sequence);
+			}
+		}
+		return Completable.mergeArray(action.apply(index), action.apply(mirror));
+	}
+
+	/**
+	 * Resolve the given index names or aliases to the names of the concrete indices. Missing indices will be omitted.
+	 * 
+	 * @param names
+	 * @return
+	 */
+	private Single<List<String>> resolveIndices(String... names) {
+		return Observable.fromArray(names)
+			.concatMap(name -> client.readIndex(name).async().map(JsonObject::fieldNames)
+				.onErrorResumeNext(error -> isIndexNotFoundError(error) ? Single.just(Collections.<String>emptySet()) : Single.error(error))
+				.toObservable())
+			.flatMapIterable(indices -> indices)
+			.toList();
+	}
+
 	@Override
 	public Completable validateCreateViaTemplate(IndexInfo info) {
 		JsonObject json = createIndexSettings(info);
@@ -418,6 +547,20 @@ public class ElasticSearchProvider implements SearchProvider {
 		return options.getSearchOptions();
 	}
 
+	/**
+	 * Modify the given completable of a bulk operation and add error logging. Timeouts and retries are handled by the {@link BulkIndexer}. Errors are passed on
+	 * so that the caller can keep the changes and retry them later.
+	 * 
+	 * @param msg
+	 *            Message to be shown on error
+	 * @return
+	 */
+	private CompletableTransformer withErrorLog(String msg) {
+		return c -> c.doOnError(error -> {
+			log.error("The operation failed. Action: " + msg, error);
+		});
+	}
+
 	/**
 	 * Modify the given completable and add the configured timeout, error logging and retry handler.
 	 * 
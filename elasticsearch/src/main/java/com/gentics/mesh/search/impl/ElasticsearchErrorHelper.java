@@ -58,6 +58,50 @@ public final class ElasticsearchErrorHelper {
 		return false;
 	}
 
+	/**
+	 * Check whether the error was caused by an index creation request for a name which is already used by an alias.
+	 * 
+	 * @param error
+	 * @return
+	 */
+	public static boolean isAliasExistsError(Throwable error) {
+		return hasErrorType(error, "invalid_index_name_exception", "exists as alias");
+	}
+
+	/**
+	 * Check whether the error was caused by a request which referenced an alias where a concrete index is required.
+	 * 
+	 * @param error
+	 * @return
+	 */
+	public static boolean isAliasMatchError(Throwable error) {
+		return hasErrorType(error, "illegal_argument_exception", "matches an alias");
+	}
+
+	/**
+	 * Check whether the error was caused by a missing index.
+	 * 
+	 * @param error
+	 * @return
+	 */
+	public static boolean isIndexNotFoundError(Throwable error) {
+		return hasErrorType(error, "index_not_found_exception", null);
+	}
+
+	private static boolean hasErrorType(Throwable error, String type, String reasonPart) {
+		if (error instanceof HttpErrorException) {
+			HttpErrorException he = (HttpErrorException) error;
+			JsonObject json = he.getBodyObject(JsonObject::new);
+			Object errorInfo = json == null ? null : json.getValue("error");
+			if (!(errorInfo instanceof JsonObject) || !type.equals(((JsonObject) errorInfo).getString("type"))) {
+				return false;
+			}
+			String reason = ((JsonObject) errorInfo).getString("reason");
+			return reasonPart == null || (reason != null && reason.contains(reasonPart));
+		}
+		return false;
+	}
+
 	public static GenericRestException mapToMeshError(Throwable error) {
 		if (error instanceof TimeoutException || error instanceof SocketTimeoutException) {
 			return error(INTERNAL_SERVER_ERROR, "search_error_timeout");
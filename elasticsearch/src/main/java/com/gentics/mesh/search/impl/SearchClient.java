@@ -1,14 +1,123 @@
 package com.gentics.mesh.search.impl;
 
+import java.io.IOException;
+
 import com.gentics.elasticsearch.client.ElasticsearchOkClient;
 
+import io.reactivex.Single;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 public class SearchClient extends ElasticsearchOkClient<JsonObject> {
 
+	private static final MediaType NDJSON = MediaType.parse("application/x-ndjson");
+
+	private static final MediaType JSON = MediaType.parse("application/json");
+
+	private final OkHttpClient bulkClient = new OkHttpClient();
+
+	private final String baseUrl;
+
+	private final String bulkUrl;
+
+	private final String aliasesUrl;
+
+	private final String scrollUrl;
+
 	public SearchClient(String scheme, String hostname, int port) {
 		super(scheme, hostname, port);
 		setConverterFunction(JsonObject::new);
+		this.baseUrl = scheme + "://" + hostname + ":" + port;
+		this.bulkUrl = scheme + "://" + hostname + ":" + port + "/_bulk";
+		this.aliasesUrl = scheme + "://" + hostname + ":" + port + "/_aliases";
+		this.scrollUrl = scheme + "://" + hostname + ":" + port + "/_search/scroll";
+	}
+
+	/**
+	 * Send the given newline delimited actions to the bulk API.
+	 *
+	 * @param bulkData
+	 *            Bulk actions in the newline delimited JSON format. The data must end with a newline.
+	 * @return Single which yields the bulk response. The response contains the result of every action within the items array.
+	 */
+	public Single<JsonObject> bulk(String bulkData) {
+		return execute(new Request.Builder().url(bulkUrl).post(RequestBody.create(NDJSON, bulkData)).build(), "Bulk");
+	}
+
+	/**
+	 * Apply the given alias actions. All actions of the request are applied atomically.
+	 *
+	 * @param actions
+	 *            Request which contains the actions array
+	 * @return Single which yields the response
+	 */
+	public Single<JsonObject> updateAliases(JsonObject actions) {
+		return execute(new Request.Builder().url(aliasesUrl).post(RequestBody.create(JSON, actions.encode())).build(), "Alias");
+	}
+
+	/**
+	 * Count the searchable documents of the given index.
+	 *
+	 * @param index
+	 *            Name of the index
+	 * @return Single which yields the response. The response contains the amount of documents within the count property.
+	 */
+	public Single<JsonObject> count(String index) {
+		return execute(new Request.Builder().url(baseUrl + "/" + index + "/_count").get().build(), "Count");
+	}
+
+	/**
+	 * Release the search context of the given scroll.
+	 *
+	 * @param scrollId
+	 *            Id of the scroll which is no longer needed
+	 * @return Single which yields the response
+	 */
+	public Single<JsonObject> clearScroll(String scrollId) {
+		JsonObject body = new JsonObject().put("scroll_id", new JsonArray().add(scrollId));
+		return execute(new Request.Builder().url(scrollUrl).delete(RequestBody.create(JSON, body.encode())).build(), "Clear scroll");
+	}
+
+	private Single<JsonObject> execute(Request request, String name) {
+		return Single.create(sub -> {
+			Call call = bulkClient.newCall(request);
+			sub.setCancellable(call::cancel);
+			call.enqueue(new Callback() {
+				@Override
+				public void onFailure(Call call, IOException e) {
+					if (!sub.isDisposed()) {
+						sub.onError(e);
+					}
+				}
+
+				@Override
+				public void onResponse(Call call, Response response) {
+					JsonObject json;
+					try (ResponseBody body = response.body()) {
+						String content = body == null ? "" : body.string();
+						if (!response.isSuccessful()) {
+							throw new IOException(name + " request failed with status {" + response.code() + "} and response {" + content + "}");
+						}
+						json = new JsonObject(content);
+					} catch (Exception e) {
+						// Errors which occur while reading or parsing the response must be passed to the subscriber since the callback can't report them
+						if (!sub.isDisposed()) {
+							sub.onError(e);
+						}
+						return;
+					}
+					sub.onSuccess(json);
+				}
+			});
+		});
 	}
 
 }
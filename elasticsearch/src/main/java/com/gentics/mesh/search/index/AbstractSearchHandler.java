@@ -2,18 +2,25 @@ package com.gentics.mesh.search.index;
 
 import static com.gentics.mesh.core.rest.error.Errors.error;
 import static com.gentics.mesh.search.impl.ElasticsearchErrorHelper.mapToMeshError;
+import static com.gentics.mesh.search.index.MappingHelper.UUID_KEY;
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 import static io.netty.handler.codec.http.HttpResponseStatus.INTERNAL_SERVER_ERROR;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 import static io.netty.handler.codec.http.HttpResponseStatus.SERVICE_UNAVAILABLE;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import com.gentics.elasticsearch.client.HttpErrorException;
 import com.gentics.elasticsearch.client.RequestBuilder;
@@ -25,13 +32,16 @@ import com.gentics.mesh.core.data.page.impl.PageImpl;
 import com.gentics.mesh.core.data.relationship.GraphPermission;
 import com.gentics.mesh.core.data.root.RootVertex;
 import com.gentics.mesh.core.data.search.IndexHandler;
+import com.gentics.mesh.core.rest.common.AbstractGenericRestResponse;
 import com.gentics.mesh.core.rest.common.ListResponse;
 import com.gentics.mesh.core.rest.common.PagingMetaInfo;
 import com.gentics.mesh.core.rest.common.RestModel;
 import com.gentics.mesh.core.rest.error.GenericRestException;
+import com.gentics.mesh.core.rest.user.UserReference;
 import com.gentics.mesh.error.InvalidArgumentException;
 import com.gentics.mesh.error.MeshConfigurationException;
 import com.gentics.mesh.graphdb.spi.Database;
+import com.gentics.mesh.json.JsonUtil;
 import com.gentics.mesh.json.MeshJsonException;
 import com.gentics.mesh.parameter.PagingParameters;
 import com.gentics.mesh.search.DevNullSearchProvider;
@@ -43,12 +53,14 @@ import com.gentics.mesh.util.Tuple;
 import com.syncleus.ferma.tx.Tx;
 
 import io.netty.handler.codec.http.HttpResponseStatus;
-import io.reactivex.Observable;
+import io.reactivex.Completable;
 import io.reactivex.Single;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.streams.WriteStream;
 
 /**
  * Abstract implementation for a mesh search handler.
@@ -59,6 +71,16 @@ public abstract class AbstractSearchHandler<T extends MeshCoreVertex<RM, T>, RM
 
 	private static final Logger log = LoggerFactory.getLogger(AbstractSearchHandler.class);
 
+	/**
+	 * Amount of hits which are loaded from the search provider per scroll request during an export.
+	 */
+	public static final int EXPORT_BATCH_SIZE = 500;
+
+	/**
+	 * Time for which the search provider keeps the scroll context alive in between two scroll requests.
+	 */
+	public static final String EXPORT_SCROLL_KEEP_ALIVE = "1m";
+
 	protected Database db;
 
 	protected SearchProvider searchProvider;
@@ -200,60 +222,241 @@ public abstract class AbstractSearchHandler<T extends MeshCoreVertex<RM, T>, RM
 		// Add paging to query. Internally we start with page 0
 		applyPagingParams(request, pagingInfo);
 
+		// Only the document ids are needed when the elements are loaded from the graph
+		boolean fromSource = ac.getSearchParameters().isFromSource();
+		if (!fromSource && !request.containsKey("_source")) {
+			request.put("_source", false);
+		}
+
 		if (log.isDebugEnabled()) {
 			log.debug("Using parsed query {" + request.encodePrettily() + "}");
 		}
 
 		RequestBuilder<JsonObject> requestBuilder = client.query(request, new ArrayList<>(indices));
 		requestBuilder.addQueryParameter("search_type", "dfs_query_then_fetch");
-		requestBuilder.async().flatMapObservable(response -> {
+		requestBuilder.async().onErrorResumeNext(error -> {
+			return Single.error(mapToMeshError(error));
+		}).map(response -> {
 			JsonObject hitsInfo = response.getJsonObject("hits");
 			JsonArray hits = hitsInfo.getJsonArray("hits");
+			List<RM> elements = hydrate(ac, rootVertex, hits, fromSource);
 
-			List<Tuple<T, String>> list = new ArrayList<>();
-			db.tx(() -> {
-				for (int i = 0; i < hits.size(); i++) {
-					JsonObject hit = hits.getJsonObject(i);
-					String id = hit.getString("_id");
-					int pos = id.indexOf("-");
+			// Reduce the total count by the amount of hits which could not be found
+			hitsInfo.put("total", hitsInfo.getLong("total") - (hits.size() - elements.size()));
+
+			// Set meta information to the rest response
+			listResponse.setMetainfo(extractMetaInfo(hitsInfo, pagingInfo));
+			listResponse.getData().addAll(elements);
+			return listResponse;
+		}).subscribe(list -> {
+			ac.send(listResponse.toJson(), OK);
+		}, error -> {
+			log.error("Error while processing search response items", error);
+			ac.fail(error);
+		});
+	}
+
+	@Override
+	public Completable export(InternalActionContext ac, Supplier<RootVertex<T>> rootVertex, WriteStream<Buffer> stream, boolean filterLanguage) {
+		if (searchProvider instanceof DevNullSearchProvider || searchProvider instanceof TrackingSearchProvider) {
+			return Completable.error(error(SERVICE_UNAVAILABLE, "search_error_no_elasticsearch_configured"));
+		}
+
+		SearchClient client = searchProvider.getClient();
+		String searchQuery = ac.getBodyAsString();
+		if (log.isDebugEnabled()) {
+			log.debug("Invoking export with query {" + searchQuery + "}");
+		}
+		Set<String> indices = indexHandler.getSelectedIndices(ac);
+
+		JsonObject request;
+		try {
+			request = prepareSearchQuery(ac, searchQuery, filterLanguage);
+		} catch (GenericRestException e) {
+			return Completable.error(e);
+		}
+
+		// The scroll API is used to iterate over all hits. Deep pages via from/size would be limited by the max result window.
+		request.remove("from");
+		request.put("size", EXPORT_BATCH_SIZE);
+		if (!request.containsKey("sort")) {
+			request.put("sort", new JsonArray().add("_doc"));
+		}
+		boolean fromSource = ac.getSearchParameters().isFromSource();
+		if (!fromSource && !request.containsKey("_source")) {
+			request.put("_source", false);
+		}
+
+		if (log.isDebugEnabled()) {
+			log.debug("Using parsed query {" + request.encodePrettily() + "}");
+		}
+
+		AtomicReference<String> scrollId = new AtomicReference<>();
+		RequestBuilder<JsonObject> requestBuilder = client.query(request, new ArrayList<>(indices));
+		requestBuilder.addQueryParameter("scroll", EXPORT_SCROLL_KEEP_ALIVE);
+		return requestBuilder.async().onErrorResumeNext(error -> {
+			return Single.error(mapToMeshError(error));
+		}).flatMapCompletable(response -> exportHits(ac, rootVertex, stream, client, response, scrollId, fromSource)).doFinally(() -> {
+			String id = scrollId.get();
+			if (id != null) {
+				client.clearScroll(id).subscribe(r -> {
+				}, error -> log.warn("Could not clear the scroll {" + id + "}", error));
+			}
+		});
+	}
+
+	/**
+	 * Write the hits of the scroll response to the stream and continue with the next scroll response until no more hits are returned.
+	 * 
+	 * @param ac
+	 * @param rootVertex
+	 * @param stream
+	 * @param client
+	 * @param response
+	 *            Current scroll response
+	 * @param scrollId
+	 *            Reference which holds the id of the latest scroll
+	 * @param fromSource
+	 * @return
+	 */
+	private Completable exportHits(InternalActionContext ac, Supplier<RootVertex<T>> rootVertex, WriteStream<Buffer> stream, SearchClient client,
+		JsonObject response, AtomicReference<String> scrollId, boolean fromSource) {
+		scrollId.set(response.getString("_scroll_id"));
+		JsonArray hits = response.getJsonObject("hits").getJsonArray("hits");
+		if (hits.isEmpty()) {
+			return Completable.complete();
+		}
 
-					String language = pos > 0 ? id.substring(pos + 1) : null;
-					String uuid = pos > 0 ? id.substring(0, pos) : id;
+		return Completable.defer(() -> {
+			Buffer buffer = Buffer.buffer();
+			for (RM element : hydrate(ac, rootVertex, hits, fromSource)) {
+				buffer.appendString(JsonUtil.getMapper().writeValueAsString(element)).appendString("\n");
+			}
+			stream.write(buffer);
+			return awaitDrain(stream);
+		}).andThen(Single.defer(() -> {
+			JsonObject scrollRequest = new JsonObject();
+			scrollRequest.put("scroll", EXPORT_SCROLL_KEEP_ALIVE);
+			scrollRequest.put("scroll_id", scrollId.get());
+			return client.queryScroll(scrollRequest, null).async();
+		})).onErrorResumeNext(error -> {
+			return Single.error(mapToMeshError(error));
+		}).flatMapCompletable(next -> exportHits(ac, rootVertex, stream, client, next, scrollId, fromSource));
+	}
 
-					// Locate the node
-					T element = rootVertex.get().findByUuid(uuid);
+	/**
+	 * Return a completable which completes once the write queue of the stream is no longer full. This way the search provider is only queried as fast as the
+	 * written data is consumed.
+	 * 
+	 * @param stream
+	 * @return
+	 */
+	private Completable awaitDrain(WriteStream<Buffer> stream) {
+		if (!stream.writeQueueFull()) {
+			return Completable.complete();
+		}
+		return Completable.create(sub -> {
+			stream.drainHandler(v -> sub.onComplete());
+			// The queue may have been drained before the handler was registered
+			if (!stream.writeQueueFull()) {
+				sub.onComplete();
+			}
+		});
+	}
+
+	/**
+	 * Create the rest models for the given search hits. The elements of all hits are located using a single lookup and are transformed within a single
+	 * transaction. This way the transformations share the transaction and its element cache. Hits for which no element could be found are omitted.
+	 * 
+	 * @param ac
+	 * @param rootVertex
+	 *            Root vertex which is used to locate the elements
+	 * @param hits
+	 *            Search hits
+	 * @param fromSource
+	 *            Whether to create the rest models from the search index documents if possible
+	 * @return Rest models in the order of the hits
+	 */
+	protected List<RM> hydrate(InternalActionContext ac, Supplier<RootVertex<T>> rootVertex, JsonArray hits, boolean fromSource) {
+		List<RM> results = new ArrayList<>(Collections.nCopies(hits.size(), null));
+		Map<Integer, Tuple<String, String>> pending = new LinkedHashMap<>();
+		for (int i = 0; i < hits.size(); i++) {
+			JsonObject hit = hits.getJsonObject(i);
+			if (fromSource) {
+				JsonObject source = hit.getJsonObject("_source");
+				RM model = source == null ? null : transformFromSource(source);
+				if (model != null) {
+					results.set(i, model);
+					continue;
+				}
+			}
+			pending.put(i, parseDocumentId(hit.getString("_id")));
+		}
+
+		if (!pending.isEmpty()) {
+			db.tx(() -> {
+				RootVertex<T> root = rootVertex.get();
+				Map<String, T> elements = root.findByUuids(pending.values().stream().map(Tuple::v1).collect(Collectors.toList()));
+				for (Map.Entry<Integer, Tuple<String, String>> entry : pending.entrySet()) {
+					String uuid = entry.getValue().v1();
+					T element = elements.get(uuid);
 					if (element == null) {
-						log.warn("Object could not be found for uuid {" + uuid + "} in root vertex {" + rootVertex.get().getRootLabel()
+						log.warn("Object could not be found for uuid {" + uuid + "} in root vertex {" + root.getRootLabel()
 							+ "}. The element will be omitted.");
-						// Reduce the total count
-						hitsInfo.put("total", hitsInfo.getLong("total") - 1);
 					} else {
-						// TODO maybe it would be better to directly transform the element here.
-						list.add(Tuple.tuple(element, language));
+						results.set(entry.getKey(), element.transformToRestSync(ac, 0, entry.getValue().v2()));
 					}
 				}
 			});
+		}
+		results.removeIf(Objects::isNull);
+		return results;
+	}
 
-			// Set meta information to the rest response
-			listResponse.setMetainfo(extractMetaInfo(hitsInfo, pagingInfo));
+	/**
+	 * Create the rest model from the given search index document. Handlers which can't create the rest model from the stored document return null, in which
+	 * case the element will be loaded from the graph.
+	 * 
+	 * @param source
+	 *            Stored search index document
+	 * @return Rest model which only contains the fields of the document or null
+	 */
+	protected RM transformFromSource(JsonObject source) {
+		return null;
+	}
 
-			return Observable.fromIterable(list);
-		}).onErrorResumeNext(error -> {
-			return Observable.error(mapToMeshError(error));
-		}).flatMapSingle(element -> {
-			// TODO add resume next to omit the item if it can't be transformed for some reason.
-			// This would be better than to just fail the whole request
-			// TODO maybe add extra permission filtering? This would not be very costly for smaller pages and ensure perm consistency?
-			// TODO it would be good to batch the transformation of the elements to save the overhead of creating transactions and use the L1 cache.
-			return db.tx(() -> Single.just(element.v1().transformToRestSync(ac, 0, element.v2())));
-		}).collect(() -> listResponse.getData(), (x, y) -> {
-			x.add(y);
-		}).subscribe(list -> {
-			ac.send(listResponse.toJson(), OK);
-		}, error -> {
-			log.error("Error while processing search response items", error);
-			ac.fail(error);
-		});
+	/**
+	 * Set the uuid, creator, creation date, editor and edit date of the rest model using the values of the search index document.
+	 * 
+	 * @param model
+	 * @param source
+	 */
+	protected void setBasicFields(AbstractGenericRestResponse model, JsonObject source) {
+		model.setUuid(source.getString(UUID_KEY));
+		model.setCreated(source.getString("created"));
+		model.setEdited(source.getString("edited"));
+		JsonObject creator = source.getJsonObject("creator");
+		if (creator != null) {
+			model.setCreator(new UserReference().setUuid(creator.getString(UUID_KEY)));
+		}
+		JsonObject editor = source.getJsonObject("editor");
+		if (editor != null) {
+			model.setEditor(new UserReference().setUuid(editor.getString(UUID_KEY)));
+		}
+	}
+
+	/**
+	 * Split the document id into the element uuid and the optional language tag.
+	 * 
+	 * @param id
+	 *            Document id
+	 * @return Tuple of uuid and language tag
+	 */
+	private Tuple<String, String> parseDocumentId(String id) {
+		int pos = id.indexOf("-");
+		String language = pos > 0 ? id.substring(pos + 1) : null;
+		String uuid = pos > 0 ? id.substring(0, pos) : id;
+		return Tuple.tuple(uuid, language);
 	}
 
 	/**
@@ -309,6 +512,11 @@ public abstract class AbstractSearchHandler<T extends MeshCoreVertex<RM, T>, RM
 		// Add paging to query
 		applyPagingParams(queryJson, pagingInfo);
 
+		// Only the document ids are needed in order to load the elements
+		if (!queryJson.containsKey("_source")) {
+			queryJson.put("_source", false);
+		}
+
 		if (log.isDebugEnabled()) {
 			log.debug("Using parsed query {" + queryJson.encodePrettily() + "}");
 		}
@@ -319,17 +527,18 @@ public abstract class AbstractSearchHandler<T extends MeshCoreVertex<RM, T>, RM
 		Single<Page<? extends T>> result = requestBuilder.async()
 			.map(response -> {
 				return db.tx(() -> {
-					List<T> elementList = new ArrayList<>();
 					JsonObject hitsInfo = response.getJsonObject("hits");
 					JsonArray hits = hitsInfo.getJsonArray("hits");
+					List<String> uuids = new ArrayList<>();
 					for (int i = 0; i < hits.size(); i++) {
-						JsonObject hit = hits.getJsonObject(i);
-						String id = hit.getString("_id");
-						int pos = id.indexOf("-");
-						String uuid = pos > 0 ? id.substring(0, pos) : id;
+						uuids.add(parseDocumentId(hits.getJsonObject(i).getString("_id")).v1());
+					}
 
-						// Locate the node
-						T element = indexHandler.getRootVertex().findByUuid(uuid);
+					// Locate all elements at once and keep the order of the hits
+					Map<String, T> elements = indexHandler.getRootVertex().findByUuids(uuids);
+					List<T> elementList = new ArrayList<>();
+					for (String uuid : uuids) {
+						T element = elements.get(uuid);
 						if (element != null) {
 							elementList.add(element);
 						}
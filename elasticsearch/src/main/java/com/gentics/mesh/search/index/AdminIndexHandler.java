@@ -1,5 +1,6 @@
 package com.gentics.mesh.search.index;
 
+import static com.gentics.mesh.Events.JOB_WORKER_ADDRESS;
 import static com.gentics.mesh.core.rest.error.Errors.error;
 import static com.gentics.mesh.rest.Messages.message;
 import static io.netty.handler.codec.http.HttpResponseStatus.FORBIDDEN;
@@ -8,6 +9,8 @@ import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.gentics.mesh.Mesh;
+import com.gentics.mesh.cli.BootstrapInitializer;
 import com.gentics.mesh.context.InternalActionContext;
 import com.gentics.mesh.core.rest.search.SearchStatusResponse;
 import com.gentics.mesh.graphdb.spi.Database;
@@ -26,11 +29,14 @@ public class AdminIndexHandler {
 
 	private SearchProvider searchProvider;
 
+	private BootstrapInitializer boot;
+
 	@Inject
-	public AdminIndexHandler(Database db, SearchProvider searchProvider, IndexHandlerRegistry registry) {
+	public AdminIndexHandler(Database db, SearchProvider searchProvider, IndexHandlerRegistry registry, BootstrapInitializer boot) {
 		this.db = db;
 		this.searchProvider = searchProvider;
 		this.registry = registry;
+		this.boot = boot;
 	}
 
 	public void handleStatus(InternalActionContext ac) {
@@ -40,14 +46,19 @@ public class AdminIndexHandler {
 		}).subscribe(message -> ac.send(message, OK), ac::fail);
 	}
 
+	/**
+	 * Enqueue a reindex job. The job rebuilds the indices in the background and replaces the current indices once all documents have been stored.
+	 * 
+	 * @param ac
+	 */
 	public void handleReindex(InternalActionContext ac) {
 		db.asyncTx(() -> {
 			if (ac.getUser().hasAdminRole()) {
-				return searchProvider.clear().andThen(Observable.fromIterable(registry.getHandlers())
-
-						.flatMapCompletable(handler -> handler.init().andThen(handler.reindexAll()))
-
-						.andThen(searchProvider.refreshIndex()).andThen(Single.just(message(ac, "search_admin_reindex_invoked"))));
+				db.tx(() -> {
+					boot.jobRoot().enqueueReindex(ac.getUser());
+				});
+				Mesh.vertx().eventBus().send(JOB_WORKER_ADDRESS, null);
+				return Single.just(message(ac, "search_admin_reindex_invoked"));
 			} else {
 				throw error(FORBIDDEN, "error_admin_permission_required");
 			}
@@ -1,21 +1,30 @@
 package com.gentics.mesh.search.index.entry;
 
+import static com.gentics.mesh.core.data.search.SearchQueueEntryAction.STORE_ACTION;
 import static com.gentics.mesh.core.rest.error.Errors.error;
 import static com.gentics.mesh.search.SearchProvider.DEFAULT_TYPE;
 import static io.netty.handler.codec.http.HttpResponseStatus.INTERNAL_SERVER_ERROR;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
+import com.gentics.mesh.Mesh;
 import com.gentics.mesh.cli.BootstrapInitializer;
 import com.gentics.mesh.core.data.IndexableElement;
 import com.gentics.mesh.core.data.MeshCoreVertex;
+import com.gentics.mesh.core.data.root.RootVertex;
 import com.gentics.mesh.core.data.search.CreateIndexEntry;
 import com.gentics.mesh.core.data.search.IndexHandler;
 import com.gentics.mesh.core.data.search.SearchQueue;
-import com.gentics.mesh.core.data.search.SearchQueueBatch;
 import com.gentics.mesh.core.data.search.UpdateDocumentEntry;
+import com.gentics.mesh.core.data.search.context.impl.GenericEntryContextImpl;
 import com.gentics.mesh.core.data.search.index.IndexInfo;
 import com.gentics.mesh.graphdb.spi.Database;
 import com.gentics.mesh.search.SearchProvider;
@@ -23,9 +32,10 @@ import com.gentics.mesh.search.index.MappingProvider;
 import com.gentics.mesh.search.index.Transformer;
 import com.syncleus.ferma.tx.Tx;
 
+import io.reactivex.Completable;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
-import io.reactivex.Completable;
 
 /**
  * Abstract class for index handlers.
@@ -154,25 +164,221 @@ public abstract class AbstractIndexHandler<T extends MeshCoreVertex<?, T>> imple
 
 	@Override
 	public Completable reindexAll() {
-		return Completable.defer(() -> {
+		return reindexAll(Function.identity(), null, (id, count) -> {
+		});
+	}
+
+	@Override
+	public Completable reindexAll(Function<String, String> indexMapper, Long checkpoint, BiConsumer<Long, Integer> progress) {
+		return Completable.fromAction(() -> {
 			log.info("Handling full reindex entry");
-			SearchQueueBatch batch = searchQueue.create();
-			// Add all elements from the root vertex of the handler to the created batch
-			try (Tx tx = db.tx()) {
-				for (T element : getRootVertex().findAllIt()) {
-					if (element instanceof IndexableElement) {
-						IndexableElement indexableElement = (IndexableElement) element;
-						log.info("Invoking reindex in handler {" + getClass().getName() + "} for element {" + indexableElement.getUuid() + "}");
-						batch.store(indexableElement, false);
-					} else {
-						log.info("Found element {" + element.getUuid() + "} is not indexable. Ignoring element.");
-					}
+			int chunkSize = Mesh.mesh().getOptions().getSearchOptions().getReindexChunkSize();
+			long processed = 0;
+			List<Long> chunk;
+			Long cursor = checkpoint;
+			while (!(chunk = loadElementIds(cursor, chunkSize)).isEmpty()) {
+				cursor = chunk.get(chunk.size() - 1);
+
+				long sequence = searchProvider.getMirrorSequence();
+				Map<String, Map<String, JsonObject>> documents = loadDocuments(chunk);
+				List<Completable> stores = new ArrayList<>();
+				for (Map.Entry<String, Map<String, JsonObject>> entry : documents.entrySet()) {
+					stores.add(searchProvider.storeDocumentBatch(indexMapper.apply(entry.getKey()), entry.getValue()));
+				}
+				Completable.merge(stores).blockingAwait();
+
+				// Changes which were mirrored into the target indices while the chunk was processed may have been overwritten with the outdated documents
+				// of the chunk. Those documents are stored again until no further concurrent change is detected.
+				Map<String, Set<String>> outdated = findMirroredDocuments(indexMapper, documentIds(documents), sequence);
+				while (!outdated.isEmpty()) {
+					sequence = searchProvider.getMirrorSequence();
+					reapplyDocuments(indexMapper, chunk, outdated);
+					outdated = findMirroredDocuments(indexMapper, outdated, sequence);
+				}
+
+				progress.accept(cursor, chunk.size());
+				processed += chunk.size();
+				if (log.isDebugEnabled()) {
+					log.debug("Reindexed {" + processed + "} elements in handler {" + getClass().getName() + "}");
+				}
+			}
+		});
+	}
+
+	/**
+	 * Load and transform the elements with the given ids within a dedicated transaction.
+	 * 
+	 * @param chunk
+	 *            Numeric ids of the elements
+	 * @return Documents per index, keyed by their document id
+	 */
+	private Map<String, Map<String, JsonObject>> loadDocuments(List<Long> chunk) {
+		return db.tx(() -> {
+			Map<String, Map<String, JsonObject>> chunkDocuments = new HashMap<>();
+			Class<? extends T> clazz = getRootVertex().getPersistanceClass();
+			for (Long id : chunk) {
+				T element = Tx.getActive().getGraph().getFramedVertexExplicit(clazz, db.fromNumericId(id));
+				if (element == null) {
+					// The element has been deleted in the meantime
+					continue;
+				}
+				if (element instanceof IndexableElement) {
+					transformForReindex(element, chunkDocuments);
+				} else {
+					log.info("Found element {" + element.getUuid() + "} is not indexable. Ignoring element.");
+				}
+			}
+			return chunkDocuments;
+		});
+	}
+
+	/**
+	 * Load the current state of the outdated documents and store them again. Documents which no longer exist are deleted.
+	 * 
+	 * @param indexMapper
+	 * @param chunk
+	 *            Numeric ids of the elements of the chunk
+	 * @param outdated
+	 *            Ids of the outdated documents per index
+	 */
+	private void reapplyDocuments(Function<String, String> indexMapper, List<Long> chunk, Map<String, Set<String>> outdated) {
+		Map<String, Map<String, JsonObject>> current = loadDocuments(chunk);
+		List<Completable> actions = new ArrayList<>();
+		for (Map.Entry<String, Set<String>> entry : outdated.entrySet()) {
+			String target = indexMapper.apply(entry.getKey());
+			Map<String, JsonObject> currentDocuments = current.getOrDefault(entry.getKey(), Collections.emptyMap());
+			Map<String, JsonObject> restored = new HashMap<>();
+			for (String documentId : entry.getValue()) {
+				JsonObject document = currentDocuments.get(documentId);
+				if (document == null) {
+					actions.add(searchProvider.deleteDocument(target, documentId));
+				} else {
+					restored.put(documentId, document);
+				}
+			}
+			actions.add(searchProvider.storeDocumentBatch(target, restored));
+		}
+		Completable.merge(actions).blockingAwait();
+		if (log.isDebugEnabled()) {
+			log.debug("Stored {" + outdated.values().stream().mapToInt(Set::size).sum() + "} documents again which were changed during the reindex");
+		}
+	}
+
+	/**
+	 * Determine the documents which were changed via the mirror of their target index after the given sequence number.
+	 * 
+	 * @param indexMapper
+	 * @param documentIds
+	 *            Ids of the documents per index
+	 * @param sequence
+	 *            Mirror sequence number before the documents were loaded
+	 * @return Ids of the changed documents per index
+	 */
+	private Map<String, Set<String>> findMirroredDocuments(Function<String, String> indexMapper, Map<String, Set<String>> documentIds, long sequence) {
+		Map<String, Set<String>> changed = new HashMap<>();
+		for (Map.Entry<String, Set<String>> entry : documentIds.entrySet()) {
+			String target = indexMapper.apply(entry.getKey());
+			for (String documentId : entry.getValue()) {
+				if (searchProvider.getMirrorSequence(target, documentId) > sequence) {
+					changed.computeIfAbsent(entry.getKey(), index -> new HashSet<>()).add(documentId);
+				}
+			}
+		}
+		return changed;
+	}
+
+	private Map<String, Set<String>> documentIds(Map<String, Map<String, JsonObject>> documents) {
+		Map<String, Set<String>> ids = new HashMap<>();
+		for (Map.Entry<String, Map<String, JsonObject>> entry : documents.entrySet()) {
+			ids.put(entry.getKey(), entry.getValue().keySet());
+		}
+		return ids;
+	}
+
+	/**
+	 * Load the next chunk of sorted numeric ids of the elements of the root vertex. The sorted edge index of the root vertex is used to seek directly to the
+	 * elements after the cursor. All elements are loaded and sorted if the root vertex has no sorted edge index.
+	 * 
+	 * @param cursor
+	 *            Numeric id of the last element which has already been reindexed or null
+	 * @param limit
+	 *            Maximum amount of ids to be loaded
+	 * @return
+	 */
+	private List<Long> loadElementIds(Long cursor, int limit) {
+		return db.tx(() -> {
+			RootVertex<T> root = getRootVertex();
+			List<Object> ids = db.edgeLookupAscending(root.getRootLabel(), root.getId(), cursor == null ? null : db.fromNumericId(cursor), limit);
+			List<Long> numericIds = new ArrayList<>();
+			if (ids != null) {
+				for (Object id : ids) {
+					numericIds.add(db.toNumericId(id));
+				}
+				return numericIds;
+			}
+			for (T element : root.findAllIt()) {
+				long id = db.toNumericId(element.getId());
+				if (cursor == null || id > cursor) {
+					numericIds.add(id);
+				}
+			}
+			Collections.sort(numericIds);
+			return numericIds.size() > limit ? new ArrayList<>(numericIds.subList(0, limit)) : numericIds;
+		});
+	}
+
+	@Override
+	public Map<String, Long> getDocumentCounts() {
+		return db.tx(() -> {
+			Map<String, Long> counts = new HashMap<>();
+			for (T element : getRootVertex().findAllIt()) {
+				if (element instanceof IndexableElement) {
+					countForReindex(element, counts);
 				}
-				return batch.processAsync();
 			}
+			return counts;
 		});
 	}
 
+	/**
+	 * Count the documents which are stored for the given element during a full reindex.
+	 * 
+	 * @param element
+	 * @param counts
+	 *            Map which will be updated with the amount of documents per index
+	 */
+	protected void countForReindex(T element, Map<String, Long> counts) {
+		UpdateDocumentEntry entry = new UpdateDocumentEntryImpl(this, element.getUuid(), new GenericEntryContextImpl(), STORE_ACTION);
+		counts.merge(composeIndexNameFromEntry(entry), 1L, Long::sum);
+	}
+
+	/**
+	 * Transform the given element into the search documents which need to be stored during a full reindex.
+	 * 
+	 * @param element
+	 *            Element to be transformed
+	 * @param documents
+	 *            Map which will be updated with the documents per index. The documents are keyed by their document id.
+	 */
+	protected void transformForReindex(T element, Map<String, Map<String, JsonObject>> documents) {
+		UpdateDocumentEntry entry = new UpdateDocumentEntryImpl(this, element.getUuid(), new GenericEntryContextImpl(), STORE_ACTION);
+		transformForReindex(element, entry, documents);
+	}
+
+	/**
+	 * Transform the given element and add the document to the index which is specified by the entry.
+	 * 
+	 * @param element
+	 * @param entry
+	 *            Entry which is used to compose the index name and document id
+	 * @param documents
+	 */
+	protected void transformForReindex(T element, UpdateDocumentEntry entry, Map<String, Map<String, JsonObject>> documents) {
+		String indexName = composeIndexNameFromEntry(entry);
+		String documentId = composeDocumentIdFromEntry(entry);
+		documents.computeIfAbsent(indexName, name -> new HashMap<>()).put(documentId, getTransformer().toDocument(element));
+	}
+
 	@Override
 	public Completable createIndex(CreateIndexEntry entry) {
 		String indexName = entry.getIndexName();
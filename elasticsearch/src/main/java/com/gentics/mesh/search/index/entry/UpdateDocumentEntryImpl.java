@@ -37,6 +37,30 @@ public class UpdateDocumentEntryImpl extends AbstractEntry<GenericEntryContext>
 		this.indexHandler = indexHandler;
 	}
 
+	/**
+	 * Create a new batch entry for the element with the given uuid. This is used to restore entries which were written to the search index outbox.
+	 * 
+	 * @param indexHandler
+	 * @param elementUuid
+	 * @param context
+	 * @param action
+	 */
+	public UpdateDocumentEntryImpl(IndexHandler<?> indexHandler, String elementUuid, GenericEntryContext context, SearchQueueEntryAction action) {
+		super(action);
+		this.context = context;
+		this.elementUuid = elementUuid;
+		this.indexHandler = indexHandler;
+	}
+
+	/**
+	 * Return the index handler which processes the entry.
+	 * 
+	 * @return
+	 */
+	public IndexHandler<?> getIndexHandler() {
+		return indexHandler;
+	}
+
 	@Override
 	public String getElementUuid() {
 		return elementUuid;
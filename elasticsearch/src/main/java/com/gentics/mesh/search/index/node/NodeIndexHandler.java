@@ -181,6 +181,37 @@ public class NodeIndexHandler extends AbstractIndexHandler<Node> {
 		});
 	}
 
+	@Override
+	protected void transformForReindex(Node node, Map<String, Map<String, JsonObject>> documents) {
+		String projectUuid = node.getProject().getUuid();
+		for (Release release : node.getProject().getReleaseRoot().findAllIt()) {
+			String releaseUuid = release.getUuid();
+			for (ContainerType type : Arrays.asList(DRAFT, PUBLISHED)) {
+				for (NodeGraphFieldContainer container : node.getGraphFieldContainers(releaseUuid, type)) {
+					String indexName = NodeGraphFieldContainer.composeIndexName(projectUuid, releaseUuid, container.getSchemaContainerVersion()
+						.getUuid(), type);
+					String documentId = NodeGraphFieldContainer.composeDocumentId(node.getUuid(), container.getLanguage().getLanguageTag());
+					documents.computeIfAbsent(indexName, name -> new HashMap<>()).put(documentId, transformer.toDocument(container, releaseUuid, type));
+				}
+			}
+		}
+	}
+
+	@Override
+	protected void countForReindex(Node node, Map<String, Long> counts) {
+		String projectUuid = node.getProject().getUuid();
+		for (Release release : node.getProject().getReleaseRoot().findAllIt()) {
+			String releaseUuid = release.getUuid();
+			for (ContainerType type : Arrays.asList(DRAFT, PUBLISHED)) {
+				for (NodeGraphFieldContainer container : node.getGraphFieldContainers(releaseUuid, type)) {
+					String indexName = NodeGraphFieldContainer.composeIndexName(projectUuid, releaseUuid, container.getSchemaContainerVersion()
+						.getUuid(), type);
+					counts.merge(indexName, 1L, Long::sum);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Step 1 - Check whether we need to handle all releases.
 	 * 
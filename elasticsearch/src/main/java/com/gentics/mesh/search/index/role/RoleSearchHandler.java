@@ -1,5 +1,7 @@
 package com.gentics.mesh.search.index.role;
 
+import static com.gentics.mesh.search.index.MappingHelper.NAME_KEY;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -9,6 +11,8 @@ import com.gentics.mesh.graphdb.spi.Database;
 import com.gentics.mesh.search.SearchProvider;
 import com.gentics.mesh.search.index.AbstractSearchHandler;
 
+import io.vertx.core.json.JsonObject;
+
 @Singleton
 public class RoleSearchHandler extends AbstractSearchHandler<Role, RoleResponse> {
 
@@ -17,4 +21,12 @@ public class RoleSearchHandler extends AbstractSearchHandler<Role, RoleResponse>
 		super(db, searchProvider, indexHandler);
 	}
 
+	@Override
+	protected RoleResponse transformFromSource(JsonObject source) {
+		RoleResponse model = new RoleResponse();
+		setBasicFields(model, source);
+		model.setName(source.getString(NAME_KEY));
+		return model;
+	}
+
 }
@@ -1,14 +1,20 @@
 package com.gentics.mesh.search.index.tag;
 
+import static com.gentics.mesh.search.index.MappingHelper.NAME_KEY;
+import static com.gentics.mesh.search.index.MappingHelper.UUID_KEY;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import com.gentics.mesh.core.data.Tag;
+import com.gentics.mesh.core.rest.tag.TagFamilyReference;
 import com.gentics.mesh.core.rest.tag.TagResponse;
 import com.gentics.mesh.graphdb.spi.Database;
 import com.gentics.mesh.search.SearchProvider;
 import com.gentics.mesh.search.index.AbstractSearchHandler;
 
+import io.vertx.core.json.JsonObject;
+
 @Singleton
 public class TagSearchHandler extends AbstractSearchHandler<Tag, TagResponse> {
 
@@ -17,4 +23,16 @@ public class TagSearchHandler extends AbstractSearchHandler<Tag, TagResponse> {
 		super(db, searchProvider, indexHandler);
 	}
 
+	@Override
+	protected TagResponse transformFromSource(JsonObject source) {
+		TagResponse model = new TagResponse();
+		setBasicFields(model, source);
+		model.setName(source.getString(NAME_KEY));
+		JsonObject tagFamily = source.getJsonObject("tagFamily");
+		if (tagFamily != null) {
+			model.setTagFamily(new TagFamilyReference().setName(tagFamily.getString(NAME_KEY)).setUuid(tagFamily.getString(UUID_KEY)));
+		}
+		return model;
+	}
+
 }
@@ -1,5 +1,7 @@
 package com.gentics.mesh.search.index.tagfamily;
 
+import static com.gentics.mesh.core.data.search.SearchQueueEntryAction.STORE_ACTION;
+
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,12 +18,15 @@ import com.gentics.mesh.core.data.root.ProjectRoot;
 import com.gentics.mesh.core.data.root.RootVertex;
 import com.gentics.mesh.core.data.search.SearchQueue;
 import com.gentics.mesh.core.data.search.UpdateDocumentEntry;
+import com.gentics.mesh.core.data.search.context.impl.GenericEntryContextImpl;
 import com.gentics.mesh.core.data.search.index.IndexInfo;
 import com.gentics.mesh.graphdb.spi.Database;
 import com.gentics.mesh.search.SearchProvider;
 import com.gentics.mesh.search.index.entry.AbstractIndexHandler;
+import com.gentics.mesh.search.index.entry.UpdateDocumentEntryImpl;
 
 import io.reactivex.Completable;
+import io.vertx.core.json.JsonObject;
 
 @Singleton
 public class TagFamilyIndexHandler extends AbstractIndexHandler<TagFamily> {
@@ -68,6 +73,18 @@ public class TagFamilyIndexHandler extends AbstractIndexHandler<TagFamily> {
 		return super.store(tagFamily, entry);
 	}
 
+	@Override
+	protected void transformForReindex(TagFamily tagFamily, Map<String, Map<String, JsonObject>> documents) {
+		GenericEntryContextImpl context = new GenericEntryContextImpl();
+		context.setProjectUuid(tagFamily.getProject().getUuid());
+		transformForReindex(tagFamily, new UpdateDocumentEntryImpl(this, tagFamily.getUuid(), context, STORE_ACTION), documents);
+	}
+
+	@Override
+	protected void countForReindex(TagFamily tagFamily, Map<String, Long> counts) {
+		counts.merge(TagFamily.composeIndexName(tagFamily.getProject().getUuid()), 1L, Long::sum);
+	}
+
 	@Override
 	public Map<String, IndexInfo> getIndices() {
 		return db.tx(() -> {
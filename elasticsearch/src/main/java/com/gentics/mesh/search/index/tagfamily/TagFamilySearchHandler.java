@@ -1,5 +1,7 @@
 package com.gentics.mesh.search.index.tagfamily;
 
+import static com.gentics.mesh.search.index.MappingHelper.NAME_KEY;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -9,6 +11,8 @@ import com.gentics.mesh.graphdb.spi.Database;
 import com.gentics.mesh.search.SearchProvider;
 import com.gentics.mesh.search.index.AbstractSearchHandler;
 
+import io.vertx.core.json.JsonObject;
+
 @Singleton
 public class TagFamilySearchHandler extends AbstractSearchHandler<TagFamily, TagFamilyResponse> {
 
@@ -17,4 +21,12 @@ public class TagFamilySearchHandler extends AbstractSearchHandler<TagFamily, Tag
 		super(db, searchProvider, indexHandler);
 	}
 
+	@Override
+	protected TagFamilyResponse transformFromSource(JsonObject source) {
+		TagFamilyResponse model = new TagFamilyResponse();
+		setBasicFields(model, source);
+		model.setName(source.getString(NAME_KEY));
+		return model;
+	}
+
 }
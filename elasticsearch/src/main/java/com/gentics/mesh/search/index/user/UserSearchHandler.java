@@ -1,5 +1,10 @@
 package com.gentics.mesh.search.index.user;
 
+import static com.gentics.mesh.search.index.user.UserTransformer.EMAIL_KEY;
+import static com.gentics.mesh.search.index.user.UserTransformer.FIRSTNAME_KEY;
+import static com.gentics.mesh.search.index.user.UserTransformer.LASTNAME_KEY;
+import static com.gentics.mesh.search.index.user.UserTransformer.USERNAME_KEY;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -9,6 +14,8 @@ import com.gentics.mesh.graphdb.spi.Database;
 import com.gentics.mesh.search.SearchProvider;
 import com.gentics.mesh.search.index.AbstractSearchHandler;
 
+import io.vertx.core.json.JsonObject;
+
 @Singleton
 public class UserSearchHandler extends AbstractSearchHandler<User, UserResponse> {
 
@@ -17,4 +24,15 @@ public class UserSearchHandler extends AbstractSearchHandler<User, UserResponse>
 		super(db, searchProvider, indexHandler);
 	}
 
+	@Override
+	protected UserResponse transformFromSource(JsonObject source) {
+		UserResponse model = new UserResponse();
+		setBasicFields(model, source);
+		model.setUsername(source.getString(USERNAME_KEY));
+		model.setEmailAddress(source.getString(EMAIL_KEY));
+		model.setFirstname(source.getString(FIRSTNAME_KEY));
+		model.setLastname(source.getString(LASTNAME_KEY));
+		return model;
+	}
+
 }
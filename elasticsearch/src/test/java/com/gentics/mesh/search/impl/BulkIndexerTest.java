@@ -0,0 +1,157 @@
+package com.gentics.mesh.search.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gentics.mesh.etc.config.search.ElasticSearchOptions;
+
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class BulkIndexerTest {
+
+	private RecordingClient client;
+
+	private BulkIndexer indexer;
+
+	@Before
+	public void setup() {
+		client = new RecordingClient();
+		indexer = new BulkIndexer(client, new ElasticSearchOptions().setBulkLimit(3).setBulkFlushInterval(200));
+	}
+
+	@After
+	public void tearDown() {
+		indexer.close();
+	}
+
+	@Test
+	public void testCoalescing() {
+		Completable first = indexer.store("index", "doc", new JsonObject().put("version", 1)).cache();
+		first.subscribe();
+		Completable second = indexer.store("index", "doc", new JsonObject().put("version", 2));
+		assertTrue(Completable.merge(Arrays.asList(first, second)).blockingAwait(5, TimeUnit.SECONDS));
+
+		assertEquals("Both operations should have been combined", 1, client.requests.size());
+		String request = client.requests.get(0);
+		assertFalse(request.contains("\"version\":1"));
+		assertTrue(request.contains("\"version\":2"));
+	}
+
+	@Test
+	public void testBulkLimit() {
+		List<Completable> actions = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			actions.add(indexer.store("index", "doc" + i, new JsonObject()));
+		}
+		assertTrue(Completable.merge(actions).blockingAwait(5, TimeUnit.SECONDS));
+		assertEquals(3, client.requests.size());
+	}
+
+	@Test
+	public void testRetryFailedItems() {
+		client.failFirstAttempt = true;
+		assertTrue(indexer.store("index", "doc", new JsonObject()).blockingAwait(5, TimeUnit.SECONDS));
+		assertEquals("The failed document should have been sent again", 2, client.requests.size());
+	}
+
+	@Test
+	public void testDeleteMissingDocument() {
+		client.missingDocuments = true;
+		assertTrue(indexer.delete("index", "doc").blockingAwait(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testQueueLimit() throws Exception {
+		indexer.close();
+		client.hold = true;
+		indexer = new BulkIndexer(client, new ElasticSearchOptions().setBulkLimit(1).setBulkConcurrency(1).setBulkQueueLimit(2).setTimeout(60_000L));
+		// The first document is sent and the request is held back. The other documents fill the queue.
+		for (int i = 0; i < 3; i++) {
+			indexer.store("index", "doc" + i, new JsonObject()).subscribe(() -> {
+			}, error -> {
+			});
+		}
+		assertEquals(2, indexer.getQueueDepth());
+
+		// Operations for queued documents replace the queued operation and need no space
+		indexer.store("index", "doc1", new JsonObject()).subscribe(() -> {
+		}, error -> {
+		});
+		assertEquals(2, indexer.getQueueDepth());
+
+		// Producers on the event loop must not be blocked and are rejected right away
+		Vertx vertx = Vertx.vertx();
+		try {
+			CompletableFuture<Throwable> result = new CompletableFuture<>();
+			vertx.runOnContext(v -> {
+				indexer.store("index", "doc3", new JsonObject()).subscribe(() -> result.complete(null), result::complete);
+			});
+			assertNotNull("The operation should have been rejected", result.get(5, TimeUnit.SECONDS));
+			assertEquals(2, indexer.getQueueDepth());
+		} finally {
+			vertx.close();
+		}
+	}
+
+	/**
+	 * Client which records the bulk requests and creates the responses without contacting Elasticsearch.
+	 */
+	private static class RecordingClient extends SearchClient {
+
+		final List<String> requests = new ArrayList<>();
+
+		boolean failFirstAttempt = false;
+
+		boolean missingDocuments = false;
+
+		boolean hold = false;
+
+		RecordingClient() {
+			super("http", "localhost", 9200);
+		}
+
+		@Override
+		public synchronized Single<JsonObject> bulk(String bulkData) {
+			requests.add(bulkData);
+			if (hold) {
+				return Single.never();
+			}
+			JsonArray items = new JsonArray();
+			for (String line : bulkData.split("\n")) {
+				JsonObject json = new JsonObject(line);
+				if (json.isEmpty()) {
+					continue;
+				}
+				String action = json.fieldNames().iterator().next();
+				if (!"index".equals(action) && !"delete".equals(action)) {
+					continue;
+				}
+				int status = 200;
+				if (failFirstAttempt && requests.size() == 1) {
+					status = 429;
+				} else if (missingDocuments && "delete".equals(action)) {
+					status = 404;
+				}
+				items.add(new JsonObject().put(action, new JsonObject().put("status", status)));
+			}
+			return Single.just(new JsonObject().put("errors", false).put("items", items));
+		}
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.gentics.mesh.rest.client.handler.impl;
+
+import com.gentics.mesh.json.JsonUtil;
+import com.gentics.mesh.rest.client.handler.AbstractResponseHandler;
+import com.gentics.mesh.rest.client.handler.GenericMessageErrorHandler;
+
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.parsetools.RecordParser;
+import io.vertx.reactivex.FlowableHelper;
+
+/**
+ * Handler for responses which contain newline delimited JSON. The response will not be buffered. Instead the handler provides a flowable which deserializes
+ * the lines while the response is being received. The flowable applies backpressure to the response so that only the requested amount of elements is read.
+ *
+ * @param <T>
+ *            Type of the elements within the response
+ */
+public class ModelStreamResponseHandler<T> extends AbstractResponseHandler<Flowable<T>> implements GenericMessageErrorHandler<Flowable<T>> {
+
+	private Class<? extends T> classOfT;
+
+	/**
+	 * Create a new response handler.
+	 *
+	 * @param classOfT
+	 *            Expected element POJO class
+	 * @param method
+	 *            Method that was used for the request
+	 * @param uri
+	 *            Uri that was queried
+	 */
+	public ModelStreamResponseHandler(Class<? extends T> classOfT, HttpMethod method, String uri) {
+		super(method, uri);
+		this.classOfT = classOfT;
+	}
+
+	@Override
+	public void handleSuccess(HttpClientResponse response) {
+		// Don't read any data until the flowable has been subscribed
+		RecordParser lines = RecordParser.newDelimited("\n", response);
+		lines.pause();
+		Flowable<T> elements = FlowableHelper.toFlowable(lines).filter(line -> line.length() > 0).map(line -> JsonUtil.readValue(line
+			.toString(), classOfT));
+		future.complete(elements);
+	}
+
+}
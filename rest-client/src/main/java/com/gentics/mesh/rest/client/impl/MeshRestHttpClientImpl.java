@@ -1,5 +1,7 @@
 package com.gentics.mesh.rest.client.impl;
 
+import static com.gentics.mesh.http.HttpConstants.APPLICATION_JSON;
+import static com.gentics.mesh.http.HttpConstants.APPLICATION_NDJSON;
 import static com.gentics.mesh.http.HttpConstants.APPLICATION_YAML_UTF8;
 import static com.gentics.mesh.util.URIUtils.encodeFragment;
 import static io.vertx.core.http.HttpMethod.DELETE;
@@ -80,6 +82,7 @@ import com.gentics.mesh.core.rest.user.UserResetTokenResponse;
 import com.gentics.mesh.core.rest.user.UserResponse;
 import com.gentics.mesh.core.rest.user.UserUpdateRequest;
 import com.gentics.mesh.core.rest.validation.SchemaValidationResponse;
+import com.gentics.mesh.http.MeshHeaders;
 import com.gentics.mesh.parameter.ImageManipulationParameters;
 import com.gentics.mesh.parameter.PagingParameters;
 import com.gentics.mesh.parameter.ParameterProvider;
@@ -90,8 +93,10 @@ import com.gentics.mesh.rest.client.MeshRestClient;
 import com.gentics.mesh.rest.client.MeshRestRequestUtil;
 import com.gentics.mesh.rest.client.handler.ResponseHandler;
 import com.gentics.mesh.rest.client.handler.impl.MeshBinaryResponseHandler;
+import com.gentics.mesh.rest.client.handler.impl.ModelStreamResponseHandler;
 import com.gentics.mesh.rest.client.handler.impl.WebRootResponseHandler;
 
+import io.reactivex.Flowable;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
@@ -782,6 +787,43 @@ public class MeshRestHttpClientImpl extends AbstractMeshRestHttpClient {
 		return handleRequest(POST, "/" + encodeFragment(projectName) + "/rawSearch/nodes" + getQuery(parameters), JsonObject.class, json);
 	}
 
+	@Override
+	public MeshRequest<Flowable<NodeResponse>> exportNodes(String json, ParameterProvider... parameters) {
+		Objects.requireNonNull(json, "json must not be null");
+		return prepareExportRequest("/search/nodes/export" + getQuery(parameters), NodeResponse.class, json);
+	}
+
+	@Override
+	public MeshRequest<Flowable<NodeResponse>> exportNodes(String projectName, String json, ParameterProvider... parameters) {
+		Objects.requireNonNull(projectName, "projectName must not be null");
+		Objects.requireNonNull(json, "json must not be null");
+		return prepareExportRequest("/" + encodeFragment(projectName) + "/search/nodes/export" + getQuery(parameters), NodeResponse.class, json);
+	}
+
+	/**
+	 * Prepare a search export request. The response is not buffered. It is read while the elements of the returned flowable are being requested.
+	 * 
+	 * @param path
+	 *            Request path
+	 * @param classOfT
+	 *            Class of the exported elements
+	 * @param json
+	 *            Elasticsearch search request
+	 * @return
+	 */
+	private <T> MeshRequest<Flowable<T>> prepareExportRequest(String path, Class<T> classOfT, String json) {
+		String uri = getBaseUri() + path;
+		ModelStreamResponseHandler<T> handler = new ModelStreamResponseHandler<>(classOfT, POST, uri);
+		HttpClientRequest request = getClient().request(POST, uri, handler);
+		if (disableAnonymousAccess) {
+			request.putHeader(MeshHeaders.ANONYMOUS_AUTHENTICATION, "disable");
+		}
+		request.exceptionHandler(e -> {
+			handler.getFuture().fail(e);
+		});
+		return new MeshHttpRequestImpl<>(request, handler, Buffer.buffer(json), APPLICATION_JSON, authentication, APPLICATION_NDJSON);
+	}
+
 	@Override
 	public MeshRequest<UserListResponse> searchUsers(String json, ParameterProvider... parameters) {
 		Objects.requireNonNull(json, "json must not be null");
@@ -3,6 +3,7 @@ package com.gentics.mesh.rest.client.method;
 import com.gentics.mesh.core.rest.common.GenericMessageResponse;
 import com.gentics.mesh.core.rest.group.GroupListResponse;
 import com.gentics.mesh.core.rest.node.NodeListResponse;
+import com.gentics.mesh.core.rest.node.NodeResponse;
 import com.gentics.mesh.core.rest.project.ProjectListResponse;
 import com.gentics.mesh.core.rest.role.RoleListResponse;
 import com.gentics.mesh.core.rest.schema.MicroschemaListResponse;
@@ -13,6 +14,7 @@ import com.gentics.mesh.core.rest.user.UserListResponse;
 import com.gentics.mesh.parameter.ParameterProvider;
 import com.gentics.mesh.rest.client.MeshRequest;
 
+import io.reactivex.Flowable;
 import io.vertx.core.json.JsonObject;
 
 public interface SearchClientMethods {
@@ -58,6 +60,30 @@ public interface SearchClientMethods {
 	 */
 	MeshRequest<JsonObject> searchNodesRaw(String projectName, String json, ParameterProvider... parameters);
 
+	/**
+	 * Search for nodes across all projects and stream all found nodes. The nodes are not paged. Instead the server loads the search results in batches
+	 * while the response is being transferred. The returned flowable reads the response as the nodes are requested.
+	 * 
+	 * @param json
+	 *            Elasticsearch search request
+	 * @param parameters
+	 * @return
+	 */
+	MeshRequest<Flowable<NodeResponse>> exportNodes(String json, ParameterProvider... parameters);
+
+	/**
+	 * Search for nodes in the project and stream all found nodes.
+	 * 
+	 * @param projectName
+	 *            Project name
+	 * @param json
+	 *            Elasticsearch search request
+	 * @param parameters
+	 * @return
+	 * @see #exportNodes(String, ParameterProvider...)
+	 */
+	MeshRequest<Flowable<NodeResponse>> exportNodes(String projectName, String json, ParameterProvider... parameters);
+
 	/**
 	 * Search users.
 	 * 
@@ -20,6 +20,10 @@ public class GraphQLRequest implements RestModel {
 	@JsonPropertyDescription("JSON object which contains the variables.")
 	private JsonObject variables;
 
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("JSON object which contains the extensions of the request. The SHA-256 hash of a persisted query can be sent via the persistedQuery.sha256Hash property.")
+	private JsonObject extensions;
+
 	/**
 	 * Return the GraphQL query.
 	 * 
@@ -77,4 +81,24 @@ public class GraphQLRequest implements RestModel {
 		this.variables = variables;
 		return this;
 	}
+
+	/**
+	 * Return the request extensions.
+	 * 
+	 * @return
+	 */
+	public JsonObject getExtensions() {
+		return extensions;
+	}
+
+	/**
+	 * Set the request extensions.
+	 * 
+	 * @param extensions
+	 * @return Fluent API
+	 */
+	public GraphQLRequest setExtensions(JsonObject extensions) {
+		this.extensions = extensions;
+		return this;
+	}
 }
@@ -21,6 +21,10 @@ public class GraphQLResponse implements RestModel {
 	@JsonPropertyDescription("Array of errors which were encoutered when handling the query.")
 	private List<GraphQLError> errors;
 
+	@JsonProperty(required = false)
+	@JsonPropertyDescription("JSON object which contains additional information about the execution. The cost property contains the estimated and actual cost of the query as well as the execution duration in milliseconds.")
+	private JsonObject extensions;
+
 	/**
 	 * Return the response data.
 	 * 
@@ -58,4 +62,24 @@ public class GraphQLResponse implements RestModel {
 	public void setErrors(List<GraphQLError> errors) {
 		this.errors = errors;
 	}
+
+	/**
+	 * Return the response extensions.
+	 * 
+	 * @return
+	 */
+	public JsonObject getExtensions() {
+		return extensions;
+	}
+
+	/**
+	 * Set the response extensions.
+	 * 
+	 * @param extensions
+	 * @return Fluent API
+	 */
+	public GraphQLResponse setExtensions(JsonObject extensions) {
+		this.extensions = extensions;
+		return this;
+	}
 }
@@ -15,10 +15,20 @@ public final class HttpConstants {
 
 	public static final String IF_NONE_MATCH = HttpHeaders.IF_NONE_MATCH.toString();
 
+	public static final String RANGE = "Range";
+
+	public static final String IF_RANGE = "If-Range";
+
+	public static final String ACCEPT_RANGES = "Accept-Ranges";
+
+	public static final String CONTENT_RANGE = "Content-Range";
+
 	public static final String APPLICATION_JSON = "application/json";
 
 	public static final String APPLICATION_JSON_UTF8 = APPLICATION_JSON + "; charset=utf-8";
 
+	public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
 	public static final String APPLICATION_YAML = "application/x-yaml";
 
 	public static final String APPLICATION_YAML_UTF8 = APPLICATION_YAML + "; charset=utf-8";
@@ -4,6 +4,7 @@ import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 import static io.netty.handler.codec.http.HttpResponseStatus.INTERNAL_SERVER_ERROR;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 import org.codehaus.jettison.json.JSONObject;
 
@@ -16,6 +17,7 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.module.SimpleAbstractTypeResolver;
 import com.fasterxml.jackson.databind.module.SimpleModule;
@@ -51,6 +53,7 @@ import com.gentics.mesh.json.serializer.FieldListSerializer;
 import com.gentics.mesh.json.serializer.JsonArraySerializer;
 import com.gentics.mesh.json.serializer.JsonObjectSerializer;
 
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
@@ -61,6 +64,11 @@ import io.vertx.core.logging.LoggerFactory;
  */
 public final class JsonUtil {
 
+	/**
+	 * Initial size of the buffers which are used to serialize responses. The buffers grow when needed.
+	 */
+	private static final int INITIAL_BUFFER_SIZE = 4096;
+
 	protected static ObjectMapper defaultMapper;
 	protected static JsonSchemaGenerator schemaGen;
 
@@ -148,6 +156,66 @@ public final class JsonUtil {
 		}
 	}
 
+	/**
+	 * Transform the given object into a JSON string.
+	 * 
+	 * @param obj
+	 * @param pretty
+	 *            Whether the JSON should be pretty printed. Otherwise the JSON will be compact.
+	 * @return
+	 * @throws GenericRestException
+	 */
+	public static <T> String toJson(T obj, boolean pretty) throws GenericRestException {
+		if (pretty) {
+			return toJson(obj);
+		}
+		try {
+			return defaultMapper.writeValueAsString(obj);
+		} catch (IOException e) {
+			throw new GenericRestException(INTERNAL_SERVER_ERROR, "Could not generate json from object", e);
+		}
+	}
+
+	/**
+	 * Serialize the given object into a buffer. The JSON is directly encoded into the buffer which avoids creating an intermediate string.
+	 * 
+	 * @param obj
+	 * @param pretty
+	 *            Whether the JSON should be pretty printed. Otherwise the JSON will be compact.
+	 * @return Buffer which contains the UTF-8 encoded JSON
+	 * @throws GenericRestException
+	 */
+	public static Buffer toJsonBuffer(Object obj, boolean pretty) throws GenericRestException {
+		ObjectWriter writer = pretty ? defaultMapper.writerWithDefaultPrettyPrinter() : defaultMapper.writer();
+		return toJsonBuffer(pretty, gen -> writer.writeValue(gen, obj));
+	}
+
+	/**
+	 * Serialize JSON into a buffer using the given writer. This can be used to serialize large responses incrementally. The generator uses the default
+	 * mapper to serialize objects.
+	 * 
+	 * @param pretty
+	 *            Whether the JSON should be pretty printed. Otherwise the JSON will be compact.
+	 * @param writer
+	 *            Writer which writes the JSON using the provided generator
+	 * @return Buffer which contains the UTF-8 encoded JSON
+	 * @throws GenericRestException
+	 */
+	public static Buffer toJsonBuffer(boolean pretty, JsonWriter writer) throws GenericRestException {
+		Buffer buffer = Buffer.buffer(INITIAL_BUFFER_SIZE);
+		try (JsonGenerator gen = defaultMapper.getFactory().createGenerator(new BufferOutputStream(buffer))) {
+			if (pretty) {
+				gen.useDefaultPrettyPrinter();
+			}
+			writer.write(gen);
+		} catch (GenericRestException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new GenericRestException(INTERNAL_SERVER_ERROR, "Could not generate json from object", e);
+		}
+		return buffer;
+	}
+
 	/**
 	 * Transform the given JSON content back into a POJO.
 	 * 
@@ -214,4 +282,41 @@ public final class JsonUtil {
 		return defaultMapper;
 	}
 
+	/**
+	 * Writer which writes JSON using a generator.
+	 */
+	@FunctionalInterface
+	public interface JsonWriter {
+
+		/**
+		 * Write the JSON.
+		 * 
+		 * @param gen
+		 * @throws IOException
+		 */
+		void write(JsonGenerator gen) throws IOException;
+	}
+
+	/**
+	 * Output stream which appends the written bytes to a buffer.
+	 */
+	private static class BufferOutputStream extends OutputStream {
+
+		private final Buffer buffer;
+
+		BufferOutputStream(Buffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public void write(int b) {
+			buffer.appendByte((byte) b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			buffer.appendBytes(b, off, len);
+		}
+	}
+
 }
@@ -8,6 +8,7 @@ import com.gentics.mesh.core.rest.node.field.image.FocalPoint;
 import com.gentics.mesh.core.rest.node.field.image.Point;
 import com.gentics.mesh.etc.config.ImageManipulatorOptions;
 import com.gentics.mesh.parameter.image.CropMode;
+import com.gentics.mesh.parameter.image.ImageFormat;
 import com.gentics.mesh.parameter.image.ImageRect;
 
 public interface ImageManipulationParameters extends ParameterProvider {
@@ -28,6 +29,15 @@ public interface ImageManipulationParameters extends ParameterProvider {
 
 	public static final String FOCAL_POINT_DEBUG_PARAM_KEY = "fpdebug";
 
+	public static final String FORMAT_QUERY_PARAM_KEY = "format";
+
+	public static final String QUALITY_QUERY_PARAM_KEY = "quality";
+
+	/**
+	 * Value of the format parameter which selects the output format using the accept header of the request.
+	 */
+	public static final String AUTO_FORMAT = "auto";
+
 	/**
 	 * Return the image width.
 	 * 
@@ -253,6 +263,74 @@ public interface ImageManipulationParameters extends ParameterProvider {
 		return this;
 	}
 
+	/**
+	 * Return the output format. The format is null if no format or {@link #AUTO_FORMAT} was specified.
+	 * 
+	 * @return
+	 */
+	default ImageFormat getFormat() {
+		return ImageFormat.get(getParameter(FORMAT_QUERY_PARAM_KEY));
+	}
+
+	/**
+	 * Check whether the output format should be selected using the accept header of the request.
+	 * 
+	 * @return
+	 */
+	default boolean isAutoFormat() {
+		return AUTO_FORMAT.equalsIgnoreCase(getParameter(FORMAT_QUERY_PARAM_KEY));
+	}
+
+	/**
+	 * Set the output format parameter.
+	 * 
+	 * @param format
+	 *            Format key or {@link #AUTO_FORMAT}
+	 * @return Fluent API
+	 */
+	default ImageManipulationParameters setFormat(String format) {
+		if (format == null || AUTO_FORMAT.equalsIgnoreCase(format)) {
+			setParameter(FORMAT_QUERY_PARAM_KEY, format);
+			return this;
+		}
+		ImageFormat imageFormat = ImageFormat.get(format);
+		if (imageFormat == null) {
+			throw error(BAD_REQUEST, "image_error_parameter_invalid", FORMAT_QUERY_PARAM_KEY, format);
+		}
+		return setFormat(imageFormat);
+	}
+
+	/**
+	 * Set the output format parameter.
+	 * 
+	 * @param format
+	 * @return Fluent API
+	 */
+	default ImageManipulationParameters setFormat(ImageFormat format) {
+		setParameter(FORMAT_QUERY_PARAM_KEY, format == null ? null : format.getKey());
+		return this;
+	}
+
+	/**
+	 * Return the output quality in percent.
+	 * 
+	 * @return
+	 */
+	default Integer getQuality() {
+		return toInteger(getParameter(QUALITY_QUERY_PARAM_KEY), null);
+	}
+
+	/**
+	 * Set the output quality in percent. The quality only affects lossy formats.
+	 * 
+	 * @param quality
+	 * @return Fluent API
+	 */
+	default ImageManipulationParameters setQuality(Integer quality) {
+		setParameter(QUALITY_QUERY_PARAM_KEY, quality == null ? null : String.valueOf(quality));
+		return this;
+	}
+
 	/**
 	 * Set the focal point debug flag.
 	 * 
@@ -340,6 +418,13 @@ public interface ImageManipulationParameters extends ParameterProvider {
 		if (getFocalPointZoom() != null) {
 			builder.append("fpz" + getFocalPointZoom());
 		}
+		// JPEG is the default format. Omitting it keeps the keys of the existing variants valid.
+		if (getFormat() != null && getFormat() != ImageFormat.JPG) {
+			builder.append("fmt" + getFormat().getKey());
+		}
+		if (getQuality() != null) {
+			builder.append("q" + getQuality());
+		}
 		return builder.toString();
 	}
 
@@ -349,7 +434,8 @@ public interface ImageManipulationParameters extends ParameterProvider {
 	 * @return
 	 */
 	default boolean isSet() {
-		return getWidth() != null || getHeight() != null || getRect() != null || getFocalPoint() != null || getFocalPointDebug();
+		return getWidth() != null || getHeight() != null || getRect() != null || getFocalPoint() != null || getFocalPointDebug() || getFormat() != null
+				|| getQuality() != null;
 	}
 
 }
@@ -9,6 +9,8 @@ public interface PagingParameters extends ParameterProvider {
 	public static final String PER_PAGE_PARAMETER_KEY = "perPage";
 	public static final String SORT_BY_PARAMETER_KEY = "sortBy";
 	public static final String SORT_ORDER_PARAMETER_KEY = "order";
+	public static final String AFTER_PARAMETER_KEY = "after";
+	public static final String TOTAL_COUNT_PARAMETER_KEY = "totalCount";
 
 	public static final int DEFAULT_PAGE = 1;
 	public static final int DEFAULT_PAGE_SIZE = 25;
@@ -55,6 +57,54 @@ public interface PagingParameters extends ParameterProvider {
 		return this;
 	}
 
+	/**
+	 * Return the <code>{@value #AFTER_PARAMETER_KEY}</code> query parameter value. The page will start with the element which follows the element that is
+	 * identified by the cursor. The page parameter will be ignored if a cursor has been specified.
+	 * 
+	 * @return Cursor or null if no cursor has been specified
+	 */
+	default String getAfter() {
+		return getParameter(AFTER_PARAMETER_KEY);
+	}
+
+	/**
+	 * Set the cursor after which the elements should be loaded. The cursor must be the next cursor that was returned by the paging meta info of the previous
+	 * page.
+	 * 
+	 * @param cursor
+	 * @return Fluent API
+	 */
+	default PagingParameters setAfter(String cursor) {
+		setParameter(AFTER_PARAMETER_KEY, cursor);
+		return this;
+	}
+
+	/**
+	 * Return the <code>{@value #TOTAL_COUNT_PARAMETER_KEY}</code> query parameter flag value. Determining the total count requires all elements to be checked.
+	 * Clients which only scroll through the elements should thus disable the total count.
+	 * 
+	 * @return Flag which is true by default
+	 */
+	default boolean getTotalCount() {
+		String value = getParameter(TOTAL_COUNT_PARAMETER_KEY);
+		if (value != null) {
+			return Boolean.valueOf(value);
+		}
+		return true;
+	}
+
+	/**
+	 * Set the <code>{@value #TOTAL_COUNT_PARAMETER_KEY}</code> query parameter flag.
+	 * 
+	 * @param flag
+	 *            Whether the total count and the page count should be determined
+	 * @return Fluent API
+	 */
+	default PagingParameters setTotalCount(boolean flag) {
+		setParameter(TOTAL_COUNT_PARAMETER_KEY, String.valueOf(flag));
+		return this;
+	}
+
 	/**
 	 * Return the sort by parameter value.
 	 * 
@@ -0,0 +1,52 @@
+package com.gentics.mesh.parameter;
+
+import org.apache.commons.lang.BooleanUtils;
+
+public interface SearchParameters extends ParameterProvider {
+
+	public static final String WAIT_FOR_INDEX_PARAMETER_KEY = "waitForIndex";
+
+	public static final String FROM_SOURCE_PARAMETER_KEY = "fromSource";
+
+	/**
+	 * Set the wait for index flag. When enabled the request will only return once the search index contains the changes of the request. This is only
+	 * relevant when the search index is updated in the background (write-behind mode).
+	 * 
+	 * @param flag
+	 * @return Fluent API
+	 */
+	default SearchParameters setWaitForIndex(boolean flag) {
+		setParameter(WAIT_FOR_INDEX_PARAMETER_KEY, String.valueOf(flag));
+		return this;
+	}
+
+	/**
+	 * Check whether the request should wait until the search index has been updated.
+	 * 
+	 * @return
+	 */
+	default boolean isWaitForIndex() {
+		return BooleanUtils.toBooleanDefaultIfNull(Boolean.valueOf(getParameter(WAIT_FOR_INDEX_PARAMETER_KEY)), false);
+	}
+
+	/**
+	 * Set the from source flag. When enabled the elements of a search result will be created from the stored search index documents instead of loading
+	 * them from the graph. Elements which are created this way only contain the fields which are stored in the search index.
+	 * 
+	 * @param flag
+	 * @return Fluent API
+	 */
+	default SearchParameters setFromSource(boolean flag) {
+		setParameter(FROM_SOURCE_PARAMETER_KEY, String.valueOf(flag));
+		return this;
+	}
+
+	/**
+	 * Check whether the search result elements should be created from the search index documents.
+	 * 
+	 * @return
+	 */
+	default boolean isFromSource() {
+		return BooleanUtils.toBooleanDefaultIfNull(Boolean.valueOf(getParameter(FROM_SOURCE_PARAMETER_KEY)), false);
+	}
+}
@@ -0,0 +1,98 @@
+package com.gentics.mesh.parameter.image;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enum which represents the output formats of manipulated images.
+ */
+public enum ImageFormat {
+
+	JPG("jpg", "image/jpeg", false, "Lossy format without transparency. This is the default format."),
+
+	PNG("png", "image/png", true, "Lossless format which retains the transparency of the image."),
+
+	WEBP("webp", "image/webp", true, "Compact format which retains the transparency of the image. Only available if a WebP writer is installed.");
+
+	private final String key;
+	private final String mimeType;
+	private final boolean transparency;
+	private final String description;
+
+	private static final Map<String, ImageFormat> lookup = new HashMap<>();
+
+	static {
+		// Create reverse lookup hash map
+		for (ImageFormat f : ImageFormat.values()) {
+			lookup.put(f.getKey(), f);
+		}
+	}
+
+	private ImageFormat(String key, String mimeType, boolean transparency, String description) {
+		this.key = key;
+		this.mimeType = mimeType;
+		this.transparency = transparency;
+		this.description = description;
+	}
+
+	/**
+	 * Returns the format key which is also used as file extension.
+	 *
+	 * @return
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * Returns the mime type of the format.
+	 *
+	 * @return
+	 */
+	public String getMimeType() {
+		return mimeType;
+	}
+
+	/**
+	 * Check whether the format is able to store transparent pixels.
+	 *
+	 * @return
+	 */
+	public boolean isTransparencySupported() {
+		return transparency;
+	}
+
+	/**
+	 * Returns the format's description.
+	 *
+	 * @return
+	 */
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * Get the format for the specified key.
+	 *
+	 * @param key
+	 * @return Found format or null if the key matches no format.
+	 */
+	public static ImageFormat get(String key) {
+		return key == null ? null : lookup.get(key.toLowerCase());
+	}
+
+	/**
+	 * Return the description for all formats.
+	 *
+	 * @return
+	 */
+	public static String description() {
+		StringBuilder builder = new StringBuilder();
+		for (ImageFormat f : ImageFormat.values()) {
+			builder.append("\n");
+			builder.append(f.key + " : " + f.getDescription());
+		}
+		return builder.toString();
+	}
+
+}
@@ -2,20 +2,34 @@ package com.gentics.mesh.image;
 
 import static com.gentics.mesh.core.rest.error.Errors.error;
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
+import static io.netty.handler.codec.http.HttpResponseStatus.SERVICE_UNAVAILABLE;
 
 import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.Transparency;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
 
 import org.apache.tika.metadata.Metadata;
 import org.apache.tika.parser.AutoDetectParser;
@@ -25,12 +39,17 @@ import org.apache.tika.sax.BodyContentHandler;
 import org.imgscalr.Scalr;
 import org.imgscalr.Scalr.Mode;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
 import com.gentics.mesh.Mesh;
 import com.gentics.mesh.core.image.spi.AbstractImageManipulator;
+import com.gentics.mesh.core.image.spi.ImageCache;
 import com.gentics.mesh.etc.config.ImageManipulatorOptions;
 import com.gentics.mesh.image.focalpoint.FocalPointModifier;
+import com.gentics.mesh.metric.MeshMetrics;
 import com.gentics.mesh.parameter.ImageManipulationParameters;
 import com.gentics.mesh.parameter.image.CropMode;
+import com.gentics.mesh.parameter.image.ImageFormat;
 import com.gentics.mesh.parameter.image.ImageRect;
 import com.gentics.mesh.util.PropReadFileStream;
 import com.gentics.mesh.util.RxUtil;
@@ -48,8 +67,17 @@ public class ImgscalrImageManipulator extends AbstractImageManipulator {
 
 	private FocalPointModifier focalPointModifier = new FocalPointModifier();
 
+	private static final Counter REJECTED = MeshMetrics.counter("image", "resize", "rejected");
+
+	private static final Timer RESIZE_DURATION = MeshMetrics.timer("image", "resize", "duration");
+
 	private WorkerExecutor workerPool;
 
+	/**
+	 * Amount of resize operations which are running or waiting for a free thread.
+	 */
+	private final AtomicInteger pending = new AtomicInteger();
+
 	public ImgscalrImageManipulator() {
 		this(new Vertx(Mesh.vertx()), Mesh.mesh().getOptions().getImageOptions());
 	}
@@ -57,7 +85,8 @@ public class ImgscalrImageManipulator extends AbstractImageManipulator {
 	ImgscalrImageManipulator(Vertx vertx, ImageManipulatorOptions options) {
 		super(vertx, options);
 		// 10 seconds
-		workerPool = vertx.createSharedWorkerExecutor("resizeWorker", 5, Duration.ofSeconds(10).toNanos());
+		workerPool = vertx.createSharedWorkerExecutor("resizeWorker", options.getResizePoolSize(), Duration.ofSeconds(10).toNanos());
+		MeshMetrics.gauge(pending::get, "image", "resize", "pending");
 	}
 
 	/**
@@ -90,44 +119,68 @@ public class ImgscalrImageManipulator extends AbstractImageManipulator {
 	 * @return Resized image or original image if no resize operation was requested
 	 */
 	protected BufferedImage resizeIfRequested(BufferedImage originalImage, ImageManipulationParameters parameters) {
-		int originalHeight = originalImage.getHeight();
-		int originalWidth = originalImage.getWidth();
-		double aspectRatio = (double) originalWidth / (double) originalHeight;
+		return resizeIfRequested(originalImage, parameters, originalImage.getWidth(), originalImage.getHeight());
+	}
+
+	/**
+	 * Resize the image if the request contains resize parameters. The target size is calculated using the size of the source region at full resolution
+	 * which may differ from the size of the image if the image was subsampled while decoding.
+	 * 
+	 * @param image
+	 * @param parameters
+	 * @param sourceWidth
+	 *            Width of the source region at full resolution
+	 * @param sourceHeight
+	 *            Height of the source region at full resolution
+	 * @return Resized image or original image if no resize operation was requested
+	 */
+	protected BufferedImage resizeIfRequested(BufferedImage image, ImageManipulationParameters parameters, int sourceWidth, int sourceHeight) {
+		int[] size = calculateTargetSize(parameters, sourceWidth, sourceHeight);
+		if (size == null || (size[0] == image.getWidth() && size[1] == image.getHeight())) {
+			return image;
+		}
+		try {
+			BufferedImage resized = Scalr.resize(image, Mode.FIT_EXACT, size[0], size[1]);
+			image.flush();
+			return resized;
+		} catch (IllegalArgumentException e) {
+			throw error(BAD_REQUEST, "image_error_resizing_failed", e);
+		}
+	}
+
+	/**
+	 * Calculate the size of the resized image. Missing parameters are calculated using the aspect ratio of the source.
+	 * 
+	 * @param parameters
+	 * @param sourceWidth
+	 * @param sourceHeight
+	 * @return Width and height or null if the image must not be resized
+	 */
+	protected int[] calculateTargetSize(ImageManipulationParameters parameters, int sourceWidth, int sourceHeight) {
+		double aspectRatio = (double) sourceWidth / (double) sourceHeight;
 
 		// Resize if required and calculate missing parameters if needed
 		Integer pHeight = parameters.getHeight();
 		Integer pWidth = parameters.getWidth();
 
 		// Resizing is only needed when one of the parameters has been specified
-		if (pHeight != null || pWidth != null) {
-
-			// No operation needed when width is the same and no height was set
-			if (pHeight == null && pWidth == originalWidth) {
-				return originalImage;
-			}
-
-			// No operation needed when height is the same and no width was set
-			if (pWidth == null && pHeight == originalHeight) {
-				return originalImage;
-			}
+		if (pHeight == null && pWidth == null) {
+			return null;
+		}
 
-			// No operation needed when width and height match original image
-			if (pWidth != null && pWidth == originalWidth && pHeight != null && pHeight == originalHeight) {
-				return originalImage;
-			}
+		// No operation needed when width is the same and no height was set
+		if (pHeight == null && pWidth == sourceWidth) {
+			return new int[] { sourceWidth, sourceHeight };
+		}
 
-			int width = pWidth == null ? (int) (pHeight * aspectRatio) : pWidth;
-			int height = pHeight == null ? (int) (width / aspectRatio) : pHeight;
-			try {
-				BufferedImage image = Scalr.resize(originalImage, Mode.FIT_EXACT, width, height);
-				originalImage.flush();
-				return image;
-			} catch (IllegalArgumentException e) {
-				throw error(BAD_REQUEST, "image_error_resizing_failed", e);
-			}
+		// No operation needed when height is the same and no width was set
+		if (pWidth == null && pHeight == sourceHeight) {
+			return new int[] { sourceWidth, sourceHeight };
 		}
 
-		return originalImage;
+		int width = pWidth == null ? (int) (pHeight * aspectRatio) : pWidth;
+		int height = pHeight == null ? (int) (width / aspectRatio) : pHeight;
+		return new int[] { width, height };
 	}
 
 	@Override
@@ -139,103 +192,236 @@ public class ImgscalrImageManipulator extends AbstractImageManipulator {
 		} catch (Exception e) {
 			return Single.error(e);
 		}
-		File cacheFile = getCacheFile(cacheKey, parameters);
-
-		// Check the cache file directory
-		if (cacheFile.exists()) {
-			return PropReadFileStream.openFile(this.vertx, cacheFile.getAbsolutePath());
+		ImageFormat format = getFormat(parameters);
+		if (!isFormatSupported(format)) {
+			return Single.error(error(BAD_REQUEST, "image_error_format_not_supported", format.getKey()));
 		}
+		File cacheFile = getCacheFile(cacheKey, parameters);
 
 		// TODO handle execution timeout
 		// Make sure to run that code in the dedicated thread pool it may be CPU intensive for larger images and we don't want to exhaust the regular worker
 		// pool
-		return workerPool.rxExecuteBlocking(bh -> {
-
-			// Read the image and apply the changes -
-			readImage(stream).flatMap(bi -> {
-				if (bi == null) {
-					throw error(BAD_REQUEST, "image_error_reading_failed");
-				}
-				if (bi.getTransparency() == Transparency.TRANSLUCENT) {
-					// NOTE: For BITMASK images, the color model is likely IndexColorModel,
-					// and this model will contain the "real" color of the transparent parts
-					// which is likely a better fit than unconditionally setting it to white.
-					// Fill background with white
-					Graphics2D graphics = bi.createGraphics();
-					try {
-						graphics.setComposite(AlphaComposite.DstOver); // Set composite rules to paint "behind"
-						graphics.setPaint(Color.WHITE);
-						graphics.fillRect(0, 0, bi.getWidth(), bi.getHeight());
-					} finally {
-						graphics.dispose();
-					}
-				}
-				// Convert the image to RGB for images with transparency (gif, png)
-				BufferedImage rgbCopy = bi;
-				if (bi.getTransparency() == Transparency.TRANSLUCENT || bi.getTransparency() == Transparency.BITMASK) {
-					rgbCopy = new BufferedImage(bi.getWidth(), bi.getHeight(), BufferedImage.TYPE_INT_RGB);
-					Graphics2D graphics = rgbCopy.createGraphics();
-					graphics.drawImage(bi, 0, 0, Color.WHITE, null);
-					graphics.dispose();
+		Single<File> resize = Single.defer(() -> {
+			// Reject the request instead of letting the latency grow without bounds
+			int limit = options.getResizePoolSize() + options.getResizeQueueSize();
+			if (pending.incrementAndGet() > limit && options.getResizeQueueSize() > 0) {
+				pending.decrementAndGet();
+				REJECTED.inc();
+				return Single.error(error(SERVICE_UNAVAILABLE, "image_error_resize_queue_full"));
+			}
+			Single<File> operation = workerPool.rxExecuteBlocking(bh -> {
+				try (Timer.Context context = RESIZE_DURATION.time()) {
+					bh.complete(resize(stream, parameters, cacheFile));
+				} catch (Exception e) {
+					bh.fail(e);
 				}
+			}, false);
+			return operation.doFinally(pending::decrementAndGet);
+		});
 
-				// Manipulate image
-				CropMode cropMode = parameters.getCropMode();
-				boolean omitResize = false;
-				if (cropMode != null) {
-					switch (cropMode) {
-					case RECT:
-						rgbCopy = crop(rgbCopy, parameters.getRect());
-						break;
-					case FOCALPOINT:
-						rgbCopy = focalPointModifier.apply(rgbCopy, parameters);
-						// We don't need to resize the image again. The dimensions already match up with the target dimension
-						omitResize = true;
-						break;
-					}
-				}
+		// Concurrent requests for the same image share the resize operation. The file stays pinned until the caller releases it.
+		return cache.getPinned(cacheFile, resize.toCompletable(), (file, release) -> {
+			return PropReadFileStream.openFile(this.vertx, file.getAbsolutePath()).map(fileWithProps -> fileWithProps.setReleaseHandler(release));
+		});
+	}
 
-				if (!omitResize) {
-					rgbCopy = resizeIfRequested(rgbCopy, parameters);
+	/**
+	 * Decode, manipulate and write the image to the cache file. This method must be invoked by a resize thread.
+	 * 
+	 * @param stream
+	 * @param parameters
+	 * @param cacheFile
+	 * @return Written cache file
+	 * @throws IOException
+	 */
+	private File resize(Observable<Buffer> stream, ImageManipulationParameters parameters, File cacheFile) throws IOException {
+		CropMode cropMode = parameters.getCropMode();
+		DecodedImage decoded;
+		try (InputStream ins = RxUtil.toInputStream(stream, vertx)) {
+			decoded = decode(ins, parameters);
+		}
+		BufferedImage bi = decoded.image;
+		ImageFormat format = getFormat(parameters);
+
+		// Transparency is only removed for formats which can't store it
+		if (!format.isTransparencySupported() && bi.getTransparency() == Transparency.TRANSLUCENT) {
+			// NOTE: For BITMASK images, the color model is likely IndexColorModel,
+			// and this model will contain the "real" color of the transparent parts
+			// which is likely a better fit than unconditionally setting it to white.
+			// Fill background with white
+			Graphics2D graphics = bi.createGraphics();
+			try {
+				graphics.setComposite(AlphaComposite.DstOver); // Set composite rules to paint "behind"
+				graphics.setPaint(Color.WHITE);
+				graphics.fillRect(0, 0, bi.getWidth(), bi.getHeight());
+			} finally {
+				graphics.dispose();
+			}
+		}
+		// Convert the image to RGB for images with transparency (gif, png)
+		BufferedImage rgbCopy = bi;
+		if (!format.isTransparencySupported() && (bi.getTransparency() == Transparency.TRANSLUCENT || bi.getTransparency() == Transparency.BITMASK)) {
+			rgbCopy = new BufferedImage(bi.getWidth(), bi.getHeight(), BufferedImage.TYPE_INT_RGB);
+			Graphics2D graphics = rgbCopy.createGraphics();
+			graphics.drawImage(bi, 0, 0, Color.WHITE, null);
+			graphics.dispose();
+			bi.flush();
+		}
+
+		// Manipulate image
+		boolean omitResize = false;
+		if (cropMode != null) {
+			switch (cropMode) {
+			case RECT:
+				// The crop area has already been applied while decoding
+				if (!decoded.cropped) {
+					rgbCopy = crop(rgbCopy, parameters.getRect());
 				}
+				break;
+			case FOCALPOINT:
+				rgbCopy = focalPointModifier.apply(rgbCopy, parameters);
+				// We don't need to resize the image again. The dimensions already match up with the target dimension
+				omitResize = true;
+				break;
+			}
+		}
 
-				// Write image
-				try {
-					ImageIO.write(rgbCopy, "jpg", cacheFile);
-				} catch (Exception e) {
-					throw error(BAD_REQUEST, "image_error_writing_failed", e);
+		if (!omitResize) {
+			rgbCopy = resizeIfRequested(rgbCopy, parameters, decoded.sourceWidth, decoded.sourceHeight);
+		}
+
+		// Write image to a temporary file first so that partially written images are never served
+		File tempFile = new File(cacheFile.getParentFile(), cacheFile.getName() + ImageCache.TEMP_SUFFIX);
+		try {
+			write(rgbCopy, format, parameters.getQuality(), tempFile);
+			Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (Exception e) {
+			tempFile.delete();
+			throw error(BAD_REQUEST, "image_error_writing_failed", e);
+		}
+		return cacheFile;
+	}
+
+	/**
+	 * Write the image in the given format. The default settings of the image writer are used if no quality was specified.
+	 * 
+	 * @param image
+	 * @param format
+	 * @param quality
+	 *            Quality in percent or null
+	 * @param file
+	 * @throws IOException
+	 */
+	private void write(BufferedImage image, ImageFormat format, Integer quality, File file) throws IOException {
+		Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(format.getMimeType());
+		if (!writers.hasNext()) {
+			throw error(BAD_REQUEST, "image_error_format_not_supported", format.getKey());
+		}
+		ImageWriter writer = writers.next();
+		try (ImageOutputStream out = ImageIO.createImageOutputStream(file)) {
+			ImageWriteParam param = null;
+			if (quality != null) {
+				param = writer.getDefaultWriteParam();
+				// Lossless writers may not support compression settings
+				if (param.canWriteCompressed()) {
+					param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+					String[] types = param.getCompressionTypes();
+					if (param.getCompressionType() == null && types != null && types.length > 0) {
+						param.setCompressionType(types[0]);
+					}
+					param.setCompressionQuality(quality / 100f);
 				}
-				// Return buffer to written cache file
-				return PropReadFileStream.openFile(this.vertx, cacheFile.getAbsolutePath());
-			}).subscribe(result -> bh.complete(result), bh::fail);
-		});
+			}
+			writer.setOutput(out);
+			writer.write(null, new IIOImage(image, null, null), param);
+		} finally {
+			writer.dispose();
+		}
+	}
 
+	/**
+	 * Return the requested output format or the default format.
+	 * 
+	 * @param parameters
+	 * @return
+	 */
+	private ImageFormat getFormat(ImageManipulationParameters parameters) {
+		ImageFormat format = parameters.getFormat();
+		return format == null ? ImageFormat.JPG : format;
 	}
 
 	/**
-	 * Read the image data stream and return the decoded image.
+	 * Decode the image. Only the crop area is decoded for {@link CropMode#RECT}. Images which will be scaled down are subsampled while decoding (if enabled)
+	 * so that the decoded image is not much larger than the target size. Focal point crops need the full image and are decoded at full resolution.
 	 * 
-	 * @param stream
+	 * @param ins
+	 * @param parameters
 	 * @return
+	 * @throws IOException
 	 */
-	private Single<BufferedImage> readImage(Observable<Buffer> stream) {
-		return workerPool.rxExecuteBlocking(bc -> {
-			InputStream ins = null;
+	private DecodedImage decode(InputStream ins, ImageManipulationParameters parameters) throws IOException {
+		try (ImageInputStream iis = ImageIO.createImageInputStream(ins)) {
+			Iterator<ImageReader> readers = iis == null ? Collections.emptyIterator() : ImageIO.getImageReaders(iis);
+			if (!readers.hasNext()) {
+				throw error(BAD_REQUEST, "image_error_reading_failed");
+			}
+			ImageReader reader = readers.next();
 			try {
-				ins = RxUtil.toInputStream(stream, vertx);
-				BufferedImage image = ImageIO.read(ins);
-				bc.complete(image);
-			} catch (IOException e) {
-				bc.fail(e);
-			} finally {
-				if (ins != null) {
-					try {
-						ins.close();
-					} catch (Exception e) {
+				reader.setInput(iis, true, true);
+				int width = reader.getWidth(0);
+				int height = reader.getHeight(0);
+				ImageReadParam param = reader.getDefaultReadParam();
+				DecodedImage decoded = new DecodedImage();
+				decoded.sourceWidth = width;
+				decoded.sourceHeight = height;
+
+				CropMode cropMode = parameters.getCropMode();
+				ImageRect rect = parameters.getRect();
+				if (cropMode == CropMode.RECT && rect != null) {
+					rect.validateCropBounds(width, height);
+					param.setSourceRegion(new Rectangle(rect.getStartX(), rect.getStartY(), rect.getWidth(), rect.getHeight()));
+					decoded.sourceWidth = rect.getWidth();
+					decoded.sourceHeight = rect.getHeight();
+					decoded.cropped = true;
+				}
+
+				if (options.isDecodeSubsampling() && cropMode != CropMode.FOCALPOINT) {
+					int[] size = calculateTargetSize(parameters, decoded.sourceWidth, decoded.sourceHeight);
+					if (size != null && size[0] > 0 && size[1] > 0) {
+						// Keep the decoded image at least as large as the target so that the final resize only scales down
+						int subsampling = Math.min(decoded.sourceWidth / size[0], decoded.sourceHeight / size[1]);
+						if (subsampling > 1) {
+							param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+						}
 					}
 				}
+
+				decoded.image = reader.read(0, param);
+				if (decoded.image == null) {
+					throw error(BAD_REQUEST, "image_error_reading_failed");
+				}
+				return decoded;
+			} finally {
+				reader.dispose();
 			}
-		}, false);
+		}
+	}
+
+	/**
+	 * Decoded image and the size of the source region at full resolution.
+	 */
+	private static class DecodedImage {
+
+		private BufferedImage image;
+
+		private int sourceWidth;
+
+		private int sourceHeight;
+
+		/**
+		 * Whether the crop area was already applied while decoding.
+		 */
+		private boolean cropped;
 	}
 
 	@Override
@@ -2,12 +2,14 @@ package com.gentics.mesh.image;
 
 import static com.gentics.mesh.assertj.MeshAssertions.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
@@ -29,6 +31,9 @@ import org.xml.sax.SAXException;
 import com.gentics.mesh.core.image.spi.ImageInfo;
 import com.gentics.mesh.core.rest.error.GenericRestException;
 import com.gentics.mesh.etc.config.ImageManipulatorOptions;
+import com.gentics.mesh.parameter.ImageManipulationParameters;
+import com.gentics.mesh.parameter.image.CropMode;
+import com.gentics.mesh.parameter.image.ImageFormat;
 import com.gentics.mesh.parameter.impl.ImageManipulationParametersImpl;
 import com.gentics.mesh.util.PropReadFileStream;
 import com.gentics.mesh.util.RxUtil;
@@ -46,7 +51,8 @@ public class ImgscalrImageManipulatorTest extends AbstractImageTest {
 
 	private ImgscalrImageManipulator manipulator;
 
-	private ImageManipulatorOptions options = new ImageManipulatorOptions();
+	// Subsampling is disabled so that the results match the reference images which were created from fully decoded images
+	private ImageManipulatorOptions options = new ImageManipulatorOptions().setDecodeSubsampling(false);
 
 	@Before
 	public void setup() {
@@ -88,6 +94,84 @@ public class ImgscalrImageManipulatorTest extends AbstractImageTest {
 
 	}
 
+	@Test
+	public void testResizeSubsampled() throws IOException {
+		ImgscalrImageManipulator subsamplingManipulator = new ImgscalrImageManipulator(Vertx.vertx(), new ImageManipulatorOptions());
+		byte[] bytes = IOUtils.toByteArray(getClass().getResourceAsStream("/pictures/roland.jpg"));
+
+		// The 4256x2905 image is decoded at a fraction of its size
+		PropReadFileStream result = subsamplingManipulator.handleResize(Observable.just(Buffer.buffer(bytes)), "roland-subsampled",
+				new ImageManipulationParametersImpl().setWidth(200)).blockingGet();
+		result.getFile().close();
+		assertThat(ImageIO.read(new File(result.getPath()))).hasSize(200, (int) (200 / (4256d / 2905d)));
+
+		// Only the crop area is decoded
+		result = subsamplingManipulator.handleResize(Observable.just(Buffer.buffer(bytes)), "roland-cropped",
+				new ImageManipulationParametersImpl().setCropMode(CropMode.RECT).setRect(100, 200, 1000, 2000).setWidth(400)).blockingGet();
+		result.getFile().close();
+		assertThat(ImageIO.read(new File(result.getPath()))).hasSize(400, 200);
+	}
+
+	@Test
+	public void testResizeFormat() throws IOException {
+		byte[] bytes = IOUtils.toByteArray(getClass().getResourceAsStream("/pictures/transparent_spider.png"));
+
+		// The transparency is retained for PNG
+		PropReadFileStream result = manipulator.handleResize(Observable.just(Buffer.buffer(bytes)), "spider-png",
+				new ImageManipulationParametersImpl().setWidth(100).setFormat(ImageFormat.PNG)).blockingGet();
+		result.getFile().close();
+		assertTrue(result.getPath().endsWith(".png"));
+		BufferedImage png = ImageIO.read(new File(result.getPath()));
+		assertTrue("The transparency should have been retained", png.getColorModel().hasAlpha());
+
+		// JPEG images don't contain transparency
+		result = manipulator.handleResize(Observable.just(Buffer.buffer(bytes)), "spider-jpg", new ImageManipulationParametersImpl().setWidth(100))
+				.blockingGet();
+		result.getFile().close();
+		assertTrue(result.getPath().endsWith(".jpg"));
+		assertFalse(ImageIO.read(new File(result.getPath())).getColorModel().hasAlpha());
+
+		// The quality is part of the cache key
+		bytes = IOUtils.toByteArray(getClass().getResourceAsStream("/pictures/blume.jpg"));
+		result = manipulator.handleResize(Observable.just(Buffer.buffer(bytes)), "blume-quality",
+				new ImageManipulationParametersImpl().setWidth(400).setQuality(95)).blockingGet();
+		result.getFile().close();
+		long highQuality = result.getProps().size();
+		result = manipulator.handleResize(Observable.just(Buffer.buffer(bytes)), "blume-quality",
+				new ImageManipulationParametersImpl().setWidth(400).setQuality(20)).blockingGet();
+		result.getFile().close();
+		assertTrue("A lower quality should result in a smaller image", result.getProps().size() < highQuality);
+	}
+
+	@Test
+	public void testNegotiateFormat() {
+		String browser = "image/webp,image/apng,image/*,*/*;q=0.8";
+		ImageManipulationParametersImpl parameters = new ImageManipulationParametersImpl().setWidth(100);
+		ImageFormat webpOrJpg = manipulator.isFormatSupported(ImageFormat.WEBP) ? ImageFormat.WEBP : ImageFormat.JPG;
+		assertEquals(webpOrJpg, manipulator.negotiateFormat(parameters, "image/jpeg", browser));
+		ImageFormat webpOrPng = webpOrJpg == ImageFormat.WEBP ? ImageFormat.WEBP : ImageFormat.PNG;
+		assertEquals(webpOrPng, manipulator.negotiateFormat(parameters, "image/png", browser));
+
+		// Clients which accept anything keep getting JPEG
+		assertEquals(ImageFormat.JPG, manipulator.negotiateFormat(parameters, "image/png", "*/*"));
+		assertEquals(ImageFormat.JPG, manipulator.negotiateFormat(parameters, "image/png", null));
+		assertEquals(ImageFormat.JPG, manipulator.negotiateFormat(parameters, "image/png", "image/png;q=0,image/jpeg"));
+
+		// Unless the negotiation was requested
+		parameters.setFormat(ImageManipulationParameters.AUTO_FORMAT);
+		assertEquals(ImageFormat.PNG, manipulator.negotiateFormat(parameters, "image/png", "*/*"));
+		assertEquals(ImageFormat.JPG, manipulator.negotiateFormat(parameters, "image/jpeg", "*/*"));
+
+		// Explicit formats are not negotiated
+		parameters.setFormat(ImageFormat.PNG);
+		assertEquals(ImageFormat.PNG, manipulator.negotiateFormat(parameters, "image/jpeg", "image/jpeg"));
+	}
+
+	@Test(expected = GenericRestException.class)
+	public void testInvalidQuality() {
+		new ImageManipulationParametersImpl().setWidth(100).setQuality(101).validate();
+	}
+
 	@Test
 	public void testExtractImageInfo() throws IOException, JSONException {
 		checkImages((imageName, width, height, color, refImage, stream) -> {
@@ -95,10 +179,29 @@ public class ImgscalrImageManipulatorTest extends AbstractImageTest {
 			ImageInfo info = obs.blockingGet();
 			assertEquals("The width or image {" + imageName + "} did not match.", width, info.getWidth());
 			assertEquals("The height or image {" + imageName + "} did not match.", height, info.getHeight());
-			assertEquals("The dominant color of the image did not match {" + imageName + "}", color, info.getDominantColor());
+			assertColor("The dominant color of the image did not match {" + imageName + "}", color, info.getDominantColor());
 		});
 	}
 
+	/**
+	 * Assert that the colors match. Large images are subsampled when the dominant color is calculated, so small deviations of the channels are accepted.
+	 * 
+	 * @param msg
+	 * @param expected
+	 * @param actual
+	 */
+	private void assertColor(String msg, String expected, String actual) {
+		if (expected.length() != 7 || actual.length() != 7) {
+			assertEquals(msg, expected, actual);
+			return;
+		}
+		for (int i = 1; i < 7; i += 2) {
+			int expectedChannel = Integer.parseInt(expected.substring(i, i + 2), 16);
+			int actualChannel = Integer.parseInt(actual.substring(i, i + 2), 16);
+			assertTrue(msg + " expected {" + expected + "} but got {" + actual + "}", Math.abs(expectedChannel - actualChannel) <= 8);
+		}
+	}
+
 	private void checkImages(ImageAction<String, Integer, Integer, String, BufferedImage, Observable<Buffer>> action) throws JSONException,
 			IOException {
 		JSONObject json = new JSONObject(IOUtils.toString(getClass().getResourceAsStream("/pictures/images.json"), Charset.defaultCharset()));
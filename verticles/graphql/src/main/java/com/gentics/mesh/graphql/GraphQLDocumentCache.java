@@ -0,0 +1,172 @@
+package com.gentics.mesh.graphql;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import com.codahale.metrics.Counter;
+import com.gentics.mesh.Mesh;
+import com.gentics.mesh.metric.MeshMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.Hashing;
+
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.language.Document;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.validation.Validator;
+
+/**
+ * Cache for parsed and validated GraphQL queries. Parsing and validating a query takes a significant amount of the execution time of small queries. Clients
+ * usually send the same queries over and over again, so the parsed document is reused as long as the query and the schema it was validated against are
+ * unchanged. Queries which contain syntax or validation errors are not cached.
+ *
+ * The cache also stores persisted queries. Clients may send the SHA-256 hash of a query instead of the query itself once the query has been registered by
+ * sending the query together with its hash.
+ */
+@Singleton
+public class GraphQLDocumentCache {
+
+	private static final Counter HITS = MeshMetrics.counter("graphql", "documents", "hits");
+
+	private static final Counter MISSES = MeshMetrics.counter("graphql", "documents", "misses");
+
+	private static final Counter PERSISTED_HITS = MeshMetrics.counter("graphql", "persisted", "hits");
+
+	private static final Counter PERSISTED_MISSES = MeshMetrics.counter("graphql", "persisted", "misses");
+
+	private final AtomicLong schemaCounter = new AtomicLong();
+
+	private Cache<String, PreparsedDocumentEntry> documents;
+
+	private Cache<String, String> persistedQueries;
+
+	@Inject
+	public GraphQLDocumentCache() {
+		long size = Mesh.mesh().getOptions().getCacheOptions().getGraphQLQueryCacheSize();
+		documents = Caffeine.newBuilder().maximumSize(size).build();
+		persistedQueries = Caffeine.newBuilder().maximumSize(size).build();
+		MeshMetrics.gauge(() -> {
+			long hits = HITS.getCount();
+			long total = hits + MISSES.getCount();
+			return total == 0 ? 0d : (double) hits / total;
+		}, "graphql", "documents", "hitRate");
+	}
+
+	/**
+	 * Create a new document provider for a GraphQL schema. The documents of each provider are cached separately since a query has to be validated against
+	 * the schema which is used to execute it.
+	 *
+	 * @return
+	 */
+	public DocumentProvider createProvider() {
+		return new DocumentProvider(schemaCounter.incrementAndGet() + ":");
+	}
+
+	/**
+	 * Resolve the persisted query for the given hash. The query will be registered if it was also provided.
+	 *
+	 * @param query
+	 *            Query which was sent by the client or null if only the hash was sent
+	 * @param hash
+	 *            Hex encoded SHA-256 hash of the query
+	 * @return Query or null if the query is unknown or does not match the hash
+	 */
+	public String resolvePersistedQuery(String query, String hash) {
+		if (query == null) {
+			String persisted = persistedQueries.getIfPresent(hash.toLowerCase());
+			if (persisted == null) {
+				PERSISTED_MISSES.inc();
+			} else {
+				PERSISTED_HITS.inc();
+			}
+			return persisted;
+		}
+		if (!hash.equalsIgnoreCase(hash(query))) {
+			return null;
+		}
+		persistedQueries.put(hash.toLowerCase(), query);
+		return query;
+	}
+
+	/**
+	 * Drop all cached documents. The persisted queries are kept since they do not depend on the schema.
+	 */
+	public void invalidateAll() {
+		documents.invalidateAll();
+	}
+
+	/**
+	 * Document provider which caches the documents of a single GraphQL schema.
+	 */
+	public class DocumentProvider implements PreparsedDocumentProvider {
+
+		private final String prefix;
+
+		private DocumentProvider(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public PreparsedDocumentEntry get(String query, Function<String, PreparsedDocumentEntry> compute) {
+			String key = prefix + query;
+			PreparsedDocumentEntry entry = documents.getIfPresent(key);
+			if (entry != null) {
+				return entry;
+			}
+			entry = compute.apply(query);
+			if (!entry.hasErrors()) {
+				documents.put(key, entry);
+			}
+			return entry;
+		}
+
+		/**
+		 * Return the parsed and validated document of the query. The document is cached so that the execution of the query neither parses nor validates the
+		 * query again.
+		 *
+		 * @param query
+		 * @param schema
+		 *            Schema which is used to validate the query
+		 * @return Parsed document or null if the query is not valid
+		 */
+		public Document parse(String query, GraphQLSchema schema) {
+			String key = prefix + query;
+			PreparsedDocumentEntry entry = documents.getIfPresent(key);
+			if (entry != null) {
+				HITS.inc();
+				return entry.getDocument();
+			}
+			MISSES.inc();
+			Document document;
+			try {
+				document = new Parser().parseDocument(query);
+			} catch (RuntimeException e) {
+				// The syntax error will be reported by the execution
+				return null;
+			}
+			if (!new Validator().validateDocument(schema, document).isEmpty()) {
+				// The validation errors will be reported by the execution
+				return null;
+			}
+			documents.put(key, new PreparsedDocumentEntry(document));
+			return document;
+		}
+	}
+
+	/**
+	 * Return the hex encoded SHA-256 hash of the query.
+	 *
+	 * @param query
+	 * @return
+	 */
+	public static String hash(String query) {
+		return Hashing.sha256().hashString(query, StandardCharsets.UTF_8).toString();
+	}
+
+}
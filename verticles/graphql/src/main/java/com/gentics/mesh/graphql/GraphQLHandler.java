@@ -1,26 +1,34 @@
 package com.gentics.mesh.graphql;
 
-import static graphql.GraphQL.newGraphQL;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
 import com.syncleus.ferma.tx.Tx;
+import com.gentics.mesh.Mesh;
 import com.gentics.mesh.core.rest.error.PermissionException;
+import com.gentics.mesh.etc.config.GraphQLOptions;
 import com.gentics.mesh.graphdb.spi.Database;
 import com.gentics.mesh.graphql.context.GraphQLContext;
-import com.gentics.mesh.graphql.type.QueryTypeProvider;
+import com.gentics.mesh.metric.MeshMetrics;
 import graphql.ExceptionWhileDataFetching;
 import graphql.ExecutionInput;
 import graphql.ExecutionResult;
 import graphql.GraphQL;
 import graphql.GraphQLError;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation;
+import graphql.language.Document;
 import graphql.language.SourceLocation;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
@@ -32,8 +40,17 @@ public class GraphQLHandler {
 
 	private static final Logger log = LoggerFactory.getLogger(GraphQLHandler.class);
 
+	private static final Histogram COSTS = MeshMetrics.histogram("graphql", "query", "cost");
+
+	private static final Timer DURATIONS = MeshMetrics.timer("graphql", "query", "duration");
+
+	private static final Counter REJECTED = MeshMetrics.counter("graphql", "query", "rejected");
+
 	@Inject
-	public QueryTypeProvider typeProvider;
+	public GraphQLSchemaCache schemaCache;
+
+	@Inject
+	public GraphQLDocumentCache documentCache;
 
 	@Inject
 	public Database db;
@@ -54,10 +71,41 @@ public class GraphQLHandler {
 		try (Tx tx = db.tx()) {
 			JsonObject queryJson = new JsonObject(body);
 			String query = queryJson.getString("query");
-			GraphQL graphQL = newGraphQL(typeProvider.getRootSchema(gc.getProject())).build();
-			ExecutionInput executionInput = ExecutionInput.newExecutionInput().query(query).context(gc).variables(extractVariables(queryJson))
-					.build();
+			String hash = extractPersistedQueryHash(queryJson);
+			if (hash != null) {
+				String persistedQuery = documentCache.resolvePersistedQuery(query, hash);
+				if (persistedQuery == null) {
+					// Tell the client to send the full query or the correct hash
+					String type = query == null ? "PersistedQueryNotFound" : "PersistedQueryHashMismatch";
+					sendError(gc, type, type);
+					return;
+				}
+				query = persistedQuery;
+			}
+			schemaCache.registerEventHandlers();
+			GraphQLSchemaCache.Entry schema = schemaCache.get(gc.getProject(), gc.getRelease());
+			String operationName = queryJson.getString("operationName");
+			Map<String, Object> variables = extractVariables(queryJson);
+
+			// Estimate the cost before the query is executed. Invalid queries will be reported by the execution.
+			GraphQLQueryCost cost = null;
+			Document document = query == null ? null : schema.parse(query);
+			if (document != null) {
+				cost = GraphQLQueryCost.analyze(schema.getSchema(), document, operationName, variables);
+			}
+			if (cost != null) {
+				COSTS.update(cost.getCost());
+				if (!checkLimits(gc, query, cost)) {
+					return;
+				}
+			}
+
+			GraphQL graphQL = schema.createGraphQL(new DataLoaderDispatcherInstrumentation(gc.getDataLoaderRegistry()));
+			ExecutionInput executionInput = ExecutionInput.newExecutionInput().query(query).operationName(operationName).context(gc).variables(
+					variables).build();
+			Timer.Context timer = DURATIONS.time();
 			ExecutionResult result = graphQL.execute(executionInput);
+			long duration = TimeUnit.NANOSECONDS.toMillis(timer.stop());
 			List<GraphQLError> errors = result.getErrors();
 			JsonObject response = new JsonObject();
 			if (!errors.isEmpty()) {
@@ -77,9 +125,85 @@ public class GraphQLHandler {
 				Map<String, Object> data = (Map<String, Object>) result.getData();
 				response.put("data", new JsonObject(data));
 			}
-			gc.send(response.encodePrettily(), OK);
+
+			// Report the cost of the query to the client
+			JsonObject costInfo = new JsonObject().put("actual", countFields(result.getData())).put("duration", duration);
+			if (cost != null) {
+				costInfo.put("estimated", cost.getCost()).put("depth", cost.getDepth());
+			}
+			response.put("extensions", new JsonObject().put("cost", costInfo));
+			if (log.isDebugEnabled()) {
+				log.debug("Executed query {" + query + "} in {" + duration + "} ms with cost " + costInfo.encode());
+			}
+			gc.send(gc.isPrettyPrint() ? response.encodePrettily() : response.encode(), OK);
+		}
+
+	}
+
+	/**
+	 * Check whether the estimated cost of the query is within the configured limits. Queries which exceed the limits are rejected unless rejection is
+	 * disabled.
+	 *
+	 * @param gc
+	 * @param query
+	 * @param cost
+	 *            Estimated cost of the query
+	 * @return true if the query may be executed. Otherwise the error response has already been sent.
+	 */
+	private boolean checkLimits(GraphQLContext gc, String query, GraphQLQueryCost cost) {
+		GraphQLOptions options = Mesh.mesh().getOptions().getGraphQLOptions();
+		String type = null;
+		String message = null;
+		if (options.getMaxQueryDepth() > 0 && cost.getDepth() > options.getMaxQueryDepth()) {
+			type = "QueryTooDeep";
+			message = "The query depth of {" + cost.getDepth() + "} exceeds the maximum depth of {" + options.getMaxQueryDepth() + "}";
+		} else if (options.getMaxQueryCost() > 0 && cost.getCost() > options.getMaxQueryCost()) {
+			type = "QueryTooExpensive";
+			message = "The estimated query cost of {" + cost.getCost() + "} exceeds the maximum cost of {" + options.getMaxQueryCost() + "}";
+		}
+		if (type == null) {
+			return true;
+		}
+		REJECTED.inc();
+		log.warn(message + " for query {" + query + "}");
+		if (!options.isRejectExpensiveQueries()) {
+			return true;
+		}
+		sendError(gc, type, message);
+		return false;
+	}
+
+	/**
+	 * Count the fields within the result data.
+	 *
+	 * @param data
+	 * @return
+	 */
+	private long countFields(Object data) {
+		long count = 0;
+		if (data instanceof Map) {
+			for (Object value : ((Map<?, ?>) data).values()) {
+				count += 1 + countFields(value);
+			}
+		} else if (data instanceof Iterable) {
+			for (Object value : (Iterable<?>) data) {
+				count += countFields(value);
+			}
 		}
+		return count;
+	}
 
+	/**
+	 * Send a response which only contains the given error.
+	 *
+	 * @param gc
+	 * @param type
+	 * @param message
+	 */
+	private void sendError(GraphQLContext gc, String type, String message) {
+		JsonObject response = new JsonObject();
+		response.put("errors", new JsonArray().add(new JsonObject().put("message", message).put("type", type)));
+		gc.send(gc.isPrettyPrint() ? response.encodePrettily() : response.encode(), OK);
 	}
 
 	/**
@@ -98,6 +222,25 @@ public class GraphQLHandler {
 		}
 	}
 
+	/**
+	 * Extracts the hash of a persisted query from the extensions of the request. Returns null if the request does not reference a persisted query.
+	 *
+	 * @param request
+	 *            The request body
+	 * @return SHA-256 hash of the query
+	 */
+	private String extractPersistedQueryHash(JsonObject request) {
+		JsonObject extensions = request.getJsonObject("extensions");
+		if (extensions == null) {
+			return null;
+		}
+		JsonObject persistedQuery = extensions.getJsonObject("persistedQuery");
+		if (persistedQuery == null) {
+			return null;
+		}
+		return persistedQuery.getString("sha256Hash");
+	}
+
 	/**
 	 * Add the listed errors to the response.
 	 * 
@@ -111,8 +254,13 @@ public class GraphQLHandler {
 			JsonObject jsonError = new JsonObject();
 			if (error instanceof ExceptionWhileDataFetching) {
 				ExceptionWhileDataFetching dataError = (ExceptionWhileDataFetching) error;
-				if (dataError.getException() instanceof PermissionException) {
-					PermissionException restException = (PermissionException) dataError.getException();
+				Throwable exception = dataError.getException();
+				// Errors of fetchers which use data loaders are wrapped
+				if (exception instanceof CompletionException && exception.getCause() != null) {
+					exception = exception.getCause();
+				}
+				if (exception instanceof PermissionException) {
+					PermissionException restException = (PermissionException) exception;
 					// TODO translate error
 					// TODO add i18n parameters
 					jsonError.put("message", restException.getI18nKey());
@@ -120,7 +268,7 @@ public class GraphQLHandler {
 					jsonError.put("elementId", restException.getElementId());
 					jsonError.put("elementType", restException.getElementType());
 				} else {
-					log.error("Error while fetching data.", dataError.getException());
+					log.error("Error while fetching data.", exception);
 					jsonError.put("message", dataError.getMessage());
 					jsonError.put("type", dataError.getErrorType());
 				}
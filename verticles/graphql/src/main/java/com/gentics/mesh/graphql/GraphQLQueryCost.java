@@ -0,0 +1,309 @@
+package com.gentics.mesh.graphql;
+
+import static com.gentics.mesh.parameter.PagingParameters.DEFAULT_PAGE_SIZE;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.gentics.mesh.parameter.LinkType;
+
+import graphql.language.Argument;
+import graphql.language.Definition;
+import graphql.language.Document;
+import graphql.language.EnumValue;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.IntValue;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.Value;
+import graphql.language.VariableReference;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLModifiedType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+
+/**
+ * Estimated cost of a GraphQL query. The cost is computed from the query document before the query is executed:
+ * <ul>
+ * <li>Each field costs 1.</li>
+ * <li>The cost of the fields of paged elements (e.g. children) is multiplied by the requested page size.</li>
+ * <li>The cost of the fields of listed elements (e.g. node list fields) is multiplied by {@link #LIST_SIZE}.</li>
+ * <li>Fields which resolve paths, links or run searches cost {@link #EXPENSIVE_FIELD_COST}.</li>
+ * </ul>
+ * The cost of each fragment is only computed once per page context, so the analysis stays linear in the size of the document even if fragments spread
+ * other fragments many times.
+ */
+public class GraphQLQueryCost {
+
+	/**
+	 * Estimated amount of elements of lists which are not paged.
+	 */
+	public static final int LIST_SIZE = 10;
+
+	/**
+	 * Cost of fields which need to resolve paths or links or which run a search.
+	 */
+	public static final int EXPENSIVE_FIELD_COST = 10;
+
+	private final long cost;
+
+	private final int depth;
+
+	private GraphQLQueryCost(long cost, int depth) {
+		this.cost = cost;
+		this.depth = depth;
+	}
+
+	/**
+	 * Return the estimated cost of the query.
+	 *
+	 * @return
+	 */
+	public long getCost() {
+		return cost;
+	}
+
+	/**
+	 * Return the maximum nesting depth of the fields of the query.
+	 *
+	 * @return
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Estimate the cost of the operation within the document.
+	 *
+	 * @param schema
+	 *            Schema which is used to resolve the types of the fields
+	 * @param document
+	 *            Parsed query
+	 * @param operationName
+	 *            Name of the operation which will be executed or null if the document contains only one operation
+	 * @param variables
+	 *            Variables of the query which may contain the page sizes
+	 * @return Estimated cost or null if the operation could not be found
+	 */
+	public static GraphQLQueryCost analyze(GraphQLSchema schema, Document document, String operationName, Map<String, Object> variables) {
+		Map<String, FragmentDefinition> fragments = new HashMap<>();
+		OperationDefinition operation = null;
+		for (Definition definition : document.getDefinitions()) {
+			if (definition instanceof FragmentDefinition) {
+				FragmentDefinition fragment = (FragmentDefinition) definition;
+				fragments.put(fragment.getName(), fragment);
+			} else if (definition instanceof OperationDefinition) {
+				OperationDefinition candidate = (OperationDefinition) definition;
+				if (operationName == null || operationName.equals(candidate.getName())) {
+					operation = candidate;
+				}
+			}
+		}
+		if (operation == null) {
+			return null;
+		}
+		Analyzer analyzer = new Analyzer(schema, fragments, variables);
+		long cost = analyzer.cost(operation.getSelectionSet(), schema.getQueryType(), false, 1);
+		return new GraphQLQueryCost(cost, analyzer.maxDepth);
+	}
+
+	private static class Analyzer {
+
+		private final GraphQLSchema schema;
+
+		private final Map<String, FragmentDefinition> fragments;
+
+		private final Map<String, Object> variables;
+
+		/**
+		 * Computed costs of the fragments. The key contains the name of the fragment and whether it was spread within a page.
+		 */
+		private final Map<String, FragmentCost> fragmentCosts = new HashMap<>();
+
+		/**
+		 * Names of the fragments which are currently being analyzed. Used to stop recursive fragments.
+		 */
+		private final Set<String> activeFragments = new HashSet<>();
+
+		private int maxDepth;
+
+		Analyzer(GraphQLSchema schema, Map<String, FragmentDefinition> fragments, Map<String, Object> variables) {
+			this.schema = schema;
+			this.fragments = fragments;
+			this.variables = variables;
+		}
+
+		/**
+		 * Compute the cost of the selection set.
+		 *
+		 * @param selectionSet
+		 * @param parentType
+		 *            Type which contains the selected fields or null if the type is unknown
+		 * @param paged
+		 *            Whether the selected fields belong to a page. The cost of the elements of the page has already been multiplied.
+		 * @param depth
+		 *            Depth of the selected fields
+		 * @return
+		 */
+		long cost(SelectionSet selectionSet, GraphQLType parentType, boolean paged, int depth) {
+			if (selectionSet == null) {
+				return 0;
+			}
+			long cost = 0;
+			for (Selection selection : selectionSet.getSelections()) {
+				if (selection instanceof Field) {
+					cost = add(cost, cost((Field) selection, parentType, paged, depth));
+				} else if (selection instanceof InlineFragment) {
+					InlineFragment fragment = (InlineFragment) selection;
+					GraphQLType type = fragment.getTypeCondition() == null ? parentType : schema.getType(fragment.getTypeCondition().getName());
+					cost = add(cost, cost(fragment.getSelectionSet(), type, paged, depth));
+				} else if (selection instanceof FragmentSpread) {
+					FragmentCost fragmentCost = cost(((FragmentSpread) selection).getName(), paged);
+					if (fragmentCost != null) {
+						if (fragmentCost.depth >= 0) {
+							maxDepth = Math.max(maxDepth, depth + fragmentCost.depth);
+						}
+						cost = add(cost, fragmentCost.cost);
+					}
+				}
+			}
+			return cost;
+		}
+
+		/**
+		 * Compute the cost of the fragment with the given name or return the already computed cost.
+		 *
+		 * @param name
+		 *            Name of the fragment
+		 * @param paged
+		 *            Whether the fragment is spread within a page
+		 * @return Cost of the fragment or null if the fragment does not exist or is recursive
+		 */
+		private FragmentCost cost(String name, boolean paged) {
+			String key = name + ":" + paged;
+			FragmentCost fragmentCost = fragmentCosts.get(key);
+			if (fragmentCost != null) {
+				return fragmentCost;
+			}
+			FragmentDefinition fragment = fragments.get(name);
+			// Recursive fragments are invalid and will be rejected by the validation of the query
+			if (fragment == null || !activeFragments.add(name)) {
+				return null;
+			}
+			GraphQLType type = schema.getType(fragment.getTypeCondition().getName());
+			// The depth of the fragment fields is tracked relative to the spread
+			int outerDepth = maxDepth;
+			maxDepth = -1;
+			long cost = cost(fragment.getSelectionSet(), type, paged, 0);
+			fragmentCost = new FragmentCost(cost, maxDepth);
+			maxDepth = outerDepth;
+			activeFragments.remove(name);
+			fragmentCosts.put(key, fragmentCost);
+			return fragmentCost;
+		}
+
+		private long cost(Field field, GraphQLType parentType, boolean paged, int depth) {
+			maxDepth = Math.max(maxDepth, depth);
+			GraphQLFieldDefinition definition = null;
+			if (parentType instanceof GraphQLFieldsContainer) {
+				definition = ((GraphQLFieldsContainer) parentType).getFieldDefinition(field.getName());
+			}
+			long cost = isExpensive(field) ? EXPENSIVE_FIELD_COST : 1;
+			if (field.getSelectionSet() == null) {
+				return cost;
+			}
+
+			GraphQLType type = definition == null ? null : definition.getType();
+			boolean isList = false;
+			while (type instanceof GraphQLModifiedType) {
+				isList |= type instanceof GraphQLList;
+				type = ((GraphQLModifiedType) type).getWrappedType();
+			}
+			long multiplier = 1;
+			boolean isPage = definition != null && definition.getArgument("perPage") != null;
+			if (isPage) {
+				multiplier = getPerPage(field.getArguments());
+			} else if (isList && !paged) {
+				multiplier = LIST_SIZE;
+			}
+			long childCost = cost(field.getSelectionSet(), type, isPage, depth + 1);
+			if (multiplier > 0 && childCost > Long.MAX_VALUE / multiplier) {
+				return Long.MAX_VALUE;
+			}
+			return add(cost, multiplier * childCost);
+		}
+
+		private long add(long a, long b) {
+			long sum = a + b;
+			// Saturate instead of overflowing for absurdly nested queries
+			return sum < 0 ? Long.MAX_VALUE : sum;
+		}
+
+		private boolean isExpensive(Field field) {
+			if ("path".equals(field.getName())) {
+				return true;
+			}
+			for (Argument argument : field.getArguments()) {
+				switch (argument.getName()) {
+				case "query":
+					return true;
+				case "linkType":
+					Object linkType = resolve(argument.getValue());
+					if (linkType != null && !LinkType.OFF.name().equals(linkType.toString())) {
+						return true;
+					}
+					break;
+				}
+			}
+			return false;
+		}
+
+		private long getPerPage(List<Argument> arguments) {
+			for (Argument argument : arguments) {
+				if ("perPage".equals(argument.getName())) {
+					Object perPage = resolve(argument.getValue());
+					if (perPage instanceof Number) {
+						return Math.max(((Number) perPage).longValue(), 0);
+					}
+				}
+			}
+			return DEFAULT_PAGE_SIZE;
+		}
+
+		private Object resolve(Value value) {
+			if (value instanceof IntValue) {
+				return ((IntValue) value).getValue();
+			} else if (value instanceof EnumValue) {
+				return ((EnumValue) value).getName();
+			} else if (value instanceof VariableReference) {
+				return variables == null ? null : variables.get(((VariableReference) value).getName());
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Cost of a fragment and the maximum depth of its fields relative to the spread.
+	 */
+	private static class FragmentCost {
+
+		private final long cost;
+
+		private final int depth;
+
+		FragmentCost(long cost, int depth) {
+			this.cost = cost;
+			this.depth = depth;
+		}
+	}
+
+}
@@ -0,0 +1,215 @@
+package com.gentics.mesh.graphql;
+
+import static com.gentics.mesh.Events.EVENT_MICROSCHEMA_DELETED;
+import static com.gentics.mesh.Events.EVENT_MICROSCHEMA_UPDATED;
+import static com.gentics.mesh.Events.EVENT_PROJECT_DELETED;
+import static com.gentics.mesh.Events.EVENT_PROJECT_UPDATED;
+import static com.gentics.mesh.Events.EVENT_RELEASE_DELETED;
+import static com.gentics.mesh.Events.EVENT_RELEASE_UPDATED;
+import static com.gentics.mesh.Events.EVENT_SCHEMA_DELETED;
+import static com.gentics.mesh.Events.EVENT_SCHEMA_UPDATED;
+import static graphql.GraphQL.newGraphQL;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import com.gentics.mesh.Mesh;
+import com.gentics.mesh.core.data.Project;
+import com.gentics.mesh.core.data.Release;
+import com.gentics.mesh.core.data.schema.MicroschemaContainer;
+import com.gentics.mesh.core.data.schema.SchemaContainer;
+import com.gentics.mesh.graphql.GraphQLDocumentCache.DocumentProvider;
+import com.gentics.mesh.graphql.type.QueryTypeProvider;
+import com.gentics.mesh.metric.MeshMetrics;
+
+import graphql.GraphQL;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.language.Document;
+import graphql.schema.GraphQLSchema;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * Cache for the GraphQL instances of the projects. The GraphQL schema of a project contains the types of all schemas and microschemas of the project.
+ * Building these types is expensive compared to the execution of small queries, so the built schema is reused per project and release.
+ *
+ * Each entry stores the latest schema and microschema versions of the project which were used to build the schema. The versions are compared on every
+ * lookup. This way a schema change is detected even if it was made by another instance of the cluster. The entries are additionally dropped when schemas,
+ * microschemas, releases or projects are updated or deleted. Each built schema uses its own parsed document cache of the {@link GraphQLDocumentCache}.
+ */
+@Singleton
+public class GraphQLSchemaCache {
+
+	private static final Logger log = LoggerFactory.getLogger(GraphQLSchemaCache.class);
+
+	private static final Timer BUILDS = MeshMetrics.timer("graphql", "schema", "build");
+
+	private static final Counter HITS = MeshMetrics.counter("graphql", "schema", "hits");
+
+	private static final Counter MISSES = MeshMetrics.counter("graphql", "schema", "misses");
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private final AtomicBoolean registered = new AtomicBoolean();
+
+	private final QueryTypeProvider typeProvider;
+
+	private final GraphQLDocumentCache documentCache;
+
+	@Inject
+	public GraphQLSchemaCache(QueryTypeProvider typeProvider, GraphQLDocumentCache documentCache) {
+		this.typeProvider = typeProvider;
+		this.documentCache = documentCache;
+		MeshMetrics.gauge(() -> entries.size(), "graphql", "schema", "size");
+	}
+
+	/**
+	 * Return the cached schema for the project and release. The schema will be built if it is not yet cached or if the schemas of the project have
+	 * changed. This method must be invoked within a transaction.
+	 *
+	 * @param project
+	 * @param release
+	 * @return
+	 */
+	public Entry get(Project project, Release release) {
+		String key = project.getUuid() + "-" + release.getUuid();
+		String versions = getVersions(project);
+		Entry entry = entries.get(key);
+		if (entry != null && entry.versions.equals(versions)) {
+			HITS.inc();
+			return entry;
+		}
+
+		// Concurrent requests may build the same schema. This is acceptable since the schema is only rebuilt after changes.
+		MISSES.inc();
+		GraphQLSchema schema;
+		try (Timer.Context context = BUILDS.time()) {
+			schema = typeProvider.getRootSchema(project);
+		}
+		entry = new Entry(versions, schema, documentCache.createProvider());
+		entries.put(key, entry);
+		return entry;
+	}
+
+	/**
+	 * Drop all cached entries.
+	 */
+	public void invalidateAll() {
+		entries.clear();
+		documentCache.invalidateAll();
+	}
+
+	/**
+	 * Drop the cached entries which were built for the project or release with the given uuid.
+	 *
+	 * @param uuid
+	 */
+	public void invalidate(String uuid) {
+		entries.keySet().removeIf(key -> key.contains(uuid));
+	}
+
+	/**
+	 * Register the event handlers which will invalidate the cache. The handlers are only registered once.
+	 */
+	public void registerEventHandlers() {
+		if (!registered.compareAndSet(false, true)) {
+			return;
+		}
+		EventBus eventBus = Mesh.vertx().eventBus();
+		for (String address : new String[] { EVENT_SCHEMA_UPDATED, EVENT_SCHEMA_DELETED, EVENT_MICROSCHEMA_UPDATED, EVENT_MICROSCHEMA_DELETED }) {
+			eventBus.consumer(address, (Message<JsonObject> message) -> {
+				if (log.isDebugEnabled()) {
+					log.debug("Invalidating all GraphQL schemas due to event {" + address + "}");
+				}
+				invalidateAll();
+			});
+		}
+		for (String address : new String[] { EVENT_PROJECT_UPDATED, EVENT_PROJECT_DELETED, EVENT_RELEASE_UPDATED, EVENT_RELEASE_DELETED }) {
+			eventBus.consumer(address, (Message<JsonObject> message) -> {
+				String uuid = message.body() == null ? null : message.body().getString("uuid");
+				if (uuid == null) {
+					invalidateAll();
+				} else {
+					invalidate(uuid);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Return the uuids of the latest schema and microschema versions of the project.
+	 *
+	 * @param project
+	 * @return
+	 */
+	private String getVersions(Project project) {
+		StringBuilder versions = new StringBuilder();
+		for (SchemaContainer container : project.getSchemaContainerRoot().findAllIt()) {
+			versions.append(container.getLatestVersion().getUuid()).append(',');
+		}
+		versions.append('|');
+		for (MicroschemaContainer container : project.getMicroschemaContainerRoot().findAllIt()) {
+			versions.append(container.getLatestVersion().getUuid()).append(',');
+		}
+		return versions.toString();
+	}
+
+	/**
+	 * Cached schema of a project and release.
+	 */
+	public static class Entry {
+
+		private final String versions;
+
+		private final GraphQLSchema schema;
+
+		private final DocumentProvider documentProvider;
+
+		Entry(String versions, GraphQLSchema schema, DocumentProvider documentProvider) {
+			this.versions = versions;
+			this.schema = schema;
+			this.documentProvider = documentProvider;
+		}
+
+		/**
+		 * Return the GraphQL schema.
+		 *
+		 * @return
+		 */
+		public GraphQLSchema getSchema() {
+			return schema;
+		}
+
+		/**
+		 * Return the parsed and validated document of the query. The cached document will be used if the query has already been parsed for this schema.
+		 *
+		 * @param query
+		 * @return Parsed document or null if the query is not valid
+		 */
+		public Document parse(String query) {
+			return documentProvider.parse(query, schema);
+		}
+
+		/**
+		 * Create a GraphQL instance for the schema. The instance is cheap to create and is created for each request since the instrumentation is request
+		 * scoped.
+		 *
+		 * @param instrumentation
+		 *            Instrumentation for the request
+		 * @return
+		 */
+		public GraphQL createGraphQL(Instrumentation instrumentation) {
+			return newGraphQL(schema).preparsedDocumentProvider(documentProvider).instrumentation(instrumentation).build();
+		}
+	}
+
+}
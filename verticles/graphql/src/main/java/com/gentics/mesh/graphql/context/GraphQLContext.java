@@ -1,9 +1,13 @@
 package com.gentics.mesh.graphql.context;
 
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+
 import com.gentics.mesh.context.InternalActionContext;
 import com.gentics.mesh.core.data.MeshCoreVertex;
 import com.gentics.mesh.core.data.relationship.GraphPermission;
 import com.gentics.mesh.core.rest.error.PermissionException;
+import com.gentics.mesh.graphql.dataloader.DataLoaders;
 
 /**
  * Extended context for GraphQL handling.
@@ -21,4 +25,22 @@ public interface GraphQLContext extends InternalActionContext {
 	 */
 	<T extends MeshCoreVertex<?, ?>> T requiresPerm(T vertex, GraphPermission... permission);
 
+	/**
+	 * Return the request scoped data loaders.
+	 * 
+	 * @return
+	 */
+	DataLoaderRegistry getDataLoaderRegistry();
+
+	/**
+	 * Return the data loader with the given key.
+	 * 
+	 * @param key
+	 *            Key of the loader (see {@link DataLoaders})
+	 * @return
+	 */
+	default <K, V> DataLoader<K, V> getDataLoader(String key) {
+		return getDataLoaderRegistry().getDataLoader(key);
+	}
+
 }
@@ -2,10 +2,13 @@ package com.gentics.mesh.graphql.context.impl;
 
 import static com.gentics.mesh.core.rest.error.Errors.missingPerm;
 
+import org.dataloader.DataLoaderRegistry;
+
 import com.gentics.mesh.context.impl.InternalRoutingActionContextImpl;
 import com.gentics.mesh.core.data.MeshCoreVertex;
 import com.gentics.mesh.core.data.relationship.GraphPermission;
 import com.gentics.mesh.graphql.context.GraphQLContext;
+import com.gentics.mesh.graphql.dataloader.DataLoaders;
 
 import io.vertx.ext.web.RoutingContext;
 
@@ -14,8 +17,11 @@ import io.vertx.ext.web.RoutingContext;
  */
 public class GraphQLContextImpl extends InternalRoutingActionContextImpl implements GraphQLContext {
 
+	private final DataLoaderRegistry dataLoaderRegistry;
+
 	public GraphQLContextImpl(RoutingContext rc) {
 		super(rc);
+		this.dataLoaderRegistry = DataLoaders.createRegistry(this);
 	}
 
 	@Override
@@ -28,4 +34,9 @@ public class GraphQLContextImpl extends InternalRoutingActionContextImpl impleme
 		throw missingPerm(vertex.getTypeInfo().getType(), vertex.getUuid());
 	}
 
+	@Override
+	public DataLoaderRegistry getDataLoaderRegistry() {
+		return dataLoaderRegistry;
+	}
+
 }
@@ -0,0 +1,107 @@
+package com.gentics.mesh.graphql.dataloader;
+
+import static com.gentics.mesh.core.data.relationship.GraphPermission.READ_PERM;
+import static com.gentics.mesh.core.data.relationship.GraphPermission.READ_PUBLISHED_PERM;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderOptions;
+import org.dataloader.DataLoaderRegistry;
+
+import com.gentics.mesh.core.data.NodeGraphFieldContainer;
+import com.gentics.mesh.core.data.Release;
+import com.gentics.mesh.core.data.Tag;
+import com.gentics.mesh.core.data.User;
+import com.gentics.mesh.core.data.node.Node;
+import com.gentics.mesh.core.data.node.NodeContent;
+import com.gentics.mesh.graphql.context.GraphQLContext;
+import com.gentics.mesh.util.Tuple;
+
+/**
+ * Request scoped data loaders which are used by the GraphQL data fetchers. Fetchers for sibling fields (e.g. the parent of each node in a list) only
+ * register the element they need. The loaders resolve the registered elements together once the current level of the query has been fetched. Each element
+ * is only loaded once per request and permissions are checked using the permission filters of the user which avoids individual permission lookups.
+ *
+ * The loaders are invoked by the thread which executes the query and thus within the transaction of the request.
+ */
+public final class DataLoaders {
+
+	/**
+	 * Loader which returns the node if the user is allowed to read the node or its published content. Otherwise null is returned.
+	 */
+	public static final String NODE_LOADER = "node";
+
+	/**
+	 * Loader which returns the content of a node for a list of language tags. The key is a tuple of the node and the language tags.
+	 */
+	public static final String CONTENT_LOADER = "content";
+
+	/**
+	 * Loader which returns the readable tags of a node within the release of the request.
+	 */
+	public static final String TAGS_LOADER = "tags";
+
+	/**
+	 * Loader which returns the user if the requesting user is allowed to read it. Otherwise null is returned.
+	 */
+	public static final String USER_LOADER = "user";
+
+	private DataLoaders() {
+	}
+
+	/**
+	 * Create the data loaders for a single GraphQL request.
+	 *
+	 * @param gc
+	 *            Context of the request
+	 * @return
+	 */
+	public static DataLoaderRegistry createRegistry(GraphQLContext gc) {
+		DataLoaderRegistry registry = new DataLoaderRegistry();
+
+		DataLoader<Node, Node> nodeLoader = new DataLoader<>(keys -> {
+			Predicate<Object> filter = gc.getUser().createPermissionFilter(READ_PUBLISHED_PERM);
+			return completedFuture(keys.stream().map(node -> filter.test(node.getId()) ? node : null).collect(Collectors.toList()));
+		}, DataLoaderOptions.newOptions().setCacheKeyFunction(node -> ((Node) node).getUuid()));
+		registry.register(NODE_LOADER, nodeLoader);
+
+		DataLoader<Tuple<Node, List<String>>, NodeContent> contentLoader = new DataLoader<>(keys -> {
+			List<NodeContent> contents = new ArrayList<>(keys.size());
+			for (Tuple<Node, List<String>> key : keys) {
+				NodeGraphFieldContainer container = key.v1().findVersion(gc, key.v2());
+				contents.add(new NodeContent(key.v1(), container));
+			}
+			return completedFuture(contents);
+		}, DataLoaderOptions.newOptions().setCacheKeyFunction(key -> {
+			@SuppressWarnings("unchecked")
+			Tuple<Node, List<String>> tuple = (Tuple<Node, List<String>>) key;
+			return tuple.v1().getUuid() + "-" + String.join(",", tuple.v2());
+		}));
+		registry.register(CONTENT_LOADER, contentLoader);
+
+		DataLoader<Node, List<Tag>> tagsLoader = new DataLoader<>(keys -> {
+			Predicate<Object> filter = gc.getUser().createPermissionFilter(READ_PERM);
+			Release release = gc.getRelease();
+			List<List<Tag>> tags = new ArrayList<>(keys.size());
+			for (Node node : keys) {
+				tags.add(node.getTags(release).stream().filter(tag -> filter.test(tag.getId())).collect(Collectors.toList()));
+			}
+			return completedFuture(tags);
+		}, DataLoaderOptions.newOptions().setCacheKeyFunction(node -> ((Node) node).getUuid()));
+		registry.register(TAGS_LOADER, tagsLoader);
+
+		DataLoader<User, User> userLoader = new DataLoader<>(keys -> {
+			Predicate<Object> filter = gc.getUser().createPermissionFilter(READ_PERM);
+			return completedFuture(keys.stream().map(user -> filter.test(user.getId()) ? user : null).collect(Collectors.toList()));
+		}, DataLoaderOptions.newOptions().setCacheKeyFunction(user -> ((User) user).getUuid()));
+		registry.register(USER_LOADER, userLoader);
+
+		return registry;
+	}
+
+}
@@ -1,6 +1,12 @@
 package com.gentics.mesh.graphql.type;
 
 import static com.gentics.mesh.core.data.relationship.GraphPermission.READ_PERM;
+import static com.gentics.mesh.core.rest.error.Errors.missingPerm;
+import static com.gentics.mesh.graphql.dataloader.DataLoaders.CONTENT_LOADER;
+import static com.gentics.mesh.graphql.dataloader.DataLoaders.NODE_LOADER;
+import static com.gentics.mesh.graphql.dataloader.DataLoaders.USER_LOADER;
+import static com.gentics.mesh.util.Tuple.tuple;
+import static graphql.Scalars.GraphQLBoolean;
 import static graphql.Scalars.GraphQLInt;
 import static graphql.Scalars.GraphQLLong;
 import static graphql.Scalars.GraphQLString;
@@ -11,16 +17,22 @@ import static graphql.schema.GraphQLFieldDefinition.newFieldDefinition;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import org.dataloader.DataLoader;
+
 import com.gentics.mesh.Mesh;
 import com.gentics.mesh.core.data.MeshCoreVertex;
 import com.gentics.mesh.core.data.MeshVertex;
 import com.gentics.mesh.core.data.Release;
+import com.gentics.mesh.core.data.User;
+import com.gentics.mesh.core.data.node.Node;
+import com.gentics.mesh.core.data.node.NodeContent;
 import com.gentics.mesh.core.data.page.Page;
 import com.gentics.mesh.core.data.page.impl.DynamicStreamPageImpl;
 import com.gentics.mesh.core.data.root.RootVertex;
@@ -32,6 +44,8 @@ import com.gentics.mesh.parameter.LinkType;
 import com.gentics.mesh.parameter.PagingParameters;
 import com.gentics.mesh.parameter.impl.PagingParametersImpl;
 import com.gentics.mesh.search.SearchHandler;
+import com.gentics.mesh.util.Tuple;
+import com.gentics.mesh.util.PagingCursor;
 
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
@@ -71,6 +85,16 @@ public abstract class AbstractTypeProvider {
 
 		// #perPage
 		arguments.add(newArgument().name("perPage").defaultValue(25).description("Max count of elements per page").type(GraphQLInt).build());
+
+		// #after
+		arguments.add(newArgument().name("after").description(
+				"Cursor after which the elements should be loaded. Use the nextCursor of the previous page. The page argument will be ignored if a cursor has been specified.")
+				.type(GraphQLString).build());
+
+		// #totalCount
+		arguments.add(newArgument().name("totalCount").defaultValue(true).description(
+				"Whether the totalCount and pageCount should be determined. Both will be -1 if disabled. Disabling the count avoids the need to check all elements and is recommended when scrolling through the elements using a cursor.")
+				.type(GraphQLBoolean).build());
 		return arguments;
 	}
 
@@ -333,8 +357,58 @@ public abstract class AbstractTypeProvider {
 		if (perPage != null) {
 			parameters.setPerPage(perPage);
 		}
+		String after = env.getArgument("after");
+		if (after != null) {
+			PagingCursor.decode(after);
+			parameters.setAfter(after);
+		}
+		Boolean totalCount = env.getArgument("totalCount");
+		if (totalCount != null) {
+			parameters.setTotalCount(totalCount);
+		}
 		parameters.validate();
 		return parameters;
 	}
 
+	/**
+	 * Load the content of the node for the given languages via the request scoped data loaders. The returned future fails with a permission error if the user
+	 * is neither allowed to read the node nor its published content.
+	 * 
+	 * @param gc
+	 * @param node
+	 * @param languageTags
+	 * @return Future which will be completed once the loaders of the request have been dispatched
+	 */
+	protected CompletableFuture<NodeContent> loadContent(GraphQLContext gc, Node node, List<String> languageTags) {
+		DataLoader<Node, Node> nodeLoader = gc.getDataLoader(NODE_LOADER);
+		DataLoader<Tuple<Node, List<String>>, NodeContent> contentLoader = gc.getDataLoader(CONTENT_LOADER);
+		// Both loads must be registered right away. Loads which are registered after a dispatch would not be resolved.
+		return nodeLoader.load(node).thenCombine(contentLoader.load(tuple(node, languageTags)), (readableNode, content) -> {
+			if (readableNode == null) {
+				throw missingPerm(node.getTypeInfo().getType(), node.getUuid());
+			}
+			return content;
+		});
+	}
+
+	/**
+	 * Load the user via the request scoped data loaders. The returned future fails with a permission error if the user is not allowed to read the user.
+	 * 
+	 * @param gc
+	 * @param user
+	 * @return Future which will be completed once the loaders of the request have been dispatched
+	 */
+	protected CompletableFuture<User> loadUser(GraphQLContext gc, User user) {
+		if (user == null) {
+			return CompletableFuture.completedFuture(null);
+		}
+		DataLoader<User, User> userLoader = gc.getDataLoader(USER_LOADER);
+		return userLoader.load(user).thenApply(readableUser -> {
+			if (readableUser == null) {
+				throw missingPerm(user.getTypeInfo().getType(), user.getUuid());
+			}
+			return readableUser;
+		});
+	}
+
 }
@@ -1,6 +1,5 @@
 package com.gentics.mesh.graphql.type;
 
-import static com.gentics.mesh.core.data.relationship.GraphPermission.READ_PERM;
 import static graphql.Scalars.GraphQLBoolean;
 import static graphql.Scalars.GraphQLString;
 import static graphql.schema.GraphQLFieldDefinition.newFieldDefinition;
@@ -167,7 +166,7 @@ public class InterfaceTypeProvider extends AbstractTypeProvider {
 					} else {
 						vertex = env.getSource();
 					}
-					return gc.requiresPerm(vertex.getCreator(), READ_PERM);
+					return loadUser(gc, vertex.getCreator());
 				}));
 
 		if (!isNode) {
@@ -194,7 +193,7 @@ public class InterfaceTypeProvider extends AbstractTypeProvider {
 						if (source instanceof EditorTrackingVertex) {
 							GraphQLContext gc = env.getContext();
 							EditorTrackingVertex vertex = (EditorTrackingVertex) source;
-							return gc.requiresPerm(vertex.getEditor(), READ_PERM);
+							return loadUser(gc, vertex.getEditor());
 						}
 						return null;
 					}));
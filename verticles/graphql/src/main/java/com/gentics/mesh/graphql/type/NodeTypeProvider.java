@@ -2,6 +2,8 @@ package com.gentics.mesh.graphql.type;
 
 import static com.gentics.mesh.core.data.relationship.GraphPermission.READ_PERM;
 import static com.gentics.mesh.core.data.relationship.GraphPermission.READ_PUBLISHED_PERM;
+import static com.gentics.mesh.graphql.dataloader.DataLoaders.CONTENT_LOADER;
+import static com.gentics.mesh.graphql.dataloader.DataLoaders.TAGS_LOADER;
 import static com.gentics.mesh.graphql.type.SchemaTypeProvider.SCHEMA_TYPE_NAME;
 import static com.gentics.mesh.graphql.type.TagTypeProvider.TAG_PAGE_TYPE_NAME;
 import static com.gentics.mesh.graphql.type.UserTypeProvider.USER_TYPE_NAME;
@@ -11,7 +13,7 @@ import static graphql.schema.GraphQLFieldDefinition.newFieldDefinition;
 import static graphql.schema.GraphQLObjectType.newObject;
 import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Stack;
 import java.util.concurrent.ExecutionException;
@@ -21,17 +23,21 @@ import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.dataloader.DataLoader;
+
 import com.gentics.mesh.Mesh;
 import com.gentics.mesh.cli.BootstrapInitializer;
 import com.gentics.mesh.core.data.ContainerType;
 import com.gentics.mesh.core.data.NodeGraphFieldContainer;
 import com.gentics.mesh.core.data.Project;
 import com.gentics.mesh.core.data.Release;
+import com.gentics.mesh.core.data.Tag;
 import com.gentics.mesh.core.data.User;
 import com.gentics.mesh.core.data.node.Node;
 import com.gentics.mesh.core.data.node.NodeContent;
 import com.gentics.mesh.core.data.page.Page;
 import com.gentics.mesh.core.data.page.TransformablePage;
+import com.gentics.mesh.core.data.page.impl.DynamicStreamPageImpl;
 import com.gentics.mesh.core.data.page.impl.WrappedPageImpl;
 import com.gentics.mesh.core.rest.error.GenericRestException;
 import com.gentics.mesh.error.MeshConfigurationException;
@@ -41,6 +47,7 @@ import com.gentics.mesh.parameter.PagingParameters;
 import com.gentics.mesh.path.Path;
 import com.gentics.mesh.path.PathSegment;
 import com.gentics.mesh.search.index.node.NodeSearchHandler;
+import com.gentics.mesh.util.Tuple;
 
 import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.GraphQLList;
@@ -95,8 +102,8 @@ public class NodeTypeProvider extends AbstractTypeProvider {
 		if (parentNode == null) {
 			return null;
 		}
-		gc.requiresPerm(parentNode, READ_PERM, READ_PUBLISHED_PERM);
-		return handleLanguageFallback(gc, parentNode, content);
+		// Siblings share the parent. The parent will thus only be checked and loaded once.
+		return loadContent(gc, parentNode, getFallbackLanguageTags(content));
 	}
 
 	public Object nodeLanguageFetcher(DataFetchingEnvironment env) {
@@ -133,9 +140,12 @@ public class NodeTypeProvider extends AbstractTypeProvider {
 			return null;
 		}
 
-		return content.getNode().getBreadcrumbNodes(gc).stream().map(node -> {
-			return handleLanguageFallback(gc, node, content);
+		List<String> languageTags = getFallbackLanguageTags(content);
+		List<Tuple<Node, List<String>>> keys = content.getNode().getBreadcrumbNodes(gc).stream().map(node -> {
+			return Tuple.tuple(node, languageTags);
 		}).collect(Collectors.toList());
+		DataLoader<Tuple<Node, List<String>>, NodeContent> contentLoader = gc.getDataLoader(CONTENT_LOADER);
+		return contentLoader.loadMany(keys);
 	}
 
 	public Object languagesFetcher(DataFetchingEnvironment env) {
@@ -153,28 +163,23 @@ public class NodeTypeProvider extends AbstractTypeProvider {
 	}
 
 	/**
-	 * Handle the language fallback within graphql queries when dealing with nodes. This method loads the container which best matches the current query
-	 * situation. A list of languages is constructed in order to apply the fallback and load the matching container from the given node.
+	 * Handle the language fallback within graphql queries when dealing with nodes which are related to the given content. The returned languages are used to
+	 * load the container which best matches the current query situation.
 	 * <ul>
 	 * <li>Check whether the given content has a container. Use the container language to load the container from the node</li>
 	 * <li>If the content does not provide a container the default mesh language is used to load the container.
 	 * </ul>
 	 * 
-	 * @param gc
-	 * @param node
-	 *            Node from which the container will be loaded
 	 * @param content
 	 *            Content which may contain a container from which the language information will be used to load the container
-	 * @return Located container or null if no container could be found
+	 * @return Languages which should be used to load the container of a related node
 	 */
-	private NodeContent handleLanguageFallback(GraphQLContext gc, Node node, NodeContent content) {
-		List<String> languageTags = new ArrayList<>();
+	private List<String> getFallbackLanguageTags(NodeContent content) {
 		if (content.getContainer() != null) {
-			languageTags.add(content.getContainer().getLanguage().getLanguageTag());
+			return Arrays.asList(content.getContainer().getLanguage().getLanguageTag());
 		} else {
-			languageTags.add(Mesh.mesh().getOptions().getDefaultLanguage());
+			return Arrays.asList(Mesh.mesh().getOptions().getDefaultLanguage());
 		}
-		return new NodeContent(node, node.findVersion(gc, languageTags));
 	}
 
 	public GraphQLObjectType createType(Project project) {
@@ -272,11 +277,11 @@ public class NodeTypeProvider extends AbstractTypeProvider {
 			TransformablePage<? extends Node> page = node.getChildren(gc, languageTags, gc.getRelease().getUuid(), selectedType, getPagingInfo(env));
 
 			// Transform the found nodes into contents
-			List<NodeContent> contents = page.getWrappedList().stream().map(item -> {
-				NodeGraphFieldContainer container = item.findVersion(gc, languageTags);
-				return new NodeContent(item, container);
+			List<Tuple<Node, List<String>>> keys = page.getWrappedList().stream().map(item -> {
+				return Tuple.<Node, List<String>>tuple(item, languageTags);
 			}).collect(Collectors.toList());
-			return new WrappedPageImpl<NodeContent>(contents, page);
+			DataLoader<Tuple<Node, List<String>>, NodeContent> contentLoader = gc.getDataLoader(CONTENT_LOADER);
+			return contentLoader.loadMany(keys).thenApply(contents -> new WrappedPageImpl<NodeContent>(contents, page));
 		}, NODE_PAGE_TYPE_NAME).argument(createLanguageTagArg()));
 
 		// .parent
@@ -291,8 +296,9 @@ public class NodeTypeProvider extends AbstractTypeProvider {
 			if (content == null) {
 				return null;
 			}
-			Node node = content.getNode();
-			return node.getTags(gc.getUser(), getPagingInfo(env), gc.getRelease());
+			PagingParameters pagingInfo = getPagingInfo(env);
+			DataLoader<Node, List<Tag>> tagsLoader = gc.getDataLoader(TAGS_LOADER);
+			return tagsLoader.load(content.getNode()).thenApply(tags -> new DynamicStreamPageImpl<>(tags.stream(), pagingInfo));
 		}));
 
 		// TODO Fix name confusion and check what version of schema should be used to determine this type
@@ -433,7 +439,7 @@ public class NodeTypeProvider extends AbstractTypeProvider {
 			return null;
 		}
 		User user = content.getContainer().getEditor();
-		return gc.requiresPerm(user, READ_PERM);
+		return loadUser(gc, user);
 	}
 
 	/**
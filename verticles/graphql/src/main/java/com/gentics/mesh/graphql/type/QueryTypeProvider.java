@@ -25,6 +25,7 @@ import static com.gentics.mesh.graphql.type.UserTypeProvider.USER_PAGE_TYPE_NAME
 import static com.gentics.mesh.graphql.type.UserTypeProvider.USER_TYPE_NAME;
 import static graphql.Scalars.GraphQLBoolean;
 import static graphql.Scalars.GraphQLLong;
+import static graphql.Scalars.GraphQLString;
 import static graphql.schema.GraphQLFieldDefinition.newFieldDefinition;
 import static graphql.schema.GraphQLObjectType.newObject;
 
@@ -406,6 +407,13 @@ public class QueryTypeProvider extends AbstractTypeProvider {
 					return page.hasNextPage();
 				}));
 
+		type.field(newFieldDefinition().name("nextCursor").description(
+				"Return the cursor which can be used to load the next page via the after argument. The cursor is null if there is no next page.")
+				.type(GraphQLString).dataFetcher(env -> {
+					Page<?> page = env.getSource();
+					return page.getNextCursor();
+				}));
+
 		type.field(newFieldDefinition().name("hasPreviousPage").description("Check whether the current page has a previous page.")
 				.type(GraphQLBoolean).dataFetcher(env -> {
 					Page<?> page = env.getSource();
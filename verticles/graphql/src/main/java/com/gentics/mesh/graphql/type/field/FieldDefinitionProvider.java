@@ -1,7 +1,6 @@
 package com.gentics.mesh.graphql.type.field;
 
-import static com.gentics.mesh.core.data.relationship.GraphPermission.READ_PERM;
-import static com.gentics.mesh.core.data.relationship.GraphPermission.READ_PUBLISHED_PERM;
+import static com.gentics.mesh.graphql.dataloader.DataLoaders.CONTENT_LOADER;
 import static com.gentics.mesh.graphql.type.NodeTypeProvider.NODE_TYPE_NAME;
 import static com.gentics.mesh.graphql.type.field.MicronodeFieldTypeProvider.MICRONODE_TYPE_NAME;
 import static graphql.Scalars.GraphQLBigDecimal;
@@ -21,6 +20,8 @@ import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.dataloader.DataLoader;
+
 import com.gentics.mesh.Mesh;
 import com.gentics.mesh.core.data.GraphFieldContainer;
 import com.gentics.mesh.core.data.NodeGraphFieldContainer;
@@ -51,6 +52,7 @@ import com.gentics.mesh.graphql.context.GraphQLContext;
 import com.gentics.mesh.graphql.type.AbstractTypeProvider;
 import com.gentics.mesh.parameter.LinkType;
 import com.gentics.mesh.util.DateUtils;
+import com.gentics.mesh.util.Tuple;
 
 import graphql.schema.GraphQLFieldDefinition;
 import graphql.schema.GraphQLList;
@@ -294,21 +296,22 @@ public class FieldDefinitionProvider extends AbstractTypeProvider {
 				if (nodeList == null) {
 					return null;
 				}
-				return nodeList.getList().stream().map(item -> {
-					Node node = item.getNode();
-					List<String> languageTags = Collections.emptyList();
-					if (container instanceof NodeGraphFieldContainer) {
-						languageTags = Arrays.asList(container.getLanguage().getLanguageTag());
-					} else {
-						// Other containers (e.g. micronodes do not have a language thus we can't use that language to define the loaded language variant. We
-						// thus fallback to the default mesh language.
-						String defaultLanguage = Mesh.mesh().getOptions().getDefaultLanguage();
-						languageTags = Arrays.asList(defaultLanguage);
-					}
-					// TODO we need to add more assertions and check what happens if the itemContainer is null
-					NodeGraphFieldContainer itemContainer = node.findVersion(gc, languageTags);
-					return new NodeContent(node, itemContainer);
+				List<String> languageTags = Collections.emptyList();
+				if (container instanceof NodeGraphFieldContainer) {
+					languageTags = Arrays.asList(container.getLanguage().getLanguageTag());
+				} else {
+					// Other containers (e.g. micronodes do not have a language thus we can't use that language to define the loaded language variant. We
+					// thus fallback to the default mesh language.
+					String defaultLanguage = Mesh.mesh().getOptions().getDefaultLanguage();
+					languageTags = Arrays.asList(defaultLanguage);
+				}
+				List<String> itemLanguageTags = languageTags;
+				// TODO we need to add more assertions and check what happens if the itemContainer is null
+				List<Tuple<Node, List<String>>> keys = nodeList.getList().stream().map(item -> {
+					return Tuple.tuple(item.getNode(), itemLanguageTags);
 				}).collect(Collectors.toList());
+				DataLoader<Tuple<Node, List<String>>, NodeContent> contentLoader = gc.getDataLoader(CONTENT_LOADER);
+				return contentLoader.loadMany(keys);
 			case "micronode":
 				MicronodeGraphFieldList micronodeList = container.getMicronodeList(schema.getName());
 				if (micronodeList == null) {
@@ -380,10 +383,8 @@ public class FieldDefinitionProvider extends AbstractTypeProvider {
 						// TODO the language should be loaded using the parent node language. Note that we would need to check for micronodes which are not
 						// language specific!
 						List<String> languageTags = getLanguageArgument(env);
-						// Check permissions for the linked node
-						gc.requiresPerm(node, READ_PERM, READ_PUBLISHED_PERM);
-						NodeGraphFieldContainer container = node.findVersion(gc, languageTags);
-						return new NodeContent(node, container);
+						// Check permissions for the linked node. The linked nodes of sibling fields are loaded together.
+						return loadContent(gc, node, languageTags);
 					}
 				}
 				return null;